@@ -0,0 +1,16 @@
+package io.mubel.client;
+
+/**
+ * How a call picks a channel when the client is configured with more than one channel.
+ */
+public enum ChannelSelection {
+    /**
+     * Pick channels in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Pick the channel with the fewest in-flight calls. Useful when long-lived streams,
+     * such as subscriptions, are mixed with short unary calls.
+     */
+    LEAST_LOADED
+}
@@ -7,10 +7,108 @@ import io.mubel.api.grpc.v1.common.ProblemDetail;
 import io.mubel.client.exceptions.BadRequestException;
 import io.mubel.client.exceptions.ConnectionClosedException;
 import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.client.exceptions.RevisionConflictException;
 import io.mubel.client.exceptions.ServerException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Set;
 
 public class ExceptionHandler {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ExceptionHandler.class);
+
+    /**
+     * Status codes of failures that may succeed if the call is tried again.
+     * {@link Status.Code#ABORTED} is not one of them, the server uses it for revision conflicts.
+     */
+    private static final Set<Status.Code> TRANSIENT_CODES = Set.of(
+            Status.Code.UNAVAILABLE,
+            Status.Code.DEADLINE_EXCEEDED,
+            Status.Code.RESOURCE_EXHAUSTED
+    );
+
+    /**
+     * Status codes the server rejects an execute request with when the revisions of its events already exist.
+     */
+    private static final Set<Status.Code> CONFLICT_CODES = Set.of(
+            Status.Code.ALREADY_EXISTS,
+            Status.Code.ABORTED
+    );
+
+    /**
+     * Status codes the server uses to reject a request it will never accept as it is.
+     */
+    private static final Set<Status.Code> REJECTION_CODES = Set.of(
+            Status.Code.ALREADY_EXISTS,
+            Status.Code.ABORTED,
+            Status.Code.INVALID_ARGUMENT
+    );
+
+    /**
+     * @return true if the failure is caused by a lost connection or an overloaded or restarting server,
+     * so the call may succeed if it is tried again. A revision conflict is never transient, resending the same
+     * request fails again.
+     */
+    public static boolean isTransient(Throwable err) {
+        for (var cause = err; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RevisionConflictException) {
+                return false;
+            }
+            if (cause instanceof ConnectionClosedException) {
+                return true;
+            }
+            if (cause instanceof io.grpc.StatusRuntimeException sre && TRANSIENT_CODES.contains(sre.getStatus().getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the failure is a {@link RevisionConflictException} or a status the server rejects conflicting revisions with.
+     */
+    public static boolean isRevisionConflict(Throwable err) {
+        return toRevisionConflict(err) != null;
+    }
+
+    /**
+     * @return true if the server has rejected the request, i.e. it was received and not applied,
+     * because of a revision conflict or an invalid argument. For any other failure the outcome of the request is unknown.
+     */
+    public static boolean isDefinitiveRejection(Throwable err) {
+        for (var cause = err; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RevisionConflictException || cause instanceof BadRequestException) {
+                return true;
+            }
+            if (cause instanceof io.grpc.StatusRuntimeException sre && REJECTION_CODES.contains(sre.getStatus().getCode())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the failure of an execute request, revision conflicts are mapped to {@link RevisionConflictException}.
+     *
+     * @return the conflict, or null if the failure is not a revision conflict.
+     */
+    static RevisionConflictException toRevisionConflict(Throwable err) {
+        if (err == null) {
+            return null;
+        }
+        for (var cause = err; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RevisionConflictException rce) {
+                return rce;
+            }
+        }
+        if (Throwables.getRootCause(err) instanceof io.grpc.StatusRuntimeException sre
+                && CONFLICT_CODES.contains(sre.getStatus().getCode())) {
+            return new RevisionConflictException(sre.getStatus().getDescription(), sre);
+        }
+        return null;
+    }
+
     public static RuntimeException handleFailure(Throwable err) {
         if (err instanceof MubelClientException mce) {
             return mce;
@@ -21,13 +119,12 @@ public class ExceptionHandler {
         var cause = Throwables.getRootCause(err);
         if (cause instanceof io.grpc.StatusRuntimeException sre) {
             var status = sre.getStatus();
-            System.err.println(status.getCode() + " " + status.getDescription());
             var metadata = Status.trailersFromThrowable(sre);
-            ProblemDetail pd;
+            ProblemDetail pd = null;
             if (metadata != null) {
                 pd = metadata.get(ProtoUtils.keyForProto(ProblemDetail.getDefaultInstance()));
-                System.err.println(pd);
             }
+            LOG.debug("call failed with status {} {}: {}", status.getCode(), status.getDescription(), pd);
             if (status == Status.CANCELLED) {
                 return new ConnectionClosedException(status.getDescription());
             }
@@ -38,7 +135,7 @@ public class ExceptionHandler {
                 return new ServerException(status.getDescription());
             }
         } else {
-            err.printStackTrace(System.err);
+            LOG.debug("call failed", err);
         }
         return new MubelClientException(cause);
     }
@@ -0,0 +1,29 @@
+package io.mubel.client;
+
+/**
+ * How a channel spreads calls over the servers its address resolves to.
+ */
+public enum LoadBalancingPolicy {
+    /**
+     * Connect to the first reachable server and use it until the connection fails.
+     */
+    PICK_FIRST("pick_first"),
+    /**
+     * Connect to all servers and spread calls over the ready connections in turn.
+     * Required for health checking.
+     */
+    ROUND_ROBIN("round_robin");
+
+    private final String policyName;
+
+    LoadBalancingPolicy(String policyName) {
+        this.policyName = policyName;
+    }
+
+    /**
+     * @return the gRPC name of the policy.
+     */
+    public String policyName() {
+        return policyName;
+    }
+}
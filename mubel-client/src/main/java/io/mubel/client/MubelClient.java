@@ -1,115 +1,226 @@
 package io.mubel.client;
 
 import com.google.common.base.Throwables;
-import io.grpc.ManagedChannelBuilder;
+import io.grpc.Channel;
+import io.grpc.ClientInterceptors;
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverProvider;
 import io.grpc.Status;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import io.grpc.netty.shaded.io.netty.channel.EventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.Epoll;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.epoll.EpollSocketChannel;
+import io.grpc.netty.shaded.io.netty.channel.nio.NioEventLoopGroup;
+import io.grpc.netty.shaded.io.netty.channel.socket.nio.NioSocketChannel;
 import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.StreamObserver;
 import io.mubel.api.grpc.v1.common.ProblemDetail;
 import io.mubel.api.grpc.v1.events.*;
 import io.mubel.api.grpc.v1.groups.*;
 import io.mubel.api.grpc.v1.server.*;
 import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.client.internal.ChannelPool;
+import io.mubel.client.internal.CompressionInterceptor;
+import io.mubel.client.internal.ExecuteBatcher;
+import io.mubel.client.internal.JobTracker;
+import io.mubel.client.internal.MetricsInterceptor;
+import io.mubel.client.internal.NameResolverRegistrations;
+import io.mubel.client.internal.StaticEndpointsNameResolverProvider;
 import io.mubel.client.internal.StreamObserverFluxAdapter;
+import io.mubel.client.internal.StreamObserverFuture;
+import io.mubel.client.metrics.ClientMetricsRecorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 
+import java.time.Duration;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
-public class MubelClient {
+public class MubelClient implements AutoCloseable {
 
+    private static final Logger LOG = LoggerFactory.getLogger(MubelClient.class);
+
+    private final EventLoopGroup eventLoopGroup;
+    private final ChannelPool channelPool;
     private final MubelEventsServiceGrpc.MubelEventsServiceBlockingStub blockingEventsServiceStub;
     private final MubelEventsServiceGrpc.MubelEventsServiceStub asyncEventsServiceStub;
     private final MubelServerGrpc.MubelServerBlockingStub blockingServerStub;
+    private final MubelServerGrpc.MubelServerStub asyncServerStub;
     private final GroupsServiceGrpc.GroupsServiceStub asyncGroupsServiceStub;
     private final GroupsServiceGrpc.GroupsServiceBlockingStub blockingGroupsServiceStub;
-
-    private final ExecutorService executor = Executors.newSingleThreadExecutor(r -> {
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
         Thread thread = new Thread(r);
         thread.setName("mubel-client-background-task" + thread.threadId());
+        thread.setDaemon(true);
         return thread;
     });
+    private final ExecuteBatcher executeBatcher;
+    private final JobTracker jobTracker;
+    private final NameResolverProvider nameResolverProvider;
 
     public MubelClient(MubelClientConfig config) {
-        var channel = ManagedChannelBuilder
-                .forTarget(config.address())
-                .executor(config.executor())
-                .enableRetry()
-                .keepAliveTime(5, TimeUnit.SECONDS)
-                .keepAliveTimeout(1, TimeUnit.SECONDS)
-                .usePlaintext()
-                .build();
+        StaticEndpointsNameResolverProvider.register();
+        nameResolverProvider = config.nameResolverProvider();
+        if (nameResolverProvider != null) {
+            NameResolverRegistrations.acquire(nameResolverProvider);
+        }
+        eventLoopGroup = config.channelFactory() == null ? createEventLoopGroup(config.transport()) : null;
+        channelPool = new ChannelPool(
+                config.channelPoolSize(),
+                config.channelSelection(),
+                () -> createChannel(config, eventLoopGroup)
+        );
+        final Channel channel = config.metricsRecorder() == ClientMetricsRecorder.NOOP
+                ? channelPool
+                : ClientInterceptors.intercept(channelPool, new MetricsInterceptor(config.metricsRecorder()));
         blockingEventsServiceStub = MubelEventsServiceGrpc.newBlockingStub(channel);
         asyncEventsServiceStub = MubelEventsServiceGrpc.newStub(channel);
         blockingServerStub = MubelServerGrpc.newBlockingStub(channel);
+        asyncServerStub = MubelServerGrpc.newStub(channel);
         asyncGroupsServiceStub = GroupsServiceGrpc.newStub(channel);
         blockingGroupsServiceStub = GroupsServiceGrpc.newBlockingStub(channel);
+        if (config.groupCommitEnabled()) {
+            executeBatcher = new ExecuteBatcher(
+                    this::sendExecute,
+                    scheduler,
+                    config.groupCommitWindow(),
+                    config.groupCommitMaxOperations()
+            );
+        } else {
+            executeBatcher = null;
+        }
+        jobTracker = new JobTracker(
+                this::jobStatusAsync,
+                scheduler,
+                Duration.ofMillis(50),
+                Duration.ofSeconds(2)
+        );
+    }
+
+    private static boolean useEpoll(TransportConfig transport) {
+        return transport.nativeTransport() && Epoll.isAvailable();
     }
 
     /**
-     * Provisions a new event store. The call will fail if the event store already exists.
+     * @return a group shared by the channels of this client, or null to use the default group shared by all gRPC channels.
      */
-    public CompletableFuture<EventStoreDetails> provision(ProvisionEventStoreRequest request) {
-        try {
-            var jobStatus = blockingServerStub.provision(request);
-            if (jobStatus.getState() == JobState.FAILED) {
-                return CompletableFuture.failedFuture(ExceptionHandler.mapProblem(jobStatus.getProblem()));
-            } else if (jobStatus.getState() == JobState.COMPLETED) {
-                var details = getEventStoreDetails(request.getEsid());
-                return CompletableFuture.completedFuture(details);
-            } else {
-                return awaitJobCompletion(jobStatus.getJobId())
-                        .thenApply(ignored -> getEventStoreDetails(request.getEsid()));
+    private static EventLoopGroup createEventLoopGroup(TransportConfig transport) {
+        // the default group uses epoll when available, so a group is only needed to opt out of it
+        if (transport.eventLoopThreads() == 0 && (transport.nativeTransport() || !Epoll.isAvailable())) {
+            return null;
+        }
+        return useEpoll(transport)
+                ? new EpollEventLoopGroup(transport.eventLoopThreads())
+                : new NioEventLoopGroup(transport.eventLoopThreads());
+    }
 
-            }
-        } catch (Throwable err) {
-            throw handleFailure(err);
+    private static ManagedChannel createChannel(MubelClientConfig config, EventLoopGroup eventLoopGroup) {
+        if (config.channelFactory() != null) {
+            return config.channelFactory().get();
+        }
+        final var transport = config.transport();
+        final var builder = NettyChannelBuilder
+                .forTarget(config.address())
+                .executor(config.executor())
+                .enableRetry()
+                .keepAliveTime(transport.keepAliveTime().toNanos(), TimeUnit.NANOSECONDS)
+                .keepAliveTimeout(transport.keepAliveTimeout().toNanos(), TimeUnit.NANOSECONDS)
+                .maxInboundMessageSize(transport.maxInboundMessageSize())
+                .initialFlowControlWindow(transport.flowControlWindow())
+                .defaultLoadBalancingPolicy(config.loadBalancingPolicy().policyName())
+                .usePlaintext();
+        if (config.healthCheck()) {
+            // an empty service name checks the overall health of the server
+            builder.defaultServiceConfig(Map.of("healthCheckConfig", Map.of("serviceName", "")));
+        }
+        if (eventLoopGroup != null) {
+            builder.eventLoopGroup(eventLoopGroup)
+                    .channelType(eventLoopGroup instanceof EpollEventLoopGroup
+                            ? EpollSocketChannel.class
+                            : NioSocketChannel.class);
+        }
+        if (transport.compression()) {
+            builder.intercept(new CompressionInterceptor(transport.compressionMinMessageSize()));
         }
+        return builder.build();
     }
 
-    private EventStoreDetails getEventStoreDetails(String esid) {
-        var serverInfo = blockingServerStub.serverInfo(GetServiceInfoRequest.newBuilder().build());
-        return serverInfo.getEventStoreList()
-                .stream()
-                .filter(es -> es.getEsid().equals(esid))
-                .findFirst()
-                .orElseThrow(() -> new MubelClientException("event store %s not found".formatted(esid)));
+    /**
+     * Provisions a new event store. The call will fail if the event store already exists.
+     */
+    public CompletableFuture<EventStoreDetails> provision(ProvisionEventStoreRequest request) {
+        return provision(request, ignored -> {
+        });
     }
 
-    private CompletableFuture<Void> awaitJobCompletion(String jobId) {
-        return CompletableFuture.supplyAsync(() -> {
-            try {
-                JobStatus jobStatus = null;
-                var state = JobState.RUNNING;
-                while (state == JobState.RUNNING) {
-                    Thread.sleep(1000);
-                    jobStatus = blockingServerStub.jobStatus(GetJobStatusRequest.newBuilder()
-                            .setJobId(jobId)
-                            .build());
-                    state = jobStatus.getState();
-                }
-                if (state == JobState.FAILED) {
-                    throw ExceptionHandler.mapProblem(jobStatus.getProblem());
-                }
-            } catch (Throwable err) {
-                throw handleFailure(err);
-            }
-            return null;
-        }, executor);
+    /**
+     * Provisions a new event store. The call will fail if the event store already exists.
+     *
+     * @param progressListener is called with the status of the provisioning job until it is done.
+     */
+    public CompletableFuture<EventStoreDetails> provision(
+            ProvisionEventStoreRequest request,
+            Consumer<JobStatus> progressListener
+    ) {
+        return unaryCall(asyncServerStub::provision, request)
+                .thenCompose(jobStatus -> jobTracker.track(jobStatus, progressListener))
+                .thenCompose(ignored -> getEventStoreDetails(request.getEsid()));
+    }
+
+    private CompletableFuture<EventStoreDetails> getEventStoreDetails(String esid) {
+        return unaryCall(asyncServerStub::serverInfo, GetServiceInfoRequest.newBuilder().build())
+                .thenApply(serverInfo -> serverInfo.getEventStoreList()
+                        .stream()
+                        .filter(es -> es.getEsid().equals(esid))
+                        .findFirst()
+                        .orElseThrow(() -> new MubelClientException("event store %s not found".formatted(esid))));
     }
 
     /**
      * Execute operations on the event store.
+     * When group commit is enabled the request may be sent together with requests from other callers.
      */
     public void execute(ExecuteRequest request) {
+        if (executeBatcher != null) {
+            try {
+                executeBatcher.submit(request).join();
+            } catch (CompletionException err) {
+                throw err.getCause() instanceof RuntimeException re ? re : handleExecuteFailure(err);
+            }
+            return;
+        }
         try {
             var ignored = blockingEventsServiceStub.execute(request);
         } catch (Throwable err) {
-            throw handleFailure(err);
+            throw handleExecuteFailure(err);
         }
     }
 
+    /**
+     * Execute operations on the event store without blocking the calling thread.
+     * The returned future completes when the server has acknowledged the request.
+     */
+    public CompletableFuture<Void> executeAsync(ExecuteRequest request) {
+        if (executeBatcher != null) {
+            return executeBatcher.submit(request);
+        }
+        return sendExecute(request);
+    }
+
+    private CompletableFuture<Void> sendExecute(ExecuteRequest request) {
+        return unaryCall(asyncEventsServiceStub::execute, request)
+                .<Void>thenApply(ignored -> null)
+                .exceptionallyCompose(err -> CompletableFuture.failedFuture(handleExecuteFailure(err)));
+    }
+
     public GetEventsResponse getEvents(GetEventsRequest request) {
         try {
             return blockingEventsServiceStub.getEvents(request);
@@ -118,16 +229,20 @@ public class MubelClient {
         }
     }
 
+    public CompletableFuture<GetEventsResponse> getEventsAsync(GetEventsRequest request) {
+        return unaryCall(asyncEventsServiceStub::getEvents, request);
+    }
+
+    /**
+     * Streams events matching the request. The call is started when the returned flux is subscribed to
+     * and events are requested from the server as they are consumed.
+     */
     public Flux<EventData> getEventStream(GetEventsRequest request) {
-        final StreamObserverFluxAdapter<EventData> adapter = new StreamObserverFluxAdapter<>();
-        asyncEventsServiceStub.getEventStream(request, adapter);
-        return adapter.toFlux();
+        return serverStream(asyncEventsServiceStub::getEventStream, request);
     }
 
     public Flux<EventData> subscribe(SubscribeRequest request) {
-        final StreamObserverFluxAdapter<EventData> adapter = new StreamObserverFluxAdapter<>();
-        asyncEventsServiceStub.subscribe(request, adapter);
-        return adapter.toFlux();
+        return serverStream(asyncEventsServiceStub::subscribe, request);
     }
 
     public ServiceInfoResponse getServerInfo() {
@@ -147,33 +262,28 @@ public class MubelClient {
     }
 
     public CompletableFuture<Void> drop(DropEventStoreRequest request) {
-        try {
-            var jobStatus = blockingServerStub.drop(request);
-            if (jobStatus.getState() == JobState.FAILED) {
-                return CompletableFuture.failedFuture(ExceptionHandler.mapProblem(jobStatus.getProblem()));
-            } else if (jobStatus.getState() == JobState.COMPLETED) {
-                return CompletableFuture.completedFuture(null);
-            } else {
-                return awaitJobCompletion(jobStatus.getJobId());
-            }
-        } catch (Throwable err) {
-            throw handleFailure(err);
-        }
+        return drop(request, ignored -> {
+        });
+    }
+
+    /**
+     * @param progressListener is called with the status of the drop job until it is done.
+     */
+    public CompletableFuture<Void> drop(DropEventStoreRequest request, Consumer<JobStatus> progressListener) {
+        return unaryCall(asyncServerStub::drop, request)
+                .thenCompose(jobStatus -> jobTracker.track(jobStatus, progressListener))
+                .thenApply(ignored -> null);
     }
 
     /**
      * Subscribe to scheduled events. The subscriber will receive events when they are published.
      */
     public Flux<Deadline> subscribeToDeadlines(DeadlineSubscribeRequest request) {
-        var adapter = new StreamObserverFluxAdapter<Deadline>();
-        asyncEventsServiceStub.subcribeToDeadlines(request, adapter);
-        return adapter.toFlux();
+        return serverStream(asyncEventsServiceStub::subcribeToDeadlines, request);
     }
 
     public Flux<GroupStatus> joinConsumerGroup(JoinGroupRequest request) {
-        var adapter = new StreamObserverFluxAdapter<GroupStatus>();
-        asyncGroupsServiceStub.join(request, adapter);
-        return adapter.toFlux();
+        return serverStream(asyncGroupsServiceStub::join, request);
     }
 
     public void leaveConsumerGroup(LeaveGroupRequest request) {
@@ -184,6 +294,11 @@ public class MubelClient {
         }
     }
 
+    public CompletableFuture<Void> leaveConsumerGroupAsync(LeaveGroupRequest request) {
+        return unaryCall(asyncGroupsServiceStub::leaveConsumerGroup, request)
+                .thenApply(ignored -> null);
+    }
+
     public void heartbeat(Heartbeat heartbeat) {
         try {
             var ignored = blockingGroupsServiceStub.heartbeat(heartbeat);
@@ -192,20 +307,92 @@ public class MubelClient {
         }
     }
 
-    public JobStatus copyEvents(CopyEventsRequest request) {
+    public CompletableFuture<Void> heartbeatAsync(Heartbeat heartbeat) {
+        return unaryCall(asyncGroupsServiceStub::heartbeat, heartbeat)
+                .thenApply(ignored -> null);
+    }
+
+    /**
+     * Copies events between event stores.
+     *
+     * @return a future that completes with the final status of the copy job.
+     */
+    public CompletableFuture<JobStatus> copyEvents(CopyEventsRequest request) {
+        return copyEvents(request, ignored -> {
+        });
+    }
+
+    /**
+     * @param progressListener is called with the status of the copy job until it is done.
+     */
+    public CompletableFuture<JobStatus> copyEvents(CopyEventsRequest request, Consumer<JobStatus> progressListener) {
+        return unaryCall(asyncServerStub::copyEvents, request)
+                .thenCompose(jobStatus -> jobTracker.track(jobStatus, progressListener));
+    }
+
+    public JobStatus jobStatus(GetJobStatusRequest request) {
         try {
-            return blockingServerStub.copyEvents(request);
+            return blockingServerStub.jobStatus(request);
         } catch (Throwable err) {
             throw handleFailure(err);
         }
     }
 
-    public JobStatus jobStatus(GetJobStatusRequest request) {
+    public CompletableFuture<JobStatus> jobStatusAsync(GetJobStatusRequest request) {
+        return unaryCall(asyncServerStub::jobStatus, request);
+    }
+
+    /**
+     * Shuts down the channels and waits for in-flight calls to finish.
+     */
+    @Override
+    public void close() {
+        channelPool.shutdown();
+        scheduler.shutdown();
         try {
-            return blockingServerStub.jobStatus(request);
+            channelPool.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+        }
+        if (nameResolverProvider != null) {
+            NameResolverRegistrations.release(nameResolverProvider);
+        }
+    }
+
+    private static <ReqT, RespT> Flux<RespT> serverStream(
+            BiConsumer<ReqT, StreamObserver<RespT>> call,
+            ReqT request
+    ) {
+        return Flux.defer(() -> {
+            final var adapter = new StreamObserverFluxAdapter<ReqT, RespT>();
+            call.accept(request, adapter);
+            return adapter.toFlux();
+        });
+    }
+
+    private <ReqT, RespT> CompletableFuture<RespT> unaryCall(
+            BiConsumer<ReqT, StreamObserver<RespT>> call,
+            ReqT request
+    ) {
+        final var future = new CompletableFuture<RespT>();
+        try {
+            call.accept(request, new StreamObserverFuture<>(future));
         } catch (Throwable err) {
-            throw handleFailure(err);
+            future.completeExceptionally(err);
         }
+        return future.exceptionallyCompose(err -> CompletableFuture.failedFuture(handleFailure(err)));
+    }
+
+    /**
+     * Same as {@link #handleFailure(Throwable)} but a rejected revision is reported as a
+     * {@link io.mubel.client.exceptions.RevisionConflictException}.
+     */
+    private RuntimeException handleExecuteFailure(Throwable err) {
+        final var conflict = ExceptionHandler.toRevisionConflict(err);
+        return conflict != null ? conflict : handleFailure(err);
     }
 
     private RuntimeException handleFailure(Throwable err) {
@@ -218,7 +405,7 @@ public class MubelClient {
                 final var metadata = Status.trailersFromThrowable(sre);
                 if (metadata != null) {
                     var pd = metadata.get(ProtoUtils.keyForProto(ProblemDetail.getDefaultInstance()));
-                    System.err.println(pd);
+                    LOG.debug("call failed with status {}: {}", sre.getStatus().getCode(), pd);
                 }
                 return sre;
             }
@@ -1,15 +1,57 @@
 package io.mubel.client;
 
+import io.grpc.ManagedChannel;
+import io.grpc.NameResolverProvider;
 import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.client.internal.StaticEndpointsNameResolverProvider;
+import io.mubel.client.metrics.ClientMetricsRecorder;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
+import static java.util.Objects.requireNonNullElse;
+import static java.util.Objects.requireNonNullElseGet;
 
+/**
+ * @param address          The address of the Mubel server, or a gRPC target such as {@code dns:///mubel:9090}
+ *                         that resolves to several servers.
+ * @param executor         Executor used by the gRPC channels. Optional.
+ * @param channelPoolSize  Number of channels, each with its own connection, that calls are spread over. Default 1.
+ * @param channelSelection How a channel is selected for a call when the pool has more than one channel.
+ * @param groupCommitWindow        How long execute requests are collected before they are sent as one request.
+ *                                 Group commit is disabled when the window is zero, which is the default.
+ * @param groupCommitMaxOperations Max number of operations in a group commit, a full group is sent without waiting for the window.
+ * @param transport                Transport settings for the channels, see {@link TransportConfig}.
+ * @param metricsRecorder          Receives call metrics. Default {@link ClientMetricsRecorder#NOOP}.
+ * @param channelFactory           Creates the channels instead of the Netty transport, e.g. in-process channels for tests.
+ *                                 The transport settings are not used when set. Optional.
+ * @param loadBalancingPolicy      How calls are spread over the servers the address resolves to. Default {@link LoadBalancingPolicy#PICK_FIRST}.
+ * @param healthCheck              Use the gRPC health service of the servers to only send calls to healthy servers.
+ *                                 Requires {@link LoadBalancingPolicy#ROUND_ROBIN}. Default false.
+ * @param nameResolverProvider     Resolves addresses with the scheme of the provider. Optional.
+ */
 public record MubelClientConfig(
         String address,
-        Executor executor
+        Executor executor,
+        int channelPoolSize,
+        ChannelSelection channelSelection,
+        Duration groupCommitWindow,
+        int groupCommitMaxOperations,
+        TransportConfig transport,
+        ClientMetricsRecorder metricsRecorder,
+        Supplier<ManagedChannel> channelFactory,
+        LoadBalancingPolicy loadBalancingPolicy,
+        boolean healthCheck,
+        NameResolverProvider nameResolverProvider
 ) {
+
+    public boolean groupCommitEnabled() {
+        return !groupCommitWindow.isZero();
+    }
+
     public static Builder newBuilder() {
         return new Builder();
     }
@@ -17,6 +59,16 @@ public record MubelClientConfig(
     public static class Builder {
         private String address;
         private Executor executor;
+        private int channelPoolSize = 1;
+        private ChannelSelection channelSelection;
+        private Duration groupCommitWindow = Duration.ZERO;
+        private int groupCommitMaxOperations = 500;
+        private TransportConfig transport;
+        private ClientMetricsRecorder metricsRecorder;
+        private Supplier<ManagedChannel> channelFactory;
+        private LoadBalancingPolicy loadBalancingPolicy;
+        private boolean healthCheck = false;
+        private NameResolverProvider nameResolverProvider;
 
         public Builder address(String address) {
             this.address = address;
@@ -28,13 +80,115 @@ public record MubelClientConfig(
             return this;
         }
 
+        /**
+         * Spread calls over several channels, each with its own HTTP/2 connection.
+         * A single connection is limited by the server's max concurrent streams setting and a single event loop,
+         * a pool size around the number of available cores lets throughput scale under heavy load.
+         */
+        public Builder channelPoolSize(int channelPoolSize) {
+            this.channelPoolSize = channelPoolSize;
+            return this;
+        }
+
+        public Builder channelSelection(ChannelSelection channelSelection) {
+            this.channelSelection = channelSelection;
+            return this;
+        }
+
+        /**
+         * Collect execute requests from concurrent callers for the given window and send them as a single request.
+         * Fewer, larger requests increase throughput at high concurrency at the cost of added latency,
+         * a window of a millisecond or two is usually enough.
+         */
+        public Builder groupCommitWindow(Duration groupCommitWindow) {
+            this.groupCommitWindow = groupCommitWindow;
+            return this;
+        }
+
+        public Builder groupCommitMaxOperations(int groupCommitMaxOperations) {
+            this.groupCommitMaxOperations = groupCommitMaxOperations;
+            return this;
+        }
+
+        public Builder transport(TransportConfig transport) {
+            this.transport = transport;
+            return this;
+        }
+
+        /**
+         * Record latency, in-flight calls, message sizes and status codes of all calls,
+         * e.g. with {@link io.mubel.client.metrics.SimpleClientMetrics} or {@link io.mubel.client.metrics.MicrometerClientMetrics}.
+         */
+        public Builder metricsRecorder(ClientMetricsRecorder metricsRecorder) {
+            this.metricsRecorder = metricsRecorder;
+            return this;
+        }
+
+        public Builder channelFactory(Supplier<ManagedChannel> channelFactory) {
+            this.channelFactory = channelFactory;
+            return this;
+        }
+
+        /**
+         * Connect to several Mubel servers, each endpoint in the form host:port. Replaces the address.
+         */
+        public Builder endpoints(List<String> endpoints) {
+            this.address = StaticEndpointsNameResolverProvider.target(requireNonNull(endpoints));
+            return this;
+        }
+
+        public Builder endpoints(String... endpoints) {
+            return endpoints(List.of(endpoints));
+        }
+
+        public Builder loadBalancingPolicy(LoadBalancingPolicy loadBalancingPolicy) {
+            this.loadBalancingPolicy = loadBalancingPolicy;
+            return this;
+        }
+
+        public Builder healthCheck(boolean healthCheck) {
+            this.healthCheck = healthCheck;
+            return this;
+        }
+
+        /**
+         * A custom name resolver, the address must use the scheme of the provider.
+         */
+        public Builder nameResolverProvider(NameResolverProvider nameResolverProvider) {
+            this.nameResolverProvider = nameResolverProvider;
+            return this;
+        }
+
         public MubelClientConfig build() {
             if (requireNonNull(address).isBlank()) {
                 throw new MubelClientException("Address cannot be empty");
             }
+            if (channelPoolSize < 1) {
+                throw new MubelClientException("channelPoolSize must be > 0. was: %d".formatted(channelPoolSize));
+            }
+            if (requireNonNull(groupCommitWindow).isNegative()) {
+                throw new MubelClientException("groupCommitWindow may not be negative. was: %s".formatted(groupCommitWindow));
+            }
+            if (groupCommitMaxOperations < 1) {
+                throw new MubelClientException("groupCommitMaxOperations must be > 0. was: %d".formatted(groupCommitMaxOperations));
+            }
+            loadBalancingPolicy = requireNonNullElse(loadBalancingPolicy, LoadBalancingPolicy.PICK_FIRST);
+            if (healthCheck && loadBalancingPolicy != LoadBalancingPolicy.ROUND_ROBIN) {
+                throw new MubelClientException("healthCheck requires the ROUND_ROBIN load balancing policy. was: %s".formatted(loadBalancingPolicy));
+            }
             return new MubelClientConfig(
                     address,
-                    executor
+                    executor,
+                    channelPoolSize,
+                    requireNonNullElse(channelSelection, ChannelSelection.ROUND_ROBIN),
+                    groupCommitWindow,
+                    groupCommitMaxOperations,
+                    requireNonNullElseGet(transport, TransportConfig::defaults),
+                    requireNonNullElse(metricsRecorder, ClientMetricsRecorder.NOOP),
+                    channelFactory,
+                    loadBalancingPolicy,
+                    healthCheck,
+                    nameResolverProvider
             );
         }
     }
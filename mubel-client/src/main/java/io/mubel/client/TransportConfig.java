@@ -0,0 +1,129 @@
+package io.mubel.client;
+
+import io.mubel.client.exceptions.MubelClientException;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Transport settings for the gRPC channels used by {@link MubelClient}.
+ *
+ * @param compression              Compress request messages with gzip. Default false.
+ * @param compressionMinMessageSize Messages smaller than this, in bytes, are sent uncompressed. Default 1024.
+ * @param maxInboundMessageSize    Max size in bytes of a message received from the server. Default 4 MiB.
+ * @param flowControlWindow        Initial HTTP/2 flow control window in bytes. The window is still adjusted to the measured bandwidth-delay product. Default 1 MiB.
+ * @param keepAliveTime            Time without read activity before a keepalive ping is sent. Default 5 seconds.
+ * @param keepAliveTimeout         Time to wait for a keepalive ping ack before the connection is closed. Default 1 second.
+ * @param nativeTransport          Use the native epoll transport when available. Default true.
+ * @param eventLoopThreads         Number of event loop threads shared by the client's channels.
+ *                                 0 uses the event loop group shared by all gRPC channels in the JVM. Default 0.
+ */
+public record TransportConfig(
+        boolean compression,
+        int compressionMinMessageSize,
+        int maxInboundMessageSize,
+        int flowControlWindow,
+        Duration keepAliveTime,
+        Duration keepAliveTimeout,
+        boolean nativeTransport,
+        int eventLoopThreads
+) {
+
+    public static TransportConfig defaults() {
+        return newBuilder().build();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    public static class Builder {
+        private boolean compression = false;
+        private int compressionMinMessageSize = 1024;
+        private int maxInboundMessageSize = 4 * 1024 * 1024;
+        private int flowControlWindow = 1024 * 1024;
+        private Duration keepAliveTime = Duration.ofSeconds(5);
+        private Duration keepAliveTimeout = Duration.ofSeconds(1);
+        private boolean nativeTransport = true;
+        private int eventLoopThreads = 0;
+
+        /**
+         * Compress request messages with gzip. Event data, especially JSON, usually compresses well
+         * so this saves bandwidth at the cost of some CPU.
+         */
+        public Builder compression(boolean compression) {
+            this.compression = compression;
+            return this;
+        }
+
+        /**
+         * Messages smaller than this are sent uncompressed since compressing them costs more than it saves.
+         */
+        public Builder compressionMinMessageSize(int compressionMinMessageSize) {
+            this.compressionMinMessageSize = compressionMinMessageSize;
+            return this;
+        }
+
+        public Builder maxInboundMessageSize(int maxInboundMessageSize) {
+            this.maxInboundMessageSize = maxInboundMessageSize;
+            return this;
+        }
+
+        /**
+         * A larger window lets the server send more data before waiting for acknowledgement,
+         * which speeds up large reads on connections with high latency.
+         */
+        public Builder flowControlWindow(int flowControlWindow) {
+            this.flowControlWindow = flowControlWindow;
+            return this;
+        }
+
+        public Builder keepAliveTime(Duration keepAliveTime) {
+            this.keepAliveTime = keepAliveTime;
+            return this;
+        }
+
+        public Builder keepAliveTimeout(Duration keepAliveTimeout) {
+            this.keepAliveTimeout = keepAliveTimeout;
+            return this;
+        }
+
+        public Builder nativeTransport(boolean nativeTransport) {
+            this.nativeTransport = nativeTransport;
+            return this;
+        }
+
+        public Builder eventLoopThreads(int eventLoopThreads) {
+            this.eventLoopThreads = eventLoopThreads;
+            return this;
+        }
+
+        public TransportConfig build() {
+            requirePositive("maxInboundMessageSize", maxInboundMessageSize);
+            requirePositive("flowControlWindow", flowControlWindow);
+            if (compressionMinMessageSize < 0) {
+                throw new MubelClientException("compressionMinMessageSize may not be negative. was: %d".formatted(compressionMinMessageSize));
+            }
+            if (eventLoopThreads < 0) {
+                throw new MubelClientException("eventLoopThreads may not be negative. was: %d".formatted(eventLoopThreads));
+            }
+            return new TransportConfig(
+                    compression,
+                    compressionMinMessageSize,
+                    maxInboundMessageSize,
+                    flowControlWindow,
+                    requireNonNull(keepAliveTime),
+                    requireNonNull(keepAliveTimeout),
+                    nativeTransport,
+                    eventLoopThreads
+            );
+        }
+
+        private static void requirePositive(String name, int value) {
+            if (value < 1) {
+                throw new MubelClientException("%s must be > 0. was: %d".formatted(name, value));
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package io.mubel.client.exceptions;
+
+/**
+ * An execute request was rejected because a stream has been appended to since it was read,
+ * the events of the request would get revisions that already exist.
+ * Nothing in the request was applied, it may succeed if the streams are read again and the request rebuilt.
+ */
+public class RevisionConflictException extends MubelClientException {
+
+    public RevisionConflictException(String message) {
+        super(message);
+    }
+
+    public RevisionConflictException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
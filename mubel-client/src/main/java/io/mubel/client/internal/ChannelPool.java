@@ -0,0 +1,123 @@
+package io.mubel.client.internal;
+
+import io.grpc.*;
+import io.mubel.client.ChannelSelection;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Channel} that spreads calls over a fixed number of underlying {@link ManagedChannel}s.
+ * <p>
+ * Each underlying channel has its own HTTP/2 connection, so the pool is not limited by the
+ * max concurrent streams setting of a single connection, nor by a single event loop.
+ * The channel used for a call is selected when the call is created, either round-robin or
+ * by the least number of in-flight calls.
+ */
+public class ChannelPool extends Channel {
+
+    private final List<ManagedChannel> channels;
+    private final AtomicInteger[] inFlight;
+    private final ChannelSelection selection;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+
+    public ChannelPool(int size, ChannelSelection selection, Supplier<ManagedChannel> channelFactory) {
+        if (size < 1) {
+            throw new IllegalArgumentException("pool size must be > 0. was: %d".formatted(size));
+        }
+        this.selection = selection;
+        this.channels = new ArrayList<>(size);
+        this.inFlight = new AtomicInteger[size];
+        for (int i = 0; i < size; i++) {
+            channels.add(channelFactory.get());
+            inFlight[i] = new AtomicInteger();
+        }
+    }
+
+    public int size() {
+        return channels.size();
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+        if (channels.size() == 1) {
+            return channels.getFirst().newCall(methodDescriptor, callOptions);
+        }
+        final int index = selectIndex();
+        final var counter = inFlight[index];
+        return new CountingClientCall<>(channels.get(index).newCall(methodDescriptor, callOptions), counter);
+    }
+
+    private int selectIndex() {
+        return switch (selection) {
+            case ROUND_ROBIN -> Math.floorMod(nextIndex.getAndIncrement(), channels.size());
+            case LEAST_LOADED -> leastLoadedIndex();
+        };
+    }
+
+    private int leastLoadedIndex() {
+        // start at a rotating offset so ties are spread evenly
+        final int offset = Math.floorMod(nextIndex.getAndIncrement(), channels.size());
+        int best = offset;
+        int bestCount = inFlight[offset].get();
+        for (int i = 1; i < channels.size() && bestCount > 0; i++) {
+            final int candidate = (offset + i) % channels.size();
+            final int count = inFlight[candidate].get();
+            if (count < bestCount) {
+                best = candidate;
+                bestCount = count;
+            }
+        }
+        return best;
+    }
+
+    @Override
+    public String authority() {
+        return channels.getFirst().authority();
+    }
+
+    public void shutdown() {
+        channels.forEach(ManagedChannel::shutdown);
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        final long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (var channel : channels) {
+            final long remaining = deadline - System.nanoTime();
+            if (!channel.awaitTermination(Math.max(remaining, 0), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CountingClientCall<ReqT, RespT> extends ForwardingClientCall.SimpleForwardingClientCall<ReqT, RespT> {
+
+        private final AtomicInteger counter;
+
+        CountingClientCall(ClientCall<ReqT, RespT> delegate, AtomicInteger counter) {
+            super(delegate);
+            this.counter = counter;
+        }
+
+        @Override
+        public void start(Listener<RespT> responseListener, Metadata headers) {
+            counter.incrementAndGet();
+            try {
+                super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                    @Override
+                    public void onClose(Status status, Metadata trailers) {
+                        counter.decrementAndGet();
+                        super.onClose(status, trailers);
+                    }
+                }, headers);
+            } catch (RuntimeException e) {
+                counter.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package io.mubel.client.internal;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.*;
+
+/**
+ * Enables gzip compression for calls and compresses each request message only if it is at least the given size.
+ */
+public class CompressionInterceptor implements ClientInterceptor {
+
+    public static final String GZIP = "gzip";
+
+    private final int minMessageSize;
+
+    public CompressionInterceptor(int minMessageSize) {
+        this.minMessageSize = minMessageSize;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions.withCompression(GZIP))) {
+            @Override
+            public void sendMessage(ReqT message) {
+                setMessageCompression(shouldCompress(message));
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    boolean shouldCompress(Object message) {
+        return message instanceof MessageLite ml && ml.getSerializedSize() >= minMessageSize;
+    }
+}
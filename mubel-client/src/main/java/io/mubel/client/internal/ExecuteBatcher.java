@@ -0,0 +1,154 @@
+package io.mubel.client.internal;
+
+import io.mubel.api.grpc.v1.events.ExecuteRequest;
+import io.mubel.client.ExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Group commit for execute requests.
+ * <p>
+ * Requests for the same event store that are submitted within the configured window are merged into a single
+ * {@link ExecuteRequest}. A batch is sent when the window has elapsed or when it holds the max number of operations,
+ * whichever comes first.
+ * <p>
+ * An execute request is applied atomically by the server, so if a merged request fails none of its operations
+ * have been applied. If the server rejects a merged request, e.g. because of a revision conflict, the requests in it are
+ * sent one by one so that the rejection is only reported to the caller that caused it. Any other failure leaves the outcome
+ * unknown and is reported to all callers in the batch.
+ * Requests with a request id are never merged since the id identifies the request as a whole.
+ */
+public class ExecuteBatcher {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ExecuteBatcher.class);
+
+    private final Function<ExecuteRequest, CompletableFuture<Void>> sender;
+    private final ScheduledExecutorService scheduler;
+    private final long windowNanos;
+    private final int maxOperations;
+    private final Map<String, Batch> pending = new HashMap<>();
+
+    public ExecuteBatcher(
+            Function<ExecuteRequest, CompletableFuture<Void>> sender,
+            ScheduledExecutorService scheduler,
+            Duration window,
+            int maxOperations
+    ) {
+        this.sender = sender;
+        this.scheduler = scheduler;
+        this.windowNanos = window.toNanos();
+        this.maxOperations = maxOperations;
+    }
+
+    public CompletableFuture<Void> submit(ExecuteRequest request) {
+        if (request.hasRequestId() || request.getOperationCount() >= maxOperations) {
+            return apply(request);
+        }
+        final var entry = new Entry(request, new CompletableFuture<>());
+        final List<Batch> ready = new ArrayList<>(2);
+        synchronized (pending) {
+            var batch = pending.get(request.getEsid());
+            if (batch != null && batch.operationCount + request.getOperationCount() > maxOperations) {
+                pending.remove(request.getEsid());
+                ready.add(batch);
+                batch = null;
+            }
+            if (batch == null) {
+                batch = new Batch(request.getEsid());
+                pending.put(request.getEsid(), batch);
+                final var scheduled = batch;
+                scheduler.schedule(() -> flush(scheduled), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            batch.add(entry);
+            if (batch.operationCount >= maxOperations) {
+                pending.remove(request.getEsid());
+                ready.add(batch);
+            }
+        }
+        ready.forEach(this::send);
+        return entry.future;
+    }
+
+    private void flush(Batch batch) {
+        synchronized (pending) {
+            if (!pending.remove(batch.esid, batch)) {
+                // already sent because it was full
+                return;
+            }
+        }
+        send(batch);
+    }
+
+    private void send(Batch batch) {
+        if (batch.entries.size() == 1) {
+            sendSingle(batch.entries.getFirst());
+            return;
+        }
+        LOG.trace("sending batch of {} requests for {}", batch.entries.size(), batch.esid);
+        apply(batch.toRequest()).whenComplete((ignored, err) -> {
+            if (err == null) {
+                batch.entries.forEach(e -> e.future.complete(null));
+            } else if (ExceptionHandler.isDefinitiveRejection(err)) {
+                LOG.debug("batch for {} was rejected, retrying requests individually: {}", batch.esid, err.getMessage());
+                batch.entries.forEach(this::sendSingle);
+            } else {
+                LOG.debug("batch for {} failed: {}", batch.esid, err.getMessage());
+                batch.entries.forEach(e -> e.future.completeExceptionally(err));
+            }
+        });
+    }
+
+    private void sendSingle(Entry entry) {
+        apply(entry.request).whenComplete((ignored, err) -> {
+            if (err == null) {
+                entry.future.complete(null);
+            } else {
+                entry.future.completeExceptionally(err);
+            }
+        });
+    }
+
+    private CompletableFuture<Void> apply(ExecuteRequest request) {
+        try {
+            return sender.apply(request);
+        } catch (Throwable err) {
+            return CompletableFuture.failedFuture(err);
+        }
+    }
+
+    private record Entry(ExecuteRequest request, CompletableFuture<Void> future) {
+    }
+
+    private static class Batch {
+        private final String esid;
+        private final List<Entry> entries = new ArrayList<>();
+        private int operationCount = 0;
+
+        Batch(String esid) {
+            this.esid = esid;
+        }
+
+        void add(Entry entry) {
+            entries.add(entry);
+            operationCount += entry.request.getOperationCount();
+        }
+
+        ExecuteRequest toRequest() {
+            final var builder = ExecuteRequest.newBuilder().setEsid(esid);
+            for (var entry : entries) {
+                builder.addAllOperation(entry.request.getOperationList());
+            }
+            return builder.build();
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package io.mubel.client.internal;
+
+import io.mubel.api.grpc.v1.server.GetJobStatusRequest;
+import io.mubel.api.grpc.v1.server.JobState;
+import io.mubel.api.grpc.v1.server.JobStatus;
+import io.mubel.client.ExceptionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Tracks server side jobs until they complete.
+ * <p>
+ * All jobs are polled from one scheduler with non-blocking status calls, so any number of jobs can be tracked
+ * without tying up a thread per job. The poll interval starts short, since most jobs finish quickly, and is doubled
+ * up to a max interval while the job makes no progress.
+ */
+public class JobTracker {
+
+    private static final Logger LOG = LoggerFactory.getLogger(JobTracker.class);
+
+    private final Function<GetJobStatusRequest, CompletableFuture<JobStatus>> statusFetcher;
+    private final ScheduledExecutorService scheduler;
+    private final long minIntervalNanos;
+    private final long maxIntervalNanos;
+
+    public JobTracker(
+            Function<GetJobStatusRequest, CompletableFuture<JobStatus>> statusFetcher,
+            ScheduledExecutorService scheduler,
+            Duration minInterval,
+            Duration maxInterval
+    ) {
+        this.statusFetcher = statusFetcher;
+        this.scheduler = scheduler;
+        this.minIntervalNanos = minInterval.toNanos();
+        this.maxIntervalNanos = maxInterval.toNanos();
+    }
+
+    /**
+     * @param status           the status returned when the job was started.
+     * @param progressListener is called with every status polled until the job is done.
+     * @return a future that completes with the final status of the job,
+     * or exceptionally if the job failed or the status could not be fetched.
+     */
+    public CompletableFuture<JobStatus> track(JobStatus status, Consumer<JobStatus> progressListener) {
+        final var job = new TrackedJob(status.getJobId(), progressListener);
+        job.onStatus(status);
+        return job.future;
+    }
+
+    private class TrackedJob {
+        private final String jobId;
+        private final Consumer<JobStatus> progressListener;
+        private final CompletableFuture<JobStatus> future = new CompletableFuture<>();
+        private long intervalNanos = minIntervalNanos;
+        private int lastProgress = -1;
+
+        TrackedJob(String jobId, Consumer<JobStatus> progressListener) {
+            this.jobId = jobId;
+            this.progressListener = progressListener;
+        }
+
+        void onStatus(JobStatus status) {
+            notifyListener(status);
+            switch (status.getState()) {
+                case RUNNING -> scheduleNextPoll(status);
+                case FAILED -> future.completeExceptionally(ExceptionHandler.mapProblem(status.getProblem()));
+                default -> future.complete(status);
+            }
+        }
+
+        private void notifyListener(JobStatus status) {
+            try {
+                progressListener.accept(status);
+            } catch (RuntimeException e) {
+                LOG.warn("progress listener for job {} failed", jobId, e);
+            }
+        }
+
+        private void scheduleNextPoll(JobStatus status) {
+            if (status.getProgress() != lastProgress) {
+                lastProgress = status.getProgress();
+                intervalNanos = minIntervalNanos;
+            } else {
+                intervalNanos = Math.min(intervalNanos * 2, maxIntervalNanos);
+            }
+            LOG.trace("job {} at {}%, next poll in {} ms", jobId, status.getProgress(), TimeUnit.NANOSECONDS.toMillis(intervalNanos));
+            try {
+                scheduler.schedule(this::poll, intervalNanos, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void poll() {
+            final CompletableFuture<JobStatus> result;
+            try {
+                result = statusFetcher.apply(GetJobStatusRequest.newBuilder()
+                        .setJobId(jobId)
+                        .build());
+            } catch (Throwable err) {
+                future.completeExceptionally(err);
+                return;
+            }
+            result.whenComplete((status, err) -> {
+                if (err != null) {
+                    future.completeExceptionally(err);
+                } else {
+                    onStatus(status);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package io.mubel.client.internal;
+
+import com.google.protobuf.MessageLite;
+import io.grpc.*;
+import io.mubel.client.metrics.ClientMetricsRecorder;
+
+/**
+ * Reports call latency, status and message sizes to a {@link ClientMetricsRecorder}.
+ */
+public class MetricsInterceptor implements ClientInterceptor {
+
+    private final ClientMetricsRecorder recorder;
+
+    public MetricsInterceptor(ClientMetricsRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
+        final String name = method.getFullMethodName();
+        return new ForwardingClientCall.SimpleForwardingClientCall<>(next.newCall(method, callOptions)) {
+
+            @Override
+            public void start(Listener<RespT> responseListener, Metadata headers) {
+                final long start = System.nanoTime();
+                recorder.callStarted(name);
+                try {
+                    super.start(new ForwardingClientCallListener.SimpleForwardingClientCallListener<>(responseListener) {
+                        @Override
+                        public void onMessage(RespT message) {
+                            recorder.messageReceived(name, sizeOf(message));
+                            super.onMessage(message);
+                        }
+
+                        @Override
+                        public void onClose(Status status, Metadata trailers) {
+                            recorder.callClosed(name, status.getCode(), System.nanoTime() - start);
+                            super.onClose(status, trailers);
+                        }
+                    }, headers);
+                } catch (RuntimeException e) {
+                    recorder.callClosed(name, Status.Code.UNKNOWN, System.nanoTime() - start);
+                    throw e;
+                }
+            }
+
+            @Override
+            public void sendMessage(ReqT message) {
+                recorder.messageSent(name, sizeOf(message));
+                super.sendMessage(message);
+            }
+        };
+    }
+
+    private static int sizeOf(Object message) {
+        // the serialized size is memoized by the message, so this does not add any work on the send path
+        return message instanceof MessageLite ml ? ml.getSerializedSize() : 0;
+    }
+}
@@ -0,0 +1,40 @@
+package io.mubel.client.internal;
+
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the name resolver providers of the clients in the default registry.
+ * <p>
+ * The default registry is shared by all channels in the JVM, so a provider is registered when the first client
+ * that uses it is created and deregistered when the last of those clients is closed.
+ */
+public final class NameResolverRegistrations {
+
+    private static final Map<NameResolverProvider, Integer> USERS = new IdentityHashMap<>();
+
+    private NameResolverRegistrations() {
+    }
+
+    public static synchronized void acquire(NameResolverProvider provider) {
+        if (USERS.merge(provider, 1, Integer::sum) == 1) {
+            NameResolverRegistry.getDefaultRegistry().register(provider);
+        }
+    }
+
+    public static synchronized void release(NameResolverProvider provider) {
+        final var users = USERS.get(provider);
+        if (users == null) {
+            return;
+        }
+        if (users == 1) {
+            USERS.remove(provider);
+            NameResolverRegistry.getDefaultRegistry().deregister(provider);
+        } else {
+            USERS.put(provider, users - 1);
+        }
+    }
+}
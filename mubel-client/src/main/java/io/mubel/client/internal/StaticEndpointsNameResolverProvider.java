@@ -0,0 +1,161 @@
+package io.mubel.client.internal;
+
+import io.grpc.Attributes;
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import io.grpc.Status;
+import io.grpc.StatusOr;
+import io.mubel.client.exceptions.MubelClientException;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Resolves a fixed list of endpoints, written as {@code mubel-endpoints:///host1:9090,host2:9090}.
+ * <p>
+ * Host names are resolved again on every refresh, which the channel requests when a connection is lost,
+ * so a server that comes back on a new ip address is picked up.
+ */
+public class StaticEndpointsNameResolverProvider extends NameResolverProvider {
+
+    public static final String SCHEME = "mubel-endpoints";
+
+    private static final StaticEndpointsNameResolverProvider INSTANCE = new StaticEndpointsNameResolverProvider();
+    private static final AtomicBoolean REGISTERED = new AtomicBoolean();
+
+    /**
+     * Registers the provider in the default registry once, so channels can resolve {@link #SCHEME} targets.
+     */
+    public static void register() {
+        if (REGISTERED.compareAndSet(false, true)) {
+            NameResolverRegistry.getDefaultRegistry().register(INSTANCE);
+        }
+    }
+
+    /**
+     * @return a channel target for the given endpoints, each endpoint in the form host:port.
+     */
+    public static String target(List<String> endpoints) {
+        if (endpoints.isEmpty()) {
+            throw new MubelClientException("At least one endpoint is required");
+        }
+        for (var endpoint : endpoints) {
+            parse(endpoint);
+        }
+        return SCHEME + ":///" + String.join(",", endpoints);
+    }
+
+    private static HostAndPort parse(String endpoint) {
+        final int separator = endpoint.lastIndexOf(':');
+        if (separator <= 0 || separator == endpoint.length() - 1) {
+            throw new MubelClientException("Endpoint must be in the form host:port. was: %s".formatted(endpoint));
+        }
+        try {
+            return new HostAndPort(endpoint.substring(0, separator), Integer.parseInt(endpoint.substring(separator + 1)));
+        } catch (NumberFormatException e) {
+            throw new MubelClientException("Endpoint must be in the form host:port. was: %s".formatted(endpoint));
+        }
+    }
+
+    @Override
+    protected boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    protected int priority() {
+        // lower than dns, so dns stays the default scheme
+        return 4;
+    }
+
+    @Override
+    public String getDefaultScheme() {
+        return SCHEME;
+    }
+
+    @Override
+    public Collection<Class<? extends SocketAddress>> getProducedSocketAddressTypes() {
+        return List.of(InetSocketAddress.class);
+    }
+
+    @Override
+    public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+        if (!SCHEME.equals(targetUri.getScheme())) {
+            return null;
+        }
+        final var path = targetUri.getPath();
+        final var endpoints = new ArrayList<HostAndPort>();
+        for (var endpoint : path.substring(path.startsWith("/") ? 1 : 0).split(",")) {
+            endpoints.add(parse(endpoint.strip()));
+        }
+        final var first = endpoints.getFirst();
+        return new Resolver(first.host() + ":" + first.port(), endpoints, args.getOffloadExecutor());
+    }
+
+    private record HostAndPort(String host, int port) {
+    }
+
+    private static class Resolver extends NameResolver {
+
+        private final String authority;
+        private final List<HostAndPort> endpoints;
+        private final Executor executor;
+        private Listener2 listener;
+
+        private Resolver(String authority, List<HostAndPort> endpoints, Executor executor) {
+            this.authority = authority;
+            this.endpoints = endpoints;
+            this.executor = executor;
+        }
+
+        @Override
+        public String getServiceAuthority() {
+            return authority;
+        }
+
+        @Override
+        public void start(Listener2 listener) {
+            this.listener = listener;
+            refresh();
+        }
+
+        @Override
+        public void refresh() {
+            if (executor == null) {
+                resolve();
+            } else {
+                executor.execute(this::resolve);
+            }
+        }
+
+        private void resolve() {
+            final var groups = new ArrayList<EquivalentAddressGroup>(endpoints.size());
+            for (var endpoint : endpoints) {
+                final var address = new InetSocketAddress(endpoint.host(), endpoint.port());
+                if (!address.isUnresolved()) {
+                    groups.add(new EquivalentAddressGroup(address));
+                }
+            }
+            if (groups.isEmpty()) {
+                listener.onError(Status.UNAVAILABLE.withDescription("none of the endpoints could be resolved: " + endpoints));
+                return;
+            }
+            listener.onResult(ResolutionResult.newBuilder()
+                    .setAddressesOrError(StatusOr.fromValue(groups))
+                    .setAttributes(Attributes.EMPTY)
+                    .build());
+        }
+
+        @Override
+        public void shutdown() {
+        }
+    }
+}
@@ -1,93 +1,198 @@
 package io.mubel.client.internal;
 
-import io.grpc.stub.StreamObserver;
+import io.grpc.stub.ClientCallStreamObserver;
+import io.grpc.stub.ClientResponseObserver;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Operators;
 
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
-public class StreamObserverFluxAdapter<T> implements StreamObserver<T> {
+/**
+ * Adapts a gRPC server streaming response to a {@link Flux}.
+ * <p>
+ * The adapter uses manual flow control: automatic inbound requests are disabled in {@link #beforeStart(ClientCallStreamObserver)}
+ * and messages are requested from the transport only as downstream demand is signalled,
+ * so a slow subscriber will slow down the server instead of filling up buffers.
+ * Unbounded demand, such as {@code Long.MAX_VALUE} or demand that does not fit in an int, is served in batches:
+ * {@value #UNBOUNDED_BATCH} messages are requested up front and more are requested as each half of a batch arrives,
+ * so a long-lived stream never runs out of transport demand.
+ * <p>
+ * Messages that arrive before the flux is subscribed to (only possible when the adapter is used without a call stream)
+ * are kept in an unbounded queue and published on subscription.
+ */
+public class StreamObserverFluxAdapter<ReqT, T> implements ClientResponseObserver<ReqT, T> {
 
-    private static final int BUFFER_SIZE = 16;
     private static final Logger LOG = LoggerFactory.getLogger(StreamObserverFluxAdapter.class);
+    static final int UNBOUNDED_BATCH = 1024;
 
     private final Flux<T> flux;
-    private FluxSink<T> sink;
-    private BlockingQueue<T> buffer;
-    private final AtomicBoolean buffering = new AtomicBoolean(true);
-    private final AtomicBoolean completed = new AtomicBoolean(false);
-    private volatile Throwable earlyError = null;
+    private final Object lock = new Object();
+    private final Queue<T> earlyMessages = new ConcurrentLinkedQueue<>();
+    private volatile FluxSink<T> sink;
+    private volatile ClientCallStreamObserver<ReqT> requestStream;
+    private volatile boolean cancelled = false;
+    private volatile boolean unbounded = false;
+    // only accessed from onNext, which gRPC never calls concurrently
+    private int receivedInBatch = 0;
+    private long pendingDemand = 0;
+    private boolean completed = false;
+    private Throwable earlyError = null;
 
     public StreamObserverFluxAdapter() {
-        this.flux = Flux.create(sink -> {
-            LOG.trace("Flux.create()");
-            this.sink = sink;
+        this.flux = Flux.create(this::onSubscribe);
+    }
+
+    public Flux<T> toFlux() {
+        return flux;
+    }
+
+    private void onSubscribe(FluxSink<T> sink) {
+        LOG.trace("Flux.create()");
+        synchronized (lock) {
+            T early;
+            while ((early = earlyMessages.poll()) != null) {
+                sink.next(early);
+            }
             if (earlyError != null) {
                 sink.error(earlyError);
+            } else if (completed) {
+                sink.complete();
             }
-            if (buffer != null && !buffer.isEmpty()) {
-                LOG.trace("buffer not empty: size: {}", buffer.size());
-                while (!buffer.isEmpty()) {
-                    publish(buffer.poll());
-                }
-                if (completed.get()) {
-                    sink.complete();
-                }
+            this.sink = sink;
+        }
+        sink.onRequest(this::request);
+        sink.onCancel(this::cancel);
+    }
+
+    @Override
+    public void beforeStart(ClientCallStreamObserver<ReqT> requestStream) {
+        requestStream.disableAutoRequestWithInitial(0);
+        synchronized (lock) {
+            this.requestStream = requestStream;
+            if (unbounded) {
+                requestStream.request(UNBOUNDED_BATCH);
+            } else if (pendingDemand > 0) {
+                requestStream.request((int) pendingDemand);
             }
-            buffer = null;
-            buffering.set(false);
-        });
+            pendingDemand = 0;
+        }
     }
 
-    private void publish(T next) {
-        sink.next(next);
+    private void request(long n) {
+        LOG.trace("request({})", n);
+        if (unbounded) {
+            return;
+        }
+        if (n >= Integer.MAX_VALUE) {
+            requestUnbounded();
+            return;
+        }
+        final var rs = requestStream;
+        if (rs != null) {
+            rs.request((int) n);
+            return;
+        }
+        synchronized (lock) {
+            if (requestStream != null) {
+                requestStream.request((int) n);
+                return;
+            }
+            pendingDemand = Operators.addCap(pendingDemand, n);
+            if (pendingDemand >= Integer.MAX_VALUE) {
+                // requested as an unbounded batch when the call starts
+                unbounded = true;
+            }
+        }
     }
 
-    public Flux<T> toFlux() {
-        return flux;
+    private void requestUnbounded() {
+        synchronized (lock) {
+            if (unbounded) {
+                return;
+            }
+            unbounded = true;
+            if (requestStream != null) {
+                requestStream.request(UNBOUNDED_BATCH);
+            }
+        }
     }
 
-    @Override
-    public void onNext(T t) {
-        if (buffering.get()) {
-            buffer(t);
-        } else {
-            publish(t);
+    /**
+     * Tops up the transport demand when half of an unbounded batch has been received.
+     */
+    private void onReceived() {
+        if (unbounded && ++receivedInBatch == UNBOUNDED_BATCH / 2) {
+            receivedInBatch = 0;
+            final var rs = requestStream;
+            if (rs != null) {
+                rs.request(UNBOUNDED_BATCH / 2);
+            }
         }
     }
 
-    private void buffer(T t) {
-        if (buffer == null) {
-            buffer = new ArrayBlockingQueue<>(BUFFER_SIZE);
+    private void cancel() {
+        cancelled = true;
+        final var rs = requestStream;
+        if (rs != null) {
+            rs.cancel("Cancelled by subscriber", null);
         }
-        try {
-            LOG.trace("buffering size {}", buffer.size());
-            buffer.put(t);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new RuntimeException(e);
+    }
+
+    @Override
+    public void onNext(T t) {
+        onReceived();
+        final var s = sink;
+        if (s != null) {
+            s.next(t);
+            return;
+        }
+        synchronized (lock) {
+            if (sink != null) {
+                sink.next(t);
+            } else {
+                LOG.trace("buffering size {}", earlyMessages.size());
+                earlyMessages.add(t);
+            }
         }
     }
 
     @Override
     public void onError(Throwable throwable) {
-        if (sink != null) {
-            sink.error(throwable);
-        } else {
-            earlyError = throwable;
+        if (cancelled) {
+            LOG.trace("ignoring error after cancel: {}", throwable.getMessage());
+            return;
+        }
+        final var s = sink;
+        if (s != null) {
+            s.error(throwable);
+            return;
+        }
+        synchronized (lock) {
+            if (sink != null) {
+                sink.error(throwable);
+            } else {
+                earlyError = throwable;
+            }
         }
     }
 
     @Override
     public void onCompleted() {
-        if (sink != null) {
-            sink.complete();
-        } else {
-            completed.set(true);
+        final var s = sink;
+        if (s != null) {
+            s.complete();
+            return;
+        }
+        synchronized (lock) {
+            if (sink != null) {
+                sink.complete();
+            } else {
+                completed = true;
+            }
         }
     }
 }
@@ -4,6 +4,9 @@ import io.grpc.stub.StreamObserver;
 
 import java.util.concurrent.CompletableFuture;
 
+/**
+ * Completes a {@link CompletableFuture} with the response of a unary call.
+ */
 public class StreamObserverFuture<T> implements StreamObserver<T> {
 
     private final CompletableFuture<T> future;
@@ -24,6 +27,7 @@ public class StreamObserverFuture<T> implements StreamObserver<T> {
 
     @Override
     public void onCompleted() {
-
+        // no-op if a value has been received
+        future.complete(null);
     }
 }
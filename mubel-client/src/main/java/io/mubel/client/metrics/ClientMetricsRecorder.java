@@ -0,0 +1,40 @@
+package io.mubel.client.metrics;
+
+import io.grpc.Status;
+
+/**
+ * Receives measurements of the calls made by {@link io.mubel.client.MubelClient}.
+ * <p>
+ * Methods are called on gRPC transport threads and must not block.
+ * The method name is the full gRPC method name, such as {@code mubel.v1.events.MubelEventsService/execute}.
+ *
+ * @see SimpleClientMetrics
+ * @see MicrometerClientMetrics
+ */
+public interface ClientMetricsRecorder {
+
+    ClientMetricsRecorder NOOP = new ClientMetricsRecorder() {
+    };
+
+    default void callStarted(String method) {
+    }
+
+    /**
+     * @param status        The status the call was closed with, any other status than OK is a failed call.
+     * @param durationNanos Time from the start of the call until it was closed.
+     */
+    default void callClosed(String method, Status.Code status, long durationNanos) {
+    }
+
+    /**
+     * @param size Serialized size of the message in bytes, before any compression.
+     */
+    default void messageSent(String method, int size) {
+    }
+
+    /**
+     * @param size Serialized size of the message in bytes, after decompression.
+     */
+    default void messageReceived(String method, int size) {
+    }
+}
@@ -0,0 +1,84 @@
+package io.mubel.client.metrics;
+
+import io.grpc.Status;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link ClientMetricsRecorder} that publishes to a Micrometer {@link MeterRegistry}.
+ * Requires micrometer-core on the classpath.
+ * <ul>
+ *     <li>{@code mubel.client.calls} - timer tagged with method and status</li>
+ *     <li>{@code mubel.client.calls.active} - gauge of in-flight calls tagged with method</li>
+ *     <li>{@code mubel.client.messages} - distribution of message sizes in bytes tagged with method and direction</li>
+ * </ul>
+ */
+public class MicrometerClientMetrics implements ClientMetricsRecorder {
+
+    private final MeterRegistry registry;
+    private final Map<String, AtomicLong> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Map<Status.Code, Timer>> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> sent = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> received = new ConcurrentHashMap<>();
+
+    public MicrometerClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void callStarted(String method) {
+        inFlight(method).incrementAndGet();
+    }
+
+    @Override
+    public void callClosed(String method, Status.Code status, long durationNanos) {
+        inFlight(method).decrementAndGet();
+        timers.computeIfAbsent(method, m -> new ConcurrentHashMap<>())
+                .computeIfAbsent(status, s -> timer(method, s))
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void messageSent(String method, int size) {
+        sent.computeIfAbsent(method, m -> messageSize(m, "sent")).record(size);
+    }
+
+    @Override
+    public void messageReceived(String method, int size) {
+        received.computeIfAbsent(method, m -> messageSize(m, "received")).record(size);
+    }
+
+    private AtomicLong inFlight(String method) {
+        return inFlight.computeIfAbsent(method, m -> registry.gauge(
+                "mubel.client.calls.active",
+                Tags.of("method", m),
+                new AtomicLong()
+        ));
+    }
+
+    private Timer timer(String method, Status.Code status) {
+        return Timer.builder("mubel.client.calls")
+                .tag("method", method)
+                .tag("status", status.name())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+    }
+
+    private DistributionSummary messageSize(String method, String direction) {
+        return DistributionSummary.builder("mubel.client.messages")
+                .baseUnit("bytes")
+                .tag("method", method)
+                .tag("direction", direction)
+                .register(registry);
+    }
+}
@@ -0,0 +1,185 @@
+package io.mubel.client.metrics;
+
+import io.grpc.Status;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link ClientMetricsRecorder} that keeps per method counters and latency histograms in memory,
+ * without any dependencies. Read the values with {@link #method(String)} or {@link #methods()}.
+ */
+public class SimpleClientMetrics implements ClientMetricsRecorder {
+
+    private final Map<String, MethodMetrics> methods = new ConcurrentHashMap<>();
+
+    @Override
+    public void callStarted(String method) {
+        final var m = metrics(method);
+        m.calls.increment();
+        m.inFlight.incrementAndGet();
+    }
+
+    @Override
+    public void callClosed(String method, Status.Code status, long durationNanos) {
+        final var m = metrics(method);
+        m.inFlight.decrementAndGet();
+        m.statusCounts.get(status).increment();
+        m.latency.record(durationNanos);
+    }
+
+    @Override
+    public void messageSent(String method, int size) {
+        final var m = metrics(method);
+        m.messagesSent.increment();
+        m.bytesSent.add(size);
+    }
+
+    @Override
+    public void messageReceived(String method, int size) {
+        final var m = metrics(method);
+        m.messagesReceived.increment();
+        m.bytesReceived.add(size);
+    }
+
+    /**
+     * @return the metrics for the given method, or null if the method has not been called.
+     */
+    public MethodMetrics method(String method) {
+        return methods.get(method);
+    }
+
+    public Map<String, MethodMetrics> methods() {
+        return Collections.unmodifiableMap(methods);
+    }
+
+    private MethodMetrics metrics(String method) {
+        final var m = methods.get(method);
+        if (m != null) {
+            return m;
+        }
+        return methods.computeIfAbsent(method, ignored -> new MethodMetrics());
+    }
+
+    public static class MethodMetrics {
+        private final LongAdder calls = new LongAdder();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final LongAdder messagesSent = new LongAdder();
+        private final LongAdder bytesSent = new LongAdder();
+        private final LongAdder messagesReceived = new LongAdder();
+        private final LongAdder bytesReceived = new LongAdder();
+        private final Map<Status.Code, LongAdder> statusCounts = new EnumMap<>(Status.Code.class);
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        MethodMetrics() {
+            for (var code : Status.Code.values()) {
+                statusCounts.put(code, new LongAdder());
+            }
+        }
+
+        public long calls() {
+            return calls.sum();
+        }
+
+        public long inFlight() {
+            return inFlight.get();
+        }
+
+        public long messagesSent() {
+            return messagesSent.sum();
+        }
+
+        public long bytesSent() {
+            return bytesSent.sum();
+        }
+
+        public long messagesReceived() {
+            return messagesReceived.sum();
+        }
+
+        public long bytesReceived() {
+            return bytesReceived.sum();
+        }
+
+        public long count(Status.Code status) {
+            return statusCounts.get(status).sum();
+        }
+
+        /**
+         * @return the number of calls that were closed with any other status than OK.
+         */
+        public long errors() {
+            long errors = 0;
+            for (var entry : statusCounts.entrySet()) {
+                if (entry.getKey() != Status.Code.OK) {
+                    errors += entry.getValue().sum();
+                }
+            }
+            return errors;
+        }
+
+        public LatencyHistogram latency() {
+            return latency;
+        }
+    }
+
+    /**
+     * A histogram with power of two buckets. Percentiles are reported as the upper bound of the bucket,
+     * so they are accurate to within a factor of two, which is enough to tell apart a slow call from a fast one.
+     */
+    public static class LatencyHistogram {
+        private static final int BUCKETS = 64;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+
+        void record(long nanos) {
+            final long value = Math.max(nanos, 1);
+            buckets.incrementAndGet(BUCKETS - Long.numberOfLeadingZeros(value) - 1);
+            count.increment();
+            totalNanos.add(value);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public Duration mean() {
+            final long c = count();
+            return c == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / c);
+        }
+
+        /**
+         * @param percentile between 0 and 1, e.g. 0.99
+         */
+        public Duration percentile(double percentile) {
+            if (percentile < 0 || percentile > 1) {
+                throw new IllegalArgumentException("percentile must be between 0 and 1. was: " + percentile);
+            }
+            long total = 0;
+            final long[] snapshot = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) {
+                return Duration.ZERO;
+            }
+            final long rank = (long) Math.ceil(percentile * total);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += snapshot[i];
+                if (seen >= Math.max(rank, 1)) {
+                    return Duration.ofNanos(i >= 62 ? Long.MAX_VALUE : (1L << (i + 1)) - 1);
+                }
+            }
+            return Duration.ofNanos(Long.MAX_VALUE);
+        }
+    }
+}
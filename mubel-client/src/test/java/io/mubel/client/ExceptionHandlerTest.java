@@ -4,6 +4,8 @@ import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.mubel.client.exceptions.BadRequestException;
 import io.mubel.client.exceptions.ConnectionClosedException;
+import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.client.exceptions.RevisionConflictException;
 import io.mubel.client.exceptions.ServerException;
 import org.junit.jupiter.api.DisplayNameGeneration;
 import org.junit.jupiter.api.DisplayNameGenerator;
@@ -34,4 +36,53 @@ class ExceptionHandlerTest {
         assertThat(ExceptionHandler.handleFailure(sre))
                 .isInstanceOf(ServerException.class);
     }
-}
\ No newline at end of file
+
+    @Test
+    void Unavailable_and_closed_connections_are_transient() {
+        assertThat(ExceptionHandler.isTransient(new MubelClientException(Status.UNAVAILABLE.asRuntimeException()))).isTrue();
+        assertThat(ExceptionHandler.isTransient(new ConnectionClosedException("closed"))).isTrue();
+        assertThat(ExceptionHandler.isTransient(Status.INVALID_ARGUMENT.asRuntimeException())).isFalse();
+    }
+
+    @Test
+    void ALREADY_EXISTS_and_ABORTED_are_revision_conflicts_that_are_not_transient() {
+        assertThat(ExceptionHandler.toRevisionConflict(Status.ALREADY_EXISTS.withDescription("conflict").asRuntimeException()))
+                .isInstanceOf(RevisionConflictException.class)
+                .hasMessage("conflict");
+        assertThat(ExceptionHandler.toRevisionConflict(new RuntimeException(Status.ABORTED.asRuntimeException())))
+                .isInstanceOf(RevisionConflictException.class);
+        assertThat(ExceptionHandler.toRevisionConflict(Status.INVALID_ARGUMENT.asRuntimeException())).isNull();
+
+        final var conflict = new RevisionConflictException("conflict", Status.ABORTED.asRuntimeException());
+        assertThat(ExceptionHandler.isRevisionConflict(new MubelClientException(conflict))).isTrue();
+        assertThat(ExceptionHandler.isTransient(conflict)).isFalse();
+    }
+
+    @Test
+    void each_status_code_has_a_single_classification() {
+        assertClassification(Status.UNAVAILABLE, true, false, false);
+        assertClassification(Status.DEADLINE_EXCEEDED, true, false, false);
+        assertClassification(Status.RESOURCE_EXHAUSTED, true, false, false);
+        assertClassification(Status.ABORTED, false, true, true);
+        assertClassification(Status.ALREADY_EXISTS, false, true, true);
+        assertClassification(Status.INVALID_ARGUMENT, false, false, true);
+        assertClassification(Status.INTERNAL, false, false, false);
+        assertClassification(Status.UNKNOWN, false, false, false);
+    }
+
+    @Test
+    void mapped_exceptions_keep_their_classification() {
+        assertThat(ExceptionHandler.isDefinitiveRejection(new BadRequestException("bad request"))).isTrue();
+        assertThat(ExceptionHandler.isTransient(new BadRequestException("bad request"))).isFalse();
+        assertThat(ExceptionHandler.isDefinitiveRejection(new RevisionConflictException("conflict"))).isTrue();
+        assertThat(ExceptionHandler.isDefinitiveRejection(new ConnectionClosedException("closed"))).isFalse();
+        assertThat(ExceptionHandler.isRevisionConflict(new ConnectionClosedException("closed"))).isFalse();
+    }
+
+    private static void assertClassification(Status status, boolean isTransient, boolean isConflict, boolean isRejection) {
+        final var err = new MubelClientException(status.asRuntimeException());
+        assertThat(ExceptionHandler.isTransient(err)).as("%s is transient", status.getCode()).isEqualTo(isTransient);
+        assertThat(ExceptionHandler.isRevisionConflict(err)).as("%s is a revision conflict", status.getCode()).isEqualTo(isConflict);
+        assertThat(ExceptionHandler.isDefinitiveRejection(err)).as("%s is a definitive rejection", status.getCode()).isEqualTo(isRejection);
+    }
+}
@@ -0,0 +1,39 @@
+package io.mubel.client;
+
+import io.mubel.client.exceptions.MubelClientException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MubelClientConfigTest {
+
+    @Test
+    void Endpoints_replace_the_address() {
+        var config = MubelClientConfig.newBuilder()
+                .address("localhost:9090")
+                .endpoints("node1:9090", "node2:9090")
+                .build();
+        assertThat(config.address()).isEqualTo("mubel-endpoints:///node1:9090,node2:9090");
+        assertThat(config.loadBalancingPolicy()).isEqualTo(LoadBalancingPolicy.PICK_FIRST);
+    }
+
+    @Test
+    void Health_check_requires_round_robin() {
+        assertThatThrownBy(() -> MubelClientConfig.newBuilder()
+                .endpoints("node1:9090", "node2:9090")
+                .healthCheck(true)
+                .build())
+                .isInstanceOf(MubelClientException.class);
+        assertThat(MubelClientConfig.newBuilder()
+                .endpoints("node1:9090", "node2:9090")
+                .loadBalancingPolicy(LoadBalancingPolicy.ROUND_ROBIN)
+                .healthCheck(true)
+                .build()
+                .healthCheck())
+                .isTrue();
+    }
+}
@@ -0,0 +1,163 @@
+package io.mubel.client.internal;
+
+import io.grpc.*;
+import io.mubel.client.ChannelSelection;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ChannelPoolTest {
+
+    static final MethodDescriptor<String, String> METHOD = MethodDescriptor.<String, String>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName("test/method")
+            .setRequestMarshaller(new StringMarshaller())
+            .setResponseMarshaller(new StringMarshaller())
+            .build();
+
+    final List<FakeChannel> channels = new ArrayList<>();
+
+    @Test
+    void Round_robin_spreads_calls_evenly() {
+        var pool = new ChannelPool(3, ChannelSelection.ROUND_ROBIN, this::newChannel);
+        for (int i = 0; i < 9; i++) {
+            pool.newCall(METHOD, CallOptions.DEFAULT);
+        }
+        assertThat(channels).extracting(c -> c.calls.size()).containsExactly(3, 3, 3);
+    }
+
+    @Test
+    void Least_loaded_avoids_channels_with_in_flight_calls() {
+        var pool = new ChannelPool(2, ChannelSelection.LEAST_LOADED, this::newChannel);
+        var longLived = pool.newCall(METHOD, CallOptions.DEFAULT);
+        longLived.start(new ClientCall.Listener<>() {
+        }, new Metadata());
+        var busyChannel = channels.stream().filter(c -> !c.calls.isEmpty()).findFirst().orElseThrow();
+
+        for (int i = 0; i < 4; i++) {
+            pool.newCall(METHOD, CallOptions.DEFAULT).start(new ClientCall.Listener<>() {
+            }, new Metadata());
+            channels.stream().flatMap(c -> c.calls.stream()).filter(c -> c != busyChannel.calls.getFirst())
+                    .forEach(FakeCall::close);
+        }
+        assertThat(busyChannel.calls).hasSize(1);
+
+        busyChannel.calls.getFirst().close();
+        pool.newCall(METHOD, CallOptions.DEFAULT);
+        pool.newCall(METHOD, CallOptions.DEFAULT);
+        assertThat(busyChannel.calls).hasSize(2);
+    }
+
+    @Test
+    void Shutdown_shuts_down_all_channels() throws Exception {
+        var pool = new ChannelPool(2, ChannelSelection.ROUND_ROBIN, this::newChannel);
+        pool.shutdown();
+        assertThat(pool.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(channels).allMatch(ManagedChannel::isShutdown);
+    }
+
+    private ManagedChannel newChannel() {
+        var channel = new FakeChannel();
+        channels.add(channel);
+        return channel;
+    }
+
+    static class FakeChannel extends ManagedChannel {
+
+        final List<FakeCall> calls = new ArrayList<>();
+        boolean shutdown = false;
+
+        @Override
+        public ManagedChannel shutdown() {
+            shutdown = true;
+            return this;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown;
+        }
+
+        @Override
+        public ManagedChannel shutdownNow() {
+            return shutdown();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return shutdown;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <ReqT, RespT> ClientCall<ReqT, RespT> newCall(MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+            var call = new FakeCall();
+            calls.add(call);
+            return (ClientCall<ReqT, RespT>) call;
+        }
+
+        @Override
+        public String authority() {
+            return "fake";
+        }
+    }
+
+    static class FakeCall extends ClientCall<Object, Object> {
+
+        Listener<Object> listener;
+
+        void close() {
+            if (listener != null) {
+                listener.onClose(Status.OK, new Metadata());
+                listener = null;
+            }
+        }
+
+        @Override
+        public void start(Listener<Object> responseListener, Metadata headers) {
+            this.listener = responseListener;
+        }
+
+        @Override
+        public void request(int numMessages) {
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+        }
+
+        @Override
+        public void halfClose() {
+        }
+
+        @Override
+        public void sendMessage(Object message) {
+        }
+    }
+
+    static class StringMarshaller implements MethodDescriptor.Marshaller<String> {
+        @Override
+        public InputStream stream(String value) {
+            return new ByteArrayInputStream(value.getBytes());
+        }
+
+        @Override
+        public String parse(InputStream stream) {
+            return "";
+        }
+    }
+}
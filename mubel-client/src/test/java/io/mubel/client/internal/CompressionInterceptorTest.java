@@ -0,0 +1,49 @@
+package io.mubel.client.internal;
+
+import com.google.protobuf.ByteString;
+import io.grpc.CallOptions;
+import io.mubel.api.grpc.v1.events.EventDataInput;
+import io.mubel.client.internal.ChannelPoolTest.FakeCall;
+import io.mubel.client.internal.ChannelPoolTest.FakeChannel;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CompressionInterceptorTest {
+
+    final CompressionInterceptor interceptor = new CompressionInterceptor(100);
+
+    @Test
+    void Only_messages_above_the_threshold_are_compressed() {
+        assertThat(interceptor.shouldCompress(message(10))).isFalse();
+        assertThat(interceptor.shouldCompress(message(200))).isTrue();
+        assertThat(interceptor.shouldCompress("not a protobuf message")).isFalse();
+    }
+
+    @Test
+    void Calls_are_started_with_gzip() {
+        var options = new AtomicReference<CallOptions>();
+        var channel = new FakeChannel() {
+            @Override
+            public <ReqT, RespT> io.grpc.ClientCall<ReqT, RespT> newCall(io.grpc.MethodDescriptor<ReqT, RespT> methodDescriptor, CallOptions callOptions) {
+                options.set(callOptions);
+                return super.newCall(methodDescriptor, callOptions);
+            }
+        };
+        interceptor.interceptCall(ChannelPoolTest.METHOD, CallOptions.DEFAULT, channel);
+
+        assertThat(options.get().getCompressor()).isEqualTo(CompressionInterceptor.GZIP);
+        assertThat(channel.calls).singleElement().isInstanceOf(FakeCall.class);
+    }
+
+    private static EventDataInput message(int dataSize) {
+        return EventDataInput.newBuilder()
+                .setData(ByteString.copyFrom(new byte[dataSize]))
+                .build();
+    }
+}
@@ -0,0 +1,112 @@
+package io.mubel.client.internal;
+
+import io.grpc.Status;
+import io.mubel.api.grpc.v1.events.*;
+import io.mubel.client.exceptions.RevisionConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ExecuteBatcherTest {
+
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final List<ExecuteRequest> sent = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void Requests_within_the_window_are_sent_as_one_request() {
+        var batcher = new ExecuteBatcher(this::succeed, scheduler, Duration.ofMillis(50), 100);
+        var f1 = batcher.submit(append("esid", "s1"));
+        var f2 = batcher.submit(append("esid", "s2"));
+        var f3 = batcher.submit(append("other", "s3"));
+
+        CompletableFuture.allOf(f1, f2, f3).orTimeout(2, TimeUnit.SECONDS).join();
+        assertThat(sent).hasSize(2);
+        assertThat(sent).filteredOn(r -> r.getEsid().equals("esid"))
+                .singleElement()
+                .satisfies(r -> assertThat(r.getOperationCount()).isEqualTo(2));
+    }
+
+    @Test
+    void A_full_batch_is_sent_without_waiting_for_the_window() {
+        var batcher = new ExecuteBatcher(this::succeed, scheduler, Duration.ofHours(1), 2);
+        var f1 = batcher.submit(append("esid", "s1"));
+        var f2 = batcher.submit(append("esid", "s2"));
+
+        assertThat(f1).isCompleted();
+        assertThat(f2).isCompleted();
+        assertThat(sent).singleElement()
+                .satisfies(r -> assertThat(r.getOperationCount()).isEqualTo(2));
+    }
+
+    @Test
+    void Requests_with_request_id_are_not_batched() {
+        var batcher = new ExecuteBatcher(this::succeed, scheduler, Duration.ofHours(1), 100);
+        var request = append("esid", "s1").toBuilder().setRequestId("id").build();
+
+        assertThat(batcher.submit(request)).isCompleted();
+        assertThat(sent).containsExactly(request);
+    }
+
+    @Test
+    void A_rejection_is_only_reported_to_the_caller_that_caused_it() {
+        var batcher = new ExecuteBatcher(request -> {
+            sent.add(request);
+            var conflict = request.getOperationList().stream()
+                    .anyMatch(op -> op.getAppend().getEvent(0).getStreamId().equals("conflict"));
+            return conflict
+                    ? CompletableFuture.failedFuture(new RevisionConflictException("conflict"))
+                    : CompletableFuture.completedFuture(null);
+        }, scheduler, Duration.ofHours(1), 3);
+        var f1 = batcher.submit(append("esid", "s1"));
+        var f2 = batcher.submit(append("esid", "conflict"));
+        var f3 = batcher.submit(append("esid", "s3"));
+
+        assertThat(f1).isCompleted().isNotCompletedExceptionally();
+        assertThat(f2).isCompletedExceptionally();
+        assertThat(f3).isCompleted().isNotCompletedExceptionally();
+        assertThat(sent).hasSize(4);
+    }
+
+    @Test
+    void Any_other_failure_is_reported_to_all_callers_without_resending() {
+        var batcher = new ExecuteBatcher(request -> {
+            sent.add(request);
+            return CompletableFuture.failedFuture(Status.UNAVAILABLE.asRuntimeException());
+        }, scheduler, Duration.ofHours(1), 2);
+        var f1 = batcher.submit(append("esid", "s1"));
+        var f2 = batcher.submit(append("esid", "s2"));
+
+        assertThat(f1).isCompletedExceptionally();
+        assertThat(f2).isCompletedExceptionally();
+        assertThat(sent).hasSize(1);
+    }
+
+    private CompletableFuture<Void> succeed(ExecuteRequest request) {
+        sent.add(request);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static ExecuteRequest append(String esid, String streamId) {
+        return ExecuteRequest.newBuilder()
+                .setEsid(esid)
+                .addOperation(Operation.newBuilder()
+                        .setAppend(AppendOperation.newBuilder()
+                                .addEvent(EventDataInput.newBuilder()
+                                        .setStreamId(streamId)
+                                        .setType("test"))))
+                .build();
+    }
+}
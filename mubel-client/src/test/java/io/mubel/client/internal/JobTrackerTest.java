@@ -0,0 +1,87 @@
+package io.mubel.client.internal;
+
+import io.mubel.api.grpc.v1.common.ProblemDetail;
+import io.mubel.api.grpc.v1.server.GetJobStatusRequest;
+import io.mubel.api.grpc.v1.server.JobState;
+import io.mubel.api.grpc.v1.server.JobStatus;
+import io.mubel.client.exceptions.BadRequestException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class JobTrackerTest {
+
+    final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    final Queue<JobStatus> statuses = new ArrayDeque<>();
+    final List<String> polled = new CopyOnWriteArrayList<>();
+    final JobTracker tracker = new JobTracker(this::fetch, scheduler, Duration.ofMillis(1), Duration.ofMillis(10));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void Completed_job_is_not_polled() {
+        var result = tracker.track(status(JobState.COMPLETED, 100), s -> {
+        });
+        assertThat(result).isCompletedWithValueMatching(s -> s.getState() == JobState.COMPLETED);
+        assertThat(polled).isEmpty();
+    }
+
+    @Test
+    void Running_job_is_polled_until_completed_and_progress_is_reported() {
+        statuses.add(status(JobState.RUNNING, 50));
+        statuses.add(status(JobState.COMPLETED, 100));
+        var progress = new CopyOnWriteArrayList<Integer>();
+
+        var result = tracker.track(status(JobState.RUNNING, 0), s -> progress.add(s.getProgress()))
+                .orTimeout(2, TimeUnit.SECONDS)
+                .join();
+
+        assertThat(result.getState()).isEqualTo(JobState.COMPLETED);
+        assertThat(progress).containsExactly(0, 50, 100);
+        assertThat(polled).containsExactly("job", "job");
+    }
+
+    @Test
+    void Failed_job_completes_exceptionally() {
+        statuses.add(JobStatus.newBuilder()
+                .setJobId("job")
+                .setState(JobState.FAILED)
+                .setProblem(ProblemDetail.newBuilder()
+                        .setStatus(3)
+                        .setDetail("bad request"))
+                .build());
+
+        var result = tracker.track(status(JobState.RUNNING, 0), s -> {
+        }).orTimeout(2, TimeUnit.SECONDS);
+
+        assertThatThrownBy(result::join)
+                .hasCauseInstanceOf(BadRequestException.class);
+    }
+
+    private CompletableFuture<JobStatus> fetch(GetJobStatusRequest request) {
+        polled.add(request.getJobId());
+        return CompletableFuture.completedFuture(statuses.remove());
+    }
+
+    private static JobStatus status(JobState state, int progress) {
+        return JobStatus.newBuilder()
+                .setJobId("job")
+                .setState(state)
+                .setProgress(progress)
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package io.mubel.client.internal;
+
+import io.grpc.CallOptions;
+import io.grpc.ClientCall;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.Status;
+import io.grpc.protobuf.ProtoUtils;
+import io.mubel.api.grpc.v1.events.EventDataInput;
+import io.mubel.client.internal.ChannelPoolTest.FakeChannel;
+import io.mubel.client.metrics.SimpleClientMetrics;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class MetricsInterceptorTest {
+
+    static final MethodDescriptor<EventDataInput, EventDataInput> METHOD = MethodDescriptor.<EventDataInput, EventDataInput>newBuilder()
+            .setType(MethodDescriptor.MethodType.UNARY)
+            .setFullMethodName("test/method")
+            .setRequestMarshaller(ProtoUtils.marshaller(EventDataInput.getDefaultInstance()))
+            .setResponseMarshaller(ProtoUtils.marshaller(EventDataInput.getDefaultInstance()))
+            .build();
+
+    final SimpleClientMetrics metrics = new SimpleClientMetrics();
+    final MetricsInterceptor interceptor = new MetricsInterceptor(metrics);
+    final FakeChannel channel = new FakeChannel();
+
+    @Test
+    void Records_a_call_from_start_to_close() {
+        var call = interceptor.interceptCall(METHOD, CallOptions.DEFAULT, channel);
+        call.start(new ClientCall.Listener<>() {
+        }, new Metadata());
+        var method = metrics.method("test/method");
+        assertThat(method.inFlight()).isEqualTo(1);
+
+        var message = EventDataInput.newBuilder().setId("id").build();
+        call.sendMessage(message);
+        var fakeCall = channel.calls.getLast();
+        fakeCall.listener.onMessage(message);
+        fakeCall.listener.onClose(Status.NOT_FOUND, new Metadata());
+
+        assertThat(method.calls()).isEqualTo(1);
+        assertThat(method.inFlight()).isZero();
+        assertThat(method.bytesSent()).isEqualTo(message.getSerializedSize());
+        assertThat(method.bytesReceived()).isEqualTo(message.getSerializedSize());
+        assertThat(method.count(Status.Code.NOT_FOUND)).isEqualTo(1);
+        assertThat(method.latency().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package io.mubel.client.internal;
+
+import io.grpc.NameResolver;
+import io.grpc.NameResolverProvider;
+import io.grpc.NameResolverRegistry;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class NameResolverRegistrationsTest {
+
+    final TestProvider provider = new TestProvider();
+
+    @Test
+    void a_provider_is_registered_until_the_last_user_releases_it() {
+        NameResolverRegistrations.acquire(provider);
+        NameResolverRegistrations.acquire(provider);
+        assertThat(isRegistered()).isTrue();
+
+        NameResolverRegistrations.release(provider);
+        assertThat(isRegistered()).isTrue();
+
+        NameResolverRegistrations.release(provider);
+        assertThat(isRegistered()).isFalse();
+    }
+
+    @Test
+    void releasing_a_provider_that_is_not_registered_is_ignored() {
+        NameResolverRegistrations.release(provider);
+        assertThat(isRegistered()).isFalse();
+    }
+
+    private static boolean isRegistered() {
+        return NameResolverRegistry.getDefaultRegistry().getProviderForScheme(TestProvider.SCHEME) != null;
+    }
+
+    static class TestProvider extends NameResolverProvider {
+
+        static final String SCHEME = "mubel-test";
+
+        @Override
+        protected boolean isAvailable() {
+            return true;
+        }
+
+        @Override
+        protected int priority() {
+            return 5;
+        }
+
+        @Override
+        public NameResolver newNameResolver(URI targetUri, NameResolver.Args args) {
+            return null;
+        }
+
+        @Override
+        public String getDefaultScheme() {
+            return SCHEME;
+        }
+    }
+}
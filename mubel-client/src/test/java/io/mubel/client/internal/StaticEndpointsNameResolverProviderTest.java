@@ -0,0 +1,81 @@
+package io.mubel.client.internal;
+
+import io.grpc.EquivalentAddressGroup;
+import io.grpc.NameResolver;
+import io.grpc.Status;
+import io.grpc.SynchronizationContext;
+import io.mubel.client.exceptions.MubelClientException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class StaticEndpointsNameResolverProviderTest {
+
+    final StaticEndpointsNameResolverProvider provider = new StaticEndpointsNameResolverProvider();
+
+    @Test
+    void endpoints_are_written_as_a_target() {
+        assertThat(StaticEndpointsNameResolverProvider.target(List.of("localhost:9090", "127.0.0.1:9091")))
+                .isEqualTo("mubel-endpoints:///localhost:9090,127.0.0.1:9091");
+    }
+
+    @Test
+    void endpoint_without_port_is_rejected() {
+        assertThatThrownBy(() -> StaticEndpointsNameResolverProvider.target(List.of("localhost")))
+                .isInstanceOf(MubelClientException.class);
+    }
+
+    @Test
+    void all_endpoints_are_resolved() {
+        var resolver = provider.newNameResolver(URI.create("mubel-endpoints:///localhost:9090,127.0.0.1:9091"), args());
+        var result = new AtomicReference<List<EquivalentAddressGroup>>();
+        resolver.start(new NameResolver.Listener2() {
+            @Override
+            public void onResult(NameResolver.ResolutionResult resolutionResult) {
+                result.set(resolutionResult.getAddressesOrError().getValue());
+            }
+
+            @Override
+            public void onError(Status error) {
+                throw error.asRuntimeException();
+            }
+        });
+
+        assertThat(resolver.getServiceAuthority()).isEqualTo("localhost:9090");
+        assertThat(result.get())
+                .flatExtracting(EquivalentAddressGroup::getAddresses)
+                .extracting(address -> ((InetSocketAddress) address).getPort())
+                .containsExactly(9090, 9091);
+    }
+
+    @Test
+    void other_schemes_are_not_resolved() {
+        assertThat(provider.newNameResolver(URI.create("dns:///localhost:9090"), args())).isNull();
+    }
+
+    private static NameResolver.Args args() {
+        return NameResolver.Args.newBuilder()
+                .setDefaultPort(9090)
+                .setProxyDetector(address -> null)
+                .setSynchronizationContext(new SynchronizationContext((t, e) -> {
+                    throw new RuntimeException(e);
+                }))
+                .setServiceConfigParser(new NameResolver.ServiceConfigParser() {
+                    @Override
+                    public NameResolver.ConfigOrError parseServiceConfig(Map<String, ?> rawServiceConfig) {
+                        return NameResolver.ConfigOrError.fromConfig(rawServiceConfig);
+                    }
+                })
+                .build();
+    }
+}
@@ -1,10 +1,14 @@
 package io.mubel.client.internal;
 
+import io.grpc.stub.ClientCallStreamObserver;
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -15,7 +19,7 @@ class StreamObserverFluxAdapterTest {
 
     @Test
     void normal_case() throws Exception {
-        StreamObserverFluxAdapter<Integer> adapter = new StreamObserverFluxAdapter<>();
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
         AtomicInteger sum = new AtomicInteger();
         var subSubscribed = new CountDownLatch(1);
         var subCompleted = new CountDownLatch(1);
@@ -30,13 +34,13 @@ class StreamObserverFluxAdapterTest {
                 .doOnComplete(subCompleted::countDown)
                 .subscribe(sum::addAndGet);
 
-        subCompleted.await(100, java.util.concurrent.TimeUnit.MILLISECONDS);
+        subCompleted.await(2000, java.util.concurrent.TimeUnit.MILLISECONDS);
         assertThat(sum).hasValue(6);
     }
 
     @Test
     void buffer_when_not_subscribed_to() {
-        StreamObserverFluxAdapter<Integer> adapter = new StreamObserverFluxAdapter<>();
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
         Flux<Integer> flux = adapter.toFlux();
         adapter.onNext(1);
         adapter.onNext(2);
@@ -47,10 +51,156 @@ class StreamObserverFluxAdapterTest {
 
     @Test
     void emits_early_error_when_subscribed_to() {
-        StreamObserverFluxAdapter<Integer> adapter = new StreamObserverFluxAdapter<>();
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
         Flux<Integer> flux = adapter.toFlux();
         adapter.onError(new RuntimeException("test"));
         assertThatThrownBy(flux::blockLast).hasMessage("test");
     }
 
-}
\ No newline at end of file
+    @Test
+    void transport_requests_follow_downstream_demand() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        var requestStream = new RecordingCallStreamObserver();
+        adapter.beforeStart(requestStream);
+        assertThat(requestStream.initialRequest).isZero();
+
+        StepVerifier.create(adapter.toFlux(), 0)
+                .then(() -> assertThat(requestStream.requests).isEmpty())
+                .thenRequest(2)
+                .then(() -> {
+                    assertThat(requestStream.requests).containsExactly(2);
+                    adapter.onNext(1);
+                    adapter.onNext(2);
+                })
+                .expectNext(1, 2)
+                .thenRequest(1)
+                .then(() -> {
+                    assertThat(requestStream.requests).containsExactly(2, 1);
+                    adapter.onNext(3);
+                    adapter.onCompleted();
+                })
+                .expectNext(3)
+                .verifyComplete();
+    }
+
+    @Test
+    void demand_signalled_before_call_start_is_forwarded() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        adapter.toFlux().subscribe();
+        var requestStream = new RecordingCallStreamObserver();
+        adapter.beforeStart(requestStream);
+        assertThat(requestStream.requests).containsExactly(StreamObserverFluxAdapter.UNBOUNDED_BATCH);
+    }
+
+    @Test
+    void unbounded_demand_is_topped_up_as_messages_arrive() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        var requestStream = new RecordingCallStreamObserver();
+        adapter.beforeStart(requestStream);
+        var received = new AtomicInteger();
+        adapter.toFlux().subscribe(i -> received.incrementAndGet());
+        assertThat(requestStream.requests).containsExactly(StreamObserverFluxAdapter.UNBOUNDED_BATCH);
+
+        final int messages = StreamObserverFluxAdapter.UNBOUNDED_BATCH * 3;
+        for (int i = 0; i < messages; i++) {
+            adapter.onNext(i);
+        }
+
+        assertThat(received).hasValue(messages);
+        assertThat(requestStream.requests.stream().mapToLong(Integer::longValue).sum())
+                .as("transport demand stays ahead of the received messages")
+                .isGreaterThan(messages);
+    }
+
+    @Test
+    void pending_demand_saturates_instead_of_overflowing() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        StepVerifier.create(adapter.toFlux(), 0)
+                .thenRequest(Long.MAX_VALUE - 1)
+                .thenRequest(Long.MAX_VALUE - 1)
+                .then(() -> {
+                    var requestStream = new RecordingCallStreamObserver();
+                    adapter.beforeStart(requestStream);
+                    assertThat(requestStream.requests).containsExactly(StreamObserverFluxAdapter.UNBOUNDED_BATCH);
+                    adapter.onCompleted();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void large_finite_demand_before_call_start_is_summed() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        StepVerifier.create(adapter.toFlux(), 0)
+                .thenRequest(Integer.MAX_VALUE - 10)
+                .thenRequest(5)
+                .then(() -> {
+                    var requestStream = new RecordingCallStreamObserver();
+                    adapter.beforeStart(requestStream);
+                    assertThat(requestStream.requests).containsExactly(Integer.MAX_VALUE - 5);
+                    adapter.onCompleted();
+                })
+                .verifyComplete();
+    }
+
+    @Test
+    void cancel_cancels_the_call() {
+        StreamObserverFluxAdapter<Object, Integer> adapter = new StreamObserverFluxAdapter<>();
+        var requestStream = new RecordingCallStreamObserver();
+        adapter.beforeStart(requestStream);
+        adapter.toFlux().take(1).subscribe();
+        adapter.onNext(1);
+        assertThat(requestStream.cancelled).isTrue();
+    }
+
+    static class RecordingCallStreamObserver extends ClientCallStreamObserver<Object> {
+
+        final List<Integer> requests = new ArrayList<>();
+        int initialRequest = -1;
+        boolean cancelled = false;
+
+        @Override
+        public void disableAutoRequestWithInitial(int request) {
+            initialRequest = request;
+        }
+
+        @Override
+        public void cancel(String message, Throwable cause) {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setOnReadyHandler(Runnable onReadyHandler) {
+        }
+
+        @Override
+        public void request(int count) {
+            requests.add(count);
+        }
+
+        @Override
+        public void setMessageCompression(boolean enable) {
+        }
+
+        @Override
+        public void disableAutoInboundFlowControl() {
+        }
+
+        @Override
+        public void onNext(Object value) {
+        }
+
+        @Override
+        public void onError(Throwable t) {
+        }
+
+        @Override
+        public void onCompleted() {
+        }
+    }
+
+}
@@ -0,0 +1,33 @@
+package io.mubel.client.internal;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StreamObserverFutureTest {
+
+    @Test
+    void completes_with_value() {
+        var future = new CompletableFuture<String>();
+        var observer = new StreamObserverFuture<>(future);
+        observer.onNext("value");
+        observer.onCompleted();
+        assertThat(future).isCompletedWithValue("value");
+    }
+
+    @Test
+    void completes_with_null_when_no_value_is_received() {
+        var future = new CompletableFuture<String>();
+        new StreamObserverFuture<>(future).onCompleted();
+        assertThat(future).isCompletedWithValue(null);
+    }
+
+    @Test
+    void completes_exceptionally_on_error() {
+        var future = new CompletableFuture<String>();
+        new StreamObserverFuture<>(future).onError(new RuntimeException("test"));
+        assertThat(future).isCompletedExceptionally();
+    }
+}
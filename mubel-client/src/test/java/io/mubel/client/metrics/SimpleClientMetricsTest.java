@@ -0,0 +1,54 @@
+package io.mubel.client.metrics;
+
+import io.grpc.Status;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SimpleClientMetricsTest {
+
+    final SimpleClientMetrics metrics = new SimpleClientMetrics();
+
+    @Test
+    void Counts_calls_status_and_messages_per_method() {
+        metrics.callStarted("a");
+        metrics.callStarted("a");
+        metrics.messageSent("a", 10);
+        metrics.messageReceived("a", 100);
+        metrics.messageReceived("a", 50);
+        metrics.callClosed("a", Status.Code.OK, 1_000);
+
+        var a = metrics.method("a");
+        assertThat(a.calls()).isEqualTo(2);
+        assertThat(a.inFlight()).isEqualTo(1);
+        assertThat(a.bytesSent()).isEqualTo(10);
+        assertThat(a.messagesReceived()).isEqualTo(2);
+        assertThat(a.bytesReceived()).isEqualTo(150);
+        assertThat(a.count(Status.Code.OK)).isEqualTo(1);
+        assertThat(a.errors()).isZero();
+
+        metrics.callClosed("a", Status.Code.UNAVAILABLE, 1_000);
+        assertThat(a.errors()).isEqualTo(1);
+        assertThat(metrics.method("b")).isNull();
+    }
+
+    @Test
+    void Latency_percentiles_are_within_a_factor_of_two() {
+        for (int i = 0; i < 99; i++) {
+            metrics.callStarted("a");
+            metrics.callClosed("a", Status.Code.OK, Duration.ofMillis(1).toNanos());
+        }
+        metrics.callStarted("a");
+        metrics.callClosed("a", Status.Code.OK, Duration.ofMillis(100).toNanos());
+
+        var latency = metrics.method("a").latency();
+        assertThat(latency.count()).isEqualTo(100);
+        assertThat(latency.percentile(0.5)).isBetween(Duration.ofMillis(1), Duration.ofMillis(2));
+        assertThat(latency.percentile(1)).isBetween(Duration.ofMillis(100), Duration.ofMillis(200));
+    }
+}
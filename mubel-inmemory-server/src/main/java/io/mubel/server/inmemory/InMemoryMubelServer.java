@@ -0,0 +1,157 @@
+package io.mubel.server.inmemory;
+
+import io.grpc.Server;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.mubel.client.MubelClient;
+import io.mubel.client.MubelClientConfig;
+import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.server.inmemory.internal.EventStores;
+import io.mubel.server.inmemory.internal.InMemoryEventsService;
+import io.mubel.server.inmemory.internal.InMemoryGroupsService;
+import io.mubel.server.inmemory.internal.InMemoryServerService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An in-process Mubel server that keeps everything in memory, for tests and benchmarks that should not depend on
+ * a running Mubel server or Docker.
+ * <p>
+ * Clients connect through the gRPC in-process transport, use {@link #clientConfig()} or {@link #newClient()}.
+ * Revision conflicts, scheduled events, deadlines and consumer groups behave like the Mubel server,
+ * but nothing is persisted and there is a single storage backend.
+ */
+public class InMemoryMubelServer implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(InMemoryMubelServer.class);
+
+    private final String name;
+    private final ScheduledExecutorService scheduler;
+    private final Server server;
+
+    private InMemoryMubelServer(Builder builder) {
+        this.name = builder.name;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            final var thread = new Thread(r, "mubel-inmemory-server-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var stores = new EventStores(scheduler);
+        this.server = InProcessServerBuilder.forName(name)
+                .addService(new InMemoryServerService(stores, builder.storageBackendName))
+                .addService(new InMemoryEventsService(stores, scheduler))
+                .addService(new InMemoryGroupsService(scheduler, builder.heartbeatInterval, builder.leaderTimeout))
+                .build();
+    }
+
+    public static Builder newBuilder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts a server with default settings.
+     */
+    public static InMemoryMubelServer start() {
+        return newBuilder().start();
+    }
+
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return a client config builder connected to this server, further settings can be added before building.
+     */
+    public MubelClientConfig.Builder clientConfig() {
+        return MubelClientConfig.newBuilder()
+                .address(name)
+                .channelFactory(() -> InProcessChannelBuilder.forName(name).build());
+    }
+
+    public MubelClient newClient() {
+        return new MubelClient(clientConfig().build());
+    }
+
+    @Override
+    public void close() {
+        server.shutdownNow();
+        scheduler.shutdownNow();
+        try {
+            server.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        LOG.debug("in-memory server {} stopped", name);
+    }
+
+    private InMemoryMubelServer startServer() {
+        try {
+            server.start();
+        } catch (IOException e) {
+            scheduler.shutdownNow();
+            throw new MubelClientException("failed to start in-memory server " + name, e);
+        }
+        LOG.debug("in-memory server {} started", name);
+        return this;
+    }
+
+    public static class Builder {
+        private String name = "mubel-inmemory-" + UUID.randomUUID();
+        private String storageBackendName = "in-memory";
+        private Duration heartbeatInterval = Duration.ofSeconds(5);
+        private Duration leaderTimeout = Duration.ZERO;
+
+        /**
+         * The in-process server name, must be unique within the JVM. Default a random name.
+         */
+        public Builder name(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public Builder storageBackendName(String storageBackendName) {
+            this.storageBackendName = storageBackendName;
+            return this;
+        }
+
+        /**
+         * The heartbeat interval reported to consumer group members. Default 5 seconds.
+         */
+        public Builder heartbeatInterval(Duration heartbeatInterval) {
+            this.heartbeatInterval = heartbeatInterval;
+            return this;
+        }
+
+        /**
+         * A group leader that has not sent a heartbeat within this time is removed from its group.
+         * Default zero, leaders are kept until they leave.
+         */
+        public Builder leaderTimeout(Duration leaderTimeout) {
+            this.leaderTimeout = leaderTimeout;
+            return this;
+        }
+
+        public InMemoryMubelServer start() {
+            if (requireNonNull(name).isBlank()) {
+                throw new MubelClientException("Name cannot be empty");
+            }
+            requireNonNull(storageBackendName);
+            if (requireNonNull(heartbeatInterval).isNegative()) {
+                throw new MubelClientException("Heartbeat interval cannot be negative");
+            }
+            if (requireNonNull(leaderTimeout).isNegative()) {
+                throw new MubelClientException("Leader timeout cannot be negative");
+            }
+            return new InMemoryMubelServer(this).startServer();
+        }
+    }
+}
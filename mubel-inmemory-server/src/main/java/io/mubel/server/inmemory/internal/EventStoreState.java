@@ -0,0 +1,252 @@
+package io.mubel.server.inmemory.internal;
+
+import io.mubel.api.grpc.v1.events.*;
+import io.mubel.api.grpc.v1.server.DataFormat;
+import io.mubel.api.grpc.v1.server.EventStoreDetails;
+import io.mubel.api.grpc.v1.server.EventStoreSummary;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The events, scheduled events and deadlines of one event store.
+ * <p>
+ * Operations of an execute request are validated before any of them are applied, so a request is applied atomically,
+ * the same way the Mubel server applies them in a single transaction.
+ * Listeners are notified, outside the lock, when events are appended or deadlines expire.
+ */
+public class EventStoreState {
+
+    private final String esid;
+    private final DataFormat dataFormat;
+    private final String storageBackendName;
+    private final ScheduledExecutorService scheduler;
+
+    private final List<EventData> log = new ArrayList<>();
+    private final Map<String, List<EventData>> streams = new HashMap<>();
+    private final Set<String> requestIds = new HashSet<>();
+    private final Map<String, ScheduleEventOperation> scheduledEvents = new HashMap<>();
+    private final Map<String, Deadline> scheduledDeadlines = new HashMap<>();
+    private final Deque<Deadline> expiredDeadlines = new ArrayDeque<>();
+
+    private final List<Runnable> eventListeners = new CopyOnWriteArrayList<>();
+    private final List<Runnable> deadlineListeners = new CopyOnWriteArrayList<>();
+
+    public EventStoreState(String esid, DataFormat dataFormat, String storageBackendName, ScheduledExecutorService scheduler) {
+        this.esid = esid;
+        this.dataFormat = dataFormat;
+        this.storageBackendName = storageBackendName;
+        this.scheduler = scheduler;
+    }
+
+    public String esid() {
+        return esid;
+    }
+
+    public void execute(ExecuteRequest request) {
+        boolean appended;
+        synchronized (this) {
+            if (request.hasRequestId() && requestIds.contains(request.getRequestId())) {
+                return;
+            }
+            validate(request);
+            if (request.hasRequestId()) {
+                requestIds.add(request.getRequestId());
+            }
+            appended = false;
+            for (var op : request.getOperationList()) {
+                switch (op.getOperationCase()) {
+                    case APPEND -> {
+                        op.getAppend().getEventList().forEach(this::append);
+                        appended |= op.getAppend().getEventCount() > 0;
+                    }
+                    case SCHEDULEEVENT -> schedule(op.getScheduleEvent());
+                    case SCHEDULEDEADLINE -> schedule(op.getScheduleDeadline());
+                    case CANCEL -> op.getCancel().getEventIdList().forEach(id -> {
+                        scheduledEvents.remove(id);
+                        scheduledDeadlines.remove(id);
+                    });
+                    case OPERATION_NOT_SET -> {
+                    }
+                }
+            }
+        }
+        if (appended) {
+            eventListeners.forEach(Runnable::run);
+        }
+    }
+
+    private void validate(ExecuteRequest request) {
+        final Map<String, Integer> nextRevisions = new HashMap<>();
+        for (var op : request.getOperationList()) {
+            if (!op.hasAppend()) {
+                continue;
+            }
+            for (var event : op.getAppend().getEventList()) {
+                if (event.getStreamId().isEmpty()) {
+                    throw Problems.badRequest("streamId is required");
+                }
+                final int expected = nextRevisions.computeIfAbsent(event.getStreamId(), this::streamSize);
+                if (event.getRevision() != expected) {
+                    throw Problems.revisionConflict("stream %s: expected revision %d but was %d"
+                            .formatted(event.getStreamId(), expected, event.getRevision()));
+                }
+                nextRevisions.put(event.getStreamId(), expected + 1);
+            }
+        }
+    }
+
+    private int streamSize(String streamId) {
+        final var stream = streams.get(streamId);
+        return stream == null ? 0 : stream.size();
+    }
+
+    private void append(EventDataInput input) {
+        appendAt(input, input.getRevision());
+    }
+
+    private void appendAt(EventDataInput input, int revision) {
+        final var builder = EventData.newBuilder()
+                .setId(input.getId())
+                .setStreamId(input.getStreamId())
+                .setRevision(revision)
+                .setType(input.getType())
+                .setCreatedAt(System.currentTimeMillis())
+                .setSequenceNo(log.size() + 1);
+        if (input.hasMetaData()) {
+            builder.setMetaData(input.getMetaData());
+        }
+        if (input.hasData()) {
+            builder.setData(input.getData());
+        }
+        final var event = builder.build();
+        log.add(event);
+        streams.computeIfAbsent(event.getStreamId(), ignored -> new ArrayList<>()).add(event);
+    }
+
+    private void schedule(ScheduleEventOperation op) {
+        final var id = op.getEvent().getId();
+        scheduledEvents.put(id, op);
+        scheduler.schedule(() -> publishScheduledEvent(id), delayMillis(op.getPublishTime()), TimeUnit.MILLISECONDS);
+    }
+
+    private void publishScheduledEvent(String id) {
+        synchronized (this) {
+            final var op = scheduledEvents.remove(id);
+            if (op == null) {
+                return;
+            }
+            appendAt(op.getEvent(), streamSize(op.getEvent().getStreamId()));
+        }
+        eventListeners.forEach(Runnable::run);
+    }
+
+    private void schedule(ScheduleDeadlineOperation op) {
+        scheduledDeadlines.put(op.getId(), op.getDeadline());
+        scheduler.schedule(() -> expireDeadline(op.getId()), delayMillis(op.getPublishTime()), TimeUnit.MILLISECONDS);
+    }
+
+    private void expireDeadline(String id) {
+        synchronized (this) {
+            final var deadline = scheduledDeadlines.remove(id);
+            if (deadline == null) {
+                return;
+            }
+            expiredDeadlines.add(deadline);
+        }
+        deadlineListeners.forEach(Runnable::run);
+    }
+
+    private static long delayMillis(long publishTime) {
+        return Math.max(0, publishTime - System.currentTimeMillis());
+    }
+
+    public synchronized List<EventData> stream(StreamSelector selector, int maxSize) {
+        final var stream = streams.getOrDefault(selector.getStreamId(), List.of());
+        final int from = selector.hasFromRevision() ? Math.min(selector.getFromRevision(), stream.size()) : 0;
+        final int to = selector.hasToRevision() ? Math.min(selector.getToRevision() + 1, stream.size()) : stream.size();
+        if (from >= to) {
+            return List.of();
+        }
+        return List.copyOf(stream.subList(from, (int) Math.min(to, (long) from + maxSize)));
+    }
+
+    /**
+     * @return events with a sequence number greater than the given sequence number.
+     */
+    public synchronized List<EventData> after(long sequenceNo, int maxSize) {
+        final int from = (int) Math.min(Math.max(sequenceNo, 0), log.size());
+        return List.copyOf(log.subList(from, (int) Math.min(log.size(), (long) from + maxSize)));
+    }
+
+    public synchronized List<EventData> all() {
+        return List.copyOf(log);
+    }
+
+    /**
+     * Appends events copied from another event store, keeping their revisions.
+     */
+    public void copyFrom(List<EventData> events) {
+        synchronized (this) {
+            for (var event : events) {
+                final var input = EventDataInput.newBuilder()
+                        .setId(event.getId())
+                        .setStreamId(event.getStreamId())
+                        .setType(event.getType());
+                if (event.hasMetaData()) {
+                    input.setMetaData(event.getMetaData());
+                }
+                if (event.hasData()) {
+                    input.setData(event.getData());
+                }
+                appendAt(input.build(), event.getRevision());
+            }
+        }
+        eventListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Removes and returns expired deadlines, each deadline is only returned once.
+     */
+    public synchronized List<Deadline> takeExpiredDeadlines(int maxSize) {
+        final var result = new ArrayList<Deadline>(Math.min(maxSize, expiredDeadlines.size()));
+        while (result.size() < maxSize && !expiredDeadlines.isEmpty()) {
+            result.add(expiredDeadlines.poll());
+        }
+        return result;
+    }
+
+    public void addEventListener(Runnable listener) {
+        eventListeners.add(listener);
+    }
+
+    public void removeEventListener(Runnable listener) {
+        eventListeners.remove(listener);
+    }
+
+    public void addDeadlineListener(Runnable listener) {
+        deadlineListeners.add(listener);
+    }
+
+    public void removeDeadlineListener(Runnable listener) {
+        deadlineListeners.remove(listener);
+    }
+
+    public EventStoreDetails details() {
+        return EventStoreDetails.newBuilder()
+                .setEsid(esid)
+                .setType(storageBackendName)
+                .setDataFormat(dataFormat)
+                .build();
+    }
+
+    public synchronized EventStoreSummary summary() {
+        return EventStoreSummary.newBuilder()
+                .setEsid(esid)
+                .setEventCount(log.size())
+                .setStreamCount(streams.size())
+                .build();
+    }
+}
@@ -0,0 +1,41 @@
+package io.mubel.server.inmemory.internal;
+
+import io.mubel.api.grpc.v1.server.DataFormat;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class EventStores {
+
+    private final Map<String, EventStoreState> stores = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler;
+
+    public EventStores(ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @return false if the event store already exists.
+     */
+    public boolean create(String esid, DataFormat dataFormat, String storageBackendName) {
+        return stores.putIfAbsent(esid, new EventStoreState(esid, dataFormat, storageBackendName, scheduler)) == null;
+    }
+
+    public boolean drop(String esid) {
+        return stores.remove(esid) != null;
+    }
+
+    public EventStoreState get(String esid) {
+        final var store = stores.get(esid);
+        if (store == null) {
+            throw Problems.notFound("event store %s not found".formatted(esid));
+        }
+        return store;
+    }
+
+    public Collection<EventStoreState> all() {
+        return stores.values();
+    }
+}
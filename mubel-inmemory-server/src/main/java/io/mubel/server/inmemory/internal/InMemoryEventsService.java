@@ -0,0 +1,152 @@
+package io.mubel.server.inmemory.internal;
+
+import com.google.protobuf.Empty;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.mubel.api.grpc.v1.events.*;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+
+public class InMemoryEventsService extends MubelEventsServiceGrpc.MubelEventsServiceImplBase {
+
+    private final EventStores stores;
+    private final ScheduledExecutorService scheduler;
+
+    public InMemoryEventsService(EventStores stores, ScheduledExecutorService scheduler) {
+        this.stores = stores;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public void execute(ExecuteRequest request, StreamObserver<Empty> responseObserver) {
+        try {
+            stores.get(request.getEsid()).execute(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        responseObserver.onNext(Empty.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getEvents(GetEventsRequest request, StreamObserver<GetEventsResponse> responseObserver) {
+        final List<EventData> events;
+        try {
+            events = select(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        final var response = GetEventsResponse.newBuilder()
+                .setSize(events.size())
+                .addAllEvent(events);
+        if (request.getSelector().hasStream()) {
+            response.setStreamId(request.getSelector().getStream().getStreamId());
+        }
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void getEventStream(GetEventsRequest request, StreamObserver<EventData> responseObserver) {
+        final List<EventData> events;
+        try {
+            events = select(request);
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        sendAll((ServerCallStreamObserver<EventData>) responseObserver, events.iterator());
+    }
+
+    private List<EventData> select(GetEventsRequest request) {
+        final var store = stores.get(request.getEsid());
+        final int size = request.hasSize() && request.getSize() > 0 ? request.getSize() : Integer.MAX_VALUE;
+        final var selector = request.getSelector();
+        return switch (selector.getByCase()) {
+            case STREAM -> store.stream(selector.getStream(), size);
+            case ALL -> store.after(selector.getAll().getFromSequenceNo(), size);
+            case BY_NOT_SET -> throw Problems.badRequest("selector is required");
+        };
+    }
+
+    private static <T> void sendAll(ServerCallStreamObserver<T> observer, Iterator<T> items) {
+        final var drain = new Runnable() {
+            private boolean completed = false;
+
+            @Override
+            public synchronized void run() {
+                while (!completed && observer.isReady() && items.hasNext()) {
+                    observer.onNext(items.next());
+                }
+                if (!completed && !items.hasNext()) {
+                    completed = true;
+                    observer.onCompleted();
+                }
+            }
+        };
+        observer.setOnReadyHandler(drain);
+        drain.run();
+    }
+
+    @Override
+    public void subscribe(SubscribeRequest request, StreamObserver<EventData> responseObserver) {
+        final EventStoreState store;
+        try {
+            store = stores.get(request.getEsid());
+            if (!request.getSelector().hasAll()) {
+                throw Problems.badRequest("subscribe only supports the all selector");
+            }
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        final var subscription = new LongPoll<>((ServerCallStreamObserver<EventData>) responseObserver, request.getMaxEvents()) {
+            private long lastSequenceNo = request.getSelector().getAll().getFromSequenceNo();
+
+            @Override
+            protected List<EventData> fetch(int max) {
+                final var events = store.after(lastSequenceNo, max);
+                if (!events.isEmpty()) {
+                    lastSequenceNo = events.getLast().getSequenceNo();
+                }
+                return events;
+            }
+
+            @Override
+            protected void onClose() {
+                store.removeEventListener(listener());
+            }
+        };
+        store.addEventListener(subscription.listener());
+        subscription.start(scheduler, Duration.ofSeconds(request.getTimeout()));
+    }
+
+    @Override
+    public void subcribeToDeadlines(DeadlineSubscribeRequest request, StreamObserver<Deadline> responseObserver) {
+        final EventStoreState store;
+        try {
+            store = stores.get(request.getEsid());
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        final var subscription = new LongPoll<>((ServerCallStreamObserver<Deadline>) responseObserver, request.getMaxEvents()) {
+            @Override
+            protected List<Deadline> fetch(int max) {
+                return store.takeExpiredDeadlines(max);
+            }
+
+            @Override
+            protected void onClose() {
+                store.removeDeadlineListener(listener());
+            }
+        };
+        store.addDeadlineListener(subscription.listener());
+        subscription.start(scheduler, Duration.ofSeconds(request.getTimeout()));
+    }
+}
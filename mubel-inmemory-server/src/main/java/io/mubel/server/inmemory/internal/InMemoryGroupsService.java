@@ -0,0 +1,132 @@
+package io.mubel.server.inmemory.internal;
+
+import com.google.protobuf.Empty;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import io.mubel.api.grpc.v1.groups.*;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consumer groups where the first member to join becomes leader.
+ * <p>
+ * The leader receives a status with leader set and its stream is completed, other members receive a status without
+ * leader and their streams stay open. When the leader leaves, the next member in join order is promoted.
+ * A leader that has not sent a heartbeat within the leader timeout is dropped, when a leader timeout is configured.
+ */
+public class InMemoryGroupsService extends GroupsServiceGrpc.GroupsServiceImplBase {
+
+    private final Map<String, Group> groups = new HashMap<>();
+    private final Duration heartbeatInterval;
+    private final Duration leaderTimeout;
+
+    public InMemoryGroupsService(ScheduledExecutorService scheduler, Duration heartbeatInterval, Duration leaderTimeout) {
+        this.heartbeatInterval = heartbeatInterval;
+        this.leaderTimeout = leaderTimeout;
+        if (leaderTimeout.isPositive()) {
+            final long period = Math.max(1, leaderTimeout.toMillis() / 2);
+            scheduler.scheduleAtFixedRate(this::expireLeaders, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void join(JoinGroupRequest request, StreamObserver<GroupStatus> responseObserver) {
+        final var member = new Member(request.getGroupId(), UUID.randomUUID().toString(), responseObserver);
+        ((ServerCallStreamObserver<GroupStatus>) responseObserver).setOnCancelHandler(() -> leave(member.groupId, member.token));
+        synchronized (groups) {
+            final var group = groups.computeIfAbsent(request.getGroupId(), ignored -> new Group());
+            group.members.add(member);
+            if (group.members.size() == 1) {
+                promote(member);
+            } else {
+                member.send(false);
+            }
+        }
+    }
+
+    @Override
+    public void leaveConsumerGroup(LeaveGroupRequest request, StreamObserver<Empty> responseObserver) {
+        leave(request.getGroupId(), request.getToken());
+        responseObserver.onNext(Empty.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void heartbeat(Heartbeat request, StreamObserver<Empty> responseObserver) {
+        synchronized (groups) {
+            final var group = groups.get(request.getGroupId());
+            if (group != null) {
+                group.members.stream()
+                        .filter(m -> m.token.equals(request.getToken()))
+                        .forEach(m -> m.lastHeartbeat = System.nanoTime());
+            }
+        }
+        responseObserver.onNext(Empty.getDefaultInstance());
+        responseObserver.onCompleted();
+    }
+
+    private void leave(String groupId, String token) {
+        synchronized (groups) {
+            final var group = groups.get(groupId);
+            if (group == null) {
+                return;
+            }
+            final var leader = group.members.peekFirst();
+            group.members.removeIf(m -> m.token.equals(token));
+            if (group.members.isEmpty()) {
+                groups.remove(groupId);
+            } else if (leader != group.members.peekFirst()) {
+                promote(group.members.peekFirst());
+            }
+        }
+    }
+
+    private void expireLeaders() {
+        final long now = System.nanoTime();
+        final var expired = new ArrayList<Member>();
+        synchronized (groups) {
+            for (var group : groups.values()) {
+                final var leader = group.members.peekFirst();
+                if (leader != null && now - leader.lastHeartbeat > leaderTimeout.toNanos()) {
+                    expired.add(leader);
+                }
+            }
+        }
+        expired.forEach(m -> leave(m.groupId, m.token));
+    }
+
+    private void promote(Member member) {
+        member.lastHeartbeat = System.nanoTime();
+        member.send(true);
+        member.observer.onCompleted();
+    }
+
+    private static class Group {
+        private final Deque<Member> members = new ArrayDeque<>();
+    }
+
+    private class Member {
+        private final String groupId;
+        private final String token;
+        private final StreamObserver<GroupStatus> observer;
+        private long lastHeartbeat = System.nanoTime();
+
+        private Member(String groupId, String token, StreamObserver<GroupStatus> observer) {
+            this.groupId = groupId;
+            this.token = token;
+            this.observer = observer;
+        }
+
+        private void send(boolean leader) {
+            observer.onNext(GroupStatus.newBuilder()
+                    .setGroupId(groupId)
+                    .setToken(token)
+                    .setLeader(leader)
+                    .setHearbeatIntervalSeconds((int) heartbeatInterval.toSeconds())
+                    .build());
+        }
+    }
+}
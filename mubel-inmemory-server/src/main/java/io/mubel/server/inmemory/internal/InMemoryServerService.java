@@ -0,0 +1,122 @@
+package io.mubel.server.inmemory.internal;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.StreamObserver;
+import io.mubel.api.grpc.v1.server.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provisioning and server info. Jobs run synchronously, so the returned job status is always final.
+ */
+public class InMemoryServerService extends MubelServerGrpc.MubelServerImplBase {
+
+    private final EventStores stores;
+    private final String storageBackendName;
+    private final Map<String, JobStatus> jobs = new ConcurrentHashMap<>();
+
+    public InMemoryServerService(EventStores stores, String storageBackendName) {
+        this.stores = stores;
+        this.storageBackendName = storageBackendName;
+    }
+
+    @Override
+    public void provision(ProvisionEventStoreRequest request, StreamObserver<JobStatus> responseObserver) {
+        final var description = "provision event store " + request.getEsid();
+        if (stores.create(request.getEsid(), request.getDataFormat(), storageBackendName)) {
+            respond(completed(description), responseObserver);
+        } else {
+            respond(failed(description, Status.Code.ALREADY_EXISTS, "event store %s already exists".formatted(request.getEsid())), responseObserver);
+        }
+    }
+
+    @Override
+    public void drop(DropEventStoreRequest request, StreamObserver<JobStatus> responseObserver) {
+        final var description = "drop event store " + request.getEsid();
+        if (stores.drop(request.getEsid())) {
+            respond(completed(description), responseObserver);
+        } else {
+            respond(failed(description, Status.Code.NOT_FOUND, "event store %s not found".formatted(request.getEsid())), responseObserver);
+        }
+    }
+
+    @Override
+    public void copyEvents(CopyEventsRequest request, StreamObserver<JobStatus> responseObserver) {
+        final var description = "copy events from %s to %s".formatted(request.getSourceEsid(), request.getTargetEsid());
+        try {
+            final var source = stores.get(request.getSourceEsid());
+            stores.get(request.getTargetEsid()).copyFrom(source.all());
+        } catch (StatusRuntimeException e) {
+            respond(failed(description, e.getStatus().getCode(), e.getStatus().getDescription()), responseObserver);
+            return;
+        }
+        respond(completed(description), responseObserver);
+    }
+
+    @Override
+    public void serverInfo(GetServiceInfoRequest request, StreamObserver<ServiceInfoResponse> responseObserver) {
+        final var response = ServiceInfoResponse.newBuilder()
+                .addStorageBackend(StorageBackendInfo.newBuilder()
+                        .setName(storageBackendName)
+                        .setType("in-memory")
+                        .build());
+        stores.all().forEach(store -> response.addEventStore(store.details()));
+        responseObserver.onNext(response.build());
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void eventStoreSummary(GetEventStoreSummaryRequest request, StreamObserver<EventStoreSummary> responseObserver) {
+        final EventStoreSummary summary;
+        try {
+            summary = stores.get(request.getEsid()).summary();
+        } catch (RuntimeException e) {
+            responseObserver.onError(e);
+            return;
+        }
+        responseObserver.onNext(summary);
+        responseObserver.onCompleted();
+    }
+
+    @Override
+    public void jobStatus(GetJobStatusRequest request, StreamObserver<JobStatus> responseObserver) {
+        final var status = jobs.getOrDefault(request.getJobId(), JobStatus.newBuilder()
+                .setJobId(request.getJobId())
+                .setState(JobState.UNKNOWN)
+                .build());
+        responseObserver.onNext(status);
+        responseObserver.onCompleted();
+    }
+
+    private void respond(JobStatus status, StreamObserver<JobStatus> responseObserver) {
+        jobs.put(status.getJobId(), status);
+        responseObserver.onNext(status);
+        responseObserver.onCompleted();
+    }
+
+    private static JobStatus completed(String description) {
+        return job(description)
+                .setState(JobState.COMPLETED)
+                .setProgress(100)
+                .build();
+    }
+
+    private static JobStatus failed(String description, Status.Code code, String detail) {
+        return job(description)
+                .setState(JobState.FAILED)
+                .setProblem(Problems.problem(code, "Job failed", detail))
+                .build();
+    }
+
+    private static JobStatus.Builder job(String description) {
+        final long now = System.currentTimeMillis();
+        return JobStatus.newBuilder()
+                .setJobId(UUID.randomUUID().toString())
+                .setDescription(description)
+                .setCreatedAt(now)
+                .setUpdatedAt(now);
+    }
+}
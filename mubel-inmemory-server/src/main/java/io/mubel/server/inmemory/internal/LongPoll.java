@@ -0,0 +1,82 @@
+package io.mubel.server.inmemory.internal;
+
+import io.grpc.stub.ServerCallStreamObserver;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A server stream that sends items as they become available, honoring the client's flow control.
+ * <p>
+ * The stream is completed when the timeout has elapsed or the max number of items has been sent.
+ * Without a timeout the stream stays open until it is cancelled by the client.
+ */
+public abstract class LongPoll<T> {
+
+    private static final int BATCH_SIZE = 256;
+
+    private final ServerCallStreamObserver<T> observer;
+    private final long maxItems;
+    private final Runnable listener = this::drain;
+    private long sent = 0;
+    private boolean done = false;
+
+    protected LongPoll(ServerCallStreamObserver<T> observer, long maxItems) {
+        this.observer = observer;
+        this.maxItems = maxItems;
+    }
+
+    /**
+     * @return a listener that sends new items, the same instance is returned every time so it can be removed.
+     */
+    public Runnable listener() {
+        return listener;
+    }
+
+    /**
+     * @return the next items to send, at most max items. Returned items are considered sent.
+     */
+    protected abstract List<T> fetch(int max);
+
+    /**
+     * Called once when the stream is done, for any reason.
+     */
+    protected abstract void onClose();
+
+    public void start(ScheduledExecutorService scheduler, Duration timeout) {
+        observer.setOnCancelHandler(() -> close(false));
+        observer.setOnReadyHandler(this::drain);
+        if (timeout.isPositive()) {
+            scheduler.schedule(() -> close(true), timeout.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        drain();
+    }
+
+    public synchronized void drain() {
+        while (!done && observer.isReady()) {
+            final int max = maxItems > 0 ? (int) Math.min(BATCH_SIZE, maxItems - sent) : BATCH_SIZE;
+            final var items = fetch(max);
+            if (items.isEmpty()) {
+                return;
+            }
+            items.forEach(observer::onNext);
+            sent += items.size();
+            if (maxItems > 0 && sent >= maxItems) {
+                close(true);
+            }
+        }
+    }
+
+    private synchronized void close(boolean complete) {
+        if (done) {
+            return;
+        }
+        done = true;
+        onClose();
+        if (complete) {
+            observer.onCompleted();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package io.mubel.server.inmemory.internal;
+
+import io.grpc.Metadata;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.protobuf.ProtoUtils;
+import io.mubel.api.grpc.v1.common.ProblemDetail;
+
+/**
+ * Creates errors the same way the Mubel server does, with a {@link ProblemDetail} in the trailers.
+ */
+public final class Problems {
+
+    private static final Metadata.Key<ProblemDetail> PROBLEM_DETAIL_KEY = ProtoUtils.keyForProto(ProblemDetail.getDefaultInstance());
+
+    private Problems() {
+    }
+
+    public static ProblemDetail problem(Status.Code code, String title, String detail) {
+        return ProblemDetail.newBuilder()
+                .setStatus(code.value())
+                .setTitle(title)
+                .setDetail(detail)
+                .build();
+    }
+
+    public static StatusRuntimeException exception(Status.Code code, String title, String detail) {
+        final var trailers = new Metadata();
+        trailers.put(PROBLEM_DETAIL_KEY, problem(code, title, detail));
+        return Status.fromCode(code)
+                .withDescription(detail)
+                .asRuntimeException(trailers);
+    }
+
+    public static StatusRuntimeException notFound(String detail) {
+        return exception(Status.Code.NOT_FOUND, "Not found", detail);
+    }
+
+    public static StatusRuntimeException badRequest(String detail) {
+        return exception(Status.Code.INVALID_ARGUMENT, "Bad request", detail);
+    }
+
+    public static StatusRuntimeException revisionConflict(String detail) {
+        return exception(Status.Code.ALREADY_EXISTS, "Event revision conflict", detail);
+    }
+}
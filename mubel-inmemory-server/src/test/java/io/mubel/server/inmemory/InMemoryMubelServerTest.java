@@ -0,0 +1,197 @@
+package io.mubel.server.inmemory;
+
+import io.grpc.StatusRuntimeException;
+import io.mubel.api.grpc.v1.events.*;
+import io.mubel.api.grpc.v1.groups.GroupStatus;
+import io.mubel.api.grpc.v1.groups.JoinGroupRequest;
+import io.mubel.api.grpc.v1.groups.LeaveGroupRequest;
+import io.mubel.api.grpc.v1.server.*;
+import io.mubel.client.MubelClient;
+import io.mubel.client.exceptions.RevisionConflictException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class InMemoryMubelServerTest {
+
+    static final String ESID = "test_esid";
+
+    InMemoryMubelServer server;
+    MubelClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = InMemoryMubelServer.start();
+        client = server.newClient();
+        client.provision(ProvisionEventStoreRequest.newBuilder()
+                .setEsid(ESID)
+                .setDataFormat(DataFormat.JSON)
+                .build()).join();
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.close();
+        server.close();
+    }
+
+    @Test
+    void provisioned_event_store_is_listed_in_server_info() {
+        assertThat(client.getServerInfo().getEventStoreList())
+                .extracting(EventStoreDetails::getEsid)
+                .containsExactly(ESID);
+    }
+
+    @Test
+    void provisioning_an_existing_event_store_fails() {
+        var result = client.provision(ProvisionEventStoreRequest.newBuilder()
+                .setEsid(ESID)
+                .setDataFormat(DataFormat.JSON)
+                .build());
+        assertThat(result).failsWithin(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void appended_events_are_read_back_by_stream_and_sequence_number() {
+        client.execute(append(event("s1", 0), event("s1", 1), event("s2", 0)));
+
+        var stream = client.getEvents(GetEventsRequest.newBuilder()
+                .setEsid(ESID)
+                .setSelector(EventSelector.newBuilder().setStream(StreamSelector.newBuilder().setStreamId("s1")))
+                .build());
+        assertThat(stream.getEventList())
+                .extracting(EventData::getRevision)
+                .containsExactly(0, 1);
+
+        var all = client.getEvents(GetEventsRequest.newBuilder()
+                .setEsid(ESID)
+                .setSelector(EventSelector.newBuilder().setAll(AllSelector.newBuilder().setFromSequenceNo(1)))
+                .build());
+        assertThat(all.getEventList())
+                .extracting(EventData::getSequenceNo)
+                .containsExactly(2L, 3L);
+    }
+
+    @Test
+    void revision_conflict_fails_the_whole_request() {
+        client.execute(append(event("s1", 0)));
+
+        assertThatThrownBy(() -> client.execute(append(event("s2", 0), event("s1", 0))))
+                .isInstanceOf(RevisionConflictException.class)
+                .hasCauseInstanceOf(StatusRuntimeException.class);
+        assertThat(client.eventStoreSummary(GetEventStoreSummaryRequest.newBuilder().setEsid(ESID).build())
+                .getEventCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void repeated_request_id_is_applied_once() {
+        var request = append(event("s1", 0)).toBuilder()
+                .setRequestId(UUID.randomUUID().toString())
+                .build();
+        client.execute(request);
+        client.execute(request);
+
+        assertThat(client.eventStoreSummary(GetEventStoreSummaryRequest.newBuilder().setEsid(ESID).build())
+                .getEventCount())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void subscription_receives_existing_and_new_events() {
+        client.execute(append(event("s1", 0)));
+        var events = client.subscribe(SubscribeRequest.newBuilder()
+                        .setEsid(ESID)
+                        .setSelector(EventSelector.newBuilder().setAll(AllSelector.newBuilder()))
+                        .setMaxEvents(2)
+                        .build())
+                .doOnNext(e -> {
+                    if (e.getSequenceNo() == 1) {
+                        client.execute(append(event("s1", 1)));
+                    }
+                })
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(events)
+                .extracting(EventData::getSequenceNo)
+                .containsExactly(1L, 2L);
+    }
+
+    @Test
+    void expired_deadlines_are_delivered_once() {
+        client.execute(ExecuteRequest.newBuilder()
+                .setEsid(ESID)
+                .addOperation(Operation.newBuilder().setScheduleDeadline(ScheduleDeadlineOperation.newBuilder()
+                        .setId(UUID.randomUUID().toString())
+                        .setDeadline(Deadline.newBuilder().setType("deadline"))
+                        .setPublishTime(System.currentTimeMillis())))
+                .build());
+        var request = DeadlineSubscribeRequest.newBuilder()
+                .setEsid(ESID)
+                .setMaxEvents(1)
+                .build();
+
+        assertThat(client.subscribeToDeadlines(request).blockFirst(Duration.ofSeconds(5)))
+                .extracting(Deadline::getType)
+                .isEqualTo("deadline");
+        assertThat(client.subscribeToDeadlines(request.toBuilder().setTimeout(1).build())
+                .collectList()
+                .block(Duration.ofSeconds(5)))
+                .isEmpty();
+    }
+
+    @Test
+    void next_group_member_becomes_leader_when_leader_leaves() {
+        var leader = client.joinConsumerGroup(join()).blockLast(Duration.ofSeconds(5));
+        assertThat(leader.getLeader()).isTrue();
+
+        var follower = client.joinConsumerGroup(join())
+                .filter(GroupStatus::getLeader)
+                .next()
+                .toFuture();
+        assertThat(follower).isNotDone();
+
+        client.leaveConsumerGroup(LeaveGroupRequest.newBuilder()
+                .setGroupId(leader.getGroupId())
+                .setToken(leader.getToken())
+                .build());
+        assertThat(follower).succeedsWithin(Duration.ofSeconds(5))
+                .extracting(GroupStatus::getLeader)
+                .isEqualTo(true);
+    }
+
+    private static JoinGroupRequest join() {
+        return JoinGroupRequest.newBuilder()
+                .setEsid(ESID)
+                .setGroupId("group")
+                .build();
+    }
+
+    private static ExecuteRequest append(EventDataInput... events) {
+        return ExecuteRequest.newBuilder()
+                .setEsid(ESID)
+                .addOperation(Operation.newBuilder()
+                        .setAppend(AppendOperation.newBuilder().addAllEvent(List.of(events))))
+                .build();
+    }
+
+    private static EventDataInput event(String streamId, int revision) {
+        return EventDataInput.newBuilder()
+                .setId(UUID.randomUUID().toString())
+                .setStreamId(streamId)
+                .setRevision(revision)
+                .setType("test")
+                .build();
+    }
+}
@@ -0,0 +1,71 @@
+package io.mubel.sdk.processor;
+
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The handlers of an aggregate class, as found by {@link AggregateProcessor}.
+ *
+ * @param eventHandlers    Ordered with handlers for subtypes before handlers for their supertypes
+ * @param commandHandlers  Ordered with handlers for subtypes before handlers for their supertypes
+ * @param deadlineHandlers Keyed by deadline name
+ */
+record AggregateModel(
+        TypeElement aggregate,
+        List<Handler> eventHandlers,
+        List<Handler> commandHandlers,
+        Map<String, Handler> deadlineHandlers
+) {
+
+    String packageName() {
+        return packageName(aggregate);
+    }
+
+    /**
+     * @return the simple name of the generated class, nested aggregates are prefixed with the names of the enclosing classes.
+     */
+    String generatedSimpleName() {
+        return flatName(aggregate) + AggregateProcessor.GENERATED_SUFFIX;
+    }
+
+    String generatedQualifiedName() {
+        return qualifiedName(packageName(), generatedSimpleName());
+    }
+
+    static String packageName(Element element) {
+        while (!(element instanceof PackageElement)) {
+            element = element.getEnclosingElement();
+        }
+        return ((PackageElement) element).getQualifiedName().toString();
+    }
+
+    /**
+     * @return the simple name of the type, prefixed with the names of its enclosing classes.
+     */
+    static String flatName(TypeElement type) {
+        final var name = new StringBuilder(type.getSimpleName());
+        for (Element e = type.getEnclosingElement(); e instanceof TypeElement enclosing; e = e.getEnclosingElement()) {
+            name.insert(0, enclosing.getSimpleName() + "_");
+        }
+        return name.toString();
+    }
+
+    static String qualifiedName(String packageName, String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+
+    /**
+     * @param argumentType The erased type of the event or command parameter, null for deadline handlers
+     */
+    record Handler(ExecutableElement method, TypeMirror argumentType) {
+
+        String methodName() {
+            return method.getSimpleName().toString();
+        }
+    }
+}
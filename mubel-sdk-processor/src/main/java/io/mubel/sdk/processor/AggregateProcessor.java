@@ -0,0 +1,572 @@
+package io.mubel.sdk.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+/**
+ * Generates an {@code AggregateInvocationConfigProvider} for every class with methods annotated with
+ * {@code @CommandHandler}, {@code @EventHandler} or {@code @DeadlineHandler}, and registers it in
+ * {@code META-INF/services}, where {@code AutoAggregateInvocationConfig} picks it up.
+ * <p>
+ * The generated dispatchers call the handlers directly from switch statements, so no reflection is used to create
+ * aggregates or invoke their handlers, and the aggregates work in native images without reflection configuration.
+ * Handler methods follow the same rules as when they are resolved by reflection, a handler that would never be
+ * invoked is reported as a compile error. A handler that is not public, or is static, is reported as a warning and
+ * no config is generated for its aggregate, so it is resolved by reflection as before.
+ * <p>
+ * When Jackson is on the class path, a {@code JsonEventCodec} is also generated for the records handled by
+ * {@code @EventHandler} methods, the records permitted by sealed event types, and the records they contain.
+ * Records with Jackson annotations are left to Jackson databind. Disable with {@code -Amubel.jsonCodecs=false}.
+ */
+public class AggregateProcessor extends AbstractProcessor {
+
+    static final String COMMAND_HANDLER = "io.mubel.sdk.annotation.CommandHandler";
+    static final String EVENT_HANDLER = "io.mubel.sdk.annotation.EventHandler";
+    static final String DEADLINE_HANDLER = "io.mubel.sdk.annotation.DeadlineHandler";
+    static final String EXPIRED_DEADLINE = "io.mubel.sdk.scheduled.ExpiredDeadline";
+    static final String DEFAULT_DEADLINE_NAME = "all";
+    static final String PROVIDER_INTERFACE = "io.mubel.sdk.execution.AggregateInvocationConfigProvider";
+    static final String GENERATED_SUFFIX = "_MubelInvocationConfig";
+    static final String JSON_CODEC_INTERFACE = "io.mubel.sdk.codec.JsonEventCodec";
+    static final String JSON_CODEC_SUFFIX = "_MubelJsonCodec";
+    static final String JSON_CODECS_OPTION = "mubel.jsonCodecs";
+
+    private static final String JSON_GENERATOR = "com.fasterxml.jackson.core.JsonGenerator";
+    private static final String JACKSON_PACKAGE_PREFIX = "com.fasterxml.jackson.";
+
+    /**
+     * Generated classes keyed by the service interface they are registered under.
+     */
+    private final Map<String, Set<String>> generatedServices = new TreeMap<>();
+    private final Set<String> generatedJsonCodecs = new HashSet<>();
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(COMMAND_HANDLER, EVENT_HANDLER, DEADLINE_HANDLER);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(JSON_CODECS_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            generatedServices.forEach(this::writeServicesFile);
+            return false;
+        }
+        final var aggregates = new LinkedHashSet<TypeElement>();
+        for (var element : roundEnv.getRootElements()) {
+            collectAggregates(element, aggregates);
+        }
+        final boolean jsonCodecs = jsonCodecsEnabled();
+        final var sources = new HashSet<TypeElement>();
+        final var eventRecords = new LinkedHashSet<TypeElement>();
+        if (jsonCodecs) {
+            for (var element : roundEnv.getRootElements()) {
+                collectTypes(element, sources);
+            }
+        }
+        for (var aggregate : aggregates) {
+            createModel(aggregate).ifPresent(model -> {
+                generate(model);
+                if (jsonCodecs) {
+                    model.eventHandlers().forEach(handler -> collectEventRecords(asTypeElement(handler.argumentType()), sources, eventRecords));
+                }
+            });
+        }
+        for (var eventRecord : eventRecords) {
+            generate(createJsonCodecModel(eventRecord, eventRecords));
+        }
+        return false;
+    }
+
+    private boolean jsonCodecsEnabled() {
+        return !"false".equalsIgnoreCase(processingEnv.getOptions().get(JSON_CODECS_OPTION))
+                && processingEnv.getElementUtils().getTypeElement(JSON_CODEC_INTERFACE) != null
+                && processingEnv.getElementUtils().getTypeElement(JSON_GENERATOR) != null;
+    }
+
+    /**
+     * Collects the concrete classes with handler methods, declared or inherited, among the type and its nested types.
+     */
+    private void collectAggregates(Element element, Set<TypeElement> aggregates) {
+        if (!(element instanceof TypeElement type)) {
+            return;
+        }
+        if (type.getKind() == ElementKind.CLASS && !type.getModifiers().contains(Modifier.ABSTRACT) && hasHandlers(type)) {
+            aggregates.add(type);
+        }
+        for (var enclosed : type.getEnclosedElements()) {
+            collectAggregates(enclosed, aggregates);
+        }
+    }
+
+    private void collectTypes(Element element, Set<TypeElement> types) {
+        if (element instanceof TypeElement type) {
+            types.add(type);
+            type.getEnclosedElements().forEach(enclosed -> collectTypes(enclosed, types));
+        }
+    }
+
+    /**
+     * Collects the records that a codec can be generated for among the event type, the records permitted by it when
+     * it is sealed, and the records of their components.
+     *
+     * @param sources The types of this compilation, codecs are not generated for types of other compilations.
+     */
+    private void collectEventRecords(TypeElement type, Set<TypeElement> sources, Set<TypeElement> eventRecords) {
+        if (type == null || eventRecords.contains(type) || generatedJsonCodecs.contains(type.getQualifiedName().toString())) {
+            return;
+        }
+        if (isJsonCodecCandidate(type, sources)) {
+            eventRecords.add(type);
+            for (var component : type.getRecordComponents()) {
+                collectEventRecords(asTypeElement(component.asType()), sources, eventRecords);
+            }
+        }
+        for (var permitted : type.getPermittedSubclasses()) {
+            collectEventRecords(asTypeElement(permitted), sources, eventRecords);
+        }
+    }
+
+    private boolean isJsonCodecCandidate(TypeElement type, Set<TypeElement> sources) {
+        if (type.getKind() != ElementKind.RECORD || !sources.contains(type) || !type.getTypeParameters().isEmpty()) {
+            return false;
+        }
+        for (Element e = type; e instanceof TypeElement enclosing; e = e.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        final var annotated = new ArrayList<Element>();
+        annotated.add(type);
+        annotated.addAll(type.getRecordComponents());
+        type.getEnclosedElements().stream()
+                .filter(element -> !(element instanceof TypeElement))
+                .forEach(annotated::add);
+        if (annotated.stream().anyMatch(this::hasJacksonAnnotation)) {
+            return false;
+        }
+        // databind honours the annotations of the component types, e.g. @JsonTypeInfo on a polymorphic base type
+        final var visited = new HashSet<TypeElement>();
+        return type.getRecordComponents().stream()
+                .noneMatch(component -> hasJacksonAnnotatedType(component.asType(), visited));
+    }
+
+    private boolean hasJacksonAnnotation(Element element) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> asTypeElement(mirror.getAnnotationType()).getQualifiedName().toString()
+                        .startsWith(JACKSON_PACKAGE_PREFIX));
+    }
+
+    /**
+     * @return true if the type, its type arguments or any of their supertypes are annotated with Jackson annotations.
+     */
+    private boolean hasJacksonAnnotatedType(TypeMirror type, Set<TypeElement> visited) {
+        if (type instanceof ArrayType arrayType) {
+            return hasJacksonAnnotatedType(arrayType.getComponentType(), visited);
+        }
+        if (type instanceof WildcardType wildcard) {
+            return wildcard.getExtendsBound() != null && hasJacksonAnnotatedType(wildcard.getExtendsBound(), visited);
+        }
+        if (!(type instanceof DeclaredType declared)) {
+            return false;
+        }
+        final var element = (TypeElement) declared.asElement();
+        if (visited.add(element)) {
+            if (hasJacksonAnnotation(element)) {
+                return true;
+            }
+            for (var supertype : processingEnv.getTypeUtils().directSupertypes(erasure(type))) {
+                if (hasJacksonAnnotatedType(supertype, visited)) {
+                    return true;
+                }
+            }
+        }
+        return declared.getTypeArguments().stream().anyMatch(argument -> hasJacksonAnnotatedType(argument, visited));
+    }
+
+    private JsonCodecModel createJsonCodecModel(TypeElement eventRecord, Set<TypeElement> eventRecords) {
+        final var properties = new ArrayList<JsonCodecModel.Property>();
+        for (var component : eventRecord.getRecordComponents()) {
+            final var type = component.asType();
+            final var kind = jsonKind(type, eventRecords);
+            final var element = asTypeElement(type);
+            properties.add(new JsonCodecModel.Property(
+                    component.getSimpleName().toString(),
+                    kind,
+                    sourceName(type),
+                    sourceName(erasure(type)),
+                    type.getKind() == TypeKind.DECLARED && !((DeclaredType) type).getTypeArguments().isEmpty(),
+                    kind == JsonCodecModel.Kind.RECORD ? JsonCodecModel.generatedQualifiedName(element) : null
+            ));
+        }
+        return new JsonCodecModel(eventRecord, properties);
+    }
+
+    private JsonCodecModel.Kind jsonKind(TypeMirror type, Set<TypeElement> eventRecords) {
+        if (type.getKind().isPrimitive()) {
+            return JsonCodecModel.Kind.valueOf(type.getKind().name());
+        }
+        final var element = asTypeElement(type);
+        if (element == null) {
+            return JsonCodecModel.Kind.DATABIND;
+        }
+        if (eventRecords.contains(element) || generatedJsonCodecs.contains(element.getQualifiedName().toString())) {
+            return JsonCodecModel.Kind.RECORD;
+        }
+        return switch (element.getQualifiedName().toString()) {
+            case "java.lang.Boolean" -> JsonCodecModel.Kind.BOXED_BOOLEAN;
+            case "java.lang.Character" -> JsonCodecModel.Kind.BOXED_CHAR;
+            case "java.lang.Byte" -> JsonCodecModel.Kind.BOXED_BYTE;
+            case "java.lang.Short" -> JsonCodecModel.Kind.BOXED_SHORT;
+            case "java.lang.Integer" -> JsonCodecModel.Kind.BOXED_INT;
+            case "java.lang.Long" -> JsonCodecModel.Kind.BOXED_LONG;
+            case "java.lang.Float" -> JsonCodecModel.Kind.BOXED_FLOAT;
+            case "java.lang.Double" -> JsonCodecModel.Kind.BOXED_DOUBLE;
+            case "java.lang.String" -> JsonCodecModel.Kind.STRING;
+            case "java.util.UUID" -> JsonCodecModel.Kind.UUID;
+            default -> JsonCodecModel.Kind.DATABIND;
+        };
+    }
+
+    /**
+     * @return the type as it is written in source, without type annotations.
+     */
+    private String sourceName(TypeMirror type) {
+        return switch (type.getKind()) {
+            case DECLARED -> {
+                final var declared = (DeclaredType) type;
+                final var name = new StringBuilder(asTypeElement(declared).getQualifiedName());
+                if (!declared.getTypeArguments().isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < declared.getTypeArguments().size(); i++) {
+                        name.append(i == 0 ? "" : ", ").append(sourceName(declared.getTypeArguments().get(i)));
+                    }
+                    name.append('>');
+                }
+                yield name.toString();
+            }
+            case ARRAY -> sourceName(((ArrayType) type).getComponentType()) + "[]";
+            case WILDCARD -> {
+                final var wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    yield "? extends " + sourceName(wildcard.getExtendsBound());
+                }
+                yield wildcard.getSuperBound() != null ? "? super " + sourceName(wildcard.getSuperBound()) : "?";
+            }
+            default -> type.getKind().isPrimitive() ? type.getKind().name().toLowerCase(Locale.ROOT) : type.toString();
+        };
+    }
+
+    private TypeElement asTypeElement(TypeMirror type) {
+        return processingEnv.getTypeUtils().asElement(type) instanceof TypeElement element ? element : null;
+    }
+
+    private boolean hasHandlers(TypeElement type) {
+        return ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type)).stream()
+                .anyMatch(method -> hasAnnotation(method, COMMAND_HANDLER)
+                        || hasAnnotation(method, EVENT_HANDLER)
+                        || hasAnnotation(method, DEADLINE_HANDLER));
+    }
+
+    private Optional<AggregateModel> createModel(TypeElement aggregate) {
+        boolean valid = validateAggregate(aggregate);
+        final var eventHandlers = new ArrayList<AggregateModel.Handler>();
+        final var commandHandlers = new ArrayList<AggregateModel.Handler>();
+        final var deadlineHandlers = new LinkedHashMap<String, AggregateModel.Handler>();
+
+        for (var method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(aggregate))) {
+            if (hasAnnotation(method, EVENT_HANDLER)) {
+                valid &= addEventHandler(aggregate, method, eventHandlers);
+            }
+            if (hasAnnotation(method, COMMAND_HANDLER)) {
+                valid &= addCommandHandler(aggregate, method, commandHandlers);
+            }
+            if (hasAnnotation(method, DEADLINE_HANDLER)) {
+                valid &= addDeadlineHandler(aggregate, method, deadlineHandlers);
+            }
+        }
+        if (!valid) {
+            return Optional.empty();
+        }
+        return Optional.of(new AggregateModel(
+                aggregate,
+                orderSubtypesFirst(eventHandlers),
+                orderSubtypesFirst(commandHandlers),
+                deadlineHandlers
+        ));
+    }
+
+    private boolean validateAggregate(TypeElement aggregate) {
+        for (Element e = aggregate; e instanceof TypeElement type; e = e.getEnclosingElement()) {
+            if (type.getModifiers().contains(Modifier.PRIVATE)) {
+                return error(aggregate, "Aggregate class may not be private");
+            }
+            if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+                return error(aggregate, "Aggregate class must be a top level or static nested class");
+            }
+            if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+                return error(aggregate, "Aggregate class must be a top level or static nested class");
+            }
+        }
+        final var constructors = ElementFilter.constructorsIn(aggregate.getEnclosedElements());
+        final boolean hasNoArgsConstructor = constructors.stream()
+                .anyMatch(c -> c.getParameters().isEmpty() && !c.getModifiers().contains(Modifier.PRIVATE));
+        if (!hasNoArgsConstructor) {
+            return error(aggregate, "Aggregate class must have a non-private no-args constructor");
+        }
+        return true;
+    }
+
+    private boolean addEventHandler(TypeElement aggregate, ExecutableElement method, List<AggregateModel.Handler> handlers) {
+        if (!isPublic(aggregate, method, "@EventHandler")) {
+            return false;
+        }
+        if (method.getReturnType().getKind() != TypeKind.VOID) {
+            return error(aggregate, method, "@EventHandler method must return void");
+        }
+        return addArgumentHandler(aggregate, method, "@EventHandler", handlers);
+    }
+
+    private boolean addCommandHandler(TypeElement aggregate, ExecutableElement method, List<AggregateModel.Handler> handlers) {
+        if (!isPublic(aggregate, method, "@CommandHandler") || !hasEventLikeReturnType(aggregate, method, "@CommandHandler")) {
+            return false;
+        }
+        return addArgumentHandler(aggregate, method, "@CommandHandler", handlers);
+    }
+
+    private boolean addArgumentHandler(
+            TypeElement aggregate,
+            ExecutableElement method,
+            String annotation,
+            List<AggregateModel.Handler> handlers
+    ) {
+        if (method.getParameters().size() != 1) {
+            return error(aggregate, method, annotation + " method must have exactly one parameter");
+        }
+        final var argumentType = erasure(method.getParameters().getFirst().asType());
+        if (argumentType.getKind() != TypeKind.DECLARED) {
+            return error(aggregate, method, annotation + " method parameter must be a class or an interface");
+        }
+        for (var existing : handlers) {
+            if (processingEnv.getTypeUtils().isSameType(existing.argumentType(), argumentType)) {
+                return error(aggregate, method, "Duplicate %s methods for %s: %s and %s"
+                        .formatted(annotation, argumentType, existing.method().getSimpleName(), method.getSimpleName()));
+            }
+        }
+        handlers.add(new AggregateModel.Handler(method, argumentType));
+        return true;
+    }
+
+    private boolean addDeadlineHandler(TypeElement aggregate, ExecutableElement method, Map<String, AggregateModel.Handler> handlers) {
+        if (!isPublic(aggregate, method, "@DeadlineHandler") || !hasEventLikeReturnType(aggregate, method, "@DeadlineHandler")) {
+            return false;
+        }
+        final var parameters = method.getParameters();
+        final boolean validParameters = parameters.isEmpty()
+                || (parameters.size() == 1 && isType(parameters.getFirst().asType(), EXPIRED_DEADLINE));
+        if (!validParameters) {
+            return error(aggregate, method, "@DeadlineHandler method must have no parameters or a single ExpiredDeadline parameter");
+        }
+        final var name = deadlineName(method);
+        final var existing = handlers.get(name);
+        if (existing != null) {
+            return error(aggregate, method, "Duplicate @DeadlineHandler methods for deadline '%s': %s and %s"
+                    .formatted(name, existing.method().getSimpleName(), method.getSimpleName()));
+        }
+        handlers.put(name, new AggregateModel.Handler(method, null));
+        return true;
+    }
+
+    private boolean isPublic(TypeElement aggregate, ExecutableElement method, String annotation) {
+        if (!method.getModifiers().contains(Modifier.PUBLIC)) {
+            return skip(aggregate, method, annotation + " method must be public");
+        }
+        if (method.getModifiers().contains(Modifier.STATIC)) {
+            return skip(aggregate, method, annotation + " method may not be static");
+        }
+        return true;
+    }
+
+    private boolean hasEventLikeReturnType(TypeElement aggregate, ExecutableElement method, String annotation) {
+        final var returnType = method.getReturnType();
+        if (returnType.getKind() == TypeKind.VOID || returnType.getKind().isPrimitive()) {
+            return error(aggregate, method, annotation + " method must return HandlerResult, List or a single event");
+        }
+        return true;
+    }
+
+    /**
+     * Orders the handlers so that a handler for a subtype comes before the handler for its supertype,
+     * which a switch with type patterns requires.
+     */
+    private List<AggregateModel.Handler> orderSubtypesFirst(List<AggregateModel.Handler> handlers) {
+        final var types = processingEnv.getTypeUtils();
+        final var remaining = new ArrayList<>(handlers);
+        final var ordered = new ArrayList<AggregateModel.Handler>(handlers.size());
+        while (!remaining.isEmpty()) {
+            for (var candidate : remaining) {
+                final boolean hasRemainingSubtype = remaining.stream()
+                        .anyMatch(other -> other != candidate
+                                && types.isSubtype(other.argumentType(), candidate.argumentType()));
+                if (!hasRemainingSubtype) {
+                    ordered.add(candidate);
+                    remaining.remove(candidate);
+                    break;
+                }
+            }
+        }
+        return ordered;
+    }
+
+    private void generate(AggregateModel model) {
+        generateSource(model.aggregate(), model.generatedQualifiedName(), PROVIDER_INTERFACE, () -> new InvocationConfigWriter(model).write());
+    }
+
+    private void generate(JsonCodecModel model) {
+        generatedJsonCodecs.add(model.eventRecord().getQualifiedName().toString());
+        generateSource(model.eventRecord(), model.generatedQualifiedName(), JSON_CODEC_INTERFACE, () -> new JsonCodecWriter(model).write());
+    }
+
+    private void generateSource(TypeElement origin, String className, String service, Supplier<String> source) {
+        try {
+            final var file = processingEnv.getFiler().createSourceFile(className, origin);
+            try (Writer writer = file.openWriter()) {
+                writer.write(source.get());
+            }
+            generatedServices.computeIfAbsent(service, s -> new TreeSet<>()).add(className);
+        } catch (IOException e) {
+            error(origin, "Could not write %s: %s".formatted(className, e.getMessage()));
+        }
+    }
+
+    private void writeServicesFile(String service, Set<String> generated) {
+        final var servicesFile = "META-INF/services/" + service;
+        final var providers = new TreeSet<>(generated);
+        providers.addAll(existingProviders(servicesFile));
+        try {
+            final var file = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", servicesFile);
+            try (Writer writer = file.openWriter()) {
+                for (var provider : providers) {
+                    writer.write(provider);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write %s: %s".formatted(servicesFile, e.getMessage()));
+        }
+    }
+
+    /**
+     * @return the providers registered by an earlier, incremental, compilation that still exist.
+     */
+    private Set<String> existingProviders(String servicesFile) {
+        final var providers = new TreeSet<String>();
+        try {
+            final var file = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", servicesFile);
+            try (var reader = new BufferedReader(new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                        .map(String::strip)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .filter(line -> processingEnv.getElementUtils().getTypeElement(line) != null)
+                        .forEach(providers::add);
+            }
+        } catch (IOException | UncheckedIOException | IllegalArgumentException e) {
+            // no earlier compilation output
+        }
+        return providers;
+    }
+
+    private boolean hasAnnotation(Element element, String annotation) {
+        return element.getAnnotationMirrors().stream()
+                .anyMatch(mirror -> isType(mirror.getAnnotationType(), annotation));
+    }
+
+    private String deadlineName(ExecutableElement method) {
+        final var values = new HashMap<String, Object>();
+        for (var mirror : method.getAnnotationMirrors()) {
+            if (isType(mirror.getAnnotationType(), DEADLINE_HANDLER)) {
+                mirror.getElementValues().forEach((key, value) -> values.put(key.getSimpleName().toString(), value.getValue()));
+            }
+        }
+        return (String) values.getOrDefault("value", DEFAULT_DEADLINE_NAME);
+    }
+
+    private boolean isType(TypeMirror type, String qualifiedName) {
+        final var element = processingEnv.getTypeUtils().asElement(type);
+        return element instanceof TypeElement typeElement && typeElement.getQualifiedName().contentEquals(qualifiedName);
+    }
+
+    private TypeMirror erasure(TypeMirror type) {
+        return processingEnv.getTypeUtils().erasure(type);
+    }
+
+    private boolean error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+        return false;
+    }
+
+    private boolean error(TypeElement aggregate, ExecutableElement method, String message) {
+        return report(Diagnostic.Kind.ERROR, aggregate, method, message);
+    }
+
+    /**
+     * Reports a warning and skips generation for the aggregate, which is then resolved by reflection.
+     */
+    private boolean skip(TypeElement aggregate, ExecutableElement method, String message) {
+        return report(Diagnostic.Kind.WARNING, aggregate, method, message + ", no invocation config is generated");
+    }
+
+    private boolean report(Diagnostic.Kind kind, TypeElement aggregate, ExecutableElement method, String message) {
+        // inherited methods are reported on the aggregate, as they may be declared in another compilation unit
+        final var element = method.getEnclosingElement().equals(aggregate) ? method : aggregate;
+        processingEnv.getMessager().printMessage(
+                kind,
+                "%s.%s: %s".formatted(aggregate.getSimpleName(), method.getSimpleName(), message),
+                element
+        );
+        return false;
+    }
+}
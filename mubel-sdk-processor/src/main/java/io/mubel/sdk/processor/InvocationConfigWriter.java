@@ -0,0 +1,163 @@
+package io.mubel.sdk.processor;
+
+import java.util.List;
+
+/**
+ * Writes the source of the generated {@code AggregateInvocationConfigProvider} of an aggregate.
+ * <p>
+ * All types are written with their qualified names, so the generated source can not clash with the imports
+ * or type names of the aggregate's package.
+ */
+class InvocationConfigWriter {
+
+    private static final String HANDLER_RESULT = "io.mubel.sdk.HandlerResult";
+    private static final String EXCEPTIONS = "io.mubel.sdk.exceptions.";
+
+    private final AggregateModel model;
+    private final String aggregateType;
+    private final StringBuilder out = new StringBuilder();
+
+    InvocationConfigWriter(AggregateModel model) {
+        this.model = model;
+        this.aggregateType = model.aggregate().getQualifiedName().toString();
+    }
+
+    String write() {
+        final var packageName = model.packageName();
+        if (!packageName.isEmpty()) {
+            line("package %s;", packageName);
+            line("");
+        }
+        line("@javax.annotation.processing.Generated(\"%s\")", AggregateProcessor.class.getName());
+        line("@SuppressWarnings(\"unchecked\")");
+        line("public final class %s implements %s {", model.generatedSimpleName(), AggregateProcessor.PROVIDER_INTERFACE);
+        line("");
+        line("    @Override");
+        line("    public Class<?> aggregateClass() {");
+        line("        return %s.class;", aggregateType);
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public io.mubel.sdk.execution.AggregateInvocationConfig<%s, Object, Object> invocationConfig() {", aggregateType);
+        line("        return new io.mubel.sdk.execution.AggregateInvocationConfig<>(");
+        line("                \"%s\",", model.aggregate().getSimpleName());
+        line("                %s::new,", aggregateType);
+        line("                aggregate -> event -> applyEvent(aggregate, event),");
+        line("                aggregate -> command -> handleCommand(aggregate, command),");
+        line("                %s::handleDeadline", model.generatedSimpleName());
+        line("        );");
+        line("    }");
+        line("");
+        writeEventDispatcher();
+        line("");
+        writeCommandDispatcher();
+        line("");
+        writeDeadlineDispatcher();
+        line("");
+        writeHelpers();
+        line("}");
+        return out.toString();
+    }
+
+    private void writeEventDispatcher() {
+        line("    private static void applyEvent(%s aggregate, Object event) {", aggregateType);
+        line("        switch (event) {");
+        for (var handler : model.eventHandlers()) {
+            line("            case %s typed -> {", handler.argumentType());
+            line("                try {");
+            line("                    aggregate.%s(typed);", handler.methodName());
+            line("                } catch (Exception e) {");
+            line("                    throw new %sEventHandlerException(errorMessage(aggregate, \"%s\"), e);", EXCEPTIONS, handler.methodName());
+            line("                }");
+            line("            }");
+        }
+        if (!hasUnconditionalCase(model.eventHandlers())) {
+            line("            default -> throw %sHandlerNotFoundException.forEvent(\"No event handler found for \" + event.getClass());", EXCEPTIONS);
+        }
+        line("        }");
+        line("    }");
+    }
+
+    private void writeCommandDispatcher() {
+        line("    private static %s<Object> handleCommand(%s aggregate, Object command) {", HANDLER_RESULT, aggregateType);
+        line("        switch (command) {");
+        for (var handler : model.commandHandlers()) {
+            line("            case %s typed -> {", handler.argumentType());
+            writeInvocation(handler, "typed");
+            line("            }");
+        }
+        if (!hasUnconditionalCase(model.commandHandlers())) {
+            line("            default -> throw %sHandlerNotFoundException.forCommand(\"No command handler found for \" + command.getClass());", EXCEPTIONS);
+        }
+        line("        }");
+        line("    }");
+    }
+
+    private void writeDeadlineDispatcher() {
+        line("    private static %s<Object> handleDeadline(%s aggregate, io.mubel.sdk.scheduled.ExpiredDeadline deadline) {", HANDLER_RESULT, aggregateType);
+        line("        switch (deadline.deadlineName()) {");
+        final var handlers = model.deadlineHandlers();
+        handlers.forEach((name, handler) -> {
+            if (!name.equals(AggregateProcessor.DEFAULT_DEADLINE_NAME)) {
+                line("            case \"%s\" -> {", escape(name));
+                writeInvocation(handler, deadlineArgument(handler));
+                line("            }");
+            }
+        });
+        final var defaultHandler = handlers.get(AggregateProcessor.DEFAULT_DEADLINE_NAME);
+        if (defaultHandler != null) {
+            line("            default -> {");
+            writeInvocation(defaultHandler, deadlineArgument(defaultHandler));
+            line("            }");
+        } else {
+            line("            default -> throw %sHandlerNotFoundException.forDeadline(", EXCEPTIONS);
+            line("                    \"No deadline handler found for deadline '%%s'\".formatted(deadline.deadlineName()));");
+        }
+        line("        }");
+        line("    }");
+    }
+
+    private void writeInvocation(AggregateModel.Handler handler, String argument) {
+        line("                try {");
+        line("                    return toHandlerResult(aggregate.%s(%s));", handler.methodName(), argument);
+        line("                } catch (Exception e) {");
+        line("                    throw new %sCommandHandlerException(errorMessage(aggregate, \"%s\"), e);", EXCEPTIONS, handler.methodName());
+        line("                }");
+    }
+
+    private void writeHelpers() {
+        line("    private static %s<Object> toHandlerResult(Object result) {", HANDLER_RESULT);
+        line("        if (result instanceof java.util.List<?> list) {");
+        line("            return %s.of((java.util.List<Object>) list).build();", HANDLER_RESULT);
+        line("        } else if (result instanceof %s<?> handlerResult) {", HANDLER_RESULT);
+        line("            return (%s<Object>) handlerResult;", HANDLER_RESULT);
+        line("        } else {");
+        line("            return %s.of(java.util.List.of(result)).build();", HANDLER_RESULT);
+        line("        }");
+        line("    }");
+        line("");
+        line("    private static String errorMessage(Object aggregate, String methodName) {");
+        line("        return \"Caught exception while invoking %%s.%%s\".formatted(aggregate.getClass().getName(), methodName);");
+        line("    }");
+    }
+
+    private static String deadlineArgument(AggregateModel.Handler handler) {
+        return handler.method().getParameters().isEmpty() ? "" : "deadline";
+    }
+
+    /**
+     * A handler for {@link Object} matches everything, a switch may then not have a default case.
+     */
+    private boolean hasUnconditionalCase(List<AggregateModel.Handler> handlers) {
+        return handlers.stream()
+                .anyMatch(handler -> handler.argumentType().toString().equals(Object.class.getName()));
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private void line(String format, Object... args) {
+        out.append(format.formatted(args)).append('\n');
+    }
+}
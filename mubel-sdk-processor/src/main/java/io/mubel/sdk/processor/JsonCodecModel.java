@@ -0,0 +1,60 @@
+package io.mubel.sdk.processor;
+
+import javax.lang.model.element.TypeElement;
+import java.util.List;
+
+/**
+ * An event record that a {@code JsonEventCodec} is generated for, as found by {@link AggregateProcessor}.
+ *
+ * @param properties The record components, in declaration order
+ */
+record JsonCodecModel(TypeElement eventRecord, List<Property> properties) {
+
+    String packageName() {
+        return AggregateModel.packageName(eventRecord);
+    }
+
+    String generatedSimpleName() {
+        return generatedSimpleName(eventRecord);
+    }
+
+    String generatedQualifiedName() {
+        return generatedQualifiedName(eventRecord);
+    }
+
+    static String generatedSimpleName(TypeElement eventRecord) {
+        return AggregateModel.flatName(eventRecord) + AggregateProcessor.JSON_CODEC_SUFFIX;
+    }
+
+    static String generatedQualifiedName(TypeElement eventRecord) {
+        return AggregateModel.qualifiedName(AggregateModel.packageName(eventRecord), generatedSimpleName(eventRecord));
+    }
+
+    /**
+     * How a property is written and read.
+     */
+    enum Kind {
+        BOOLEAN, CHAR, BYTE, SHORT, INT, LONG, FLOAT, DOUBLE,
+        BOXED_BOOLEAN, BOXED_CHAR, BOXED_BYTE, BOXED_SHORT, BOXED_INT, BOXED_LONG, BOXED_FLOAT, BOXED_DOUBLE,
+        STRING,
+        UUID,
+        /**
+         * A record with a generated codec.
+         */
+        RECORD,
+        /**
+         * Any other type, written and read by Jackson databind.
+         */
+        DATABIND
+    }
+
+    /**
+     * @param name     The record component name, which is also the JSON property name
+     * @param type     The source form of the component type
+     * @param rawType  The source form of the erased component type
+     * @param generic  True if the type has type arguments, databind then needs a type reference to read it
+     * @param codec    The qualified name of the generated codec of a {@link Kind#RECORD} property, otherwise null
+     */
+    record Property(String name, Kind kind, String type, String rawType, boolean generic, String codec) {
+    }
+}
@@ -0,0 +1,223 @@
+package io.mubel.sdk.processor;
+
+import io.mubel.sdk.processor.JsonCodecModel.Property;
+
+/**
+ * Writes the source of the generated {@code JsonEventCodec} of an event record.
+ * <p>
+ * Properties are written with the Jackson streaming API in the way Jackson databind writes them by default.
+ * When reading, unknown properties are skipped and missing properties get the default value of their type.
+ * A scalar property is read directly when its token has the expected kind, any other token is handed to databind,
+ * which coerces it or fails as it would when reading the whole event.
+ * Types without a direct mapping are written and read for their declared type with the databind {@code ObjectMapper}
+ * of the generator or parser.
+ */
+class JsonCodecWriter {
+
+    private static final String GENERATOR = "com.fasterxml.jackson.core.JsonGenerator";
+    private static final String PARSER = "com.fasterxml.jackson.core.JsonParser";
+    private static final String TOKEN = "com.fasterxml.jackson.core.JsonToken";
+    private static final String SERIALIZED_STRING = "com.fasterxml.jackson.core.io.SerializedString";
+    private static final String TYPE_REFERENCE = "com.fasterxml.jackson.core.type.TypeReference";
+    private static final String OBJECT_MAPPER = "com.fasterxml.jackson.databind.ObjectMapper";
+
+    private final JsonCodecModel model;
+    private final String recordType;
+    private final StringBuilder out = new StringBuilder();
+
+    JsonCodecWriter(JsonCodecModel model) {
+        this.model = model;
+        this.recordType = model.eventRecord().getQualifiedName().toString();
+    }
+
+    String write() {
+        final var packageName = model.packageName();
+        if (!packageName.isEmpty()) {
+            line("package %s;", packageName);
+            line("");
+        }
+        line("@javax.annotation.processing.Generated(\"%s\")", AggregateProcessor.class.getName());
+        line("public final class %s implements %s<%s> {", model.generatedSimpleName(), AggregateProcessor.JSON_CODEC_INTERFACE, recordType);
+        line("");
+        writeConstants();
+        line("    @Override");
+        line("    public Class<%s> eventClass() {", recordType);
+        line("        return %s.class;", recordType);
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public void write(%s generator, %s event) throws java.io.IOException {", GENERATOR, recordType);
+        line("        writeEvent(generator, event);");
+        line("    }");
+        line("");
+        line("    @Override");
+        line("    public %s read(%s parser) throws java.io.IOException {", recordType, PARSER);
+        line("        return readEvent(parser);");
+        line("    }");
+        line("");
+        writeWriteMethod();
+        line("");
+        writeReadMethod();
+        line("}");
+        return out.toString();
+    }
+
+    private void writeConstants() {
+        final var properties = model.properties();
+        for (int i = 0; i < properties.size(); i++) {
+            final var property = properties.get(i);
+            line("    private static final %s NAME_%d = new %s(\"%s\");", SERIALIZED_STRING, i, SERIALIZED_STRING, property.name());
+            if (property.kind() == JsonCodecModel.Kind.DATABIND && property.generic()) {
+                line("    private static final %s<%s> TYPE_%d = new %s<>() {", TYPE_REFERENCE, property.type(), i, TYPE_REFERENCE);
+                line("    };");
+            }
+        }
+        if (!properties.isEmpty()) {
+            line("");
+        }
+    }
+
+    private void writeWriteMethod() {
+        line("    public static void writeEvent(%s generator, %s event) throws java.io.IOException {", GENERATOR, recordType);
+        line("        generator.writeStartObject(event);");
+        final var properties = model.properties();
+        for (int i = 0; i < properties.size(); i++) {
+            final var property = properties.get(i);
+            final var value = "event.%s()".formatted(property.name());
+            line("        generator.writeFieldName(NAME_%d);", i);
+            switch (property.kind()) {
+                case BOOLEAN -> line("        generator.writeBoolean(%s);", value);
+                case CHAR -> line("        generator.writeString(String.valueOf(%s));", value);
+                case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> line("        generator.writeNumber(%s);", value);
+                case STRING -> line("        generator.writeString(%s);", value);
+                case DATABIND -> line("        ((%s) generator.getCodec()).writerFor(%s).writeValue(generator, %s);",
+                        OBJECT_MAPPER, typeExpression(property, i), value);
+                default -> writeNullable(property, value, i);
+            }
+        }
+        line("        generator.writeEndObject();");
+        line("    }");
+    }
+
+    private void writeNullable(Property property, String value, int index) {
+        final var local = "value" + index;
+        line("        final %s %s = %s;", property.rawType(), local, value);
+        line("        if (%s == null) {", local);
+        line("            generator.writeNull();");
+        line("        } else {");
+        switch (property.kind()) {
+            case BOXED_BOOLEAN -> line("            generator.writeBoolean(%s);", local);
+            case BOXED_CHAR, UUID -> line("            generator.writeString(%s.toString());", local);
+            case BOXED_BYTE -> line("            generator.writeNumber(%s.intValue());", local);
+            case BOXED_SHORT, BOXED_INT, BOXED_LONG, BOXED_FLOAT, BOXED_DOUBLE -> line("            generator.writeNumber(%s);", local);
+            case RECORD -> line("            %s.writeEvent(generator, %s);", property.codec(), local);
+            default -> throw new IllegalStateException("Not a nullable property kind: " + property.kind());
+        }
+        line("        }");
+    }
+
+    private void writeReadMethod() {
+        line("    public static %s readEvent(%s parser) throws java.io.IOException {", recordType, PARSER);
+        line("        if (!parser.isExpectedStartObjectToken()) {");
+        line("            throw new com.fasterxml.jackson.core.JsonParseException(parser, \"Expected an object for %s\");", recordType);
+        line("        }");
+        final var properties = model.properties();
+        for (int i = 0; i < properties.size(); i++) {
+            line("        %s value%d = %s;", properties.get(i).type(), i, defaultValue(properties.get(i)));
+        }
+        line("        while (parser.nextToken() == %s.FIELD_NAME) {", TOKEN);
+        line("            final String name = parser.currentName();");
+        line("            final boolean isNull = parser.nextToken() == %s.VALUE_NULL;", TOKEN);
+        line("            switch (name) {");
+        for (int i = 0; i < properties.size(); i++) {
+            final var property = properties.get(i);
+            line("                case \"%s\" -> value%d = %s;", property.name(), i, readExpression(property, i));
+        }
+        line("                default -> parser.skipChildren();");
+        line("            }");
+        line("        }");
+        line("        if (!parser.hasToken(%s.END_OBJECT)) {", TOKEN);
+        line("            throw new com.fasterxml.jackson.core.JsonParseException(parser, \"Unexpected end of %s\");", recordType);
+        line("        }");
+        final var arguments = new StringBuilder();
+        for (int i = 0; i < properties.size(); i++) {
+            arguments.append(i == 0 ? "" : ", ").append("value").append(i);
+        }
+        line("        return new %s(%s);", recordType, arguments);
+        line("    }");
+    }
+
+    private static String readExpression(Property property, int index) {
+        return switch (property.kind()) {
+            case BOOLEAN -> "isNull ? false : " + readBoolean("boolean");
+            case CHAR -> "isNull ? '\\0' : " + readChar("char");
+            case BYTE -> "isNull ? (byte) 0 : " + readInt("getByteValue", "byte");
+            case SHORT -> "isNull ? (short) 0 : " + readInt("getShortValue", "short");
+            case INT -> "isNull ? 0 : " + readInt("getIntValue", "int");
+            case LONG -> "isNull ? 0L : " + readInt("getLongValue", "long");
+            case FLOAT -> "isNull ? 0.0f : " + readFloat("getFloatValue", "float");
+            case DOUBLE -> "isNull ? 0.0 : " + readFloat("getDoubleValue", "double");
+            case BOXED_BOOLEAN -> "isNull ? null : " + readBoolean("Boolean");
+            case BOXED_CHAR -> "isNull ? null : " + readChar("Character");
+            case BOXED_BYTE -> "isNull ? null : " + readInt("getByteValue", "Byte");
+            case BOXED_SHORT -> "isNull ? null : " + readInt("getShortValue", "Short");
+            case BOXED_INT -> "isNull ? null : " + readInt("getIntValue", "Integer");
+            case BOXED_LONG -> "isNull ? null : " + readInt("getLongValue", "Long");
+            case BOXED_FLOAT -> "isNull ? null : " + readFloat("getFloatValue", "Float");
+            case BOXED_DOUBLE -> "isNull ? null : " + readFloat("getDoubleValue", "Double");
+            case STRING -> "isNull ? null : parser.hasToken(%s.VALUE_STRING) ? parser.getText() : %s"
+                    .formatted(TOKEN, readValueAs("String"));
+            case UUID -> "isNull ? null : parser.hasToken(%s.VALUE_STRING) && parser.getTextLength() == 36 ? java.util.UUID.fromString(parser.getText()) : %s"
+                    .formatted(TOKEN, readValueAs("java.util.UUID"));
+            case RECORD -> "isNull ? null : %s.readEvent(parser)".formatted(property.codec());
+            case DATABIND -> property.generic()
+                    ? "parser.readValueAs(TYPE_%d)".formatted(index)
+                    : readValueAs(property.rawType());
+        };
+    }
+
+    /**
+     * The declared type of a databind property, so it is written as databind writes it as part of the event,
+     * e.g. with the type id of a polymorphic type, not as the runtime class of the value.
+     */
+    private static String typeExpression(Property property, int index) {
+        return property.generic() ? "TYPE_" + index : property.rawType() + ".class";
+    }
+
+    private static String readBoolean(String type) {
+        return "parser.currentToken().isBoolean() ? parser.getBooleanValue() : " + readValueAs(type);
+    }
+
+    private static String readChar(String type) {
+        return "parser.hasToken(%s.VALUE_STRING) && parser.getTextLength() == 1 ? parser.getText().charAt(0) : %s"
+                .formatted(TOKEN, readValueAs(type));
+    }
+
+    private static String readInt(String getter, String type) {
+        return "parser.hasToken(%s.VALUE_NUMBER_INT) ? parser.%s() : %s".formatted(TOKEN, getter, readValueAs(type));
+    }
+
+    private static String readFloat(String getter, String type) {
+        return "parser.currentToken().isNumeric() ? parser.%s() : %s".formatted(getter, readValueAs(type));
+    }
+
+    /**
+     * Reads the current value with databind, a type mismatch is then coerced or reported as databind does.
+     */
+    private static String readValueAs(String type) {
+        return "parser.readValueAs(%s.class)".formatted(type);
+    }
+
+    private static String defaultValue(Property property) {
+        return switch (property.kind()) {
+            case BOOLEAN -> "false";
+            case CHAR -> "'\\0'";
+            case BYTE, SHORT, INT, LONG, FLOAT, DOUBLE -> "(%s) 0".formatted(property.type());
+            default -> "null";
+        };
+    }
+
+    private void line(String format, Object... args) {
+        out.append(format.formatted(args)).append('\n');
+    }
+}
@@ -0,0 +1,446 @@
+package io.mubel.sdk.processor;
+
+import com.google.protobuf.ByteString;
+import io.mubel.sdk.codec.GeneratedJsonEventDataCodec;
+import io.mubel.sdk.codec.JacksonJsonEventDataCodec;
+import io.mubel.sdk.exceptions.CommandHandlerException;
+import io.mubel.sdk.execution.AggregateInvocationConfig;
+import io.mubel.sdk.execution.AutoAggregateInvocationConfig;
+import io.mubel.sdk.execution.internal.CommandExecutor;
+import io.mubel.sdk.scheduled.ExpiredDeadline;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class AggregateProcessorTest {
+
+    static final String COUNTER = """
+            package test.app;
+
+            import io.mubel.sdk.HandlerResult;
+            import io.mubel.sdk.annotation.CommandHandler;
+            import io.mubel.sdk.annotation.DeadlineHandler;
+            import io.mubel.sdk.annotation.EventHandler;
+            import io.mubel.sdk.scheduled.ExpiredDeadline;
+
+            import java.util.List;
+
+            public class Counter {
+
+                public sealed interface Event permits Incremented, Reset {
+                }
+
+                public record Incremented(int by) implements Event {
+                }
+
+                public record Reset() implements Event {
+                }
+
+                public record Increment(int by) {
+                }
+
+                public record Fail() {
+                }
+
+                private int value;
+
+                public int value() {
+                    return value;
+                }
+
+                @EventHandler
+                public void on(Event event) {
+                    if (event instanceof Incremented incremented) {
+                        value += incremented.by();
+                    }
+                }
+
+                @EventHandler
+                public void on(Reset reset) {
+                    value = 0;
+                }
+
+                @CommandHandler
+                public List<Event> handle(Increment command) {
+                    return List.of(new Incremented(command.by()));
+                }
+
+                @CommandHandler
+                public Event handle(Fail command) throws Exception {
+                    throw new Exception("failed");
+                }
+
+                @DeadlineHandler("reset")
+                public HandlerResult<Event> onReset(ExpiredDeadline deadline) {
+                    return HandlerResult.<Event>of(new Reset()).build();
+                }
+
+                @DeadlineHandler
+                public Event onAnyDeadline() {
+                    return new Incremented(100);
+                }
+            }
+            """;
+
+    static final String LEDGER = """
+            package test.app;
+
+            import com.fasterxml.jackson.annotation.JsonProperty;
+            import com.fasterxml.jackson.annotation.JsonSubTypes;
+            import com.fasterxml.jackson.annotation.JsonTypeInfo;
+            import io.mubel.sdk.annotation.CommandHandler;
+            import io.mubel.sdk.annotation.EventHandler;
+
+            import java.math.BigDecimal;
+            import java.util.List;
+            import java.util.UUID;
+
+            public class Ledger {
+
+                public sealed interface Event permits Opened, Posted, Renamed, Charged {
+                }
+
+                @JsonTypeInfo(use = JsonTypeInfo.Id.NAME)
+                @JsonSubTypes(@JsonSubTypes.Type(value = FlatFee.class, name = "flat"))
+                public interface Fee {
+                }
+
+                public record FlatFee(long amount) implements Fee {
+                }
+
+                public record Money(long amount, String currency) {
+                }
+
+                public record Opened(UUID id, String owner, boolean active, char kind, Integer limit, short branch) implements Event {
+                }
+
+                public record Posted(Money money, List<Money> history, BigDecimal rate, double weight, Float fee) implements Event {
+                }
+
+                public record Renamed(@JsonProperty("new_name") String name) implements Event {
+                }
+
+                public record Charged(List<Fee> fees) implements Event {
+                }
+
+                @EventHandler
+                public void on(Event event) {
+                }
+
+                @CommandHandler
+                public List<Event> handle(String command) {
+                    return List.of();
+                }
+            }
+            """;
+
+    @TempDir
+    Path output;
+
+    @Test
+    void generated_config_is_picked_up() throws Exception {
+        final var classLoader = compile(COUNTER);
+        final var counter = classLoader.loadClass("test.app.Counter");
+
+        assertThat(Files.readString(output.resolve("META-INF/services/" + AggregateProcessor.PROVIDER_INTERFACE)))
+                .contains("test.app.Counter_MubelInvocationConfig");
+        assertThat(AutoAggregateInvocationConfig.of(counter).eventDispatcher().getClass().getName())
+                .as("dispatcher is created by the generated config")
+                .startsWith("test.app.Counter_MubelInvocationConfig");
+    }
+
+    @Test
+    void events_are_dispatched_to_most_specific_handler() throws Exception {
+        final var classLoader = compile(COUNTER);
+        final var executor = executor(classLoader);
+        final var aggregate = executor.newAggregateInstance();
+
+        executor.applyEvents(aggregate, Flux.just(
+                newInstance(classLoader, "test.app.Counter$Incremented", 2),
+                newInstance(classLoader, "test.app.Counter$Reset"),
+                newInstance(classLoader, "test.app.Counter$Incremented", 3)
+        ));
+
+        assertThat(aggregate.getClass().getMethod("value").invoke(aggregate)).isEqualTo(3);
+    }
+
+    @Test
+    void commands_are_dispatched() throws Exception {
+        final var classLoader = compile(COUNTER);
+        final var executor = executor(classLoader);
+
+        final var result = executor.executeOn(
+                executor.newAggregateInstance(),
+                newInstance(classLoader, "test.app.Counter$Increment", 4)
+        );
+
+        assertThat(result.events()).containsExactly(newInstance(classLoader, "test.app.Counter$Incremented", 4));
+        assertThatThrownBy(() -> executor.executeOn(
+                executor.newAggregateInstance(),
+                newInstance(classLoader, "test.app.Counter$Fail")
+        )).isInstanceOf(CommandHandlerException.class)
+                .hasMessage("Caught exception while invoking test.app.Counter.handle")
+                .hasRootCauseMessage("failed");
+    }
+
+    @Test
+    void deadlines_are_dispatched_by_name() throws Exception {
+        final var classLoader = compile(COUNTER);
+        final var executor = executor(classLoader);
+
+        assertThat(executor.handleExpiredDeadlineOn(executor.newAggregateInstance(), deadline("reset")).events())
+                .containsExactly(newInstance(classLoader, "test.app.Counter$Reset"));
+        assertThat(executor.handleExpiredDeadlineOn(executor.newAggregateInstance(), deadline("other")).events())
+                .containsExactly(newInstance(classLoader, "test.app.Counter$Incremented", 100));
+    }
+
+    @Test
+    void json_codecs_are_generated_for_event_records() throws Exception {
+        final var classLoader = compile(LEDGER);
+        final var codec = new GeneratedJsonEventDataCodec();
+
+        assertThat(Files.readString(output.resolve("META-INF/services/" + AggregateProcessor.JSON_CODEC_INTERFACE)))
+                .contains("test.app.Ledger_Money_MubelJsonCodec", "test.app.Ledger_Opened_MubelJsonCodec", "test.app.Ledger_Posted_MubelJsonCodec")
+                .doesNotContain("Renamed", "Charged");
+        assertThat(codec.hasGeneratedCodec(classLoader.loadClass("test.app.Ledger$Opened"))).isTrue();
+        assertThat(codec.hasGeneratedCodec(classLoader.loadClass("test.app.Ledger$Renamed")))
+                .as("records with Jackson annotations are mapped by databind")
+                .isFalse();
+        assertThat(codec.hasGeneratedCodec(classLoader.loadClass("test.app.Ledger$Charged")))
+                .as("records with components of Jackson annotated types are mapped by databind")
+                .isFalse();
+    }
+
+    @Test
+    void generated_json_codecs_write_and_read_the_same_json_as_databind() throws Exception {
+        final var classLoader = compile(LEDGER);
+        final var codec = new GeneratedJsonEventDataCodec();
+        final var databind = new JacksonJsonEventDataCodec();
+        final var money = newInstance(classLoader, "test.app.Ledger$Money", 100L, "SEK");
+        final var events = List.of(
+                newInstance(classLoader, "test.app.Ledger$Opened", UUID.randomUUID(), "an owner", true, 'A', 10, (short) 3),
+                newInstance(classLoader, "test.app.Ledger$Opened", null, null, false, 'B', null, (short) 0),
+                newInstance(classLoader, "test.app.Ledger$Posted", money, List.of(money, money), new BigDecimal("1.25"), 0.5, 1.5f),
+                newInstance(classLoader, "test.app.Ledger$Posted", null, List.of(), null, 0.0, null),
+                newInstance(classLoader, "test.app.Ledger$Renamed", "a name"),
+                newInstance(classLoader, "test.app.Ledger$Charged", List.of(newInstance(classLoader, "test.app.Ledger$FlatFee", 5L)))
+        );
+
+        for (var event : events) {
+            final var encoded = codec.encode(event);
+            assertThat(new String(encoded, StandardCharsets.UTF_8))
+                    .isEqualTo(new String(databind.encode(event), StandardCharsets.UTF_8));
+            assertThat(codec.decode(encoded, event.getClass())).isEqualTo(event);
+            assertThat(codec.decode(ByteString.copyFrom(encoded), event.getClass())).isEqualTo(event);
+        }
+    }
+
+    @Test
+    void generated_json_codecs_skip_unknown_properties_and_default_missing_ones() throws Exception {
+        final var classLoader = compile(LEDGER);
+        final var opened = classLoader.loadClass("test.app.Ledger$Opened");
+        final var json = """
+                {"unknown":{"nested":[1,{"a":null}]},"owner":"an owner","limit":null}""";
+
+        assertThat(new GeneratedJsonEventDataCodec().decode(json.getBytes(StandardCharsets.UTF_8), opened))
+                .isEqualTo(newInstance(classLoader, "test.app.Ledger$Opened", null, "an owner", false, '\0', null, (short) 0));
+    }
+
+    @Test
+    void generated_json_codecs_read_values_of_another_type_as_databind() throws Exception {
+        final var classLoader = compile(LEDGER);
+        final var codec = new GeneratedJsonEventDataCodec();
+        final var databind = new JacksonJsonEventDataCodec();
+        final var payloads = Map.of(
+                "{\"owner\":12,\"active\":\"true\",\"kind\":65,\"limit\":\"10\",\"branch\":\"3\"}", "test.app.Ledger$Opened",
+                "{\"weight\":2,\"fee\":\"1.5\",\"rate\":3}", "test.app.Ledger$Posted"
+        );
+
+        for (var payload : payloads.entrySet()) {
+            final var eventClass = classLoader.loadClass(payload.getValue());
+            final var bytes = payload.getKey().getBytes(StandardCharsets.UTF_8);
+            assertThat(codec.decode(bytes, eventClass)).isEqualTo(databind.decode(bytes, eventClass));
+        }
+    }
+
+    @Test
+    void generated_json_codecs_reject_malformed_payloads() throws Exception {
+        final var classLoader = compile(LEDGER);
+        final var opened = classLoader.loadClass("test.app.Ledger$Opened");
+        final var codec = new GeneratedJsonEventDataCodec();
+        final var databind = new JacksonJsonEventDataCodec();
+        final var payloads = List.of(
+                "{\"limit\":{\"a\":1},\"owner\":\"an owner\"}",
+                "{\"branch\":[1,2],\"owner\":\"an owner\"}",
+                "{\"owner\":{\"name\":\"an owner\"}}",
+                "{\"active\":[true]}",
+                "{\"limit\":\"ten\"}",
+                "{\"kind\":\"AB\"}",
+                "{\"id\":\"not a uuid\"}",
+                "{\"owner\":\"an owner\""
+        );
+
+        for (var json : payloads) {
+            final var bytes = json.getBytes(StandardCharsets.UTF_8);
+            assertThatThrownBy(() -> databind.decode(bytes, opened)).as(json).isInstanceOf(RuntimeException.class);
+            assertThatThrownBy(() -> codec.decode(bytes, opened)).as(json).isInstanceOf(RuntimeException.class);
+        }
+    }
+
+    @Test
+    void handlers_that_can_not_be_invoked_are_compile_errors() {
+        final var diagnostics = compileWithErrors("""
+                package test.app;
+
+                import io.mubel.sdk.annotation.CommandHandler;
+                import io.mubel.sdk.annotation.EventHandler;
+
+                import java.util.List;
+
+                public class Broken {
+
+                    @EventHandler
+                    public Object on(String event) {
+                        return event;
+                    }
+
+                    @CommandHandler
+                    public List<Object> handle(Integer command) {
+                        return List.of();
+                    }
+
+                    @CommandHandler
+                    public List<Object> handleAgain(Integer command) {
+                        return List.of();
+                    }
+                }
+                """);
+
+        assertThat(diagnostics)
+                .anySatisfy(message -> assertThat(message).contains("Broken.on: @EventHandler method must return void"))
+                .anySatisfy(message -> assertThat(message).contains("Duplicate @CommandHandler methods for java.lang.Integer"));
+    }
+
+    @Test
+    void handlers_that_are_not_public_are_warnings_and_fall_back_to_reflection() throws Exception {
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertThat(runCompiler("""
+                package test.app;
+
+                import io.mubel.sdk.annotation.CommandHandler;
+                import io.mubel.sdk.annotation.EventHandler;
+
+                import java.util.List;
+
+                public class Lenient {
+
+                    @EventHandler
+                    void on(String event) {
+                    }
+
+                    @CommandHandler
+                    public static List<Object> handle(Integer command) {
+                        return List.of();
+                    }
+
+                    @CommandHandler
+                    public List<Object> handle(Long command) {
+                        return List.of(command);
+                    }
+                }
+                """, diagnostics))
+                .as("compilation succeeds: %s", diagnostics.getDiagnostics())
+                .isTrue();
+
+        assertThat(diagnostics.getDiagnostics())
+                .filteredOn(d -> d.getKind() == Diagnostic.Kind.WARNING)
+                .extracting(d -> d.getMessage(null))
+                .anySatisfy(message -> assertThat(message).contains("Lenient.on: @EventHandler method must be public"))
+                .anySatisfy(message -> assertThat(message).contains("Lenient.handle: @CommandHandler method may not be static"));
+        assertThat(output.resolve("test/app/Lenient" + AggregateProcessor.GENERATED_SUFFIX + ".class")).doesNotExist();
+        assertThat(output.resolve("META-INF/services/" + AggregateProcessor.PROVIDER_INTERFACE)).doesNotExist();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static CommandExecutor<Object, Object, Object> executor(ClassLoader classLoader) throws ClassNotFoundException {
+        final var config = (AggregateInvocationConfig<Object, Object, Object>) (AggregateInvocationConfig<?, ?, ?>)
+                AutoAggregateInvocationConfig.of(classLoader.loadClass("test.app.Counter"));
+        return new CommandExecutor<>(config);
+    }
+
+    private static Object newInstance(ClassLoader classLoader, String className, Object... args) throws Exception {
+        return classLoader.loadClass(className).getConstructors()[0].newInstance(args);
+    }
+
+    private static ExpiredDeadline deadline(String name) {
+        return new ExpiredDeadline(UUID.randomUUID(), name, Map.of(), Instant.now());
+    }
+
+    private ClassLoader compile(String source) throws Exception {
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertThat(runCompiler(source, diagnostics))
+                .as("compilation succeeds: %s", diagnostics.getDiagnostics())
+                .isTrue();
+        return new URLClassLoader(new java.net.URL[]{output.toUri().toURL()}, getClass().getClassLoader());
+    }
+
+    private List<String> compileWithErrors(String source) {
+        final var diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertThat(runCompiler(source, diagnostics)).isFalse();
+        return diagnostics.getDiagnostics().stream()
+                .filter(d -> d.getKind() == Diagnostic.Kind.ERROR)
+                .map(d -> d.getMessage(null))
+                .toList();
+    }
+
+    private boolean runCompiler(String source, DiagnosticCollector<JavaFileObject> diagnostics) {
+        final var compiler = ToolProvider.getSystemJavaCompiler();
+        final var className = source.lines()
+                .filter(line -> line.startsWith("public class "))
+                .map(line -> line.substring("public class ".length(), line.indexOf(' ', "public class ".length())))
+                .findFirst()
+                .orElseThrow();
+        final var file = new SimpleJavaFileObject(URI.create("string:///test/app/" + className + ".java"), JavaFileObject.Kind.SOURCE) {
+            @Override
+            public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+                return source;
+            }
+        };
+        final var task = compiler.getTask(
+                null,
+                null,
+                diagnostics,
+                List.of(
+                        "--release", "21",
+                        "-classpath", System.getProperty("java.class.path"),
+                        "-d", output.toString(),
+                        "-processor", AggregateProcessor.class.getName()
+                ),
+                null,
+                List.of(file)
+        );
+        return task.call();
+    }
+}
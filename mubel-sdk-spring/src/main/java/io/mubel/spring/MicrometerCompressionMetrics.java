@@ -0,0 +1,44 @@
+package io.mubel.spring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.mubel.sdk.codec.CompressionMetricsRecorder;
+
+/**
+ * A {@link CompressionMetricsRecorder} that publishes to a Micrometer {@link MeterRegistry}.
+ * <ul>
+ *     <li>{@code mubel.codec.payloads} - distribution of stored payload sizes in bytes tagged with compressed true or false</li>
+ *     <li>{@code mubel.codec.compression.ratio} - distribution of the size before compression divided by the stored size</li>
+ * </ul>
+ */
+class MicrometerCompressionMetrics implements CompressionMetricsRecorder {
+
+    private final DistributionSummary compressed;
+    private final DistributionSummary uncompressed;
+    private final DistributionSummary ratio;
+
+    MicrometerCompressionMetrics(MeterRegistry registry) {
+        this.compressed = payloadSize(registry, true);
+        this.uncompressed = payloadSize(registry, false);
+        this.ratio = DistributionSummary.builder("mubel.codec.compression.ratio")
+                .register(registry);
+    }
+
+    @Override
+    public void compressed(int size, int compressedSize) {
+        compressed.record(compressedSize);
+        ratio.record((double) size / compressedSize);
+    }
+
+    @Override
+    public void uncompressed(int size) {
+        uncompressed.record(size);
+    }
+
+    private static DistributionSummary payloadSize(MeterRegistry registry, boolean compressed) {
+        return DistributionSummary.builder("mubel.codec.payloads")
+                .baseUnit("bytes")
+                .tag("compressed", Boolean.toString(compressed))
+                .register(registry);
+    }
+}
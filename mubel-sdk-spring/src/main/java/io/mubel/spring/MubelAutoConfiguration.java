@@ -3,21 +3,36 @@ package io.mubel.spring;
 
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.mubel.client.MubelClient;
 import io.mubel.client.MubelClientConfig;
+import io.mubel.client.metrics.ClientMetricsRecorder;
+import io.mubel.client.metrics.MicrometerClientMetrics;
 import io.mubel.sdk.EventDataMapper;
 import io.mubel.sdk.EventNamingStrategy;
 import io.mubel.sdk.EventTypeRegistry;
 import io.mubel.sdk.IdGenerator;
+import io.mubel.sdk.codec.CompressingEventDataCodec;
+import io.mubel.sdk.codec.CompressionMetricsRecorder;
+import io.mubel.sdk.codec.ContentSniffingEventDataCodec;
+import io.mubel.sdk.codec.EventDataCodec;
+import io.mubel.sdk.codec.GeneratedJsonEventDataCodec;
+import io.mubel.sdk.codec.JacksonCborEventDataCodec;
 import io.mubel.sdk.codec.JacksonJsonEventDataCodec;
+import io.mubel.sdk.codec.JacksonSmileEventDataCodec;
+import io.mubel.sdk.codec.ProtobufEventDataCodec;
 import io.mubel.sdk.eventstore.DefaultEventStore;
 import io.mubel.sdk.eventstore.EventStore;
 import io.mubel.sdk.eventstore.EventStoreProvisioner;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
 import io.mubel.sdk.internal.Constants;
 import io.mubel.sdk.scheduled.ExpiredDeadlineConsumer;
 import io.mubel.sdk.scheduled.ExpiredDeadlineHandler;
+import io.mubel.sdk.snapshot.JdbcSnapshotStore;
+import io.mubel.sdk.snapshot.SnapshotStore;
 import io.mubel.sdk.subscription.*;
 import io.mubel.sdk.tx.TransactionAdapter;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfiguration;
 import org.springframework.boot.autoconfigure.condition.*;
@@ -28,6 +43,7 @@ import org.springframework.boot.context.properties.EnableConfigurationProperties
 import org.springframework.boot.system.JavaVersion;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.context.event.ContextClosedEvent;
 import org.springframework.context.event.ContextRefreshedEvent;
@@ -44,7 +60,7 @@ import java.util.concurrent.Executors;
         DataSourceAutoConfiguration.class,
         JacksonAutoConfiguration.class,
         TransactionAutoConfiguration.class
-})
+}, afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
 @EnableConfigurationProperties(MubelProperties.class)
 public class MubelAutoConfiguration {
 
@@ -56,12 +72,16 @@ public class MubelAutoConfiguration {
 
     @Bean
     @ConditionalOnBean(MubelConnectionDetails.class)
-    public MubelClient mubelClient(MubelConnectionDetails connectionDetails) {
-        final var config = MubelClientConfig.newBuilder()
+    public MubelClient mubelClient(
+            MubelConnectionDetails connectionDetails,
+            MubelProperties properties,
+            ObjectProvider<ClientMetricsRecorder> metricsRecorder
+    ) {
+        final var builder = MubelClientConfig.newBuilder()
                 .address(connectionDetails.getAddress())
-                .build();
-
-        return new MubelClient(config);
+                .metricsRecorder(metricsRecorder.getIfAvailable());
+        properties.client().applyTo(builder);
+        return new MubelClient(builder.build());
     }
 
     @Bean
@@ -85,7 +105,7 @@ public class MubelAutoConfiguration {
             MubelProperties properties,
             MubelClient eventsClient) {
         return EventStoreProvisioner.builder()
-                .eventStore(properties.eventStoreId(), EventStoreProvisioner.DataFormat.JSON, properties.storageBackendName())
+                .eventStore(properties.eventStoreId(), properties.dataFormat(), properties.storageBackendName())
                 .client(eventsClient)
                 .build();
     }
@@ -116,6 +136,10 @@ public class MubelAutoConfiguration {
     @ConditionalOnMissingBean(ObjectMapper.class)
     @ConditionalOnClass(ObjectMapper.class)
     public ObjectMapper mubelJacksonObjectMapper() {
+        return defaultObjectMapper();
+    }
+
+    private static ObjectMapper defaultObjectMapper() {
         return new ObjectMapper()
                 .findAndRegisterModules()
                 .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
@@ -123,17 +147,63 @@ public class MubelAutoConfiguration {
 
     @Bean
     @Lazy
-    @ConditionalOnBean(ObjectMapper.class)
-    public EventDataMapper jacksonEventDataMapper(
-            ObjectMapper jsonMapper,
+    @ConditionalOnMissingBean
+    public EventDataCodec eventDataCodec(
+            MubelProperties properties,
+            ObjectProvider<ObjectMapper> jsonMapper,
+            ObjectProvider<CompressionMetricsRecorder> compressionMetrics
+    ) {
+        final EventDataCodec codec = switch (properties.dataFormat()) {
+            case JSON -> jsonCodec(properties, jsonMapper.getIfAvailable(MubelAutoConfiguration::defaultObjectMapper));
+            case PROTOBUF -> new ProtobufEventDataCodec();
+            case OTHER -> binaryCodec(properties, jsonMapper.getIfAvailable(MubelAutoConfiguration::defaultObjectMapper));
+        };
+        if (properties.compressionThreshold() == null) {
+            return codec;
+        }
+        return CompressingEventDataCodec.builder()
+                .delegate(codec)
+                .threshold(Math.toIntExact(properties.compressionThreshold().toBytes()))
+                .metrics(compressionMetrics.getIfAvailable(() -> CompressionMetricsRecorder.NOOP))
+                .build();
+    }
+
+    private static EventDataCodec jsonCodec(MubelProperties properties, ObjectMapper jsonMapper) {
+        return properties.generatedJsonCodecs()
+                ? new GeneratedJsonEventDataCodec(jsonMapper)
+                : new JacksonJsonEventDataCodec(jsonMapper);
+    }
+
+    private static EventDataCodec binaryCodec(MubelProperties properties, ObjectMapper jsonMapper) {
+        final var format = properties.binaryFormat();
+        if (format == null) {
+            throw new MubelConfigurationException(
+                    "mubel.data-format is OTHER, either mubel.binary-format or an EventDataCodec bean must be provided");
+        }
+        final var jsonCodec = jsonCodec(properties, jsonMapper);
+        return switch (format) {
+            case SMILE -> ContentSniffingEventDataCodec.withJsonFallback(
+                    ContentSniffingEventDataCodec.Format.SMILE, JacksonSmileEventDataCodec.from(jsonMapper), jsonCodec);
+            case CBOR -> ContentSniffingEventDataCodec.withJsonFallback(
+                    ContentSniffingEventDataCodec.Format.CBOR, JacksonCborEventDataCodec.from(jsonMapper), jsonCodec);
+        };
+    }
+
+    @Bean(name = {"eventDataMapper", "jacksonEventDataMapper"})
+    @Lazy
+    @ConditionalOnMissingBean
+    public EventDataMapper eventDataMapper(
+            EventDataCodec eventDataCodec,
             IdGenerator idGenerator,
             EventTypeRegistry eventTypeRegistry
     ) {
-        return new EventDataMapper(
-                new JacksonJsonEventDataCodec(jsonMapper),
+        final var mapper = new EventDataMapper(
+                eventDataCodec,
                 eventTypeRegistry,
                 idGenerator
         );
+        mapper.prewarm();
+        return mapper;
     }
 
     @Bean
@@ -168,6 +238,14 @@ public class MubelAutoConfiguration {
         return new JdbcSubscriptionStateRepository(dataSource);
     }
 
+    @Bean
+    @Lazy
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(DataSource.class)
+    public SnapshotStore snapshotStore(DataSource dataSource) {
+        return new JdbcSnapshotStore(dataSource);
+    }
+
     @Bean
     @ConditionalOnMissingBean
     @ConditionalOnBean(SubscriptionStateRepository.class)
@@ -259,6 +337,26 @@ public class MubelAutoConfiguration {
         };
     }
 
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    static class MubelMetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        public ClientMetricsRecorder mubelClientMetricsRecorder(MeterRegistry registry) {
+            return new MicrometerClientMetrics(registry);
+        }
+
+        @Bean
+        @ConditionalOnMissingBean
+        @ConditionalOnBean(MeterRegistry.class)
+        @ConditionalOnProperty(name = "mubel.compression-threshold")
+        public CompressionMetricsRecorder mubelCompressionMetricsRecorder(MeterRegistry registry) {
+            return new MicrometerCompressionMetrics(registry);
+        }
+    }
+
     static class PropertiesMubelConnectionDetails implements MubelConnectionDetails {
 
         private final MubelProperties properties;
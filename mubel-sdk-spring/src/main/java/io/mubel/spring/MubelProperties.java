@@ -1,10 +1,18 @@
 package io.mubel.spring;
 
+import io.mubel.client.ChannelSelection;
+import io.mubel.client.LoadBalancingPolicy;
+import io.mubel.client.MubelClientConfig;
+import io.mubel.client.TransportConfig;
 import io.mubel.sdk.Constrains;
+import io.mubel.sdk.eventstore.EventStoreProvisioner;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Pattern;
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
+import java.time.Duration;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -12,6 +20,17 @@ import java.util.Objects;
  * @param eventStoreId       The event store id to use.
  * @param storageBackendName The storage backend name to connect to
  * @param idGenerator        The id generation strategy to use. Default ORDERED.
+ * @param client             Client connection tuning. Optional, unset values use the client defaults.
+ * @param dataFormat         The format of the event data, the event store is provisioned with it and events are encoded with a
+ *                           matching codec. Default JSON. OTHER requires either a binary format or an
+ *                           {@link io.mubel.sdk.codec.EventDataCodec} bean.
+ * @param binaryFormat       The binary format events are encoded in when the data format is OTHER. Events that were written as
+ *                           JSON before the store was migrated are still decoded. Optional.
+ * @param compressionThreshold Event data larger than this is compressed with deflate, uncompressed event data is still
+ *                           decoded. Disabled when not set.
+ * @param generatedJsonCodecs Encode JSON event data with the codecs generated by mubel-sdk-processor, events without one
+ *                           are mapped by Jackson databind. Only enable it when the object mapper has no customizations
+ *                           that affect the events. Default false.
  */
 @ConfigurationProperties(prefix = "mubel")
 public record MubelProperties(
@@ -21,11 +40,108 @@ public record MubelProperties(
         String eventStoreId,
         @NotNull @Pattern(regexp = Constrains.SAFE_STRING_REGEXP)
         String storageBackendName,
-        IdGenerationStrategy idGenerator
+        IdGenerationStrategy idGenerator,
+        ClientProperties client,
+        EventStoreProvisioner.DataFormat dataFormat,
+        BinaryFormat binaryFormat,
+        DataSize compressionThreshold,
+        boolean generatedJsonCodecs
 ) {
 
     public MubelProperties {
         idGenerator = Objects.requireNonNullElse(idGenerator, IdGenerationStrategy.ORDERED);
+        client = Objects.requireNonNullElseGet(client, ClientProperties::defaults);
+        dataFormat = Objects.requireNonNullElse(dataFormat, EventStoreProvisioner.DataFormat.JSON);
+    }
+
+    /**
+     * @param channelPoolSize           Number of channels calls are spread over.
+     * @param channelSelection          How a channel is selected for a call.
+     * @param groupCommitWindow         How long execute requests are collected before they are sent together. Disabled when not set.
+     * @param groupCommitMaxOperations  Max number of operations in a group commit.
+     * @param compression               Compress request messages with gzip.
+     * @param compressionMinMessageSize Messages smaller than this are sent uncompressed.
+     * @param maxInboundMessageSize     Max size of a message received from the server.
+     * @param flowControlWindow         Initial HTTP/2 flow control window.
+     * @param keepAliveTime             Time without read activity before a keepalive ping is sent.
+     * @param keepAliveTimeout          Time to wait for a keepalive ping ack.
+     * @param nativeTransport           Use the native epoll transport when available.
+     * @param eventLoopThreads          Number of event loop threads used by the client, 0 uses the default shared group.
+     * @param endpoints                 Mubel servers to connect to, in the form host:port. Replaces the address when set.
+     * @param loadBalancingPolicy       How calls are spread over the servers.
+     * @param healthCheck               Only send calls to servers that report themselves healthy. Requires ROUND_ROBIN.
+     */
+    public record ClientProperties(
+            Integer channelPoolSize,
+            ChannelSelection channelSelection,
+            Duration groupCommitWindow,
+            Integer groupCommitMaxOperations,
+            Boolean compression,
+            DataSize compressionMinMessageSize,
+            DataSize maxInboundMessageSize,
+            DataSize flowControlWindow,
+            Duration keepAliveTime,
+            Duration keepAliveTimeout,
+            Boolean nativeTransport,
+            Integer eventLoopThreads,
+            List<String> endpoints,
+            LoadBalancingPolicy loadBalancingPolicy,
+            Boolean healthCheck
+    ) {
+
+        static ClientProperties defaults() {
+            return new ClientProperties(null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        }
+
+        void applyTo(MubelClientConfig.Builder builder) {
+            if (channelPoolSize != null) {
+                builder.channelPoolSize(channelPoolSize);
+            }
+            if (channelSelection != null) {
+                builder.channelSelection(channelSelection);
+            }
+            if (endpoints != null && !endpoints.isEmpty()) {
+                builder.endpoints(endpoints);
+            }
+            if (loadBalancingPolicy != null) {
+                builder.loadBalancingPolicy(loadBalancingPolicy);
+            }
+            if (healthCheck != null) {
+                builder.healthCheck(healthCheck);
+            }
+            if (groupCommitWindow != null) {
+                builder.groupCommitWindow(groupCommitWindow);
+            }
+            if (groupCommitMaxOperations != null) {
+                builder.groupCommitMaxOperations(groupCommitMaxOperations);
+            }
+            final var transport = TransportConfig.newBuilder();
+            if (compression != null) {
+                transport.compression(compression);
+            }
+            if (compressionMinMessageSize != null) {
+                transport.compressionMinMessageSize(Math.toIntExact(compressionMinMessageSize.toBytes()));
+            }
+            if (maxInboundMessageSize != null) {
+                transport.maxInboundMessageSize(Math.toIntExact(maxInboundMessageSize.toBytes()));
+            }
+            if (flowControlWindow != null) {
+                transport.flowControlWindow(Math.toIntExact(flowControlWindow.toBytes()));
+            }
+            if (keepAliveTime != null) {
+                transport.keepAliveTime(keepAliveTime);
+            }
+            if (keepAliveTimeout != null) {
+                transport.keepAliveTimeout(keepAliveTimeout);
+            }
+            if (nativeTransport != null) {
+                transport.nativeTransport(nativeTransport);
+            }
+            if (eventLoopThreads != null) {
+                transport.eventLoopThreads(eventLoopThreads);
+            }
+            builder.transport(transport.build());
+        }
     }
 
     public enum IdGenerationStrategy {
@@ -38,4 +154,15 @@ public record MubelProperties(
          */
         RANDOM
     }
+
+    public enum BinaryFormat {
+        /**
+         * Smile, requires com.fasterxml.jackson.dataformat:jackson-dataformat-smile.
+         */
+        SMILE,
+        /**
+         * CBOR, requires com.fasterxml.jackson.dataformat:jackson-dataformat-cbor.
+         */
+        CBOR
+    }
 }
@@ -26,7 +26,12 @@ class PropertiesValidationTest {
                 ";DROP DATABASE",
                 "myEsid",
                 "my_backend",
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "address", "Invalid address");
@@ -38,7 +43,12 @@ class PropertiesValidationTest {
                 null,
                 "myEsid",
                 "my_backend",
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "address", "must not be null");
@@ -50,7 +60,12 @@ class PropertiesValidationTest {
                 "192.168.0.1:9090",
                 "DROP DATABASE;",
                 "my_backend",
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "eventStoreId", "Invalid event store id");
@@ -62,7 +77,12 @@ class PropertiesValidationTest {
                 "192.168.0.1:9090",
                 null,
                 "my_backend",
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "eventStoreId", "must not be null");
@@ -74,7 +94,12 @@ class PropertiesValidationTest {
                 "192.168.0.1:9090",
                 "myEsid",
                 "DROP DATABASE",
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "storageBackendName", "must match \"[A-Za-z0-9_-]{1,255}");
@@ -86,7 +111,12 @@ class PropertiesValidationTest {
                 "192.168.0.1:9090",
                 "myEsid",
                 null,
-                MubelProperties.IdGenerationStrategy.ORDERED
+                MubelProperties.IdGenerationStrategy.ORDERED,
+                null,
+                null,
+                null,
+                null,
+                false
         );
         var errors = validator.validate(props);
         expectValidationError(errors, "storageBackendName", "must not be null");
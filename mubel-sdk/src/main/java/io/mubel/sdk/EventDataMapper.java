@@ -1,6 +1,5 @@
 package io.mubel.sdk;
 
-import com.google.protobuf.ByteString;
 import io.mubel.api.grpc.v1.events.*;
 import io.mubel.sdk.codec.EventDataCodec;
 import io.mubel.sdk.internal.UuidUtil;
@@ -37,6 +36,14 @@ public class EventDataMapper {
         this.idGenerator = requireNonNull(idGenerator, "idGenerator may not be null");
     }
 
+    /**
+     * Prepares the codec for all event classes known to the {@link EventTypeRegistry}, so the first events
+     * of each type are not slowed down by the codec looking up how to encode and decode them.
+     */
+    public void prewarm() {
+        codec.prewarm(eventTypeRegistry.knownEventClasses());
+    }
+
     /**
      * Deserializes the event data and applies the consumer to the event data.
      *
@@ -58,7 +65,7 @@ public class EventDataMapper {
      */
     public Object fromEventData(EventData eventData) {
         final var eventClass = eventTypeRegistry.getClassForType(eventData.getType());
-        return codec.decode(eventData.getData().toByteArray(), eventClass);
+        return codec.decode(eventData.getData(), eventClass);
     }
 
     /**
@@ -74,7 +81,7 @@ public class EventDataMapper {
         if (deadline.getData().isEmpty()) {
             attributes = null;
         } else {
-            attributes = codec.decode(deadline.getData().toByteArray(), Map.class);
+            attributes = codec.decode(deadline.getData(), Map.class);
         }
         return new ExpiredDeadline(
                 UuidUtil.parseUuid(deadline.getTargetEntity().getId()),
@@ -158,7 +165,7 @@ public class EventDataMapper {
     private Function<Deadline, Operation> toScheduleDeadlineOp(EntityReference entityReference) {
         return dl -> Operation.newBuilder().setScheduleDeadline(ScheduleDeadlineOperation.newBuilder()
                         .setDeadline(io.mubel.api.grpc.v1.events.Deadline.newBuilder()
-                                .setData(ByteString.copyFrom(codec.encode(dl.attributes())))
+                                .setData(codec.encodeToByteString(dl.attributes()))
                                 .setTargetEntity(entityReference)
                                 .setType(dl.name())
                         ).setPublishTime(clock.instant().plus(dl.duration()).toEpochMilli())
@@ -172,7 +179,7 @@ public class EventDataMapper {
             Supplier<Integer> versionSupplier) {
         return builder
                 .setType(eventTypeRegistry.getTypeNameForClass(data.getClass()))
-                .setData(ByteString.copyFrom(codec.encode(data)))
+                .setData(codec.encodeToByteString(data))
                 .setId(idGenerator.generate().toString())
                 .setRevision(versionSupplier.get())
                 .build();
@@ -1,8 +1,11 @@
 package io.mubel.sdk;
 
+import com.google.protobuf.Internal;
+import com.google.protobuf.Message;
 import io.mubel.sdk.exceptions.MubelConfigurationException;
 import io.mubel.sdk.internal.Utils;
 
+import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -60,10 +63,31 @@ public abstract class EventNamingStrategy implements Comparable<EventNamingStrat
         return new MappedNamingStrategy(mappings);
     }
 
+    /**
+     * Creates a naming strategy that uses the full name of the protobuf message type, such as {@code my.package.OrderPlaced},
+     * for events that are protobuf messages.
+     *
+     * The names are independent of the Java class names, so they stay the same when the generated code is moved
+     * and can be shared with consumers written in other languages.
+     *
+     * @param messageClasses The message classes, or the outer classes generated for the proto files, whose nested messages are included.
+     * @return The naming strategy.
+     */
+    public static EventNamingStrategy byProtoFullName(Class<?>... messageClasses) {
+        return new ProtoFullNameStrategy(Arrays.asList(messageClasses));
+    }
+
     public abstract String nameFor(Class<?> eventClass);
 
     public abstract Class<?> classFor(String name);
 
+    /**
+     * @return the event classes this strategy knows of up front, empty for strategies that resolve names on demand.
+     */
+    public Collection<Class<?>> knownClasses() {
+        return List.of();
+    }
+
     static class ClassSimpleNameStrategy extends EventNamingStrategy {
 
         private final Map<String, Class<?>> nameToClass = new HashMap<>();
@@ -102,6 +126,59 @@ public abstract class EventNamingStrategy implements Comparable<EventNamingStrat
         public Class<?> classFor(String name) {
             return nameToClass.get(name);
         }
+
+        @Override
+        public Collection<Class<?>> knownClasses() {
+            return List.copyOf(classToName.keySet());
+        }
+    }
+
+    static class ProtoFullNameStrategy extends EventNamingStrategy {
+
+        private final Map<String, Class<?>> nameToClass = new HashMap<>();
+        private final Map<Class<?>, String> classToName = new HashMap<>();
+
+        public ProtoFullNameStrategy(Collection<Class<?>> messageClasses) {
+            super(50);
+            Utils.assertNotEmpty(messageClasses, () -> new MubelConfigurationException("Message classes cannot be empty"));
+            indexClasses(messageClasses);
+            if (nameToClass.isEmpty()) {
+                throw new MubelConfigurationException("No protobuf message classes found in %s".formatted(messageClasses));
+            }
+        }
+
+        private void indexClasses(Collection<Class<?>> classes) {
+            for (final var messageClass : classes) {
+                if (Message.class.isAssignableFrom(messageClass) && !Modifier.isAbstract(messageClass.getModifiers())) {
+                    indexClass(messageClass.asSubclass(Message.class));
+                }
+                // declared, not inherited, so the nested classes of the protobuf runtime are not included
+                indexClasses(Arrays.stream(messageClass.getDeclaredClasses())
+                        .filter(nested -> Modifier.isPublic(nested.getModifiers()))
+                        .toList());
+            }
+        }
+
+        private void indexClass(Class<? extends Message> messageClass) {
+            final var name = Internal.getDefaultInstance(messageClass).getDescriptorForType().getFullName();
+            nameToClass.put(name, messageClass);
+            classToName.put(messageClass, name);
+        }
+
+        @Override
+        public String nameFor(Class<?> eventClass) {
+            return classToName.get(eventClass);
+        }
+
+        @Override
+        public Class<?> classFor(String name) {
+            return nameToClass.get(name);
+        }
+
+        @Override
+        public Collection<Class<?>> knownClasses() {
+            return List.copyOf(classToName.keySet());
+        }
     }
 
     static class ByClassNameStrategy extends EventNamingStrategy {
@@ -150,5 +227,10 @@ public abstract class EventNamingStrategy implements Comparable<EventNamingStrat
         public String nameFor(Class<?> eventClass) {
             return classToName.get(eventClass);
         }
+
+        @Override
+        public Collection<Class<?>> knownClasses() {
+            return List.copyOf(nameToClass.values());
+        }
     }
 }
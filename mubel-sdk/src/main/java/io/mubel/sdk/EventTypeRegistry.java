@@ -5,8 +5,10 @@ import io.mubel.sdk.internal.Utils;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
@@ -66,6 +68,16 @@ public final class EventTypeRegistry {
         throw new MubelConfigurationException("Could not resolve a name for class %s".formatted(aClass.getName()));
     }
 
+    /**
+     * @return the event classes known to the naming strategies, and the classes resolved so far.
+     */
+    public Set<Class<?>> knownEventClasses() {
+        final var classes = new LinkedHashSet<Class<?>>();
+        namingStrategies.forEach(strategy -> classes.addAll(strategy.knownClasses()));
+        classes.addAll(typeByClass.keySet());
+        return classes;
+    }
+
     public static class Builder {
 
         private final List<EventNamingStrategy> namingStrategies = new ArrayList<>();
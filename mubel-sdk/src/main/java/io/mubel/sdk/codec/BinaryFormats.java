@@ -0,0 +1,21 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+
+/**
+ * Checks the mappers of the Jackson binary data formats, which are optional dependencies of the SDK.
+ */
+final class BinaryFormats {
+
+    private BinaryFormats() {
+    }
+
+    static ObjectMapper requireFormat(ObjectMapper mapper, String formatName) {
+        final var actual = mapper.getFactory().getFormatName();
+        if (!formatName.equals(actual)) {
+            throw new MubelConfigurationException("Expected a mapper for %s, got %s".formatted(formatName, actual));
+        }
+        return mapper;
+    }
+}
@@ -0,0 +1,221 @@
+package io.mubel.sdk.codec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static io.mubel.sdk.internal.Utils.assertGteZeroInt;
+import static io.mubel.sdk.internal.Utils.requireNonNull;
+
+/**
+ * Compresses the payloads of another codec that are larger than a threshold.
+ * <p>
+ * A compressed payload starts with a zero byte, followed by the id of the {@link CompressionAlgorithm} and the
+ * uncompressed size as a 4 byte big endian integer. A zero byte never starts a payload of the bundled codecs, so
+ * payloads written before compression was enabled, and payloads below the threshold, are stored and read as is.
+ * Payloads that do not get smaller are stored uncompressed.
+ * <pre>{@code
+ * CompressingEventDataCodec.builder()
+ *         .delegate(new JacksonJsonEventDataCodec())
+ *         .threshold(1024)
+ *         .build();
+ * }</pre>
+ */
+public final class CompressingEventDataCodec implements EventDataCodec {
+
+    static final byte MARKER = 0;
+    static final int HEADER_SIZE = 6;
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    private final EventDataCodec delegate;
+    private final int threshold;
+    private final CompressionAlgorithm algorithm;
+    private final CompressionAlgorithm[] decompressors = new CompressionAlgorithm[256];
+    private final CompressionMetricsRecorder metrics;
+
+    private CompressingEventDataCodec(Builder builder) {
+        this.delegate = requireNonNull(builder.delegate, () -> new MubelConfigurationException("delegate may not be null"));
+        this.threshold = assertGteZeroInt(builder.threshold,
+                v -> new MubelConfigurationException("threshold must be >= 0, was %d".formatted(v)));
+        this.algorithm = requireNonNull(builder.algorithm, () -> new MubelConfigurationException("algorithm may not be null"));
+        this.metrics = requireNonNull(builder.metrics, () -> new MubelConfigurationException("metrics may not be null"));
+        builder.decompressors.put(algorithm.id(), algorithm);
+        builder.decompressors.forEach((id, decompressor) -> decompressors[id & 0xFF] = decompressor);
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void prewarm(Collection<Class<?>> classes) {
+        delegate.prewarm(classes);
+    }
+
+    @Override
+    public byte[] encode(Object data) {
+        final var bytes = delegate.encode(data);
+        final var compressed = new byte[bytes.length];
+        final int length = compress(bytes, compressed);
+        if (length < 0) {
+            return bytes;
+        }
+        return length == compressed.length ? compressed : Arrays.copyOf(compressed, length);
+    }
+
+    @Override
+    public ByteString encodeToByteString(Object data) {
+        final var bytes = delegate.encode(data);
+        final var compressed = new byte[bytes.length];
+        final int length = compress(bytes, compressed);
+        if (length < 0) {
+            return UnsafeByteOperations.unsafeWrap(bytes);
+        }
+        return UnsafeByteOperations.unsafeWrap(compressed, 0, length);
+    }
+
+    /**
+     * @param output An array of the size of the input, only output smaller than the input is kept.
+     * @return the size of the compressed payload with its header, or -1 if the payload is stored uncompressed.
+     */
+    private int compress(byte[] input, byte[] output) {
+        if (input.length <= threshold || input.length <= HEADER_SIZE) {
+            metrics.uncompressed(input.length);
+            return -1;
+        }
+        final int length = algorithm.compress(input, output, HEADER_SIZE);
+        if (length < 0 || HEADER_SIZE + length >= input.length) {
+            metrics.uncompressed(input.length);
+            return -1;
+        }
+        output[0] = MARKER;
+        output[1] = algorithm.id();
+        output[2] = (byte) (input.length >>> 24);
+        output[3] = (byte) (input.length >>> 16);
+        output[4] = (byte) (input.length >>> 8);
+        output[5] = (byte) input.length;
+        metrics.compressed(input.length, HEADER_SIZE + length);
+        return HEADER_SIZE + length;
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> klass) {
+        if (bytes.length > 0 && bytes[0] == MARKER) {
+            return delegate.decode(decompress(ByteBuffer.wrap(bytes)), klass);
+        }
+        return delegate.decode(bytes, klass);
+    }
+
+    @Override
+    public <T> T decode(ByteString bytes, Class<T> klass) {
+        if (!bytes.isEmpty() && bytes.byteAt(0) == MARKER) {
+            return delegate.decode(decompress(bytes.asReadOnlyByteBuffer()), klass);
+        }
+        return delegate.decode(bytes, klass);
+    }
+
+    @Override
+    public <T> T decode(InputStream input, Class<T> klass) {
+        final var pushback = new PushbackInputStream(input, 1);
+        try {
+            final int first = pushback.read();
+            if (first == MARKER) {
+                final var bytes = pushback.readAllBytes();
+                final var buffer = ByteBuffer.allocate(bytes.length + 1).put(MARKER).put(bytes).flip();
+                return delegate.decode(decompress(buffer), klass);
+            }
+            if (first != -1) {
+                pushback.unread(first);
+            }
+            return delegate.decode(pushback, klass);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        if (buffer.hasRemaining() && buffer.get(buffer.position()) == MARKER) {
+            return delegate.decode(decompress(buffer.duplicate()), klass);
+        }
+        return delegate.decode(buffer, klass);
+    }
+
+    /**
+     * @param payload A compressed payload, positioned at its header.
+     */
+    private byte[] decompress(ByteBuffer payload) {
+        if (payload.remaining() < HEADER_SIZE) {
+            throw new IllegalArgumentException("Corrupt payload, compression header is truncated");
+        }
+        payload.get();
+        final byte id = payload.get();
+        final int size = payload.getInt();
+        final var decompressor = decompressors[id & 0xFF];
+        if (decompressor == null) {
+            throw new IllegalArgumentException("Unknown compression algorithm: %d".formatted(id));
+        }
+        return decompressor.decompress(payload, size);
+    }
+
+    public static class Builder {
+
+        private EventDataCodec delegate;
+        private int threshold = DEFAULT_THRESHOLD;
+        private CompressionAlgorithm algorithm = CompressionAlgorithm.deflate();
+        private final Map<Byte, CompressionAlgorithm> decompressors = new HashMap<>();
+        private CompressionMetricsRecorder metrics = CompressionMetricsRecorder.NOOP;
+
+        /**
+         * @param delegate The codec that encodes and decodes the uncompressed payloads.
+         */
+        public Builder delegate(EventDataCodec delegate) {
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * @param threshold Payloads larger than this many bytes are compressed. Default 1024.
+         */
+        public Builder threshold(int threshold) {
+            this.threshold = threshold;
+            return this;
+        }
+
+        /**
+         * @param algorithm The algorithm payloads are compressed with. Default {@link CompressionAlgorithm#deflate()}.
+         */
+        public Builder algorithm(CompressionAlgorithm algorithm) {
+            this.algorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Reads payloads compressed with the algorithm, for example after switching to another algorithm.
+         */
+        public Builder decompressor(CompressionAlgorithm algorithm) {
+            requireNonNull(algorithm, () -> new MubelConfigurationException("decompressor may not be null"));
+            decompressors.put(algorithm.id(), algorithm);
+            return this;
+        }
+
+        public Builder metrics(CompressionMetricsRecorder metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        public CompressingEventDataCodec build() {
+            return new CompressingEventDataCodec(this);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package io.mubel.sdk.codec;
+
+import java.nio.ByteBuffer;
+import java.util.zip.Deflater;
+
+/**
+ * A compression algorithm used by {@link CompressingEventDataCodec}.
+ * <p>
+ * Implementations must be thread safe. The id is stored with every compressed payload, so it must never change
+ * once payloads have been written with the algorithm.
+ */
+public interface CompressionAlgorithm {
+
+    /**
+     * @return the id stored in the header of compressed payloads, unique among the algorithms of a codec.
+     */
+    byte id();
+
+    /**
+     * Compresses the input into the output array, starting at the offset.
+     *
+     * @return the number of bytes written, or -1 if the compressed data does not fit in the output.
+     */
+    int compress(byte[] input, byte[] output, int offset);
+
+    /**
+     * Decompresses all remaining bytes of the input.
+     *
+     * @param uncompressedSize The size of the data before it was compressed.
+     * @return the uncompressed data.
+     */
+    byte[] decompress(ByteBuffer input, int uncompressedSize);
+
+    /**
+     * @return the JDK deflate algorithm with the default compression level.
+     */
+    static CompressionAlgorithm deflate() {
+        return deflate(Deflater.DEFAULT_COMPRESSION);
+    }
+
+    /**
+     * @param level The compression level, 0-9 or {@link Deflater#DEFAULT_COMPRESSION}.
+     * @return the JDK deflate algorithm.
+     */
+    static CompressionAlgorithm deflate(int level) {
+        return new DeflateCompression(level);
+    }
+}
@@ -0,0 +1,29 @@
+package io.mubel.sdk.codec;
+
+/**
+ * Receives the sizes of the payloads encoded by {@link CompressingEventDataCodec}.
+ * <p>
+ * Methods are called on the encoding thread and must not block.
+ *
+ * @see SimpleCompressionMetrics
+ */
+public interface CompressionMetricsRecorder {
+
+    CompressionMetricsRecorder NOOP = new CompressionMetricsRecorder() {
+    };
+
+    /**
+     * @param size           Size of the payload before compression.
+     * @param compressedSize Size of the stored payload, header included.
+     */
+    default void compressed(int size, int compressedSize) {
+    }
+
+    /**
+     * Called for payloads that are stored uncompressed, because they are below the threshold or did not get smaller.
+     *
+     * @param size Size of the payload.
+     */
+    default void uncompressed(int size) {
+    }
+}
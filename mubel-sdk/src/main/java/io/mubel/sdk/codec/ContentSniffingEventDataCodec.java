@@ -0,0 +1,196 @@
+package io.mubel.sdk.codec;
+
+import com.google.protobuf.ByteString;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static io.mubel.sdk.internal.Utils.requireNonNull;
+
+/**
+ * Encodes events with one codec and decodes them with the codec of the {@link Format} detected from their first bytes.
+ * <p>
+ * Used to migrate a store from JSON to a binary format: new events are written in the binary format, while the
+ * events written before the migration are still read as JSON.
+ * <pre>{@code
+ * ContentSniffingEventDataCodec.builder()
+ *         .encoder(smileCodec)
+ *         .decoder(Format.SMILE, smileCodec)
+ *         .decoder(Format.JSON, jsonCodec)
+ *         .build();
+ * }</pre>
+ * Detection reads at most three bytes and does not consume them, the payload is never copied.
+ */
+public final class ContentSniffingEventDataCodec implements EventDataCodec {
+
+    private static final int SNIFF_LENGTH = 3;
+
+    private final EventDataCodec encoder;
+    private final Map<Format, EventDataCodec> decoders;
+
+    private ContentSniffingEventDataCodec(Builder builder) {
+        this.encoder = requireNonNull(builder.encoder, () -> new MubelConfigurationException("encoder may not be null"));
+        this.decoders = new EnumMap<>(builder.decoders);
+        if (decoders.isEmpty()) {
+            throw new MubelConfigurationException("at least one decoder is required");
+        }
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @return a codec that writes with the codec and reads both its format and JSON.
+     */
+    public static ContentSniffingEventDataCodec withJsonFallback(Format format, EventDataCodec codec, EventDataCodec jsonCodec) {
+        return builder()
+                .encoder(codec)
+                .decoder(format, codec)
+                .decoder(Format.JSON, jsonCodec)
+                .build();
+    }
+
+    @Override
+    public byte[] encode(Object data) {
+        return encoder.encode(data);
+    }
+
+    @Override
+    public ByteString encodeToByteString(Object data) {
+        return encoder.encodeToByteString(data);
+    }
+
+    @Override
+    public void prewarm(Collection<Class<?>> classes) {
+        encoder.prewarm(classes);
+        decoders.values().stream()
+                .distinct()
+                .filter(decoder -> decoder != encoder)
+                .forEach(decoder -> decoder.prewarm(classes));
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> klass) {
+        return decoder(Format.detect(
+                byteAt(bytes, 0),
+                byteAt(bytes, 1),
+                byteAt(bytes, 2)
+        )).decode(bytes, klass);
+    }
+
+    @Override
+    public <T> T decode(ByteString bytes, Class<T> klass) {
+        final int size = bytes.size();
+        return decoder(Format.detect(
+                size > 0 ? bytes.byteAt(0) & 0xFF : -1,
+                size > 1 ? bytes.byteAt(1) & 0xFF : -1,
+                size > 2 ? bytes.byteAt(2) & 0xFF : -1
+        )).decode(bytes, klass);
+    }
+
+    @Override
+    public <T> T decode(InputStream input, Class<T> klass) {
+        final var pushback = new PushbackInputStream(input, SNIFF_LENGTH);
+        try {
+            final var head = pushback.readNBytes(SNIFF_LENGTH);
+            pushback.unread(head);
+            return decoder(Format.detect(byteAt(head, 0), byteAt(head, 1), byteAt(head, 2)))
+                    .decode(pushback, klass);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        final int position = buffer.position();
+        final int remaining = buffer.remaining();
+        return decoder(Format.detect(
+                remaining > 0 ? buffer.get(position) & 0xFF : -1,
+                remaining > 1 ? buffer.get(position + 1) & 0xFF : -1,
+                remaining > 2 ? buffer.get(position + 2) & 0xFF : -1
+        )).decode(buffer, klass);
+    }
+
+    private EventDataCodec decoder(Format format) {
+        final var decoder = decoders.get(format);
+        if (decoder == null) {
+            throw new IllegalArgumentException("No decoder for %s content".formatted(format));
+        }
+        return decoder;
+    }
+
+    private static int byteAt(byte[] bytes, int index) {
+        return index < bytes.length ? bytes[index] & 0xFF : -1;
+    }
+
+    /**
+     * The data formats that can be told apart by their first bytes.
+     */
+    public enum Format {
+        JSON,
+        /**
+         * Smile documents start with the header {@code :)\n}.
+         */
+        SMILE,
+        /**
+         * CBOR maps, arrays and tags have major type 4, 5 or 6, so their first byte is in the range 0x80 - 0xDB,
+         * which is never the first byte of a UTF-8 encoded JSON document.
+         */
+        CBOR;
+
+        /**
+         * @param b0 The first byte as an unsigned value, or -1 if the data is empty.
+         * @param b1 The second byte as an unsigned value, or -1 if the data is shorter.
+         * @param b2 The third byte as an unsigned value, or -1 if the data is shorter.
+         * @return the detected format, JSON if the data is neither Smile nor CBOR.
+         */
+        public static Format detect(int b0, int b1, int b2) {
+            if (b0 == ':' && b1 == ')' && b2 == '\n') {
+                return SMILE;
+            }
+            if (b0 >= 0x80 && b0 <= 0xDB) {
+                return CBOR;
+            }
+            return JSON;
+        }
+    }
+
+    public static class Builder {
+
+        private EventDataCodec encoder;
+        private final Map<Format, EventDataCodec> decoders = new EnumMap<>(Format.class);
+
+        /**
+         * @param encoder The codec that new events are written with.
+         */
+        public Builder encoder(EventDataCodec encoder) {
+            this.encoder = encoder;
+            return this;
+        }
+
+        /**
+         * @param format  The format of the content.
+         * @param decoder The codec that content of the format is read with.
+         */
+        public Builder decoder(Format format, EventDataCodec decoder) {
+            decoders.put(
+                    requireNonNull(format, () -> new MubelConfigurationException("format may not be null")),
+                    requireNonNull(decoder, () -> new MubelConfigurationException("decoder may not be null"))
+            );
+            return this;
+        }
+
+        public ContentSniffingEventDataCodec build() {
+            return new ContentSniffingEventDataCodec(this);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package io.mubel.sdk.codec;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Deflate without the zlib header and checksum, the payloads are already framed and checked by the transport.
+ * <p>
+ * {@link Deflater} and {@link Inflater} allocate native memory when they are created, so a bounded number of them
+ * are pooled and reset between uses. When the pool is empty a new instance is created, and instances that do not
+ * fit back into the pool are ended.
+ */
+final class DeflateCompression implements CompressionAlgorithm {
+
+    static final byte ID = 1;
+    private static final int POOL_SIZE = Runtime.getRuntime().availableProcessors() * 2;
+
+    private final int level;
+    private final BlockingQueue<Deflater> deflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+    private final BlockingQueue<Inflater> inflaters = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    DeflateCompression(int level) {
+        if (level != Deflater.DEFAULT_COMPRESSION && (level < Deflater.NO_COMPRESSION || level > Deflater.BEST_COMPRESSION)) {
+            throw new MubelConfigurationException("Invalid deflate level: %d".formatted(level));
+        }
+        this.level = level;
+    }
+
+    @Override
+    public byte id() {
+        return ID;
+    }
+
+    @Override
+    public int compress(byte[] input, byte[] output, int offset) {
+        var deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            final int length = deflater.deflate(output, offset, output.length - offset);
+            return deflater.finished() ? length : -1;
+        } finally {
+            deflater.reset();
+            if (!deflaters.offer(deflater)) {
+                deflater.end();
+            }
+        }
+    }
+
+    @Override
+    public byte[] decompress(ByteBuffer input, int uncompressedSize) {
+        var inflater = inflaters.poll();
+        if (inflater == null) {
+            inflater = new Inflater(true);
+        }
+        try {
+            inflater.setInput(input);
+            final var output = new byte[uncompressedSize];
+            int length = 0;
+            while (length < uncompressedSize) {
+                final int n = inflater.inflate(output, length, uncompressedSize - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != uncompressedSize) {
+                throw new IllegalArgumentException("Corrupt payload, expected %d bytes but got %d"
+                        .formatted(uncompressedSize, length));
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt payload: " + e.getMessage(), e);
+        } finally {
+            inflater.reset();
+            if (!inflaters.offer(inflater)) {
+                inflater.end();
+            }
+        }
+    }
+}
@@ -1,9 +1,64 @@
 package io.mubel.sdk.codec;
 
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnsafeByteOperations;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Encodes and decodes event data.
+ * <p>
+ * Only {@link #encode(Object)} and {@link #decode(byte[], Class)} have to be implemented. The other methods have
+ * default implementations on top of them, codecs that can read and write streams directly should override them
+ * to avoid copying the payload.
+ */
 public interface EventDataCodec {
 
+    /**
+     * @return the encoded data. The returned array is owned by the caller and must not be modified or reused by the codec.
+     */
     byte[] encode(Object data);
 
     <T> T decode(byte[] bytes, Class<T> klass);
 
+    /**
+     * Prepares the codec for encoding and decoding the classes, for example by building and caching their serializers.
+     * Does nothing by default.
+     */
+    default void prewarm(Collection<Class<?>> classes) {
+    }
+
+    /**
+     * Encodes data to a {@link ByteString} without copying the encoded bytes.
+     */
+    default ByteString encodeToByteString(Object data) {
+        return UnsafeByteOperations.unsafeWrap(encode(data));
+    }
+
+    default <T> T decode(ByteString bytes, Class<T> klass) {
+        return decode(bytes.toByteArray(), klass);
+    }
+
+    default <T> T decode(InputStream input, Class<T> klass) {
+        try {
+            return decode(input.readAllBytes(), klass);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    default <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return decode(buffer.array(), klass);
+        }
+        final var bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return decode(bytes, klass);
+    }
+
 }
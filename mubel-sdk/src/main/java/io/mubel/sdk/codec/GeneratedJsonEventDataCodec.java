@@ -0,0 +1,218 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.BeanSerializer;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Encodes and decodes events as JSON with the {@link JsonEventCodec} generated for their class, and with Jackson databind
+ * for classes without one.
+ * <p>
+ * Generated codecs are looked up with the class loader of the event class. They write the record components in
+ * declaration order with their own names, as Jackson does by default, so events written by either can be read by the
+ * other. Generated codecs are not used when the mapper has a property naming strategy, mix-ins, a default property
+ * inclusion, fails on unknown properties or on null primitives, since the result would then differ from databind's.
+ * Neither are they used for a class when a module has registered a serializer for it or for one of its scalar components.
+ */
+public class GeneratedJsonEventDataCodec extends JacksonEventDataCodec {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratedJsonEventDataCodec.class);
+    private static final String DATABIND_PACKAGE_PREFIX = "com.fasterxml.jackson.databind.";
+
+    private static final ClassValue<Optional<JsonEventCodec<?>>> GENERATED = new ClassValue<>() {
+        @Override
+        protected Optional<JsonEventCodec<?>> computeValue(Class<?> type) {
+            return findCodec(type);
+        }
+    };
+
+    private static final Set<Class<?>> SCALAR_TYPES = Set.of(
+            boolean.class, char.class, byte.class, short.class, int.class, long.class, float.class, double.class,
+            Boolean.class, Character.class, Byte.class, Short.class, Integer.class, Long.class, Float.class, Double.class,
+            String.class, UUID.class
+    );
+
+    private final boolean useGenerated;
+    private final ClassValue<Boolean> defaultSerializers = new ClassValue<>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            return hasDefaultSerializers(type, new HashSet<>());
+        }
+    };
+
+    public GeneratedJsonEventDataCodec(ObjectMapper jsonMapper) {
+        super(jsonMapper);
+        this.useGenerated = isDefaultPropertyMapping(jsonMapper);
+        if (!useGenerated) {
+            LOG.warn("the JSON mapper does not map properties by default, events are mapped by Jackson databind");
+        }
+    }
+
+    public GeneratedJsonEventDataCodec() {
+        this(defaultMapper(new JsonFactory()));
+    }
+
+    private static boolean isDefaultPropertyMapping(ObjectMapper mapper) {
+        final var inclusion = mapper.getSerializationConfig().getDefaultPropertyInclusion().getValueInclusion();
+        return mapper.getPropertyNamingStrategy() == null
+                && mapper.mixInCount() == 0
+                && (inclusion == JsonInclude.Include.ALWAYS || inclusion == JsonInclude.Include.USE_DEFAULTS)
+                && !mapper.isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                && !mapper.isEnabled(DeserializationFeature.FAIL_ON_NULL_FOR_PRIMITIVES);
+    }
+
+    /**
+     * @return true if the record and its nested records are written by databind's bean serializer
+     * and their scalar components by databind's own serializers.
+     */
+    private boolean hasDefaultSerializers(Class<?> record, Set<Class<?>> visited) {
+        if (!visited.add(record)) {
+            return true;
+        }
+        final var provider = mapper().getSerializerProviderInstance();
+        try {
+            if (provider.findValueSerializer(record).getClass() != BeanSerializer.class) {
+                return false;
+            }
+            for (var component : record.getRecordComponents()) {
+                final var type = component.getType();
+                if (type.isRecord() && !hasDefaultSerializers(type, visited)) {
+                    return false;
+                }
+                if (SCALAR_TYPES.contains(type)
+                        && !provider.findValueSerializer(type).getClass().getName().startsWith(DATABIND_PACKAGE_PREFIX)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (JsonMappingException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true if events of the class are mapped by a generated codec.
+     */
+    public boolean hasGeneratedCodec(Class<?> eventClass) {
+        return generated(eventClass) != null;
+    }
+
+    @Override
+    public void prewarm(Collection<Class<?>> classes) {
+        super.prewarm(classes.stream()
+                .filter(klass -> !hasGeneratedCodec(klass))
+                .toList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] encode(Object data) {
+        final var codec = (JsonEventCodec<Object>) generated(data.getClass());
+        if (codec == null) {
+            return super.encode(data);
+        }
+        try (var buffer = new ByteArrayBuilder()) {
+            try (var generator = mapper().createGenerator(buffer)) {
+                codec.write(generator, data);
+            }
+            return buffer.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> klass) {
+        final var codec = generated(klass);
+        if (codec == null) {
+            return super.decode(bytes, klass);
+        }
+        try (var parser = mapper().createParser(bytes)) {
+            return read(codec, parser, klass);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(InputStream input, Class<T> klass) {
+        final var codec = generated(klass);
+        if (codec == null) {
+            return super.decode(input, klass);
+        }
+        try (var parser = mapper().createParser(input)) {
+            return read(codec, parser, klass);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        final var codec = generated(klass);
+        if (codec == null) {
+            return super.decode(buffer, klass);
+        }
+        if (buffer.hasArray()) {
+            try (var parser = mapper().createParser(
+                    buffer.array(),
+                    buffer.arrayOffset() + buffer.position(),
+                    buffer.remaining()
+            )) {
+                return read(codec, parser, klass);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return decode(new ByteBufferBackedInputStream(buffer.duplicate()), klass);
+    }
+
+    private static <T> T read(JsonEventCodec<?> codec, JsonParser parser, Class<T> klass) throws IOException {
+        parser.nextToken();
+        return klass.cast(codec.read(parser));
+    }
+
+    private JsonEventCodec<?> generated(Class<?> eventClass) {
+        if (!useGenerated) {
+            return null;
+        }
+        final var codec = GENERATED.get(eventClass).orElse(null);
+        return codec != null && defaultSerializers.get(eventClass) ? codec : null;
+    }
+
+    private static Optional<JsonEventCodec<?>> findCodec(Class<?> eventClass) {
+        final var classLoader = eventClass.getClassLoader();
+        if (classLoader == null || !eventClass.isRecord()) {
+            return Optional.empty();
+        }
+        try {
+            for (var codec : ServiceLoader.load(JsonEventCodec.class, classLoader)) {
+                if (codec.eventClass() == eventClass) {
+                    return Optional.of(codec);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            LOG.warn("failed to load generated JSON codecs, {} is mapped by Jackson databind", eventClass.getName(), e);
+        }
+        return Optional.empty();
+    }
+}
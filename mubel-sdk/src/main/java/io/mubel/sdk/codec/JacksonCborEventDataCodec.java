@@ -0,0 +1,35 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+
+/**
+ * Encodes and decodes events as CBOR (RFC 8949), a compact binary data format with the same data model as JSON.
+ * <p>
+ * Requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-cbor} on the class path, it is an optional
+ * dependency of the SDK. Event classes are mapped with the same annotations and modules as with
+ * {@link JacksonJsonEventDataCodec}, use {@link #from(ObjectMapper)} to reuse the configuration of an existing JSON mapper.
+ * See {@link ContentSniffingEventDataCodec} for reading stores that still contain JSON events.
+ */
+public class JacksonCborEventDataCodec extends JacksonEventDataCodec {
+
+    static final String FORMAT_NAME = "CBOR";
+
+    /**
+     * @param cborMapper A mapper created with a {@link CBORFactory}.
+     */
+    public JacksonCborEventDataCodec(ObjectMapper cborMapper) {
+        super(BinaryFormats.requireFormat(cborMapper, FORMAT_NAME));
+    }
+
+    public JacksonCborEventDataCodec() {
+        this(defaultMapper(new CBORFactory()));
+    }
+
+    /**
+     * @return a codec with a copy of the JSON mapper's configuration and modules, writing CBOR.
+     */
+    public static JacksonCborEventDataCodec from(ObjectMapper jsonMapper) {
+        return new JacksonCborEventDataCodec(jsonMapper.copyWith(new CBORFactory()));
+    }
+}
@@ -0,0 +1,150 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.Module;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.protobuf.ByteString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Encodes and decodes events with a Jackson {@link ObjectMapper}, in the format of the mapper's {@link JsonFactory}.
+ * <p>
+ * An {@link ObjectReader} and {@link ObjectWriter} is built once for each event class and kept in a {@link ClassValue},
+ * so the serializers are not looked up in the mapper's caches for every event.
+ *
+ * @see JacksonJsonEventDataCodec
+ * @see JacksonSmileEventDataCodec
+ * @see JacksonCborEventDataCodec
+ */
+public class JacksonEventDataCodec implements EventDataCodec {
+
+    private final ObjectMapper mapper;
+    private final ClassValue<ObjectReader> readers;
+    private final ClassValue<ObjectWriter> writers;
+
+    public JacksonEventDataCodec(ObjectMapper mapper) {
+        this.mapper = mapper;
+        this.readers = new ClassValue<>() {
+            @Override
+            protected ObjectReader computeValue(Class<?> type) {
+                return mapper.readerFor(type);
+            }
+        };
+        this.writers = new ClassValue<>() {
+            @Override
+            protected ObjectWriter computeValue(Class<?> type) {
+                return mapper.writerFor(type);
+            }
+        };
+    }
+
+    /**
+     * @return a mapper that registers the Jackson modules found on the class path and ignores unknown properties.
+     * Blackbird is registered when it is on the class path, also where its service file is not found, such as in
+     * shaded jars and native images.
+     */
+    static ObjectMapper defaultMapper(JsonFactory factory) {
+        final var mapper = new ObjectMapper(factory)
+                .findAndRegisterModules()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        try {
+            mapper.registerModule(Blackbird.module());
+        } catch (NoClassDefFoundError e) {
+            // jackson-module-blackbird is an optional dependency
+        }
+        return mapper;
+    }
+
+    protected ObjectMapper mapper() {
+        return mapper;
+    }
+
+    /**
+     * @return the format name of the mapper's factory, such as {@code JSON} or {@code Smile}.
+     */
+    public String formatName() {
+        return mapper.getFactory().getFormatName();
+    }
+
+    /**
+     * Builds the readers and writers of the classes, which resolves their serializers and deserializers.
+     */
+    @Override
+    public void prewarm(Collection<Class<?>> classes) {
+        for (var klass : classes) {
+            if (!klass.isInterface()) {
+                readers.get(klass);
+                writers.get(klass);
+            }
+        }
+    }
+
+    @Override
+    public byte[] encode(Object data) {
+        try {
+            return writers.get(data.getClass()).writeValueAsBytes(data);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> klass) {
+        try {
+            return readers.get(klass).readValue(bytes);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteString bytes, Class<T> klass) {
+        // reads the bytes in place instead of copying them to an array first
+        return decode(bytes.newInput(), klass);
+    }
+
+    @Override
+    public <T> T decode(InputStream input, Class<T> klass) {
+        try {
+            return readers.get(klass).readValue(input);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        if (buffer.hasArray()) {
+            try {
+                return readers.get(klass).readValue(
+                        buffer.array(),
+                        buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining()
+                );
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return decode(new ByteBufferBackedInputStream(buffer.duplicate()), klass);
+    }
+
+    /**
+     * Keeps the reference to the optional {@link BlackbirdModule} out of the codec, so the codec loads without it.
+     */
+    private static final class Blackbird {
+
+        static Module module() {
+            return new BlackbirdModule();
+        }
+    }
+}
@@ -1,41 +1,22 @@
 package io.mubel.sdk.codec;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.io.IOException;
-
-public class JacksonJsonEventDataCodec implements EventDataCodec {
-
-    private final ObjectMapper jsonMapper;
+/**
+ * Encodes and decodes events as JSON.
+ * <p>
+ * The default mapper registers the Jackson modules found on the class path, add
+ * {@code com.fasterxml.jackson.module:jackson-module-blackbird} to have property accessors generated instead of called
+ * reflectively.
+ */
+public class JacksonJsonEventDataCodec extends JacksonEventDataCodec {
 
     public JacksonJsonEventDataCodec(ObjectMapper jsonMapper) {
-        this.jsonMapper = jsonMapper;
+        super(jsonMapper);
     }
 
     public JacksonJsonEventDataCodec() {
-        this(new ObjectMapper()
-                .findAndRegisterModules()
-                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
-        );
-    }
-
-    @Override
-    public byte[] encode(Object data) {
-        try {
-            return jsonMapper.writeValueAsBytes(data);
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
-        }
-    }
-
-    @Override
-    public <T> T decode(byte[] bytes, Class<T> klass) {
-        try {
-            return jsonMapper.readValue(bytes, klass);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        this(defaultMapper(new JsonFactory()));
     }
 }
@@ -0,0 +1,36 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encodes and decodes events as Smile, a binary form of JSON that is smaller and faster to parse.
+ * <p>
+ * Requires {@code com.fasterxml.jackson.dataformat:jackson-dataformat-smile} on the class path, it is an optional
+ * dependency of the SDK. Event classes are mapped with the same annotations and modules as with
+ * {@link JacksonJsonEventDataCodec}, use {@link #from(ObjectMapper)} to reuse the configuration of an existing JSON mapper.
+ * Smile documents start with a {@code :)\n} header, see {@link ContentSniffingEventDataCodec} for reading stores
+ * that still contain JSON events.
+ */
+public class JacksonSmileEventDataCodec extends JacksonEventDataCodec {
+
+    static final String FORMAT_NAME = "Smile";
+
+    /**
+     * @param smileMapper A mapper created with a {@link SmileFactory}.
+     */
+    public JacksonSmileEventDataCodec(ObjectMapper smileMapper) {
+        super(BinaryFormats.requireFormat(smileMapper, FORMAT_NAME));
+    }
+
+    public JacksonSmileEventDataCodec() {
+        this(defaultMapper(new SmileFactory()));
+    }
+
+    /**
+     * @return a codec with a copy of the JSON mapper's configuration and modules, writing Smile.
+     */
+    public static JacksonSmileEventDataCodec from(ObjectMapper jsonMapper) {
+        return new JacksonSmileEventDataCodec(jsonMapper.copyWith(new SmileFactory()));
+    }
+}
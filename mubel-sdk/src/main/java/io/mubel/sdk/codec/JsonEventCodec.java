@@ -0,0 +1,26 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.IOException;
+
+/**
+ * Writes and reads one event class as JSON with the Jackson streaming API.
+ * <p>
+ * Implementations are generated at build time by the mubel-sdk-processor annotation processor for the event records of
+ * aggregates and registered as services, {@link GeneratedJsonEventDataCodec} uses them instead of Jackson databind.
+ * Implementations must have a public no-args constructor.
+ */
+public interface JsonEventCodec<T> {
+
+    Class<T> eventClass();
+
+    void write(JsonGenerator generator, T event) throws IOException;
+
+    /**
+     * @param parser Positioned at the start of the event object.
+     */
+    T read(JsonParser parser) throws IOException;
+
+}
@@ -0,0 +1,99 @@
+package io.mubel.sdk.codec;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Internal;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.MessageLite;
+import com.google.protobuf.Parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+/**
+ * Encodes and decodes events that are protobuf messages, matching event stores provisioned with
+ * {@link io.mubel.sdk.eventstore.EventStoreProvisioner.DataFormat#PROTOBUF}.
+ * <p>
+ * The parser of each message class is looked up once and kept in a {@link ClassValue}.
+ * Events are parsed directly from {@link ByteString}s and buffers, without copying them to an array first.
+ */
+public class ProtobufEventDataCodec implements EventDataCodec {
+
+    private static final ClassValue<Parser<?>> PARSERS = new ClassValue<>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Parser<?> computeValue(Class<?> type) {
+            if (!MessageLite.class.isAssignableFrom(type)) {
+                throw new IllegalArgumentException("%s is not a protobuf message".formatted(type.getName()));
+            }
+            return Internal.getDefaultInstance((Class<? extends MessageLite>) type).getParserForType();
+        }
+    };
+
+    @Override
+    public void prewarm(Collection<Class<?>> classes) {
+        for (var klass : classes) {
+            if (MessageLite.class.isAssignableFrom(klass)) {
+                PARSERS.get(klass);
+            }
+        }
+    }
+
+    @Override
+    public byte[] encode(Object data) {
+        return message(data).toByteArray();
+    }
+
+    @Override
+    public ByteString encodeToByteString(Object data) {
+        return message(data).toByteString();
+    }
+
+    @Override
+    public <T> T decode(byte[] bytes, Class<T> klass) {
+        try {
+            return klass.cast(parser(klass).parseFrom(bytes));
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteString bytes, Class<T> klass) {
+        try {
+            return klass.cast(parser(klass).parseFrom(bytes));
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(InputStream input, Class<T> klass) {
+        try {
+            return klass.cast(parser(klass).parseFrom(input));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @Override
+    public <T> T decode(ByteBuffer buffer, Class<T> klass) {
+        try {
+            return klass.cast(parser(klass).parseFrom(buffer.duplicate()));
+        } catch (InvalidProtocolBufferException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static Parser<?> parser(Class<?> klass) {
+        return PARSERS.get(klass);
+    }
+
+    private static MessageLite message(Object data) {
+        if (data instanceof MessageLite message) {
+            return message;
+        }
+        throw new IllegalArgumentException("%s is not a protobuf message".formatted(data.getClass().getName()));
+    }
+}
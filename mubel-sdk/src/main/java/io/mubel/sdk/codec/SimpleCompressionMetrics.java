@@ -0,0 +1,50 @@
+package io.mubel.sdk.codec;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link CompressionMetricsRecorder} that keeps totals in memory, without any dependencies.
+ */
+public class SimpleCompressionMetrics implements CompressionMetricsRecorder {
+
+    private final LongAdder compressedPayloads = new LongAdder();
+    private final LongAdder uncompressedPayloads = new LongAdder();
+    private final LongAdder bytesBeforeCompression = new LongAdder();
+    private final LongAdder bytesAfterCompression = new LongAdder();
+
+    @Override
+    public void compressed(int size, int compressedSize) {
+        compressedPayloads.increment();
+        bytesBeforeCompression.add(size);
+        bytesAfterCompression.add(compressedSize);
+    }
+
+    @Override
+    public void uncompressed(int size) {
+        uncompressedPayloads.increment();
+    }
+
+    public long compressedPayloads() {
+        return compressedPayloads.sum();
+    }
+
+    public long uncompressedPayloads() {
+        return uncompressedPayloads.sum();
+    }
+
+    public long bytesBeforeCompression() {
+        return bytesBeforeCompression.sum();
+    }
+
+    public long bytesAfterCompression() {
+        return bytesAfterCompression.sum();
+    }
+
+    /**
+     * @return the size of the compressed payloads before compression divided by their size after, or 1 if nothing has been compressed.
+     */
+    public double compressionRatio() {
+        final long after = bytesAfterCompression();
+        return after == 0 ? 1.0 : (double) bytesBeforeCompression() / after;
+    }
+}
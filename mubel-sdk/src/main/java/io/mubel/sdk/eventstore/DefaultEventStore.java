@@ -8,11 +8,13 @@ import io.mubel.sdk.internal.Utils;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public class DefaultEventStore implements EventStore {
 
     private final String eventStoreId;
     private final MubelClient client;
+    private final EventStreamReader reader;
 
     public static Builder builder() {
         return new Builder();
@@ -21,15 +23,29 @@ public class DefaultEventStore implements EventStore {
     private DefaultEventStore(Builder b) {
         this.eventStoreId = b.eventStoreId;
         this.client = b.client;
+        this.reader = EventStreamReader.builder()
+                .eventStoreId(b.eventStoreId)
+                .client(b.client)
+                .pageSize(b.pageSize)
+                .build();
     }
 
     @Override
     public void execute(ExecuteRequestOrBuilder request) {
+        client.execute(toExecuteRequest(request));
+    }
+
+    @Override
+    public CompletableFuture<Void> executeAsync(ExecuteRequestOrBuilder request) {
+        return client.executeAsync(toExecuteRequest(request));
+    }
+
+    private ExecuteRequest toExecuteRequest(ExecuteRequestOrBuilder request) {
         if (request instanceof ExecuteRequest.Builder builder) {
             builder.setEsid(eventStoreId);
-            client.execute(builder.build());
+            return builder.build();
         } else if (request instanceof ExecuteRequest exr) {
-            client.execute(exr);
+            return exr;
         } else {
             throw new IllegalArgumentException("cannot handle request class " + request.getClass());
         }
@@ -37,22 +53,24 @@ public class DefaultEventStore implements EventStore {
 
     @Override
     public List<EventData> get(String streamId) {
-        var response = client.getEvents(
-                GetEventsRequest.newBuilder()
-                        .setEsid(eventStoreId)
-                        .setSelector(EventSelector.newBuilder()
-                                .setStream(StreamSelector.newBuilder()
-                                        .setStreamId(streamId)
-                                        .build())
-                                .build())
-                        .build()
-        );
-        return response.getEventList();
+        return get(streamId, 0);
     }
 
     @Override
     public List<EventData> get(String streamId, int revision) {
-        var response = client.getEvents(
+        return reader.stream(streamId, revision)
+                .collectList()
+                .block();
+    }
+
+    @Override
+    public Flux<EventData> getAsync(String streamId) {
+        return getAsync(streamId, 0);
+    }
+
+    @Override
+    public Flux<EventData> getAsync(String streamId, int revision) {
+        return client.getEventStream(
                 GetEventsRequest.newBuilder()
                         .setEsid(eventStoreId)
                         .setSelector(EventSelector.newBuilder()
@@ -63,39 +81,17 @@ public class DefaultEventStore implements EventStore {
                                 .build())
                         .build()
         );
-        return response.getEventList();
     }
 
     @Override
-    public Flux<EventData> getAsync(String streamId) {
-        return client.getEventStream(GetEventsRequest.newBuilder()
-                .setEsid(eventStoreId)
-                .setSelector(EventSelector.newBuilder()
-                        .setStream(StreamSelector.newBuilder()
-                                .setStreamId(streamId)
-                                .build())
-                        .build())
-                .build()
-        );
-    }
-
-    @Override
-    public Flux<EventData> getAsync(String streamId, int revision) {
-        return client.getEventStream(GetEventsRequest.newBuilder()
-                .setEsid(eventStoreId)
-                .setSelector(EventSelector.newBuilder()
-                        .setStream(StreamSelector.newBuilder()
-                                .setStreamId(streamId)
-                                .setFromRevision(revision)
-                                .build())
-                        .build())
-                .build()
-        );
+    public Flux<EventData> getAll(long fromSequenceNo) {
+        return reader.all(fromSequenceNo);
     }
 
     public static class Builder {
         private String eventStoreId;
         private MubelClient client;
+        private int pageSize = 1000;
 
         public Builder eventStoreId(String eventStoreId) {
             this.eventStoreId = eventStoreId;
@@ -107,6 +103,14 @@ public class DefaultEventStore implements EventStore {
             return this;
         }
 
+        /**
+         * Max number of events fetched per request by {@link #get(String, int)} and {@link #getAll(long)}. Default 1000.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
         public DefaultEventStore build() {
             eventStoreId = validateEventStoreId();
             client = Constrains.requireNonNull(client, "Client");
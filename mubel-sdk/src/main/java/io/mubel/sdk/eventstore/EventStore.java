@@ -6,6 +6,7 @@ import io.mubel.api.grpc.v1.events.ExecuteRequestOrBuilder;
 import reactor.core.publisher.Flux;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface EventStore {
 
@@ -18,6 +19,17 @@ public interface EventStore {
      */
     void execute(ExecuteRequestOrBuilder appendRequest);
 
+    /**
+     * Same as {@link #execute(ExecuteRequestOrBuilder)} but does not block the calling thread.
+     * The default implementation runs {@link #execute(ExecuteRequestOrBuilder)} on the common pool.
+     *
+     * @param appendRequest
+     * @return a future that completes when the request has been acknowledged by the event store.
+     */
+    default CompletableFuture<Void> executeAsync(ExecuteRequestOrBuilder appendRequest) {
+        return CompletableFuture.runAsync(() -> execute(appendRequest));
+    }
+
     /**
      * @param streamId The stream id of the aggregate to get events for.
      * @return The events for the aggregate with the given stream id.
@@ -34,4 +46,14 @@ public interface EventStore {
     Flux<EventData> getAsync(String streamId);
 
     Flux<EventData> getAsync(String streamId, int revision);
+
+    /**
+     * Not supported by default, implementations that can read the whole event store override it.
+     *
+     * @param fromSequenceNo Events after this sequence number are returned.
+     * @return All events in the event store after the given sequence number, in sequence number order.
+     */
+    default Flux<EventData> getAll(long fromSequenceNo) {
+        return Flux.error(new UnsupportedOperationException("%s does not support reading all events".formatted(getClass().getName())));
+    }
 }
@@ -10,6 +10,7 @@ import io.mubel.sdk.exceptions.MubelConfigurationException;
 import io.mubel.sdk.internal.Utils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -31,10 +32,13 @@ public class EventStoreProvisioner {
         final var serverInfo = client.getServerInfo();
         final var byEsid = indexEventStoreByEsid(serverInfo);
         final var backends = getBackends(serverInfo);
-        eventStores.stream()
+        // provisioning jobs run concurrently on the server, wait for all of them at once
+        final var jobs = eventStores.stream()
                 .filter(pp -> verifyParams(pp, byEsid, backends))
                 .map(mapRequest())
-                .forEach(client::provision);
+                .map(client::provision)
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(jobs).join();
     }
 
     private static Set<String> getBackends(ServiceInfoResponse serverInfo) {
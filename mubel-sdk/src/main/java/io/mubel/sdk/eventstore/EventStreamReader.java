@@ -0,0 +1,165 @@
+package io.mubel.sdk.eventstore;
+
+import io.mubel.api.grpc.v1.events.*;
+import io.mubel.client.ExceptionHandler;
+import io.mubel.client.MubelClient;
+import io.mubel.sdk.Constrains;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.internal.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Reads events page by page, so long streams are not fetched in a single response.
+ * <p>
+ * The next page is requested as soon as a page has been received, while the current page is consumed.
+ * The read ends on the first empty page, a page smaller than the requested size does not end it
+ * since the server may cap the number of events per response below the page size.
+ * A page that fails with a transient error is retried from the last received revision or sequence number,
+ * events that have already been emitted are not read again.
+ */
+public class EventStreamReader {
+
+    private static final Logger LOG = LoggerFactory.getLogger(EventStreamReader.class);
+
+    private final String eventStoreId;
+    private final MubelClient client;
+    private final int pageSize;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private EventStreamReader(Builder b) {
+        this.eventStoreId = b.eventStoreId;
+        this.client = b.client;
+        this.pageSize = b.pageSize;
+        this.maxRetries = b.maxRetries;
+        this.retryBackoff = b.retryBackoff;
+    }
+
+    public int pageSize() {
+        return pageSize;
+    }
+
+    /**
+     * @param streamId     The stream to read.
+     * @param fromRevision The first revision to read.
+     * @return the events of the stream from the given revision.
+     */
+    public Flux<EventData> stream(String streamId, int fromRevision) {
+        return read(streamSelector(streamId, fromRevision), last -> streamSelector(streamId, last.getRevision() + 1));
+    }
+
+    /**
+     * @param fromSequenceNo Events after this sequence number are read.
+     * @return all events in the event store after the given sequence number.
+     */
+    public Flux<EventData> all(long fromSequenceNo) {
+        return read(allSelector(fromSequenceNo), last -> allSelector(last.getSequenceNo()));
+    }
+
+    private Flux<EventData> read(EventSelector first, Function<EventData, EventSelector> next) {
+        return fetch(first)
+                .expand(page -> isLastPage(page)
+                        ? Mono.empty()
+                        : prefetch(next.apply(page.getEvent(page.getEventCount() - 1))))
+                .concatMapIterable(GetEventsResponse::getEventList);
+    }
+
+    private boolean isLastPage(GetEventsResponse page) {
+        return page.getEventCount() == 0;
+    }
+
+    private Mono<GetEventsResponse> prefetch(EventSelector selector) {
+        final var page = fetch(selector).toFuture();
+        return Mono.fromFuture(page);
+    }
+
+    private Mono<GetEventsResponse> fetch(EventSelector selector) {
+        final var request = GetEventsRequest.newBuilder()
+                .setEsid(eventStoreId)
+                .setSelector(selector)
+                .setSize(pageSize)
+                .build();
+        return Mono.fromFuture(() -> client.getEventsAsync(request))
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .filter(ExceptionHandler::isTransient)
+                        .doBeforeRetry(signal -> LOG.debug("retrying page of {} after failure: {}", eventStoreId, signal.failure().toString()))
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+    }
+
+    private static EventSelector streamSelector(String streamId, int fromRevision) {
+        return EventSelector.newBuilder()
+                .setStream(StreamSelector.newBuilder()
+                        .setStreamId(streamId)
+                        .setFromRevision(fromRevision))
+                .build();
+    }
+
+    private static EventSelector allSelector(long fromSequenceNo) {
+        return EventSelector.newBuilder()
+                .setAll(AllSelector.newBuilder()
+                        .setFromSequenceNo(fromSequenceNo))
+                .build();
+    }
+
+    public static class Builder {
+        private String eventStoreId;
+        private MubelClient client;
+        private int pageSize = 1000;
+        private int maxRetries = 3;
+        private Duration retryBackoff = Duration.ofMillis(100);
+
+        public Builder eventStoreId(String eventStoreId) {
+            this.eventStoreId = eventStoreId;
+            return this;
+        }
+
+        public Builder client(MubelClient client) {
+            this.client = client;
+            return this;
+        }
+
+        /**
+         * Max number of events per request. Default 1000.
+         */
+        public Builder pageSize(int pageSize) {
+            this.pageSize = pageSize;
+            return this;
+        }
+
+        /**
+         * Max number of retries of a page that failed with a transient error. Default 3.
+         */
+        public Builder maxRetries(int maxRetries) {
+            this.maxRetries = maxRetries;
+            return this;
+        }
+
+        /**
+         * Initial backoff between retries, doubled for each retry. Default 100 ms.
+         */
+        public Builder retryBackoff(Duration retryBackoff) {
+            this.retryBackoff = retryBackoff;
+            return this;
+        }
+
+        public EventStreamReader build() {
+            eventStoreId = Constrains.validateEventStoreId(eventStoreId);
+            client = Constrains.requireNonNull(client, "Client");
+            Utils.assertPositive(pageSize, v -> new MubelConfigurationException("Page size must be positive, was %d".formatted(v)));
+            Utils.assertGteZeroInt(maxRetries, v -> new MubelConfigurationException("Max retries may not be negative, was %d".formatted(v)));
+            retryBackoff = Constrains.requireNonNull(retryBackoff, "Retry backoff");
+            return new EventStreamReader(this);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package io.mubel.sdk.execution;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.execution.internal.DisabledAggregateCache;
+import io.mubel.sdk.execution.internal.StripedLruAggregateCache;
+import io.mubel.sdk.internal.Utils;
+
+/**
+ * A bounded cache of rehydrated aggregates, keyed by stream id, used by {@link AggregateInvocationService}
+ * to only read the events appended after the cached version.
+ * <p>
+ * An aggregate is {@link #take(String) taken} from the cache while a command or deadline is handled and
+ * {@link #put(String, CachedAggregate) put} back, with its new version, only after the resulting events have been
+ * appended. Concurrent invocations on the same stream therefore never share an aggregate instance, and an aggregate
+ * whose events failed to append, for example because of a revision conflict, is dropped.
+ * <p>
+ * Implement this interface to plug in another cache, for example one with frequency based admission or
+ * eviction by weight. An implementation must be thread safe, and {@link #take(String)} must remove the entry.
+ */
+public interface AggregateCache<T> {
+
+    /**
+     * A cache that evicts the least recently used aggregate when it is full.
+     * Caches of more than 1024 aggregates are striped, see {@link #lru(int, int)}.
+     *
+     * @param maxSize Max number of cached aggregates.
+     */
+    static <T> AggregateCache<T> lru(int maxSize) {
+        return lru(maxSize, Math.min(16, Math.max(1, maxSize / 1024)));
+    }
+
+    /**
+     * A cache that evicts the least recently used aggregate when it is full, with the aggregates spread over
+     * stripes that are locked independently, so invocations on unrelated streams do not wait for each other.
+     * The least recently used aggregate is evicted per stripe, not over the whole cache.
+     *
+     * @param maxSize Max number of cached aggregates, divided over the stripes.
+     * @param stripes The number of stripes, rounded up to a power of two and at most maxSize.
+     */
+    static <T> AggregateCache<T> lru(int maxSize, int stripes) {
+        return new StripedLruAggregateCache<>(
+                Utils.assertPositive(
+                        maxSize,
+                        v -> new MubelConfigurationException("maxSize must be positive. was: %d".formatted(v))
+                ),
+                Utils.assertPositive(
+                        stripes,
+                        v -> new MubelConfigurationException("stripes must be positive. was: %d".formatted(v))
+                )
+        );
+    }
+
+    static <T> AggregateCache<T> disabled() {
+        return DisabledAggregateCache.instance();
+    }
+
+    default boolean enabled() {
+        return true;
+    }
+
+    int size();
+
+    void invalidate(String streamId);
+
+    void clear();
+
+    /**
+     * Removes and returns the cached aggregate of the stream, or null if it is not cached.
+     */
+    CachedAggregate<T> take(String streamId);
+
+    void put(String streamId, CachedAggregate<T> aggregate);
+
+    /**
+     * @param version         The version of the aggregate.
+     * @param snapshotVersion The version of the snapshot the aggregate was loaded from, or -1 if there is none.
+     */
+    record CachedAggregate<T>(T aggregate, int version, int snapshotVersion) {
+    }
+}
@@ -0,0 +1,16 @@
+package io.mubel.sdk.execution;
+
+/**
+ * Supplies a ready made {@link AggregateInvocationConfig} for an aggregate class.
+ * <p>
+ * Implementations are generated at build time by the mubel-sdk-processor annotation processor and registered as
+ * services, {@link AutoAggregateInvocationConfig} uses them instead of resolving the handlers by reflection.
+ * Implementations must have a public no-args constructor.
+ */
+public interface AggregateInvocationConfigProvider {
+
+    Class<?> aggregateClass();
+
+    AggregateInvocationConfig<?, ?, ?> invocationConfig();
+
+}
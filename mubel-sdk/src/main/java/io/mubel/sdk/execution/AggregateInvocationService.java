@@ -4,63 +4,331 @@ import io.mubel.api.grpc.v1.events.CancelScheduledOperation;
 import io.mubel.api.grpc.v1.events.EntityReference;
 import io.mubel.api.grpc.v1.events.ExecuteRequest;
 import io.mubel.api.grpc.v1.events.Operation;
+import io.mubel.client.ExceptionHandler;
 import io.mubel.sdk.EventDataMapper;
 import io.mubel.sdk.HandlerResult;
 import io.mubel.sdk.eventstore.EventStore;
 import io.mubel.sdk.exceptions.EventStreamNotFoundException;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.execution.internal.AggregateVersion;
 import io.mubel.sdk.execution.internal.CommandExecutor;
 import io.mubel.sdk.execution.internal.InvocationContext;
+import io.mubel.sdk.execution.internal.SubmittedRequests;
+import io.mubel.sdk.internal.Utils;
 import io.mubel.sdk.scheduled.ExpiredDeadline;
 import io.mubel.sdk.scheduled.ExpiredDeadlineConsumer;
+import io.mubel.sdk.snapshot.Snapshotter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Supplier;
 
 import static java.util.Objects.requireNonNull;
 
 public class AggregateInvocationService<T, E, C> implements ExpiredDeadlineConsumer {
+    private static final Logger LOG = LoggerFactory.getLogger(AggregateInvocationService.class);
+    /**
+     * The operations of a stream are never split over requests, so a request may exceed this for a single large stream.
+     */
+    static final int MAX_OPERATIONS_PER_REQUEST = 1000;
+
     private final EventStore eventStore;
     private final CommandExecutor<T, E, C> commandExecutor;
     private final EventDataMapper eventDataMapper;
     private final String aggregateName;
+    private final AggregateCache<T> aggregateCache;
+    private final Snapshotter<T> snapshotter;
+    private final StreamLocks streamLocks;
+    private final RetryPolicy retryPolicy;
+    private final SubmittedRequests<Submission<E>> submittedRequests;
 
     public AggregateInvocationService(
             AggregateInvocationConfig<T, E, C> config,
             EventStore eventStore,
             EventDataMapper eventDataMapper
     ) {
-        this.eventStore = requireNonNull(eventStore, "eventStore may not be null");
-        this.eventDataMapper = requireNonNull(eventDataMapper, "eventDataMapper may not be null");
-        this.commandExecutor = new CommandExecutor<>(requireNonNull(config, "config may not be null"));
-        this.aggregateName = config.aggregateName();
+        this(builder(config, eventStore, eventDataMapper));
+    }
+
+    protected AggregateInvocationService(Builder<T, E, C> builder) {
+        this.eventStore = requireNonNull(builder.eventStore, "eventStore may not be null");
+        this.eventDataMapper = requireNonNull(builder.eventDataMapper, "eventDataMapper may not be null");
+        this.commandExecutor = new CommandExecutor<>(requireNonNull(builder.config, "config may not be null"));
+        this.aggregateName = builder.config.aggregateName();
+        this.aggregateCache = requireNonNull(builder.aggregateCache, "aggregateCache may not be null");
+        this.snapshotter = requireNonNull(builder.snapshotter, "snapshotter may not be null");
+        this.streamLocks = requireNonNull(builder.streamLocks, "streamLocks may not be null");
+        this.retryPolicy = requireNonNull(builder.retryPolicy, "retryPolicy may not be null");
+        this.submittedRequests = new SubmittedRequests<>(Utils.assertPositive(
+                builder.idempotencyWindow,
+                v -> new MubelConfigurationException("idempotencyWindow must be positive, was %d".formatted(v))
+        ));
+    }
+
+    public static <T, E, C> Builder<T, E, C> builder(
+            AggregateInvocationConfig<T, E, C> config,
+            EventStore eventStore,
+            EventDataMapper eventDataMapper
+    ) {
+        return new Builder<>(config, eventStore, eventDataMapper);
     }
 
     public CommandResult<E> submit(UUID streamId, C command) {
         final var nnStreamId = parseStreamId(streamId);
         final var nnCommand = requireNonNull(command, "command may not be null");
-        final var ctx = InvocationContext.create(nnStreamId);
-        var existingEvents = getExistingEvents(nnStreamId, ctx);
-        final var handlerResult = commandExecutor.execute(existingEvents, nnCommand);
-        final int oldVersion = ctx.currentVersion();
-        applyResult(ctx, handlerResult);
-        final int newVersion = ctx.currentVersion();
-        return new CommandResult<>(
-                streamId,
-                handlerResult.events().size(),
-                oldVersion,
-                newVersion,
-                handlerResult.events()
-        );
+        return streamLocks.withLock(nnStreamId, () -> execute(streamId, nnStreamId, nnCommand, null));
+    }
+
+    /**
+     * Same as {@link #submit(UUID, Object)} but the command is submitted at most once for the idempotency key of the stream.
+     * <p>
+     * The key is sent as the request id of the execute request, so the event store ignores the events if a request
+     * with the same key has already been appended. The request and its result are kept before the request is sent.
+     * A repeated key on the same stream, for example when a submission is retried after a timeout, sends the kept request
+     * again and returns the original result, without rehydrating the aggregate or executing the command again.
+     * When the event store has acknowledged the request, the result is returned without sending it again.
+     * A request the event store has rejected is forgotten, so the command is executed again when the key is repeated.
+     * <p>
+     * Since the event store may have ignored the events, the aggregate is not put back in the {@link AggregateCache}.
+     *
+     * @param idempotencyKey Identifies the submission, for example a client generated request id.
+     */
+    public CommandResult<E> submit(UUID streamId, C command, String idempotencyKey) {
+        final var nnStreamId = parseStreamId(streamId);
+        final var nnCommand = requireNonNull(command, "command may not be null");
+        final var nnKey = requireNonNull(idempotencyKey, "idempotencyKey may not be null");
+        return streamLocks.withLock(nnStreamId, () -> {
+            final var submitted = submittedRequests.get(submissionKey(nnStreamId, nnKey));
+            if (submitted != null) {
+                return resend(nnStreamId, nnKey, submitted);
+            }
+            return execute(streamId, nnStreamId, nnCommand, nnKey);
+        });
+    }
+
+    private static String submissionKey(String streamId, String idempotencyKey) {
+        return streamId + '/' + idempotencyKey;
+    }
+
+    private CommandResult<E> resend(String streamId, String idempotencyKey, Submission<E> submitted) {
+        if (submitted.acknowledged()) {
+            return submitted.result();
+        }
+        LOG.debug("resending request {} of stream {}", idempotencyKey, streamId);
+        send(streamId, idempotencyKey, submitted.request(), submitted.result());
+        return submitted.result();
+    }
+
+    /**
+     * Sends the request of a keyed submission, it is kept until the event store has acknowledged or rejected it.
+     */
+    private void send(String streamId, String idempotencyKey, ExecuteRequest request, CommandResult<E> result) {
+        final var key = submissionKey(streamId, idempotencyKey);
+        if (request == null) {
+            submittedRequests.put(key, new Submission<>(null, result, true));
+            return;
+        }
+        submittedRequests.put(key, new Submission<>(request, result, false));
+        try {
+            eventStore.execute(request);
+        } catch (RuntimeException e) {
+            if (ExceptionHandler.isDefinitiveRejection(e)) {
+                submittedRequests.remove(key);
+            }
+            throw e;
+        }
+        submittedRequests.put(key, new Submission<>(request, result, true));
+    }
+
+    /**
+     * Executes the command and appends the result, retrying on revision conflicts as the {@link RetryPolicy} says.
+     */
+    private CommandResult<E> execute(UUID streamId, String nnStreamId, C command, String requestId) {
+        var rehydrated = rehydrate(nnStreamId);
+        for (int attempt = 1; ; attempt++) {
+            final var ctx = rehydrated.ctx();
+            final int oldVersion = ctx.currentVersion();
+            final var handlerResult = retryPolicy.readTailOnly()
+                    ? commandExecutor.handle(rehydrated.aggregate(), command)
+                    : commandExecutor.executeOn(rehydrated.aggregate(), command);
+            final var request = toExecuteRequest(ctx, handlerResult);
+            final var result = new CommandResult<>(
+                    streamId,
+                    handlerResult.events().size(),
+                    oldVersion,
+                    ctx.currentVersion(),
+                    handlerResult.events()
+            );
+            try {
+                if (requestId != null) {
+                    send(nnStreamId, requestId, request == null ? null : request.setRequestId(requestId).build(), result);
+                } else if (request != null) {
+                    eventStore.execute(request);
+                }
+            } catch (RuntimeException e) {
+                if (attempt >= retryPolicy.maxAttempts() || !ExceptionHandler.isRevisionConflict(e)) {
+                    throw e;
+                }
+                LOG.debug("revision conflict on stream {}, retrying: {}", nnStreamId, e.getMessage());
+                awaitRetry(attempt, e);
+                rehydrated = retryPolicy.readTailOnly()
+                        ? applyTail(nnStreamId, rehydrated, oldVersion)
+                        : rehydrate(nnStreamId);
+                continue;
+            }
+            if (retryPolicy.readTailOnly()) {
+                commandExecutor.applyEvents(rehydrated.aggregate(), handlerResult.events());
+            }
+            if (requestId == null) {
+                snapshotAndCache(nnStreamId, rehydrated);
+            }
+            return result;
+        }
+    }
+
+    private void awaitRetry(int retry, RuntimeException conflict) {
+        try {
+            Thread.sleep(retryPolicy.backoff(retry));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+    /**
+     * Same as {@link #submit(UUID, Object)} but without blocking: the events are applied to the aggregate as they are read
+     * and the resulting operations are executed with {@link EventStore#executeAsync}.
+     * <p>
+     * Snapshot stores are blocking, so loading and taking snapshots is done on {@link Schedulers#boundedElastic()}
+     * when a {@link Snapshotter} is configured.
+     * The invocation is not serialized by {@link StreamLocks}, a lock can not be held without blocking.
+     *
+     * @return a mono that emits the result when the events have been appended. Nothing happens until it is subscribed to.
+     */
+    public Mono<CommandResult<E>> submitAsync(UUID streamId, C command) {
+        final var nnStreamId = parseStreamId(streamId);
+        final var nnCommand = requireNonNull(command, "command may not be null");
+        return rehydrateAsync(nnStreamId).flatMap(rehydrated -> {
+            final var ctx = rehydrated.ctx();
+            final var handlerResult = commandExecutor.executeOn(rehydrated.aggregate(), nnCommand);
+            final int oldVersion = ctx.currentVersion();
+            final var request = toExecuteRequest(ctx, handlerResult);
+            final int newVersion = ctx.currentVersion();
+            final Mono<Void> append = request == null
+                    ? Mono.empty()
+                    : Mono.fromFuture(() -> eventStore.executeAsync(request));
+            return append.then(offloadIfSnapshotting(() -> {
+                snapshotAndCache(nnStreamId, rehydrated);
+                return new CommandResult<>(
+                        streamId,
+                        handlerResult.events().size(),
+                        oldVersion,
+                        newVersion,
+                        handlerResult.events()
+                );
+            }));
+        });
+    }
+
+    /**
+     * Submits a batch of commands, possibly addressed to many streams.
+     * <p>
+     * The commands are grouped by stream, each stream is rehydrated once and its commands are executed in the order
+     * they were given. The resulting operations of all streams are combined into as few execute requests as possible.
+     * <p>
+     * Streams are isolated from each other: when a command of a stream fails, or the events of a stream could not be appended,
+     * none of the events of that stream are appended and all of its commands fail, while the other streams are unaffected.
+     * The batch is not serialized by {@link StreamLocks}.
+     *
+     * @return one result for each command, in the order the commands were given.
+     */
+    public List<StreamCommandResult<E>> submitAll(Collection<? extends StreamCommand<? extends C>> commands) {
+        requireNonNull(commands, "commands may not be null");
+        final var batches = new LinkedHashMap<String, StreamBatch>();
+        int index = 0;
+        for (var streamCommand : commands) {
+            requireNonNull(streamCommand, "commands may not contain null");
+            batches.computeIfAbsent(
+                    streamCommand.streamId().toString(),
+                    id -> new StreamBatch(streamCommand.streamId(), id)
+            ).add(index++, streamCommand.command());
+        }
+        @SuppressWarnings("unchecked") final StreamCommandResult<E>[] results = new StreamCommandResult[index];
+        final var executed = new ArrayList<StreamBatch>(batches.size());
+        for (var batch : batches.values()) {
+            try {
+                batch.execute();
+                executed.add(batch);
+            } catch (Exception e) {
+                batch.fail(e, results);
+            }
+        }
+        appendAll(executed, results);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Executes the operations of the batches in requests of at most {@link #MAX_OPERATIONS_PER_REQUEST} operations.
+     * When a request is rejected, its streams are retried one by one to find the streams that can not be appended.
+     * Any other failure leaves the outcome of the request unknown and fails all of its streams.
+     */
+    private void appendAll(List<StreamBatch> batches, StreamCommandResult<E>[] results) {
+        final var chunk = new ArrayList<StreamBatch>();
+        int operationCount = 0;
+        for (var batch : batches) {
+            if (!chunk.isEmpty() && operationCount + batch.operations.size() > MAX_OPERATIONS_PER_REQUEST) {
+                appendChunk(chunk, results);
+                chunk.clear();
+                operationCount = 0;
+            }
+            chunk.add(batch);
+            operationCount += batch.operations.size();
+        }
+        if (!chunk.isEmpty()) {
+            appendChunk(chunk, results);
+        }
+    }
+
+    private void appendChunk(List<StreamBatch> chunk, StreamCommandResult<E>[] results) {
+        final var request = ExecuteRequest.newBuilder();
+        chunk.forEach(batch -> request.addAllOperation(batch.operations));
+        try {
+            if (request.getOperationCount() > 0) {
+                eventStore.execute(request);
+            }
+        } catch (Exception e) {
+            if (chunk.size() == 1 || !ExceptionHandler.isDefinitiveRejection(e)) {
+                chunk.forEach(batch -> batch.fail(e, results));
+                return;
+            }
+            LOG.debug("execute of {} streams was rejected, retrying them one by one", chunk.size(), e);
+            chunk.forEach(batch -> appendChunk(List.of(batch), results));
+            return;
+        }
+        chunk.forEach(batch -> batch.complete(results));
     }
 
     @Override
     public void deadlineExpired(ExpiredDeadline expiredDeadline) {
         final var nnStreamId = parseStreamId(expiredDeadline.targetEntityId());
-        final var ctx = InvocationContext.create(nnStreamId);
-        final var existingEvents = getExistingEvents(nnStreamId, ctx);
-        final var handlerResult = commandExecutor.handleExpiredDeadline(existingEvents, expiredDeadline);
-        applyResult(ctx, handlerResult);
+        streamLocks.withLock(nnStreamId, () -> {
+            final var rehydrated = rehydrate(nnStreamId);
+            final var handlerResult = commandExecutor.handleExpiredDeadlineOn(rehydrated.aggregate(), expiredDeadline);
+            applyResult(rehydrated.ctx(), handlerResult);
+            snapshotAndCache(nnStreamId, rehydrated);
+            return null;
+        });
     }
 
     public T getState(UUID streamId) {
@@ -74,10 +342,15 @@ public class AggregateInvocationService<T, E, C> implements ExpiredDeadlineConsu
                 .orElseThrow(() -> new EventStreamNotFoundException(streamId));
     }
 
+    /**
+     * The aggregate is loaded from its latest snapshot, or from all of its events, and handed over to the caller.
+     * The cache is not used, so a cached aggregate is left for the next command.
+     */
     public Optional<T> findState(UUID streamId) {
         final var nnStreamId = parseStreamId(streamId);
-        final var ctx = InvocationContext.create(nnStreamId);
-        return commandExecutor.getState(getExistingEvents(nnStreamId, ctx));
+        final var rehydrated = load(nnStreamId, System.nanoTime());
+        takeSnapshotIfDue(nnStreamId, rehydrated);
+        return rehydrated.exists() ? Optional.of(rehydrated.aggregate()) : Optional.empty();
     }
 
     @Override
@@ -85,49 +358,249 @@ public class AggregateInvocationService<T, E, C> implements ExpiredDeadlineConsu
         return aggregateName;
     }
 
+    /**
+     * Takes the aggregate from the cache and applies the events after the cached version.
+     * When it is not cached, the aggregate is {@link #load(String, long) loaded}.
+     */
+    private Rehydrated<T> rehydrate(String streamId) {
+        final long start = System.nanoTime();
+        final var cached = aggregateCache.take(streamId);
+        if (cached != null) {
+            return applyTail(streamId, cached.aggregate(), cached.version(), cached.snapshotVersion(), start);
+        }
+        return load(streamId, start);
+    }
+
+    /**
+     * Loads the aggregate from its latest snapshot and applies the events after the snapshot,
+     * or creates a new aggregate and applies all events when there is no snapshot.
+     */
+    private Rehydrated<T> load(String streamId, long start) {
+        final var snapshot = snapshotter.load(streamId);
+        if (snapshot.isPresent()) {
+            final int version = snapshot.get().version();
+            return applyTail(streamId, snapshot.get().aggregate(), version, version, start);
+        }
+        final var ctx = InvocationContext.create(streamId);
+        final var aggregate = commandExecutor.newAggregateInstance();
+        final int eventCount = commandExecutor.applyEvents(aggregate, getExistingEvents(streamId, ctx));
+        return new Rehydrated<>(aggregate, ctx, eventCount > 0, -1, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Same as {@link #rehydrate(String)} but applies the events as they are read from the event store.
+     */
+    private Mono<Rehydrated<T>> rehydrateAsync(String streamId) {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            final var cached = aggregateCache.take(streamId);
+            if (cached != null) {
+                return applyTailAsync(streamId, cached.aggregate(), cached.version(), cached.snapshotVersion(), start);
+            }
+            return offloadIfSnapshotting(() -> snapshotter.load(streamId)).flatMap(snapshot -> {
+                if (snapshot.isPresent()) {
+                    final int version = snapshot.get().version();
+                    return applyTailAsync(streamId, snapshot.get().aggregate(), version, version, start);
+                }
+                final var ctx = InvocationContext.create(streamId);
+                final var aggregate = commandExecutor.newAggregateInstance();
+                return commandExecutor.applyEventsAsync(aggregate, getExistingEvents(streamId, ctx))
+                        .map(eventCount -> new Rehydrated<>(
+                                aggregate, ctx, eventCount > 0, -1, Duration.ofNanos(System.nanoTime() - start)));
+            });
+        });
+    }
+
+    private Mono<Rehydrated<T>> applyTailAsync(String streamId, T aggregate, int version, int snapshotVersion, long start) {
+        final var ctx = new InvocationContext(streamId, AggregateVersion.of(version));
+        return commandExecutor.applyEventsAsync(aggregate, getExistingEvents(streamId, version + 1, ctx))
+                .map(eventCount -> new Rehydrated<>(
+                        aggregate, ctx, true, snapshotVersion, Duration.ofNanos(System.nanoTime() - start)));
+    }
+
+    private <R> Mono<R> offloadIfSnapshotting(Supplier<R> blocking) {
+        final var mono = Mono.fromSupplier(blocking);
+        return snapshotter.enabled() ? mono.subscribeOn(Schedulers.boundedElastic()) : mono;
+    }
+
+    private Rehydrated<T> applyTail(String streamId, T aggregate, int version, int snapshotVersion, long start) {
+        final var ctx = new InvocationContext(streamId, AggregateVersion.of(version));
+        commandExecutor.applyEvents(aggregate, getExistingEvents(streamId, version + 1, ctx));
+        return new Rehydrated<>(aggregate, ctx, true, snapshotVersion, Duration.ofNanos(System.nanoTime() - start));
+    }
+
+    /**
+     * Applies the events appended after the version to an aggregate that has not applied the events of the failed command.
+     */
+    private Rehydrated<T> applyTail(String streamId, Rehydrated<T> rehydrated, int version) {
+        final long start = System.nanoTime();
+        final var tail = applyTail(streamId, rehydrated.aggregate(), version, rehydrated.snapshotVersion(), start);
+        return new Rehydrated<>(
+                tail.aggregate(),
+                tail.ctx(),
+                true,
+                tail.snapshotVersion(),
+                rehydrated.replayTime().plus(tail.replayTime())
+        );
+    }
+
+    private int takeSnapshotIfDue(String streamId, Rehydrated<T> rehydrated) {
+        return snapshotter.takeIfDue(
+                streamId,
+                rehydrated.aggregate(),
+                rehydrated.ctx().currentVersion(),
+                rehydrated.snapshotVersion(),
+                rehydrated.replayTime()
+        );
+    }
+
+    private void snapshotAndCache(String streamId, Rehydrated<T> rehydrated) {
+        final int snapshotVersion = takeSnapshotIfDue(streamId, rehydrated);
+        final int version = rehydrated.ctx().currentVersion();
+        if (version >= 0) {
+            aggregateCache.put(streamId, new AggregateCache.CachedAggregate<>(rehydrated.aggregate(), version, snapshotVersion));
+        }
+    }
+
+    /**
+     * A keyed submission, the request is null when the command did not result in any operations.
+     */
+    private record Submission<E>(ExecuteRequest request, CommandResult<E> result, boolean acknowledged) {
+    }
+
+    /**
+     * @param snapshotVersion The version of the snapshot the aggregate was loaded from, or -1 if there is none.
+     * @param replayTime      The time it took to load the aggregate.
+     */
+    private record Rehydrated<T>(T aggregate, InvocationContext ctx, boolean exists, int snapshotVersion, Duration replayTime) {
+    }
+
     private static String parseStreamId(UUID streamId) {
         return requireNonNull(streamId, "streamId may not be null").toString();
     }
 
     private void applyResult(InvocationContext ctx, HandlerResult<E> result) {
+        final var request = toExecuteRequest(ctx, result);
+        if (request != null) {
+            eventStore.execute(request);
+        }
+    }
+
+    /**
+     * @return the request that executes the result, or null if there is nothing to execute.
+     */
+    private ExecuteRequest.Builder toExecuteRequest(InvocationContext ctx, HandlerResult<E> result) {
         if (result.isEmpty()) {
-            return;
+            return null;
         }
-        var exrb = ExecuteRequest.newBuilder();
-        result.events(events -> {
-            final var appendOp = eventDataMapper.toAppendOp(
+        return ExecuteRequest.newBuilder()
+                .addAllOperation(toOperations(ctx, List.of(result)));
+    }
+
+    /**
+     * The events of all results are appended in a single operation, followed by the other operations of each result in order.
+     */
+    private List<Operation> toOperations(InvocationContext ctx, List<HandlerResult<E>> results) {
+        final var operations = new ArrayList<Operation>();
+        final var events = new ArrayList<E>();
+        results.forEach(result -> result.events(events::addAll));
+        if (!events.isEmpty()) {
+            operations.add(eventDataMapper.toAppendOp(
                     ctx.streamId(),
                     events,
-                    ctx::nextVersion);
-            exrb.addOperation(appendOp);
-        });
+                    ctx::nextVersion));
+        }
 
         final var aggregateReference = EntityReference.newBuilder()
                 .setId(ctx.streamId())
                 .setType(aggregateName)
                 .build();
 
-        result.deadlines(deadlines ->
-                exrb.addAllOperation(eventDataMapper.toDeadlineOps(
-                        aggregateReference,
-                        deadlines
-                ))
-        );
+        for (var result : results) {
+            result.deadlines(deadlines ->
+                    operations.addAll(eventDataMapper.toDeadlineOps(
+                            aggregateReference,
+                            deadlines
+                    ))
+            );
 
-        result.scheduledEvents(scheduled ->
-                exrb.addAllOperation(eventDataMapper.toScheduledEventOps(
-                        aggregateReference,
-                        scheduled
-                )));
+            result.scheduledEvents(scheduled ->
+                    eventDataMapper.toScheduledEventOps(
+                            aggregateReference,
+                            scheduled
+                    ).forEach(operations::add));
 
-        result.cancelIds(cancelIds -> exrb.addOperation(Operation.newBuilder().setCancel(CancelScheduledOperation.newBuilder()
-                        .addAllEventId(cancelIds)
-                        .build())
-                .build())
-        );
-        eventStore.execute(exrb);
+            result.cancelIds(cancelIds -> operations.add(Operation.newBuilder().setCancel(CancelScheduledOperation.newBuilder()
+                            .addAllEventId(cancelIds)
+                            .build())
+                    .build())
+            );
+        }
+        return operations;
     }
 
+    /**
+     * The commands of one stream in a {@link #submitAll} batch.
+     */
+    private class StreamBatch {
+        private final UUID streamId;
+        private final String id;
+        private final List<Integer> indexes = new ArrayList<>();
+        private final List<C> commands = new ArrayList<>();
+        private final List<HandlerResult<E>> handlerResults = new ArrayList<>();
+        private List<Operation> operations = List.of();
+        private Rehydrated<T> rehydrated;
+        private int oldVersion;
+
+        StreamBatch(UUID streamId, String id) {
+            this.streamId = streamId;
+            this.id = id;
+        }
+
+        void add(int index, C command) {
+            indexes.add(index);
+            commands.add(command);
+        }
+
+        /**
+         * Rehydrates the aggregate, executes the commands on it and prepares the operations to append.
+         */
+        void execute() {
+            rehydrated = rehydrate(id);
+            oldVersion = rehydrated.ctx().currentVersion();
+            for (var command : commands) {
+                handlerResults.add(commandExecutor.executeOn(rehydrated.aggregate(), command));
+            }
+            operations = toOperations(rehydrated.ctx(), handlerResults);
+        }
+
+        void complete(StreamCommandResult<E>[] results) {
+            int version = oldVersion;
+            for (int i = 0; i < indexes.size(); i++) {
+                final var events = handlerResults.get(i).events();
+                results[indexes.get(i)] = StreamCommandResult.success(new CommandResult<>(
+                        streamId,
+                        events.size(),
+                        version,
+                        version + events.size(),
+                        events
+                ));
+                version += events.size();
+            }
+            snapshotAndCache(id, rehydrated);
+        }
+
+        /**
+         * The aggregate may have applied events that were never appended, so it is not put back in the cache.
+         */
+        void fail(Exception error, StreamCommandResult<E>[] results) {
+            for (var index : indexes) {
+                results[index] = StreamCommandResult.failure(streamId, error);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
     private Flux<E> getExistingEvents(String streamId, InvocationContext ctx) {
         return (Flux<E>) eventStore.getAsync(streamId)
                 .doOnNext(ed -> {
@@ -143,4 +616,68 @@ public class AggregateInvocationService<T, E, C> implements ExpiredDeadlineConsu
                 .map(eventDataMapper::fromEventData);
     }
 
+    public static class Builder<T, E, C> {
+        private final AggregateInvocationConfig<T, E, C> config;
+        private final EventStore eventStore;
+        private final EventDataMapper eventDataMapper;
+        private AggregateCache<T> aggregateCache = AggregateCache.disabled();
+        private Snapshotter<T> snapshotter = Snapshotter.disabled();
+        private StreamLocks streamLocks = StreamLocks.disabled();
+        private RetryPolicy retryPolicy = RetryPolicy.none();
+        private int idempotencyWindow = 1024;
+
+        private Builder(AggregateInvocationConfig<T, E, C> config, EventStore eventStore, EventDataMapper eventDataMapper) {
+            this.config = config;
+            this.eventStore = eventStore;
+            this.eventDataMapper = eventDataMapper;
+        }
+
+        /**
+         * Keeps rehydrated aggregates between invocations, so only new events are read from the event store.
+         * Default {@link AggregateCache#disabled()}.
+         */
+        public Builder<T, E, C> aggregateCache(AggregateCache<T> aggregateCache) {
+            this.aggregateCache = aggregateCache;
+            return this;
+        }
+
+        /**
+         * Loads aggregates that are not cached from their latest snapshot, so only the events after it are replayed.
+         * Default {@link Snapshotter#disabled()}.
+         */
+        public Builder<T, E, C> snapshotter(Snapshotter<T> snapshotter) {
+            this.snapshotter = snapshotter;
+            return this;
+        }
+
+        /**
+         * Runs {@link AggregateInvocationService#submit} and {@link AggregateInvocationService#deadlineExpired} on the same stream one at a time,
+         * so concurrent commands on a stream do not conflict with each other. Default {@link StreamLocks#disabled()}.
+         */
+        public Builder<T, E, C> streamLocks(StreamLocks streamLocks) {
+            this.streamLocks = streamLocks;
+            return this;
+        }
+
+        /**
+         * How {@link AggregateInvocationService#submit} retries a command that failed with a revision conflict. Default {@link RetryPolicy#none()}.
+         */
+        public Builder<T, E, C> retryPolicy(RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
+        /**
+         * Max number of keyed submissions remembered, so a repeated idempotency key returns or resends the original request.
+         * The least recently used submission is forgotten first. Default 1024.
+         */
+        public Builder<T, E, C> idempotencyWindow(int idempotencyWindow) {
+            this.idempotencyWindow = idempotencyWindow;
+            return this;
+        }
+
+        public AggregateInvocationService<T, E, C> build() {
+            return new AggregateInvocationService<>(this);
+        }
+    }
 }
@@ -4,8 +4,9 @@ import io.mubel.sdk.HandlerResult;
 import io.mubel.sdk.exceptions.CommandHandlerException;
 import io.mubel.sdk.exceptions.EventHandlerException;
 import io.mubel.sdk.exceptions.HandlerNotFoundException;
+import io.mubel.sdk.execution.internal.GeneratedInvocationConfigs;
 import io.mubel.sdk.internal.reflection.AggregateClassUtil;
-import io.mubel.sdk.scheduled.ExpiredDeadline;
+import io.mubel.sdk.internal.reflection.AggregateDispatchTable;
 
 import java.lang.reflect.Method;
 import java.util.List;
@@ -13,6 +14,12 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * Creates the {@link AggregateInvocationConfig} of an aggregate class from its annotated handlers.
+ * <p>
+ * A config generated by the mubel-sdk-processor annotation processor is used when there is one,
+ * otherwise the handlers are resolved by reflection.
+ */
 public class AutoAggregateInvocationConfig {
 
     public static <T> AggregateInvocationConfig<T, Object, Object> of(Class<T> aggregateClass) {
@@ -25,10 +32,15 @@ public class AutoAggregateInvocationConfig {
             Class<E> eventBaseClass,
             Class<C> commandBaseClass
     ) {
-        final Supplier<T> aggregateSupplier = () -> (T) AggregateClassUtil.newInstance(aggregateClass);
-        final EventDispatcher<T, E> eventDispatcher = a -> reflectionEventDispatcher(aggregateClass, a);
-        final CommandDispatcher<T, E, C> commandDispatcher = a -> reflectionCommandDispatcher(aggregateClass, a);
-        final DeadlineDispatcher<T, E> deadlineHandler = reflectionDeadlineDispatcher(aggregateClass);
+        final var generated = GeneratedInvocationConfigs.find(aggregateClass);
+        if (generated.isPresent()) {
+            return (AggregateInvocationConfig<T, E, C>) generated.get();
+        }
+        final var dispatchTable = AggregateClassUtil.dispatchTable(aggregateClass);
+        final Supplier<T> aggregateSupplier = () -> (T) dispatchTable.newInstance();
+        final EventDispatcher<T, E> eventDispatcher = a -> eventDispatcher(dispatchTable, a);
+        final CommandDispatcher<T, E, C> commandDispatcher = a -> commandDispatcher(dispatchTable, a);
+        final DeadlineDispatcher<T, E> deadlineHandler = deadlineDispatcher(dispatchTable);
 
         return new AggregateInvocationConfig<>(
                 aggregateClass.getSimpleName(),
@@ -39,67 +51,56 @@ public class AutoAggregateInvocationConfig {
         );
     }
 
-    @SuppressWarnings("unchecked")
     public static <E, C, T> Function<C, HandlerResult<E>> reflectionCommandDispatcher(Class<T> aggregateClass, T aggregateInstance) {
-        return (C command) ->
-                AggregateClassUtil.findCommandHandler(aggregateClass, command.getClass())
-                        .map(handler -> (HandlerResult<E>) invokeCommandHandler(aggregateInstance, command, handler))
-                        .orElseThrow(() -> HandlerNotFoundException.forCommand("No command handler found for " + command.getClass()));
-    }
-
-    @SuppressWarnings("unchecked")
-    private static <T, E> DeadlineDispatcher<T, E> reflectionDeadlineDispatcher(Class<T> aggregateClass) {
-        return (aggregateInstance, deadline) ->
-                AggregateClassUtil.findDeadlineHandler(aggregateClass, deadline)
-                        .map(handler -> (HandlerResult<E>) invokeDeadlineHandler(aggregateInstance, handler, deadline))
-                        .orElseThrow(() -> HandlerNotFoundException
-                                .forDeadline("No deadline handler found for deadline '%s'"
-                                        .formatted(deadline.deadlineName())
-                                )
-                        );
+        return commandDispatcher(AggregateClassUtil.dispatchTable(aggregateClass), aggregateInstance);
     }
 
     public static <T, E> Consumer<E> reflectionEventDispatcher(Class<T> aggregateClass, T aggregateInstance) {
-        return (E event) ->
-                AggregateClassUtil.findEventHandler(aggregateClass, event.getClass())
-                        .ifPresentOrElse(
-                                m -> invokeEventHandler(aggregateInstance, event, m),
-                                () -> {
-                                    throw HandlerNotFoundException.forEvent("No event handler found for " + event.getClass());
-                                }
-                        );
+        return eventDispatcher(AggregateClassUtil.dispatchTable(aggregateClass), aggregateInstance);
     }
 
-    private static <T, E> Object invokeEventHandler(T aggregateInstance, E event, Method eventHandler) {
-        try {
-            return eventHandler.invoke(aggregateInstance, event);
-        } catch (Exception e) {
-            throw new EventHandlerException(formatHandlerErrorMessage(aggregateInstance, eventHandler), e);
-        }
+    private static <E, C, T> Function<C, HandlerResult<E>> commandDispatcher(AggregateDispatchTable dispatchTable, T aggregateInstance) {
+        return (C command) -> {
+            final var handler = dispatchTable.commandHandler(command.getClass());
+            if (handler == null) {
+                throw HandlerNotFoundException.forCommand("No command handler found for " + command.getClass());
+            }
+            try {
+                return toHandlerResult(handler.function().apply(aggregateInstance, command));
+            } catch (Exception e) {
+                throw new CommandHandlerException(formatHandlerErrorMessage(aggregateInstance, handler.method()), e);
+            }
+        };
     }
 
-
-    private static <T, C, E> HandlerResult<E> invokeCommandHandler(T aggregateInstance, C command, Method commandHandler) {
-        try {
-            final var result = commandHandler.invoke(aggregateInstance, command);
-            return toHandlerResult(result);
-        } catch (Exception e) {
-            throw new CommandHandlerException(formatHandlerErrorMessage(aggregateInstance, commandHandler), e);
-        }
+    private static <T, E> DeadlineDispatcher<T, E> deadlineDispatcher(AggregateDispatchTable dispatchTable) {
+        return (aggregateInstance, deadline) -> {
+            final var handler = dispatchTable.deadlineHandler(deadline.deadlineName());
+            if (handler == null) {
+                throw HandlerNotFoundException.forDeadline("No deadline handler found for deadline '%s'"
+                        .formatted(deadline.deadlineName())
+                );
+            }
+            try {
+                return toHandlerResult(handler.function().apply(aggregateInstance, deadline));
+            } catch (Exception e) {
+                throw new CommandHandlerException(formatHandlerErrorMessage(aggregateInstance, handler.method()), e);
+            }
+        };
     }
 
-    private static <T, E> HandlerResult<E> invokeDeadlineHandler(T aggregateInstance, Method deadlineHandler, ExpiredDeadline deadline) {
-        try {
-            final Object result;
-            if (deadlineHandler.getParameterCount() == 1) {
-                result = deadlineHandler.invoke(aggregateInstance, deadline);
-            } else {
-                result = deadlineHandler.invoke(aggregateInstance);
+    private static <T, E> Consumer<E> eventDispatcher(AggregateDispatchTable dispatchTable, T aggregateInstance) {
+        return (E event) -> {
+            final var handler = dispatchTable.eventHandler(event.getClass());
+            if (handler == null) {
+                throw HandlerNotFoundException.forEvent("No event handler found for " + event.getClass());
             }
-            return toHandlerResult(result);
-        } catch (Exception e) {
-            throw new CommandHandlerException(formatHandlerErrorMessage(aggregateInstance, deadlineHandler), e);
-        }
+            try {
+                handler.function().accept(aggregateInstance, event);
+            } catch (Exception e) {
+                throw new EventHandlerException(formatHandlerErrorMessage(aggregateInstance, handler.method()), e);
+            }
+        };
     }
 
     private static <T> String formatHandlerErrorMessage(T a, Method handler) {
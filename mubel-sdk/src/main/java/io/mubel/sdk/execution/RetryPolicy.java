@@ -0,0 +1,136 @@
+package io.mubel.sdk.execution;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.internal.Utils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How {@link AggregateInvocationService#submit} retries a command when its events could not be appended
+ * because of a revision conflict, that is, the stream was appended to by someone else after it was read.
+ * The aggregate is brought up to date and the command is executed again.
+ *
+ * @param maxAttempts    Max number of times the command is executed, 1 means no retries.
+ * @param initialBackoff Time to wait before the first retry, doubled for each following retry.
+ * @param maxBackoff     Max time to wait before a retry.
+ * @param jitter         Fraction, between 0 and 1, of the backoff that is randomly subtracted,
+ *                       so conflicting writers do not retry in lockstep.
+ * @param readTailOnly   When true, only the events appended since the aggregate was read are applied before a retry,
+ *                       instead of rehydrating it again. The events of a command are then applied to the aggregate
+ *                       after they are appended, so command handlers must not change the state of the aggregate.
+ */
+public record RetryPolicy(
+        int maxAttempts,
+        Duration initialBackoff,
+        Duration maxBackoff,
+        double jitter,
+        boolean readTailOnly
+) {
+
+    private static final RetryPolicy NONE = new RetryPolicy(1, Duration.ZERO, Duration.ZERO, 0, false);
+
+    public RetryPolicy {
+        maxAttempts = Utils.assertPositive(maxAttempts, value -> new MubelConfigurationException("maxAttempts must be > 0. was: %d".formatted(value)));
+        initialBackoff = requireNonNegative(initialBackoff, "initialBackoff");
+        maxBackoff = requireNonNegative(maxBackoff, "maxBackoff");
+        if (jitter < 0 || jitter > 1) {
+            throw new MubelConfigurationException("jitter must be between 0 and 1. was: %s".formatted(jitter));
+        }
+    }
+
+    /**
+     * Conflicts are not retried.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * @param retry The number of the retry, starting at 1.
+     * @return the time to wait before the retry.
+     */
+    public Duration backoff(int retry) {
+        final long initial = initialBackoff.toNanos();
+        final long max = maxBackoff.toNanos();
+        long backoff = initial;
+        for (int i = 1; i < retry && backoff < max; i++) {
+            backoff = backoff > max / 2 ? max : backoff * 2;
+        }
+        backoff = Math.min(backoff, max);
+        if (jitter > 0 && backoff > 0) {
+            backoff -= (long) (backoff * jitter * ThreadLocalRandom.current().nextDouble());
+        }
+        return Duration.ofNanos(backoff);
+    }
+
+    private static Duration requireNonNegative(Duration duration, String name) {
+        Utils.requireNonNull(duration, () -> new MubelConfigurationException("%s may not be null".formatted(name)));
+        if (duration.isNegative()) {
+            throw new MubelConfigurationException("%s may not be negative. was: %s".formatted(name, duration));
+        }
+        return duration;
+    }
+
+    public static class Builder {
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(10);
+        private Duration maxBackoff = Duration.ofSeconds(1);
+        private double jitter = 0.5;
+        private boolean readTailOnly = false;
+
+        /**
+         * Default 3.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * Default 10 ms.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * Default 1 s.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        /**
+         * Default 0.5.
+         */
+        public Builder jitter(double jitter) {
+            this.jitter = jitter;
+            return this;
+        }
+
+        /**
+         * Default false.
+         */
+        public Builder readTailOnly(boolean readTailOnly) {
+            this.readTailOnly = readTailOnly;
+            return this;
+        }
+
+        public RetryPolicy build() {
+            return new RetryPolicy(
+                    maxAttempts,
+                    initialBackoff,
+                    maxBackoff,
+                    jitter,
+                    readTailOnly
+            );
+        }
+    }
+}
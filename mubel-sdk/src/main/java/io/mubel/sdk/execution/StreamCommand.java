@@ -0,0 +1,23 @@
+package io.mubel.sdk.execution;
+
+import java.util.UUID;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A command addressed to the aggregate of a stream, submitted with {@link AggregateInvocationService#submitAll}.
+ *
+ * @param streamId The stream id of the aggregate that the command will be executed on.
+ * @param command  The command.
+ */
+public record StreamCommand<C>(UUID streamId, C command) {
+
+    public StreamCommand {
+        requireNonNull(streamId, "streamId may not be null");
+        requireNonNull(command, "command may not be null");
+    }
+
+    public static <C> StreamCommand<C> of(UUID streamId, C command) {
+        return new StreamCommand<>(streamId, command);
+    }
+}
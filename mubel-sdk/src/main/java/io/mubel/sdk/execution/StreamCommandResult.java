@@ -0,0 +1,51 @@
+package io.mubel.sdk.execution;
+
+import io.mubel.sdk.exceptions.MubelExecutionException;
+
+import java.util.UUID;
+
+/**
+ * Result of a command submitted with {@link AggregateInvocationService#submitAll}.
+ * <p>
+ * The commands of a stream succeed or fail together: when a command fails, or its events could not be appended,
+ * no events are appended for any command of that stream and all of them carry the error.
+ *
+ * @param streamId The stream id of the aggregate that the command was submitted to.
+ * @param result   The result of the command, or null if it failed.
+ * @param error    The reason the commands of the stream failed, or null if it succeeded.
+ */
+public record StreamCommandResult<E>(
+        UUID streamId,
+        CommandResult<E> result,
+        Throwable error
+) {
+
+    public static <E> StreamCommandResult<E> success(CommandResult<E> result) {
+        return new StreamCommandResult<>(result.streamId(), result, null);
+    }
+
+    public static <E> StreamCommandResult<E> failure(UUID streamId, Throwable error) {
+        return new StreamCommandResult<>(streamId, null, error);
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    /**
+     * @return the result of the command.
+     * @throws RuntimeException the error if the command failed, checked errors are wrapped in a {@link MubelExecutionException}.
+     */
+    public CommandResult<E> getOrThrow() {
+        if (error == null) {
+            return result;
+        }
+        if (error instanceof RuntimeException re) {
+            throw re;
+        }
+        if (error instanceof Error e) {
+            throw e;
+        }
+        throw new MubelExecutionException(error);
+    }
+}
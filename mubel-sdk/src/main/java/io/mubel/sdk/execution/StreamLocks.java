@@ -0,0 +1,71 @@
+package io.mubel.sdk.execution;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.internal.Utils;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Serializes the invocations of {@link AggregateInvocationService} on the same stream within this process.
+ * <p>
+ * Without it, concurrent commands on a hot aggregate all rehydrate it and append at the same revision,
+ * and all but one fail with a revision conflict. With it, they run one after another and, together with an
+ * {@link AggregateCache}, each one continues from the aggregate the previous one left in the cache.
+ * Invocations on different streams still run in parallel, unless their stream ids hash to the same stripe.
+ * <p>
+ * The locks are {@link ReentrantLock}s, so waiting virtual threads do not pin their carrier thread.
+ */
+public final class StreamLocks {
+
+    private static final StreamLocks DISABLED = new StreamLocks(new ReentrantLock[0]);
+
+    private final ReentrantLock[] stripes;
+
+    private StreamLocks(ReentrantLock[] stripes) {
+        this.stripes = stripes;
+    }
+
+    /**
+     * @param stripes The number of locks the streams are spread over, rounded up to a power of two.
+     *                More stripes means less contention between unrelated streams.
+     */
+    public static StreamLocks striped(int stripes) {
+        Utils.assertPositive(
+                stripes,
+                v -> new MubelConfigurationException("stripes must be positive. was: %d".formatted(v))
+        );
+        final int size = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        final var locks = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return new StreamLocks(locks);
+    }
+
+    public static StreamLocks disabled() {
+        return DISABLED;
+    }
+
+    public boolean enabled() {
+        return stripes.length > 0;
+    }
+
+    <R> R withLock(String streamId, Supplier<R> action) {
+        if (!enabled()) {
+            return action.get();
+        }
+        final var lock = stripes[stripe(streamId)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int stripe(String streamId) {
+        final int hash = streamId.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -14,6 +14,15 @@ public final class AggregateVersion {
         return new AggregateVersion();
     }
 
+    /**
+     * @return a version for an aggregate that has already applied the events up to and including the given version.
+     */
+    public static AggregateVersion of(int version) {
+        final var result = new AggregateVersion();
+        result.version = version;
+        return result;
+    }
+
     public void assertInitialVersion() {
         assert version == -1;
     }
@@ -9,6 +9,7 @@ import io.mubel.sdk.execution.DeadlineDispatcher;
 import io.mubel.sdk.execution.EventDispatcher;
 import io.mubel.sdk.scheduled.ExpiredDeadline;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Optional;
@@ -45,10 +46,39 @@ public class CommandExecutor<T, E, C> {
         }
     }
 
+    /**
+     * Executes the command on an aggregate that is already up to date, without applying the resulting events.
+     * The command handler must not change the aggregate, the events are applied with {@link #applyEvents(Object, List)}.
+     */
+    public HandlerResult<E> handle(T aggregate, C command) {
+        try {
+            return executeCommand(command, aggregate);
+        } catch (MubelException me) {
+            throw me;
+        } catch (Exception e) {
+            throw new MubelExecutionException(e);
+        }
+    }
+
+    public void applyEvents(T aggregate, List<E> events) {
+        try {
+            applyEventsToAggregate(aggregate, events);
+        } catch (MubelException me) {
+            throw me;
+        } catch (Exception e) {
+            throw new MubelExecutionException(e);
+        }
+    }
+
     public HandlerResult<E> execute(Flux<E> existingEvents, C command) {
+        return executeOn(rehydrate(existingEvents), command);
+    }
+
+    /**
+     * Executes the command on an aggregate that is already up to date, the resulting events are applied to the aggregate.
+     */
+    public HandlerResult<E> executeOn(T aggregate, C command) {
         try {
-            final var aggregate = newAggregateInstance();
-            applyEventsToAggregate(aggregate, existingEvents);
             final var handlerResult = executeCommand(command, aggregate);
             applyEventsToAggregate(aggregate, handlerResult.events());
             return handlerResult;
@@ -60,9 +90,14 @@ public class CommandExecutor<T, E, C> {
     }
 
     public HandlerResult<E> handleExpiredDeadline(Flux<E> existingEvents, ExpiredDeadline expiredDeadline) {
+        return handleExpiredDeadlineOn(rehydrate(existingEvents), expiredDeadline);
+    }
+
+    /**
+     * Handles the deadline on an aggregate that is already up to date, the resulting events are applied to the aggregate.
+     */
+    public HandlerResult<E> handleExpiredDeadlineOn(T aggregate, ExpiredDeadline expiredDeadline) {
         try {
-            final var aggregate = newAggregateInstance();
-            applyEventsToAggregate(aggregate, existingEvents);
             final var handlerResult = executeDeadline(expiredDeadline, aggregate);
             applyEventsToAggregate(aggregate, handlerResult.events());
             return handlerResult;
@@ -71,6 +106,42 @@ public class CommandExecutor<T, E, C> {
         }
     }
 
+    /**
+     * @return a new aggregate with the events applied.
+     */
+    public T rehydrate(Flux<E> existingEvents) {
+        final var aggregate = newAggregateInstance();
+        applyEvents(aggregate, existingEvents);
+        return aggregate;
+    }
+
+    /**
+     * @return the number of applied events.
+     */
+    public int applyEvents(T aggregate, Flux<E> events) {
+        try {
+            return applyEventsToAggregate(aggregate, events);
+        } catch (MubelException me) {
+            throw me;
+        } catch (Exception e) {
+            throw new MubelExecutionException(e);
+        }
+    }
+
+    /**
+     * Applies the events to the aggregate as they are emitted, without blocking the calling thread.
+     *
+     * @return the number of applied events.
+     */
+    public Mono<Integer> applyEventsAsync(T aggregate, Flux<E> events) {
+        return Mono.defer(() -> {
+                    final var eventDispatcher = this.eventDispatcher.resolveEventHandler(aggregate);
+                    return events.doOnNext(eventDispatcher).count();
+                })
+                .map(Long::intValue)
+                .onErrorMap(e -> !(e instanceof MubelException), MubelExecutionException::new);
+    }
+
     public Optional<T> getState(Flux<E> existingEvents) {
         try {
             final var aggregate = newAggregateInstance();
@@ -95,7 +166,7 @@ public class CommandExecutor<T, E, C> {
         return requireNonNull(deadlineDispatcher.dispatch(aggregate, deadline), "resultingEvents may not be null");
     }
 
-    private T newAggregateInstance() {
+    public T newAggregateInstance() {
         return aggregateSupplier.get();
     }
 
@@ -0,0 +1,46 @@
+package io.mubel.sdk.execution.internal;
+
+import io.mubel.sdk.execution.AggregateCache;
+
+/**
+ * An {@link AggregateCache} that never holds an aggregate, so every invocation rehydrates from the event store.
+ */
+public final class DisabledAggregateCache<T> implements AggregateCache<T> {
+
+    private static final DisabledAggregateCache<?> INSTANCE = new DisabledAggregateCache<>();
+
+    private DisabledAggregateCache() {
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> AggregateCache<T> instance() {
+        return (AggregateCache<T>) INSTANCE;
+    }
+
+    @Override
+    public boolean enabled() {
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return 0;
+    }
+
+    @Override
+    public void invalidate(String streamId) {
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public CachedAggregate<T> take(String streamId) {
+        return null;
+    }
+
+    @Override
+    public void put(String streamId, CachedAggregate<T> aggregate) {
+    }
+}
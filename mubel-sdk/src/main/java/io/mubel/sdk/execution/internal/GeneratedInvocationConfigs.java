@@ -0,0 +1,50 @@
+package io.mubel.sdk.execution.internal;
+
+import io.mubel.sdk.execution.AggregateInvocationConfig;
+import io.mubel.sdk.execution.AggregateInvocationConfigProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * Finds the generated {@link AggregateInvocationConfigProvider} of an aggregate class,
+ * looked up with the class loader of the aggregate.
+ */
+public final class GeneratedInvocationConfigs {
+
+    private static final Logger LOG = LoggerFactory.getLogger(GeneratedInvocationConfigs.class);
+
+    private static final ClassValue<Optional<AggregateInvocationConfigProvider>> PROVIDERS = new ClassValue<>() {
+        @Override
+        protected Optional<AggregateInvocationConfigProvider> computeValue(Class<?> type) {
+            return findProvider(type);
+        }
+    };
+
+    private GeneratedInvocationConfigs() {
+    }
+
+    public static Optional<AggregateInvocationConfig<?, ?, ?>> find(Class<?> aggregateClass) {
+        return PROVIDERS.get(aggregateClass).map(AggregateInvocationConfigProvider::invocationConfig);
+    }
+
+    private static Optional<AggregateInvocationConfigProvider> findProvider(Class<?> aggregateClass) {
+        final var classLoader = aggregateClass.getClassLoader();
+        if (classLoader == null) {
+            return Optional.empty();
+        }
+        try {
+            for (var provider : ServiceLoader.load(AggregateInvocationConfigProvider.class, classLoader)) {
+                if (provider.aggregateClass() == aggregateClass) {
+                    return Optional.of(provider);
+                }
+            }
+        } catch (ServiceConfigurationError e) {
+            LOG.warn("failed to load generated invocation configs, handlers of {} are resolved by reflection", aggregateClass.getName(), e);
+        }
+        return Optional.empty();
+    }
+}
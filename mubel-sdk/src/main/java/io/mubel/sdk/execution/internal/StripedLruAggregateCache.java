@@ -0,0 +1,91 @@
+package io.mubel.sdk.execution.internal;
+
+import io.mubel.sdk.execution.AggregateCache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * An {@link AggregateCache} of access ordered maps, one per stripe, each guarded by its own lock.
+ * A stream always maps to the same stripe, and the least recently used aggregate of a stripe is evicted
+ * when the stripe is full. The max size is divided over the stripes, so the cache never holds more than it.
+ */
+public final class StripedLruAggregateCache<T> implements AggregateCache<T> {
+
+    private final Stripe<T>[] stripes;
+
+    @SuppressWarnings("unchecked")
+    public StripedLruAggregateCache(int maxSize, int stripes) {
+        final int bounded = Math.min(stripes, maxSize);
+        final int size = bounded == 1 ? 1 : Integer.highestOneBit(bounded - 1) << 1;
+        final int count = size > maxSize ? size >>> 1 : size;
+        this.stripes = new Stripe[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new Stripe<>(maxSize / count + (i < maxSize % count ? 1 : 0));
+        }
+    }
+
+    @Override
+    public int size() {
+        int size = 0;
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void invalidate(String streamId) {
+        final var stripe = stripe(streamId);
+        synchronized (stripe) {
+            stripe.remove(streamId);
+        }
+    }
+
+    @Override
+    public void clear() {
+        for (var stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    @Override
+    public CachedAggregate<T> take(String streamId) {
+        final var stripe = stripe(streamId);
+        synchronized (stripe) {
+            return stripe.remove(streamId);
+        }
+    }
+
+    @Override
+    public void put(String streamId, CachedAggregate<T> aggregate) {
+        final var stripe = stripe(streamId);
+        synchronized (stripe) {
+            stripe.put(streamId, aggregate);
+        }
+    }
+
+    private Stripe<T> stripe(String streamId) {
+        final int hash = streamId.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Stripe<T> extends LinkedHashMap<String, CachedAggregate<T>> {
+
+        private final int maxSize;
+
+        Stripe(int maxSize) {
+            super(16, 0.75f, true);
+            this.maxSize = maxSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedAggregate<T>> eldest) {
+            return size() > maxSize;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.mubel.sdk.execution.internal;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The most recently submitted requests, by idempotency key.
+ * The least recently used request is evicted when the max size is reached.
+ */
+public final class SubmittedRequests<R> {
+
+    private final Map<String, R> requests;
+
+    public SubmittedRequests(int maxSize) {
+        this.requests = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, R> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * @return the submitted request, or null if it has not been submitted or has been evicted.
+     */
+    public synchronized R get(String key) {
+        return requests.get(key);
+    }
+
+    public synchronized void put(String key, R request) {
+        requests.put(key, request);
+    }
+
+    public synchronized void remove(String key) {
+        requests.remove(key);
+    }
+}
@@ -3,7 +3,6 @@ package io.mubel.sdk.internal.reflection;
 import io.mubel.sdk.scheduled.ExpiredDeadline;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Optional;
@@ -18,16 +17,22 @@ public class AggregateClassUtil {
         }
     };
 
+    private static final ClassValue<AggregateDispatchTable> DISPATCH_TABLES = new ClassValue<>() {
+        @Override
+        protected AggregateDispatchTable computeValue(Class<?> type) {
+            return AggregateDispatchTable.create(AGGREGATE_INFOS.get(type));
+        }
+    };
+
     public static final Predicate<Constructor<?>> PUBLIC_NO_ARGS_CONSTRUCTOR =
             ClassUtil.PUBLIC_CONSTRUCTOR.and(ClassUtil.NO_ARGS_CONSTRUCTOR);
 
     public static Object newInstance(Class<?> aggregateClass) {
-        var info = AGGREGATE_INFOS.get(aggregateClass);
-        try {
-            return info.constructor().newInstance();
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException(e);
-        }
+        return dispatchTable(aggregateClass).newInstance();
+    }
+
+    public static AggregateDispatchTable dispatchTable(Class<?> aggregateClass) {
+        return DISPATCH_TABLES.get(aggregateClass);
     }
 
     public static Optional<Method> findCommandHandler(Class<?> aggregateClass, Class<?> commandClass) {
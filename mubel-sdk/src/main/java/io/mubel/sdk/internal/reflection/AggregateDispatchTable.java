@@ -0,0 +1,102 @@
+package io.mubel.sdk.internal.reflection;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.scheduled.ExpiredDeadline;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static io.mubel.sdk.annotation.DeadlineHandler.DEFAULT_DEADLINE_NAME;
+
+/**
+ * The constructor and handlers of an aggregate class, bound once to functional interfaces by {@link HandlerInvokers}.
+ * <p>
+ * Event and command handlers are resolved for each concrete argument class on first use and kept in a {@link ClassValue},
+ * so dispatching an event is a class value lookup and an interface call.
+ * Deadline handlers are bound when the table is created, duplicate deadline names are a configuration error.
+ */
+public final class AggregateDispatchTable {
+
+    private static final Handler<?> MISSING = new Handler<>(null, null);
+
+    private final Supplier<Object> constructor;
+    private final ClassValue<Handler<BiConsumer<Object, Object>>> eventHandlers;
+    private final ClassValue<Handler<BiFunction<Object, Object, Object>>> commandHandlers;
+    private final Map<String, Handler<BiFunction<Object, ExpiredDeadline, Object>>> deadlineHandlers;
+
+    private AggregateDispatchTable(AggregateClassInfo info) {
+        this.constructor = HandlerInvokers.constructor(info.constructor());
+        this.eventHandlers = classValue(eventClass -> info.findEventHandler(eventClass)
+                .map(m -> new Handler<>(m, HandlerInvokers.eventHandler(m))));
+        this.commandHandlers = classValue(commandClass -> info.findCommandHandler(commandClass)
+                .map(m -> new Handler<>(m, HandlerInvokers.commandHandler(m))));
+        final var deadlines = new HashMap<String, Handler<BiFunction<Object, ExpiredDeadline, Object>>>();
+        ClassUtil.findMethods(info.aggregateClass(), DeadlineHandlerFinder.finder())
+                .forEach(m -> {
+                    final var name = DeadlineHandlerFinder.getDeadlineName(m);
+                    final var existing = deadlines.putIfAbsent(name, new Handler<>(m, HandlerInvokers.deadlineHandler(m)));
+                    if (existing != null) {
+                        throw new MubelConfigurationException("Duplicate @DeadlineHandler methods for deadline '%s' in %s: %s and %s"
+                                .formatted(name, info.aggregateClass().getName(), existing.method().getName(), m.getName()));
+                    }
+                });
+        this.deadlineHandlers = Map.copyOf(deadlines);
+    }
+
+    static AggregateDispatchTable create(AggregateClassInfo info) {
+        return new AggregateDispatchTable(info);
+    }
+
+    public Object newInstance() {
+        return constructor.get();
+    }
+
+    /**
+     * @return the handler for the event class, or null if the aggregate has none.
+     */
+    public Handler<BiConsumer<Object, Object>> eventHandler(Class<?> eventClass) {
+        return orNull(eventHandlers.get(eventClass));
+    }
+
+    /**
+     * @return the handler for the command class, or null if the aggregate has none.
+     */
+    public Handler<BiFunction<Object, Object, Object>> commandHandler(Class<?> commandClass) {
+        return orNull(commandHandlers.get(commandClass));
+    }
+
+    /**
+     * @return the handler for the deadline, falling back to the default deadline handler, or null if the aggregate has neither.
+     */
+    public Handler<BiFunction<Object, ExpiredDeadline, Object>> deadlineHandler(String deadlineName) {
+        final var handler = deadlineHandlers.get(deadlineName);
+        return handler != null ? handler : deadlineHandlers.get(DEFAULT_DEADLINE_NAME);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <F> ClassValue<Handler<F>> classValue(Function<Class<?>, Optional<Handler<F>>> resolver) {
+        return new ClassValue<>() {
+            @Override
+            protected Handler<F> computeValue(Class<?> type) {
+                return resolver.apply(type).orElse((Handler<F>) MISSING);
+            }
+        };
+    }
+
+    private static <F> Handler<F> orNull(Handler<F> handler) {
+        return handler == MISSING ? null : handler;
+    }
+
+    /**
+     * @param method   The handler method, used in error messages.
+     * @param function Invokes the handler method.
+     */
+    public record Handler<F>(Method method, F function) {
+    }
+}
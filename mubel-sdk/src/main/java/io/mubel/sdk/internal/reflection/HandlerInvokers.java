@@ -0,0 +1,179 @@
+package io.mubel.sdk.internal.reflection;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.scheduled.ExpiredDeadline;
+
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Binds handler methods and constructors to functional interfaces with {@link LambdaMetafactory}, so invoking a handler
+ * is a plain interface call that the JIT can inline, instead of a reflective {@link Method#invoke}.
+ * <p>
+ * When a lambda can not be spun for the class, for example when it is loaded by a class loader the SDK has
+ * no full privilege access to, the function falls back to invoking a {@link MethodHandle}.
+ * Exceptions thrown by a handler are rethrown as is, checked exceptions included.
+ */
+final class HandlerInvokers {
+
+    private static final MethodType SUPPLIER_TYPE = MethodType.methodType(Object.class);
+    private static final MethodType FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType BI_FUNCTION_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+    private static final MethodType BI_CONSUMER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private HandlerInvokers() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> constructor(Constructor<?> constructor) {
+        final var lookup = lookup(constructor.getDeclaringClass());
+        final MethodHandle handle;
+        try {
+            handle = lookup.unreflectConstructor(constructor);
+        } catch (IllegalAccessException e) {
+            throw bindingFailed(constructor.toString(), e);
+        }
+        final var lambda = (Supplier<Object>) spin(lookup, handle, Supplier.class, "get", SUPPLIER_TYPE);
+        if (lambda != null) {
+            return lambda;
+        }
+        final var generic = handle.asType(SUPPLIER_TYPE);
+        return () -> {
+            try {
+                return generic.invokeExact();
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        };
+    }
+
+    /**
+     * @param method A void method taking the event as its only parameter.
+     */
+    @SuppressWarnings("unchecked")
+    static BiConsumer<Object, Object> eventHandler(Method method) {
+        final var lookup = lookup(method.getDeclaringClass());
+        final var handle = unreflect(lookup, method);
+        final var lambda = (BiConsumer<Object, Object>) spin(lookup, handle, BiConsumer.class, "accept", BI_CONSUMER_TYPE);
+        if (lambda != null) {
+            return lambda;
+        }
+        final var generic = handle.asType(BI_CONSUMER_TYPE);
+        return (aggregate, event) -> {
+            try {
+                generic.invokeExact(aggregate, event);
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        };
+    }
+
+    /**
+     * @param method A method taking the command as its only parameter.
+     */
+    static BiFunction<Object, Object, Object> commandHandler(Method method) {
+        final var lookup = lookup(method.getDeclaringClass());
+        return biFunction(lookup, unreflect(lookup, method));
+    }
+
+    /**
+     * @param method A method taking either no parameters or the {@link ExpiredDeadline} as its only parameter.
+     */
+    @SuppressWarnings("unchecked")
+    static BiFunction<Object, ExpiredDeadline, Object> deadlineHandler(Method method) {
+        final var lookup = lookup(method.getDeclaringClass());
+        final var handle = unreflect(lookup, method);
+        if (method.getParameterCount() == 1) {
+            final BiFunction<Object, Object, Object> function = biFunction(lookup, handle);
+            return function::apply;
+        }
+        final var lambda = (Function<Object, Object>) spin(lookup, handle, Function.class, "apply", FUNCTION_TYPE);
+        if (lambda != null) {
+            return (aggregate, deadline) -> lambda.apply(aggregate);
+        }
+        final var generic = handle.asType(FUNCTION_TYPE);
+        return (aggregate, deadline) -> {
+            try {
+                return generic.invokeExact(aggregate);
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        };
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiFunction<Object, Object, Object> biFunction(MethodHandles.Lookup lookup, MethodHandle handle) {
+        final var lambda = (BiFunction<Object, Object, Object>) spin(lookup, handle, BiFunction.class, "apply", BI_FUNCTION_TYPE);
+        if (lambda != null) {
+            return lambda;
+        }
+        final var generic = handle.asType(BI_FUNCTION_TYPE);
+        return (aggregate, argument) -> {
+            try {
+                return generic.invokeExact(aggregate, argument);
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        };
+    }
+
+    /**
+     * @return an instance of the functional interface that calls the handle, or null if the lambda could not be spun.
+     */
+    private static Object spin(
+            MethodHandles.Lookup lookup,
+            MethodHandle handle,
+            Class<?> functionalInterface,
+            String methodName,
+            MethodType erasedType
+    ) {
+        try {
+            final var site = LambdaMetafactory.metafactory(
+                    lookup,
+                    methodName,
+                    MethodType.methodType(functionalInterface),
+                    erasedType,
+                    handle,
+                    erasedType.returnType() == void.class ? handle.type() : handle.type().wrap()
+            );
+            return site.getTarget().invoke();
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static MethodHandles.Lookup lookup(Class<?> declaringClass) {
+        try {
+            return MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+        } catch (IllegalAccessException e) {
+            return MethodHandles.publicLookup();
+        }
+    }
+
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method method) {
+        try {
+            return lookup.unreflect(method);
+        } catch (IllegalAccessException e) {
+            throw bindingFailed(method.toString(), e);
+        }
+    }
+
+    private static MubelConfigurationException bindingFailed(String member, Exception e) {
+        final var exception = new MubelConfigurationException("Could not bind %s: %s".formatted(member, e.getMessage()));
+        exception.initCause(e);
+        return exception;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <X extends Throwable> RuntimeException sneakyThrow(Throwable t) throws X {
+        throw (X) t;
+    }
+}
@@ -2,6 +2,7 @@ package io.mubel.sdk.scheduled;
 
 import io.mubel.api.grpc.v1.events.Deadline;
 import io.mubel.api.grpc.v1.events.DeadlineSubscribeRequest;
+import io.mubel.client.ExceptionHandler;
 import io.mubel.client.MubelClient;
 import io.mubel.sdk.EventDataMapper;
 import io.mubel.sdk.exceptions.MubelConfigurationException;
@@ -9,6 +10,8 @@ import io.mubel.sdk.internal.Constants;
 import io.mubel.sdk.internal.Utils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.util.retry.Retry;
 
 import java.time.Clock;
 import java.time.Duration;
@@ -23,6 +26,9 @@ public class ExpiredDeadlineHandler {
     private final EventDataMapper eventDataMapper;
     private final Clock clock;
     private final Duration longPolllTimeout;
+    private final Duration reconnectBackoff;
+    private final Duration maxReconnectBackoff;
+    private Disposable subscription;
 
     private ExpiredDeadlineHandler(Builder b) {
         this.esid = b.esid;
@@ -31,6 +37,8 @@ public class ExpiredDeadlineHandler {
         this.eventDataMapper = b.eventDataMapper;
         this.clock = b.clock;
         this.longPolllTimeout = b.longPolllTimeout;
+        this.reconnectBackoff = b.reconnectBackoff;
+        this.maxReconnectBackoff = b.maxReconnectBackoff;
     }
 
     public static Builder builder() {
@@ -41,16 +49,25 @@ public class ExpiredDeadlineHandler {
         if (consumers.isEmpty()) {
             return;
         }
-        final var subscription = client.subscribeToDeadlines(DeadlineSubscribeRequest.newBuilder()
+        subscription = client.subscribeToDeadlines(DeadlineSubscribeRequest.newBuilder()
                         .setEsid(esid)
                         .setTimeout((int) longPolllTimeout.toSeconds())
                         .build())
                 .repeat()
-                .subscribe(this::accept);
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectBackoff)
+                        .maxBackoff(maxReconnectBackoff)
+                        .filter(ExceptionHandler::isTransient)
+                        .doBeforeRetry(signal -> LOG.warn("deadline subscription for {} lost connection, reconnecting: {}", esid, signal.failure().toString())))
+                .subscribe(
+                        this::accept,
+                        e -> LOG.error("deadline subscription for {} failed", esid, e)
+                );
     }
 
     public void stop() {
-
+        if (subscription != null) {
+            subscription.dispose();
+        }
     }
 
     public void accept(Deadline deadline) {
@@ -70,6 +87,8 @@ public class ExpiredDeadlineHandler {
         private EventDataMapper eventDataMapper;
         private Clock clock;
         private Duration longPolllTimeout = Duration.ofSeconds(20);
+        private Duration reconnectBackoff = Duration.ofMillis(500);
+        private Duration maxReconnectBackoff = Duration.ofSeconds(30);
 
         public Builder esid(String esid) {
             this.esid = esid;
@@ -101,6 +120,22 @@ public class ExpiredDeadlineHandler {
             return this;
         }
 
+        /**
+         * Initial delay before reconnecting after a lost connection, doubled for each attempt. Default 500 ms.
+         */
+        public Builder reconnectBackoff(Duration reconnectBackoff) {
+            this.reconnectBackoff = reconnectBackoff;
+            return this;
+        }
+
+        /**
+         * Max delay between reconnect attempts. Default 30 seconds.
+         */
+        public Builder maxReconnectBackoff(Duration maxReconnectBackoff) {
+            this.maxReconnectBackoff = maxReconnectBackoff;
+            return this;
+        }
+
         public ExpiredDeadlineHandler build() {
             clock = Objects.requireNonNullElseGet(clock, Clock::systemUTC);
             Utils.requireNonNull(esid, () -> new MubelConfigurationException("esid (Event Store id)  may not be null"));
@@ -109,6 +144,8 @@ public class ExpiredDeadlineHandler {
             Utils.requireNonNull(eventDataMapper, () -> new MubelConfigurationException("Event data mapper may not be null"));
             Utils.requireNonNull(clock, () -> new MubelConfigurationException("Clock may not be null"));
             Utils.requireNonNull(longPolllTimeout, () -> new MubelConfigurationException("longPollTimeout may not be null"));
+            Utils.requireNonNull(reconnectBackoff, () -> new MubelConfigurationException("reconnectBackoff may not be null"));
+            Utils.requireNonNull(maxReconnectBackoff, () -> new MubelConfigurationException("maxReconnectBackoff may not be null"));
             Utils.assertMaxValue(
                     longPolllTimeout.toSeconds(),
                     Constants.LONG_POLL_MAX_VALUE,
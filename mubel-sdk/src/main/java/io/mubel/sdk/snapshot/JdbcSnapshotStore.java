@@ -0,0 +1,139 @@
+package io.mubel.sdk.snapshot;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * This is an implementation of {@link SnapshotStore} that uses a JDBC connection to store the snapshots.
+ * <p>
+ * DDL for the table, the type of the data column depends on the database:
+ * <pre>
+ * CREATE TABLE aggregate_snapshot (
+ *     stream_id VARCHAR(255) PRIMARY KEY,
+ *     version INT NOT NULL,
+ *     schema_version VARCHAR(64) NOT NULL,
+ *     data BYTEA NOT NULL -- LONGBLOB for MySQL, VARBINARY(MAX) for MS SQL Server
+ * );
+ * </pre>
+ * A stored snapshot is replaced by one with a later version, or by one with another schema version.
+ */
+public class JdbcSnapshotStore implements SnapshotStore {
+
+    private static final String FIND_SNAPSHOT_SQL = """
+            SELECT stream_id, version, schema_version, data
+            FROM aggregate_snapshot
+            WHERE stream_id = ?
+            """;
+    private static final String INSERT_SNAPSHOT_SQL = """
+            INSERT INTO aggregate_snapshot (stream_id, version, schema_version, data) VALUES (?, ?, ?, ?)
+            """;
+    private static final String UPDATE_SNAPSHOT_SQL = """
+            UPDATE aggregate_snapshot SET version = ?, schema_version = ?, data = ?
+            WHERE stream_id = ?
+            AND (version < ? OR schema_version <> ?)
+            """;
+
+    private static final String DDL_TEMPLATE = """
+            CREATE TABLE aggregate_snapshot (
+                stream_id VARCHAR(255) PRIMARY KEY,
+                version INT NOT NULL,
+                schema_version VARCHAR(64) NOT NULL,
+                data %s NOT NULL
+            );
+            """;
+
+    private static final Map<String, String> TABLE_DOES_NOT_EXIST_SQL_STATES = Map.of(
+            "42P01", DDL_TEMPLATE.formatted("BYTEA"), // Postgres
+            "42S02", DDL_TEMPLATE.formatted("LONGBLOB"), // MySQL
+            "S0002", DDL_TEMPLATE.formatted("VARBINARY(MAX)") // MS SQL Server
+    );
+
+    private final DataSource dataSource;
+
+    public JdbcSnapshotStore(DataSource dataSource) {
+        this.dataSource = requireNonNull(dataSource, "dataSource may not be null");
+    }
+
+    @Override
+    public Optional<Snapshot> find(String streamId) {
+        try (final var conn = dataSource.getConnection()) {
+            try (final var stmt = conn.prepareStatement(FIND_SNAPSHOT_SQL)) {
+                stmt.setString(1, streamId);
+                try (final var rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        return Optional.of(new Snapshot(
+                                rs.getString(1),
+                                rs.getInt(2),
+                                rs.getString(3),
+                                rs.getBytes(4)
+                        ));
+                    }
+                    return Optional.empty();
+                }
+            }
+        } catch (SQLException e) {
+            throw handleSqlException(e);
+        }
+    }
+
+    @Override
+    public void put(Snapshot snapshot) {
+        try (final var conn = dataSource.getConnection()) {
+            if (updateSnapshot(snapshot, conn) == 0) {
+                insertSnapshot(snapshot, conn);
+            }
+        } catch (SQLException e) {
+            throw handleSqlException(e);
+        }
+    }
+
+    private static int updateSnapshot(Snapshot snapshot, Connection conn) throws SQLException {
+        try (final var stmt = conn.prepareStatement(UPDATE_SNAPSHOT_SQL)) {
+            stmt.setInt(1, snapshot.version());
+            stmt.setString(2, snapshot.schemaVersion());
+            stmt.setBytes(3, snapshot.data());
+            stmt.setString(4, snapshot.streamId());
+            stmt.setInt(5, snapshot.version());
+            stmt.setString(6, snapshot.schemaVersion());
+            return stmt.executeUpdate();
+        }
+    }
+
+    private static void insertSnapshot(Snapshot snapshot, Connection conn) throws SQLException {
+        try (final var stmt = conn.prepareStatement(INSERT_SNAPSHOT_SQL)) {
+            stmt.setString(1, snapshot.streamId());
+            stmt.setInt(2, snapshot.version());
+            stmt.setString(3, snapshot.schemaVersion());
+            stmt.setBytes(4, snapshot.data());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            // The update did not match because a snapshot with the same or a later version is already stored
+            if (!isIntegrityConstraintViolation(e)) {
+                throw e;
+            }
+        }
+    }
+
+    private static boolean isIntegrityConstraintViolation(SQLException e) {
+        final var sqlState = e.getSQLState();
+        return sqlState != null && sqlState.startsWith("23");
+    }
+
+    private static RuntimeException handleSqlException(SQLException e) {
+        final var sqlState = e.getSQLState();
+        final var ddl = sqlState == null ? null : TABLE_DOES_NOT_EXIST_SQL_STATES.get(sqlState);
+        if (ddl != null) {
+            return new MubelConfigurationException("""
+                    aggregate_snapshot table does not exist. Here is the DDL:
+                    """ + ddl);
+        }
+        return new RuntimeException(e);
+    }
+}
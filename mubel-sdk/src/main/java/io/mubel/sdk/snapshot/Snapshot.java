@@ -0,0 +1,26 @@
+package io.mubel.sdk.snapshot;
+
+import io.mubel.sdk.exceptions.MubelException;
+import io.mubel.sdk.internal.Utils;
+
+/**
+ * The encoded state of an aggregate.
+ *
+ * @param streamId      The stream id of the aggregate
+ * @param version       The version of the last event applied to the aggregate
+ * @param schemaVersion The version of the aggregate class the snapshot was taken of, see {@link Snapshotter.Builder#version(String)}
+ * @param data          The aggregate, encoded with an {@link io.mubel.sdk.codec.EventDataCodec}
+ */
+public record Snapshot(
+        String streamId,
+        int version,
+        String schemaVersion,
+        byte[] data
+) {
+    public Snapshot {
+        Utils.requireNonNull(streamId, () -> new MubelException("streamId may not be null"));
+        Utils.assertGteZeroInt(version, value -> new MubelException("version must be >= 0. was: %s".formatted(value)));
+        Utils.requireNonNull(schemaVersion, () -> new MubelException("schemaVersion may not be null"));
+        Utils.requireNonNull(data, () -> new MubelException("data may not be null"));
+    }
+}
@@ -0,0 +1,48 @@
+package io.mubel.sdk.snapshot;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.internal.Utils;
+
+import java.time.Duration;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Decides when a new snapshot of an aggregate is taken.
+ */
+@FunctionalInterface
+public interface SnapshotPolicy {
+
+    /**
+     * @param eventsSinceSnapshot The number of events applied to the aggregate since its latest snapshot,
+     *                            or since the start of the stream if it has no snapshot.
+     * @param replayTime          The time it took to read and apply those events when the aggregate was loaded.
+     */
+    boolean shouldTakeSnapshot(int eventsSinceSnapshot, Duration replayTime);
+
+    static SnapshotPolicy never() {
+        return (eventsSinceSnapshot, replayTime) -> false;
+    }
+
+    static SnapshotPolicy everyNEvents(int eventCount) {
+        final int n = Utils.assertPositive(
+                eventCount,
+                v -> new MubelConfigurationException("eventCount must be positive. was: %d".formatted(v))
+        );
+        return (eventsSinceSnapshot, replayTime) -> eventsSinceSnapshot >= n;
+    }
+
+    static SnapshotPolicy replayTimeExceeds(Duration threshold) {
+        requireNonNull(threshold, "threshold may not be null");
+        if (threshold.isNegative()) {
+            throw new MubelConfigurationException("threshold may not be negative. was: %s".formatted(threshold));
+        }
+        return (eventsSinceSnapshot, replayTime) -> eventsSinceSnapshot > 0 && replayTime.compareTo(threshold) > 0;
+    }
+
+    default SnapshotPolicy or(SnapshotPolicy other) {
+        requireNonNull(other, "other may not be null");
+        return (eventsSinceSnapshot, replayTime) -> shouldTakeSnapshot(eventsSinceSnapshot, replayTime)
+                || other.shouldTakeSnapshot(eventsSinceSnapshot, replayTime);
+    }
+}
@@ -0,0 +1,19 @@
+package io.mubel.sdk.snapshot;
+
+import java.util.Optional;
+
+/**
+ * A store for aggregate snapshots.
+ * <p>
+ * Only the latest snapshot of each stream is kept.
+ */
+public interface SnapshotStore {
+
+    Optional<Snapshot> find(String streamId);
+
+    /**
+     * Stores the snapshot, unless a snapshot with the same or a later version is already stored.
+     */
+    void put(Snapshot snapshot);
+
+}
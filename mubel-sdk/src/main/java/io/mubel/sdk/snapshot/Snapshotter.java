@@ -0,0 +1,159 @@
+package io.mubel.sdk.snapshot;
+
+import io.mubel.sdk.codec.EventDataCodec;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.internal.Utils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Loads and takes snapshots of aggregates, used by {@link io.mubel.sdk.execution.AggregateInvocationService}
+ * to only replay the events appended after the latest snapshot.
+ * <p>
+ * Aggregates are encoded with the given {@link EventDataCodec}, so they must be serializable by it.
+ * Snapshots are tagged with a version of the aggregate class. A snapshot with another version, or one that can not be decoded,
+ * is ignored and the aggregate is rehydrated from all events. Bump the version when the aggregate class changes in a way
+ * that makes older snapshots decode to a wrong state.
+ * Failing to store a snapshot is logged and does not fail the invocation.
+ */
+public final class Snapshotter<T> {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Snapshotter.class);
+
+    public static final String DEFAULT_VERSION = "1";
+
+    private static final Snapshotter<?> DISABLED = new Snapshotter<>(null, null, null, SnapshotPolicy.never(), DEFAULT_VERSION);
+
+    private final Class<T> aggregateClass;
+    private final SnapshotStore snapshotStore;
+    private final EventDataCodec codec;
+    private final SnapshotPolicy policy;
+    private final String version;
+
+    private Snapshotter(
+            Class<T> aggregateClass,
+            SnapshotStore snapshotStore,
+            EventDataCodec codec,
+            SnapshotPolicy policy,
+            String version
+    ) {
+        this.aggregateClass = aggregateClass;
+        this.snapshotStore = snapshotStore;
+        this.codec = codec;
+        this.policy = policy;
+        this.version = version;
+    }
+
+    public static <T> Builder<T> builder(Class<T> aggregateClass) {
+        return new Builder<>(aggregateClass);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> Snapshotter<T> disabled() {
+        return (Snapshotter<T>) DISABLED;
+    }
+
+    public boolean enabled() {
+        return snapshotStore != null;
+    }
+
+    /**
+     * @return the aggregate of the latest snapshot of the stream, if there is one with the configured version that can be decoded.
+     */
+    public Optional<LoadedSnapshot<T>> load(String streamId) {
+        if (!enabled()) {
+            return Optional.empty();
+        }
+        return snapshotStore.find(streamId).flatMap(snapshot -> {
+            if (!version.equals(snapshot.schemaVersion())) {
+                LOG.debug("ignoring snapshot of stream {} at version {}, it was taken of aggregate version {}, expected {}",
+                        streamId, snapshot.version(), snapshot.schemaVersion(), version);
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new LoadedSnapshot<>(codec.decode(snapshot.data(), aggregateClass), snapshot.version()));
+            } catch (RuntimeException e) {
+                LOG.warn("ignoring snapshot of stream {} at version {}, it could not be decoded", streamId, snapshot.version(), e);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Takes a snapshot of the aggregate if the policy says so.
+     *
+     * @param version         The version of the last event applied to the aggregate.
+     * @param snapshotVersion The version of the latest snapshot, or -1 if there is none.
+     * @param replayTime      The time it took to rehydrate the aggregate.
+     * @return the version of the latest snapshot after this call.
+     */
+    public int takeIfDue(String streamId, T aggregate, int version, int snapshotVersion, Duration replayTime) {
+        if (!enabled() || version < 0 || version <= snapshotVersion
+                || !policy.shouldTakeSnapshot(version - snapshotVersion, replayTime)) {
+            return snapshotVersion;
+        }
+        try {
+            snapshotStore.put(new Snapshot(streamId, version, this.version, codec.encode(aggregate)));
+            return version;
+        } catch (RuntimeException e) {
+            LOG.warn("failed to take snapshot of stream {} at version {}", streamId, version, e);
+            return snapshotVersion;
+        }
+    }
+
+    public record LoadedSnapshot<T>(T aggregate, int version) {
+    }
+
+    public static class Builder<T> {
+
+        private final Class<T> aggregateClass;
+        private SnapshotStore snapshotStore;
+        private EventDataCodec codec;
+        private SnapshotPolicy policy;
+        private String version = DEFAULT_VERSION;
+
+        private Builder(Class<T> aggregateClass) {
+            this.aggregateClass = aggregateClass;
+        }
+
+        public Builder<T> snapshotStore(SnapshotStore snapshotStore) {
+            this.snapshotStore = snapshotStore;
+            return this;
+        }
+
+        public Builder<T> codec(EventDataCodec codec) {
+            this.codec = codec;
+            return this;
+        }
+
+        /**
+         * @param policy When to take a new snapshot, for example {@link SnapshotPolicy#everyNEvents(int)}.
+         */
+        public Builder<T> policy(SnapshotPolicy policy) {
+            this.policy = policy;
+            return this;
+        }
+
+        /**
+         * @param version The version of the aggregate class, snapshots taken with another version are ignored.
+         *                Default {@value Snapshotter#DEFAULT_VERSION}.
+         */
+        public Builder<T> version(String version) {
+            this.version = version;
+            return this;
+        }
+
+        public Snapshotter<T> build() {
+            return new Snapshotter<>(
+                    Utils.requireNonNull(aggregateClass, () -> new MubelConfigurationException("aggregateClass may not be null")),
+                    Utils.requireNonNull(snapshotStore, () -> new MubelConfigurationException("snapshotStore may not be null")),
+                    Utils.requireNonNull(codec, () -> new MubelConfigurationException("codec may not be null")),
+                    Utils.requireNonNull(policy, () -> new MubelConfigurationException("policy may not be null")),
+                    Utils.requireNonNull(version, () -> new MubelConfigurationException("version may not be null"))
+            );
+        }
+    }
+}
@@ -6,6 +6,7 @@ import io.mubel.api.grpc.v1.events.EventSelector;
 import io.mubel.api.grpc.v1.events.SubscribeRequest;
 import io.mubel.api.grpc.v1.groups.GroupStatus;
 import io.mubel.api.grpc.v1.groups.JoinGroupRequest;
+import io.mubel.client.ExceptionHandler;
 import io.mubel.client.MubelClient;
 import io.mubel.sdk.EventDataMapper;
 import io.mubel.sdk.EventMessage;
@@ -17,6 +18,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.ArrayList;
@@ -34,6 +36,8 @@ public class SubscriptionWorker {
     private final SubscriptionStateRepository stateRepository;
     private final TransactionAdapter transactionAdapter;
     private final EventDataMapper mapper;
+    private final Duration reconnectBackoff;
+    private final Duration maxReconnectBackoff;
 
     private final AtomicBoolean shouldRun = new AtomicBoolean(true);
     private Disposable subDisposable;
@@ -48,6 +52,8 @@ public class SubscriptionWorker {
         this.stateRepository = b.stateRepository;
         this.transactionAdapter = b.transactionAdapter;
         this.mapper = b.eventDataMapper;
+        this.reconnectBackoff = b.reconnectBackoff;
+        this.maxReconnectBackoff = b.maxReconnectBackoff;
     }
 
     public <T> void start(SubscriptionConfig<T> config) throws InterruptedException {
@@ -55,18 +61,27 @@ public class SubscriptionWorker {
         final var state = getSubscriptionState(config);
         final var stateRef = new AtomicReference<>(state);
         final var consumer = config.consumer();
-        this.subDisposable = start(config, state.sequenceNumber())
+        this.subDisposable = Flux.defer(() -> start(config, stateRef.get().sequenceNumber()))
                 .bufferTimeout(config.batchSize(), Duration.ofMillis(250))
-                .doOnSubscribe(sub -> LOG.info("Subscription worker: consumer group: {}, started from sequence number: {}", config.consumerGroup(), state.sequenceNumber()))
-                .doOnError(e -> LOG.error("Subscription worker: consumer group: {}, error", config.consumerGroup(), e))
-                .subscribe(batch -> {
+                .doOnSubscribe(sub -> LOG.info("Subscription worker: consumer group: {}, started from sequence number: {}", config.consumerGroup(), stateRef.get().sequenceNumber()))
+                .doOnNext(batch -> {
                     LOG.debug("Subscription worker: consumer group: {}, received batch of {} events", config.consumerGroup(), batch.size());
                     final var mappedMessages = map(config, batch);
                     transactionAdapter.execute(() -> {
                         consumer.accept(mappedMessages);
                         updateSubscriptionState(stateRef, mappedMessages);
                     });
-                });
+                })
+                // retried downstream of the consumer, so a reconnect resumes after the last consumed batch
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, reconnectBackoff)
+                        .maxBackoff(maxReconnectBackoff)
+                        .filter(ExceptionHandler::isTransient)
+                        .doBeforeRetry(signal -> LOG.warn("Subscription worker: consumer group: {}, connection lost, reconnecting: {}", config.consumerGroup(), signal.failure().toString())))
+                .subscribe(
+                        ignored -> {
+                        },
+                        e -> LOG.error("Subscription worker: consumer group: {}, error", config.consumerGroup(), e)
+                );
     }
 
     private <T> void waitForGroupLeadership(SubscriptionConfig<T> config) {
@@ -130,6 +145,8 @@ public class SubscriptionWorker {
         private EventDataMapper eventDataMapper;
         private SubscriptionStateRepository stateRepository;
         private TransactionAdapter transactionAdapter;
+        private Duration reconnectBackoff = Duration.ofMillis(500);
+        private Duration maxReconnectBackoff = Duration.ofSeconds(30);
 
         public Builder client(MubelClient client) {
             this.client = client;
@@ -165,10 +182,34 @@ public class SubscriptionWorker {
             return this;
         }
 
+        /**
+         * Initial delay before reconnecting after a lost connection, doubled for each attempt. Default 500 ms.
+         *
+         * @param reconnectBackoff
+         * @return this
+         */
+        public Builder reconnectBackoff(Duration reconnectBackoff) {
+            this.reconnectBackoff = reconnectBackoff;
+            return this;
+        }
+
+        /**
+         * Max delay between reconnect attempts. Default 30 seconds.
+         *
+         * @param maxReconnectBackoff
+         * @return this
+         */
+        public Builder maxReconnectBackoff(Duration maxReconnectBackoff) {
+            this.maxReconnectBackoff = maxReconnectBackoff;
+            return this;
+        }
+
         public SubscriptionWorker build() {
             Utils.requireNonNull(client, () -> new MubelConfigurationException("client may not be null"));
             Utils.requireNonNull(eventDataMapper, () -> new MubelConfigurationException("eventDataMapper may not be null"));
             Utils.requireNonNull(stateRepository, () -> new MubelConfigurationException("stateRepository may not be null"));
+            Utils.requireNonNull(reconnectBackoff, () -> new MubelConfigurationException("reconnectBackoff may not be null"));
+            Utils.requireNonNull(maxReconnectBackoff, () -> new MubelConfigurationException("maxReconnectBackoff may not be null"));
             transactionAdapter = Objects.requireNonNullElseGet(transactionAdapter, TransactionAdapter::noOpTransactionAdapter);
             return new SubscriptionWorker(this);
         }
@@ -1,5 +1,7 @@
 package io.mubel.sdk;
 
+import io.mubel.api.grpc.v1.events.EntityReference;
+import io.mubel.api.grpc.v1.events.Operation;
 import io.mubel.sdk.fixtures.TestEvents;
 import org.junit.jupiter.api.Test;
 
@@ -51,4 +53,21 @@ class EventNamingStrategyTest {
                 .isEqualTo("MyEventB");
     }
 
-}
\ No newline at end of file
+    @Test
+    void byProtoFullName() {
+        final var strategy = EventNamingStrategy.byProtoFullName(
+                EntityReference.class,
+                Operation.class
+        );
+
+        assertThat(strategy.nameFor(EntityReference.class))
+                .isEqualTo("mubel.v1.events.EntityReference");
+
+        assertThat(strategy.classFor("mubel.v1.events.Operation"))
+                .isEqualTo(Operation.class);
+
+        assertThat(strategy.nameFor(TestEvents.EventA.class))
+                .isNull();
+    }
+
+}
@@ -18,4 +18,15 @@ class EventTypeRegistryTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void knownEventClasses() {
+        final var registry = EventTypeRegistry.builder()
+                .withNamingStrategy(EventNamingStrategy.byClassSimpleName(TestEvents.class))
+                .build();
+        registry.getTypeNameForClass(TestEvents.EventA.class);
+
+        assertThat(registry.knownEventClasses())
+                .containsExactlyInAnyOrder(TestEvents.EventA.class, TestEvents.EventB.class);
+    }
+
+}
@@ -0,0 +1,131 @@
+package io.mubel.sdk.codec;
+
+import com.google.protobuf.ByteString;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class CompressingEventDataCodecTest {
+
+    record Event(String value) {
+    }
+
+    final JacksonJsonEventDataCodec jsonCodec = new JacksonJsonEventDataCodec();
+    final SimpleCompressionMetrics metrics = new SimpleCompressionMetrics();
+    final CompressingEventDataCodec codec = CompressingEventDataCodec.builder()
+            .delegate(jsonCodec)
+            .threshold(100)
+            .metrics(metrics)
+            .build();
+    final Event large = new Event("a value ".repeat(100));
+    final Event small = new Event("a value");
+
+    @Test
+    void Payloads_above_the_threshold_are_compressed() {
+        final var encoded = codec.encode(large);
+
+        assertThat(encoded[0]).isEqualTo(CompressingEventDataCodec.MARKER);
+        assertThat(encoded.length).isLessThan(jsonCodec.encode(large).length);
+        assertThat(codec.encodeToByteString(large).toByteArray()).isEqualTo(encoded);
+        assertThat(metrics.compressedPayloads()).isEqualTo(2);
+        assertThat(metrics.compressionRatio()).isGreaterThan(10);
+    }
+
+    @Test
+    void Payloads_below_the_threshold_are_stored_as_is() {
+        assertThat(codec.encode(small)).isEqualTo(jsonCodec.encode(small));
+        assertThat(metrics.uncompressedPayloads()).isEqualTo(1);
+        assertThat(metrics.compressionRatio()).isEqualTo(1.0);
+    }
+
+    @Test
+    void Decodes_compressed_and_uncompressed_payloads() {
+        for (var event : new Event[]{large, small}) {
+            final var encoded = codec.encode(event);
+            final var legacy = jsonCodec.encode(event);
+            assertThat(codec.decode(encoded, Event.class)).isEqualTo(event);
+            assertThat(codec.decode(legacy, Event.class)).isEqualTo(event);
+            assertThat(codec.decode(concat(encoded), Event.class)).isEqualTo(event);
+            assertThat(codec.decode(new ByteArrayInputStream(encoded), Event.class)).isEqualTo(event);
+            assertThat(codec.decode(new ByteArrayInputStream(legacy), Event.class)).isEqualTo(event);
+            assertThat(codec.decode(offsetBuffer(encoded), Event.class)).isEqualTo(event);
+            assertThat(codec.decode(ByteBuffer.allocateDirect(encoded.length).put(encoded).flip(), Event.class))
+                    .isEqualTo(event);
+        }
+    }
+
+    @Test
+    void Payloads_of_another_algorithm_are_read_with_its_decompressor() {
+        final var fast = CompressionAlgorithm.deflate(1);
+        final var oldCodec = CompressingEventDataCodec.builder()
+                .delegate(jsonCodec)
+                .algorithm(new RenamedAlgorithm((byte) 7, fast))
+                .threshold(0)
+                .build();
+        final var encoded = oldCodec.encode(large);
+
+        assertThatThrownBy(() -> codec.decode(encoded, Event.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown compression algorithm: 7");
+        final var newCodec = CompressingEventDataCodec.builder()
+                .delegate(jsonCodec)
+                .decompressor(new RenamedAlgorithm((byte) 7, fast))
+                .build();
+        assertThat(newCodec.decode(encoded, Event.class)).isEqualTo(large);
+    }
+
+    @Test
+    void Corrupt_payloads_are_rejected() {
+        final var encoded = codec.encode(large);
+
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, 4), Event.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Corrupt payload, compression header is truncated");
+        assertThatThrownBy(() -> codec.decode(Arrays.copyOf(encoded, encoded.length / 2), Event.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Corrupt payload");
+    }
+
+    @Test
+    void Invalid_configuration_is_rejected() {
+        assertThatThrownBy(() -> CompressingEventDataCodec.builder().build())
+                .isInstanceOf(MubelConfigurationException.class);
+        assertThatThrownBy(() -> CompressingEventDataCodec.builder().delegate(jsonCodec).threshold(-1).build())
+                .isInstanceOf(MubelConfigurationException.class);
+        assertThatThrownBy(() -> CompressionAlgorithm.deflate(10))
+                .isInstanceOf(MubelConfigurationException.class);
+    }
+
+    private static ByteString concat(byte[] bytes) {
+        final int half = bytes.length / 2;
+        return ByteString.copyFrom(bytes, 0, half).concat(ByteString.copyFrom(bytes, half, bytes.length - half));
+    }
+
+    private static ByteBuffer offsetBuffer(byte[] bytes) {
+        final var array = new byte[bytes.length + 3];
+        System.arraycopy(bytes, 0, array, 3, bytes.length);
+        return ByteBuffer.wrap(array, 3, bytes.length).slice();
+    }
+
+    record RenamedAlgorithm(byte id, CompressionAlgorithm algorithm) implements CompressionAlgorithm {
+
+        @Override
+        public int compress(byte[] input, byte[] output, int offset) {
+            return algorithm.compress(input, output, offset);
+        }
+
+        @Override
+        public byte[] decompress(ByteBuffer input, int uncompressedSize) {
+            return algorithm.decompress(input, uncompressedSize);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mubel.sdk.codec.ContentSniffingEventDataCodec.Format;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static com.google.protobuf.ByteString.copyFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ContentSniffingEventDataCodecTest {
+
+    record Event(String value) {
+    }
+
+    final JacksonJsonEventDataCodec jsonCodec = new JacksonJsonEventDataCodec();
+    final EventDataCodec headerCodec = new HeaderCodec(jsonCodec);
+    final ContentSniffingEventDataCodec codec = ContentSniffingEventDataCodec.withJsonFallback(
+            Format.SMILE,
+            headerCodec,
+            jsonCodec
+    );
+    final Event event = new Event("a value");
+
+    @Test
+    void Encodes_with_the_encoder() {
+        assertThat(codec.encode(event)).isEqualTo(headerCodec.encode(event));
+    }
+
+    @Test
+    void Decodes_each_format_with_its_decoder() {
+        final var encoded = codec.encode(event);
+        final var legacy = jsonCodec.encode(event);
+
+        assertThat(codec.decode(encoded, Event.class)).isEqualTo(event);
+        assertThat(codec.decode(legacy, Event.class)).isEqualTo(event);
+        assertThat(codec.decode(copyFrom(encoded), Event.class)).isEqualTo(event);
+        assertThat(codec.decode(copyFrom(legacy), Event.class)).isEqualTo(event);
+        assertThat(codec.decode(new ByteArrayInputStream(encoded), Event.class)).isEqualTo(event);
+        assertThat(codec.decode(new ByteArrayInputStream(legacy), Event.class)).isEqualTo(event);
+        assertThat(codec.decode(ByteBuffer.wrap(encoded), Event.class)).isEqualTo(event);
+        assertThat(codec.decode(ByteBuffer.wrap(legacy), Event.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Detects_formats_from_the_first_bytes() {
+        assertThat(Format.detect('{', '"', 'a')).isEqualTo(Format.JSON);
+        assertThat(Format.detect(' ', '[', ']')).isEqualTo(Format.JSON);
+        assertThat(Format.detect(-1, -1, -1)).isEqualTo(Format.JSON);
+        assertThat(Format.detect(':', ')', '\n')).isEqualTo(Format.SMILE);
+        assertThat(Format.detect(0xA1, 0x65, 0x76)).as("map of one entry").isEqualTo(Format.CBOR);
+        assertThat(Format.detect(0xBF, 0x65, 0x76)).as("indefinite length map").isEqualTo(Format.CBOR);
+        assertThat(Format.detect(0xD9, 0xD9, 0xF7)).as("self described CBOR").isEqualTo(Format.CBOR);
+    }
+
+    @Test
+    void Content_without_a_decoder_is_rejected() {
+        assertThatThrownBy(() -> codec.decode(new byte[]{(byte) 0xA1, 0x00}, Event.class))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("No decoder for CBOR content");
+    }
+
+    @Test
+    void An_encoder_is_required() {
+        assertThatThrownBy(() -> ContentSniffingEventDataCodec.builder()
+                .decoder(Format.JSON, jsonCodec)
+                .build()
+        ).isInstanceOf(MubelConfigurationException.class);
+    }
+
+    @Test
+    void Binary_codecs_require_a_mapper_of_their_format() {
+        assertThatThrownBy(() -> new JacksonSmileEventDataCodec(new ObjectMapper()))
+                .isInstanceOf(MubelConfigurationException.class)
+                .hasMessage("Expected a mapper for Smile, got JSON");
+        assertThatThrownBy(() -> new JacksonCborEventDataCodec(new ObjectMapper()))
+                .isInstanceOf(MubelConfigurationException.class)
+                .hasMessage("Expected a mapper for CBOR, got JSON");
+    }
+
+    @Test
+    void Binary_formats_are_detected_in_encoded_events() {
+        assertThat(sniff(new JacksonSmileEventDataCodec().encode(event))).isEqualTo(Format.SMILE);
+        assertThat(sniff(new JacksonCborEventDataCodec().encode(event))).isEqualTo(Format.CBOR);
+        assertThat(sniff(jsonCodec.encode(event))).isEqualTo(Format.JSON);
+    }
+
+    private static Format sniff(byte[] bytes) {
+        return Format.detect(bytes[0] & 0xFF, bytes[1] & 0xFF, bytes[2] & 0xFF);
+    }
+
+    /**
+     * Stands in for Smile, which is an optional dependency: JSON prefixed with the Smile header.
+     */
+    record HeaderCodec(EventDataCodec json) implements EventDataCodec {
+
+        static final byte[] HEADER = {':', ')', '\n'};
+
+        @Override
+        public byte[] encode(Object data) {
+            final var encoded = json.encode(data);
+            final var bytes = Arrays.copyOf(HEADER, HEADER.length + encoded.length);
+            System.arraycopy(encoded, 0, bytes, HEADER.length, encoded.length);
+            return bytes;
+        }
+
+        @Override
+        public <T> T decode(byte[] bytes, Class<T> klass) {
+            assertThat(Arrays.copyOf(bytes, HEADER.length)).isEqualTo(HEADER);
+            return json.decode(Arrays.copyOfRange(bytes, HEADER.length, bytes.length), klass);
+        }
+    }
+}
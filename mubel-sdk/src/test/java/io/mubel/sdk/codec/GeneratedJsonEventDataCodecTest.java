@@ -0,0 +1,123 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class GeneratedJsonEventDataCodecTest {
+
+    record Point(int x, int y) {
+    }
+
+    record Label(String text) {
+    }
+
+    final GeneratedJsonEventDataCodec codec = new GeneratedJsonEventDataCodec();
+    final Point point = new Point(1, 2);
+
+    @Test
+    void Uses_the_registered_codec_of_a_class() {
+        assertThat(codec.hasGeneratedCodec(Point.class)).isTrue();
+        final var encoded = codec.encode(point);
+
+        assertThat(new String(encoded, StandardCharsets.UTF_8)).isEqualTo("{\"x\":1,\"y\":2,\"generated\":true}");
+        assertThat(codec.decode(encoded, Point.class)).isEqualTo(point);
+        assertThat(codec.decode(new ByteArrayInputStream(encoded), Point.class)).isEqualTo(point);
+        assertThat(codec.decode(ByteBuffer.wrap(encoded), Point.class)).isEqualTo(point);
+    }
+
+    @Test
+    void Classes_without_a_codec_are_mapped_by_databind() {
+        final var label = new Label("a label");
+
+        assertThat(codec.hasGeneratedCodec(Label.class)).isFalse();
+        assertThat(codec.encode(label)).isEqualTo(new JacksonJsonEventDataCodec().encode(label));
+        assertThat(codec.decode(codec.encode(label), Label.class)).isEqualTo(label);
+    }
+
+    @Test
+    void Codecs_are_not_used_when_the_mapper_renames_properties() {
+        final var mapper = new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.UPPER_CAMEL_CASE);
+        final var renaming = new GeneratedJsonEventDataCodec(mapper);
+
+        assertThat(renaming.hasGeneratedCodec(Point.class)).isFalse();
+        assertThat(new String(renaming.encode(point), StandardCharsets.UTF_8)).isEqualTo("{\"X\":1,\"Y\":2}");
+    }
+
+    @Test
+    void Codecs_are_not_used_when_the_mapper_fails_on_unknown_properties() {
+        final var strict = new GeneratedJsonEventDataCodec(new ObjectMapper());
+
+        assertThat(strict.hasGeneratedCodec(Point.class)).isFalse();
+    }
+
+    @Test
+    void Codecs_are_not_used_for_classes_with_a_module_serializer() {
+        final var module = new SimpleModule().addSerializer(Point.class, new JsonSerializer<>() {
+            @Override
+            public void serialize(Point value, JsonGenerator generator, SerializerProvider serializers) throws IOException {
+                generator.writeString(value.x() + "," + value.y());
+            }
+        });
+        final var mapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .registerModule(module);
+        final var custom = new GeneratedJsonEventDataCodec(mapper);
+
+        assertThat(custom.hasGeneratedCodec(Point.class)).isFalse();
+        assertThat(new String(custom.encode(point), StandardCharsets.UTF_8)).isEqualTo("\"1,2\"");
+    }
+
+    /**
+     * Written the way the annotation processor generates codecs, with an extra property to tell its output apart.
+     */
+    public static final class PointCodec implements JsonEventCodec<Point> {
+
+        @Override
+        public Class<Point> eventClass() {
+            return Point.class;
+        }
+
+        @Override
+        public void write(JsonGenerator generator, Point event) throws IOException {
+            generator.writeStartObject();
+            generator.writeNumberField("x", event.x());
+            generator.writeNumberField("y", event.y());
+            generator.writeBooleanField("generated", true);
+            generator.writeEndObject();
+        }
+
+        @Override
+        public Point read(JsonParser parser) throws IOException {
+            int x = 0;
+            int y = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var name = parser.currentName();
+                parser.nextToken();
+                switch (name) {
+                    case "x" -> x = parser.getValueAsInt();
+                    case "y" -> y = parser.getValueAsInt();
+                    default -> parser.skipChildren();
+                }
+            }
+            return new Point(x, y);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.mubel.sdk.codec.ContentSniffingEventDataCodec.Format;
+import io.mubel.sdk.fixtures.TestEvents;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static com.google.protobuf.ByteString.copyFrom;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class JacksonCborEventDataCodecTest {
+
+    final JacksonCborEventDataCodec codec = new JacksonCborEventDataCodec();
+    final TestEvents.EventA event = new TestEvents.EventA("a value", 1);
+
+    @Test
+    void Encoded_events_are_decoded() {
+        final var encoded = codec.encode(event);
+
+        assertThat(codec.formatName()).isEqualTo("CBOR");
+        assertThat(codec.decode(encoded, TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(codec.decode(copyFrom(encoded), TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(codec.decode(new ByteArrayInputStream(encoded), TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(codec.decode(ByteBuffer.wrap(encoded), TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Prewarmed_classes_are_encoded_and_decoded() {
+        codec.prewarm(List.of(TestEvents.class, TestEvents.EventA.class, TestEvents.EventB.class));
+        assertThat(codec.decode(codec.encode(event), TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Codec_from_a_json_mapper_keeps_its_configuration() {
+        final var jsonMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        final var fromJson = JacksonCborEventDataCodec.from(jsonMapper);
+
+        assertThat(fromJson.formatName()).isEqualTo("CBOR");
+        assertThat(fromJson.mapper().isEnabled(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)).isFalse();
+        assertThat(fromJson.decode(fromJson.encode(event), TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Json_events_are_read_with_the_json_fallback() {
+        final var jsonCodec = new JacksonJsonEventDataCodec();
+        final var sniffing = ContentSniffingEventDataCodec.withJsonFallback(Format.CBOR, codec, jsonCodec);
+        final var legacy = jsonCodec.encode(event);
+
+        assertThat(sniffing.encode(event)).isEqualTo(codec.encode(event));
+        assertThat(sniffing.decode(sniffing.encode(event), TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(sniffing.decode(legacy, TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(new String(legacy, StandardCharsets.UTF_8)).startsWith("{");
+    }
+}
@@ -0,0 +1,63 @@
+package io.mubel.sdk.codec;
+
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.google.protobuf.ByteString;
+import io.mubel.sdk.fixtures.TestEvents;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class JacksonJsonEventDataCodecTest {
+
+    final JacksonJsonEventDataCodec codec = new JacksonJsonEventDataCodec();
+    final TestEvents.EventA event = new TestEvents.EventA("a value", 1);
+
+    @Test
+    void Decodes_from_a_byte_string() {
+        ByteString encoded = codec.encodeToByteString(event);
+        assertThat(encoded.toByteArray()).isEqualTo(codec.encode(event));
+        assertThat(codec.decode(encoded, TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_from_a_byte_string_concatenation() {
+        var bytes = codec.encode(event);
+        var concat = ByteString.copyFrom(bytes, 0, 5).concat(ByteString.copyFrom(bytes, 5, bytes.length - 5));
+        assertThat(codec.decode(concat, TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_from_an_input_stream() {
+        var input = new ByteArrayInputStream(codec.encode(event));
+        assertThat(codec.decode(input, TestEvents.EventA.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_the_remaining_bytes_of_a_buffer() {
+        var bytes = codec.encode(event);
+        var heap = ByteBuffer.allocate(bytes.length + 4).position(2).put(bytes).flip().position(2);
+        assertThat(codec.decode(heap, TestEvents.EventA.class)).isEqualTo(event);
+
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertThat(codec.decode(direct, TestEvents.EventA.class)).isEqualTo(event);
+        assertThat(direct.remaining()).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void Default_mapper_registers_blackbird() {
+        assertThat(codec.mapper().getRegisteredModuleIds()).contains(new BlackbirdModule().getTypeId());
+    }
+
+    @Test
+    void Prewarmed_classes_are_encoded_and_decoded() {
+        codec.prewarm(List.of(TestEvents.class, TestEvents.EventA.class, TestEvents.EventB.class));
+        assertThat(codec.decode(codec.encode(event), TestEvents.EventA.class)).isEqualTo(event);
+    }
+}
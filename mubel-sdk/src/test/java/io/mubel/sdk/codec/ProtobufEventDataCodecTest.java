@@ -0,0 +1,62 @@
+package io.mubel.sdk.codec;
+
+import com.google.protobuf.ByteString;
+import io.mubel.api.grpc.v1.events.EntityReference;
+import io.mubel.sdk.fixtures.TestEvents;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class ProtobufEventDataCodecTest {
+
+    final ProtobufEventDataCodec codec = new ProtobufEventDataCodec();
+    final EntityReference event = EntityReference.newBuilder()
+            .setId("an id")
+            .setType("a type")
+            .build();
+
+    @Test
+    void Decodes_from_a_byte_array() {
+        assertThat(codec.decode(codec.encode(event), EntityReference.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_from_a_byte_string_concatenation() {
+        ByteString encoded = codec.encodeToByteString(event);
+        assertThat(encoded.toByteArray()).isEqualTo(codec.encode(event));
+        var concat = encoded.substring(0, 5).concat(encoded.substring(5));
+        assertThat(codec.decode(concat, EntityReference.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_from_an_input_stream() {
+        var input = new ByteArrayInputStream(codec.encode(event));
+        assertThat(codec.decode(input, EntityReference.class)).isEqualTo(event);
+    }
+
+    @Test
+    void Decodes_the_remaining_bytes_of_a_buffer() {
+        var bytes = codec.encode(event);
+        var heap = ByteBuffer.allocate(bytes.length + 4).position(2).put(bytes).flip().position(2);
+        assertThat(codec.decode(heap, EntityReference.class)).isEqualTo(event);
+
+        var direct = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        assertThat(codec.decode(direct, EntityReference.class)).isEqualTo(event);
+        assertThat(direct.remaining()).isEqualTo(bytes.length);
+    }
+
+    @Test
+    void Only_protobuf_messages_are_supported() {
+        assertThatThrownBy(() -> codec.encode(new TestEvents.EventA("a value", 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> codec.decode(new byte[0], TestEvents.EventA.class))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
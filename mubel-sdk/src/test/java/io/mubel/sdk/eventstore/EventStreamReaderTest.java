@@ -0,0 +1,132 @@
+package io.mubel.sdk.eventstore;
+
+import io.grpc.Status;
+import io.mubel.api.grpc.v1.events.EventData;
+import io.mubel.api.grpc.v1.events.GetEventsRequest;
+import io.mubel.api.grpc.v1.events.GetEventsResponse;
+import io.mubel.client.MubelClient;
+import io.mubel.client.exceptions.BadRequestException;
+import io.mubel.client.exceptions.MubelClientException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class EventStreamReaderTest {
+
+    static final String ESID = "esid";
+    static final String STREAM_ID = "stream";
+
+    final MubelClient client = mock(MubelClient.class);
+    final List<EventData> events = IntStream.range(0, 25)
+            .mapToObj(i -> EventData.newBuilder()
+                    .setStreamId(STREAM_ID)
+                    .setRevision(i)
+                    .setSequenceNo(i + 1)
+                    .build())
+            .toList();
+    final List<GetEventsRequest> requests = new CopyOnWriteArrayList<>();
+    final AtomicInteger failuresLeft = new AtomicInteger();
+    RuntimeException failure;
+    int serverPageLimit = Integer.MAX_VALUE;
+
+    final EventStreamReader reader = EventStreamReader.builder()
+            .eventStoreId(ESID)
+            .client(client)
+            .pageSize(10)
+            .retryBackoff(Duration.ofMillis(1))
+            .build();
+
+    @BeforeEach
+    void setup() {
+        when(client.getEventsAsync(any())).thenAnswer(invocation -> respond(invocation.getArgument(0)));
+    }
+
+    @Test
+    void stream_is_read_in_pages() {
+        assertThat(reader.stream(STREAM_ID, 0).collectList().block())
+                .containsExactlyElementsOf(events);
+        assertThat(requests)
+                .extracting(r -> r.getSelector().getStream().getFromRevision())
+                .containsExactly(0, 10, 20, 25);
+        assertThat(requests).allSatisfy(r -> assertThat(r.getSize()).isEqualTo(10));
+    }
+
+    @Test
+    void pages_capped_by_the_server_do_not_end_the_read() {
+        serverPageLimit = 4;
+
+        assertThat(reader.stream(STREAM_ID, 0).collectList().block())
+                .containsExactlyElementsOf(events);
+        assertThat(requests)
+                .extracting(r -> r.getSelector().getStream().getFromRevision())
+                .containsExactly(0, 4, 8, 12, 16, 20, 24, 25);
+    }
+
+    @Test
+    void all_is_read_in_pages_after_sequence_number() {
+        assertThat(reader.all(5).collectList().block())
+                .containsExactlyElementsOf(events.subList(5, 25));
+        assertThat(requests)
+                .extracting(r -> r.getSelector().getAll().getFromSequenceNo())
+                .containsExactly(5L, 15L, 25L);
+    }
+
+    @Test
+    void transient_failure_resumes_from_last_revision() {
+        failuresLeft.set(2);
+        failure = new MubelClientException(Status.UNAVAILABLE.asRuntimeException());
+
+        assertThat(reader.stream(STREAM_ID, 0).collectList().block())
+                .containsExactlyElementsOf(events);
+        assertThat(requests)
+                .extracting(r -> r.getSelector().getStream().getFromRevision())
+                .containsExactly(0, 10, 10, 10, 20, 25);
+    }
+
+    @Test
+    void other_failures_are_not_retried() {
+        failuresLeft.set(1);
+        failure = new BadRequestException("bad request");
+
+        assertThatThrownBy(() -> reader.stream(STREAM_ID, 0).collectList().block())
+                .isInstanceOf(BadRequestException.class);
+        assertThat(requests).hasSize(2);
+    }
+
+    private CompletableFuture<GetEventsResponse> respond(GetEventsRequest request) {
+        requests.add(request);
+        final var selector = request.getSelector();
+        final var page = new ArrayList<EventData>();
+        for (var event : events) {
+            final boolean include = selector.hasStream()
+                    ? event.getRevision() >= selector.getStream().getFromRevision()
+                    : event.getSequenceNo() > selector.getAll().getFromSequenceNo();
+            if (include && page.size() < Math.min(request.getSize(), serverPageLimit)) {
+                page.add(event);
+            }
+        }
+        if (requests.size() > 1 && failuresLeft.getAndDecrement() > 0) {
+            return CompletableFuture.failedFuture(failure);
+        }
+        return CompletableFuture.completedFuture(GetEventsResponse.newBuilder()
+                .addAllEvent(page)
+                .setSize(page.size())
+                .build());
+    }
+}
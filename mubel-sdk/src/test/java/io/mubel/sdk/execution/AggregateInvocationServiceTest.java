@@ -2,8 +2,10 @@ package io.mubel.sdk.execution;
 
 import com.google.protobuf.ByteString;
 import io.mubel.api.grpc.v1.events.EventData;
+import io.mubel.api.grpc.v1.events.EventDataInput;
 import io.mubel.api.grpc.v1.events.ExecuteRequestOrBuilder;
 import io.mubel.client.exceptions.MubelClientException;
+import io.mubel.client.exceptions.RevisionConflictException;
 import io.mubel.sdk.EventDataMapper;
 import io.mubel.sdk.EventNamingStrategy;
 import io.mubel.sdk.EventTypeRegistry;
@@ -11,28 +13,44 @@ import io.mubel.sdk.IdGenerator;
 import io.mubel.sdk.codec.JacksonJsonEventDataCodec;
 import io.mubel.sdk.eventstore.EventStore;
 import io.mubel.sdk.exceptions.EventStreamNotFoundException;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
 import io.mubel.sdk.exceptions.MubelExecutionException;
 import io.mubel.sdk.fixtures.TestAggregate;
 import io.mubel.sdk.fixtures.TestCommands;
 import io.mubel.sdk.fixtures.TestEvents;
 import io.mubel.sdk.scheduled.ExpiredDeadline;
+import io.mubel.sdk.snapshot.Snapshot;
+import io.mubel.sdk.snapshot.SnapshotPolicy;
+import io.mubel.sdk.snapshot.SnapshotStore;
+import io.mubel.sdk.snapshot.Snapshotter;
 import org.assertj.core.api.AbstractIntegerAssert;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import reactor.core.publisher.Flux;
 
 import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
 import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -42,6 +60,9 @@ class AggregateInvocationServiceTest {
     @Mock
     EventStore eventStore;
 
+    @Mock
+    SnapshotStore snapshotStore;
+
     EventDataMapper eventDataMapper = new EventDataMapper(
             new JacksonJsonEventDataCodec(),
             EventTypeRegistry.builder()
@@ -81,6 +102,45 @@ class AggregateInvocationServiceTest {
         verify(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
     }
 
+    @Test
+    void submitAsync() {
+        setupExistingStream();
+        when(eventStore.executeAsync(ArgumentMatchers.any(ExecuteRequestOrBuilder.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        final var service = getService();
+
+        final var result = service.submitAsync(UUID.randomUUID(), new TestCommands.CommandA("value")).block();
+
+        assertThat(result.newEventCount()).isEqualTo(1);
+        assertThat(result.oldVersion()).isEqualTo(0);
+        assertThat(result.newVersion()).isEqualTo(1);
+        verify(eventStore, never()).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void submitAsync_fails() {
+        setupFailingStream();
+        final var service = getService();
+        final var result = service.submitAsync(UUID.randomUUID(), new TestCommands.CommandA("value"));
+        assertThatThrownBy(result::block)
+                .isInstanceOf(MubelExecutionException.class);
+        verify(eventStore, never()).executeAsync(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void submitAsyncDoesNotCacheWhenAppendFails() {
+        final var existing = setupExistingStream();
+        when(eventStore.executeAsync(ArgumentMatchers.any(ExecuteRequestOrBuilder.class)))
+                .thenReturn(CompletableFuture.failedFuture(new MubelClientException("revision conflict")));
+        final var cache = AggregateCache.<TestAggregate>lru(10);
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.aggregateCache(cache));
+
+        final var result = service.submitAsync(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value"));
+
+        assertThatThrownBy(result::block).isInstanceOf(MubelClientException.class);
+        assertThat(cache.size()).isZero();
+    }
+
     @Test
     void getState() {
         final var existing = setupExistingStream();
@@ -152,6 +212,394 @@ class AggregateInvocationServiceTest {
                 .isInstanceOf(MubelExecutionException.class);
     }
 
+    @Test
+    void cachedAggregateOnlyReadsNewEvents() {
+        final var existing = setupExistingStream();
+        final var streamId = UUID.fromString(existing.getStreamId());
+        final var cache = AggregateCache.<TestAggregate>lru(10);
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.aggregateCache(cache));
+        service.submit(streamId, new TestCommands.CommandA("value"));
+        assertThat(cache.size()).isEqualTo(1);
+
+        when(eventStore.getAsync(streamId.toString(), 2)).thenReturn(Flux.empty());
+        final var result = service.submit(streamId, new TestCommands.CommandA("value"));
+        assertThat(result.oldVersion()).isEqualTo(1);
+        assertThat(result.newVersion()).isEqualTo(2);
+        verify(eventStore, times(1)).getAsync(streamId.toString());
+        verify(eventStore).getAsync(streamId.toString(), 2);
+    }
+
+    @Test
+    void findStateLeavesTheCachedAggregate() {
+        final var existing = setupExistingStream();
+        final var streamId = UUID.fromString(existing.getStreamId());
+        final var cache = AggregateCache.<TestAggregate>lru(10);
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.aggregateCache(cache));
+        service.submit(streamId, new TestCommands.CommandA("value"));
+
+        assertThat(service.findState(streamId)).isPresent();
+        assertThat(cache.size()).isEqualTo(1);
+        verify(eventStore, times(2)).getAsync(streamId.toString());
+
+        when(eventStore.getAsync(streamId.toString(), 2)).thenReturn(Flux.empty());
+        service.submit(streamId, new TestCommands.CommandA("value"));
+        verify(eventStore).getAsync(streamId.toString(), 2);
+    }
+
+    @Test
+    void aggregateIsNotCachedWhenAppendFails() {
+        final var existing = setupExistingStream();
+        final var cache = AggregateCache.<TestAggregate>lru(10);
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.aggregateCache(cache));
+        doThrow(new MubelClientException("revision conflict"))
+                .when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        assertThatThrownBy(() -> service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value")))
+                .isInstanceOf(MubelClientException.class);
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void streamLocksSerializeCommandsOnTheSameStream() throws Exception {
+        final var streamId = UUID.randomUUID();
+        setupNonExistingStream();
+        when(eventStore.getAsync(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt())).thenReturn(Flux.empty());
+        final var service = new TestAggregateInvocationService(
+                eventStore,
+                eventDataMapper,
+                builder -> builder
+                        .aggregateCache(AggregateCache.lru(10))
+                        .streamLocks(StreamLocks.striped(4))
+        );
+        final int threads = 4;
+        final int commandsPerThread = 25;
+
+        final var versions = new ConcurrentLinkedQueue<Integer>();
+        try (var executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                executor.submit(() -> {
+                    for (int j = 0; j < commandsPerThread; j++) {
+                        versions.add(service.submit(streamId, new TestCommands.CommandA("value")).newVersion());
+                    }
+                });
+            }
+        }
+
+        assertThat(versions)
+                .as("every command continues from the version the previous one appended")
+                .containsExactlyInAnyOrderElementsOf(IntStream.range(0, threads * commandsPerThread).boxed().toList());
+        verify(eventStore, times(1)).getAsync(streamId.toString());
+    }
+
+    @Test
+    void revisionConflictIsRetriedOnRehydratedAggregate() {
+        final var existing = setupExistingStream();
+        doThrow(new RevisionConflictException("conflict"))
+                .doNothing()
+                .when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getRetryingService(RetryPolicy.builder().initialBackoff(Duration.ZERO).build());
+
+        final var result = service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value"));
+
+        assertThat(result.newVersion()).isEqualTo(1);
+        verify(eventStore, times(2)).getAsync(existing.getStreamId());
+        verify(eventStore, times(2)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void revisionConflictRetryCanReadOnlyTheTail() {
+        final var existing = setupExistingStream();
+        final var appended = EventData.newBuilder(existing)
+                .setRevision(1)
+                .setData(eventData(5))
+                .build();
+        when(eventStore.getAsync(existing.getStreamId(), 1)).thenReturn(Flux.just(appended));
+        doThrow(new RevisionConflictException("conflict"))
+                .doNothing()
+                .when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getRetryingService(RetryPolicy.builder()
+                .initialBackoff(Duration.ZERO)
+                .readTailOnly(true)
+                .build());
+
+        final var result = service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value"));
+
+        assertThat(result.oldVersion()).isEqualTo(1);
+        assertThat(result.newVersion()).isEqualTo(2);
+        assertThat(result.newEvents()).containsExactly(new TestEvents.EventA("value", 6));
+        verify(eventStore, times(1)).getAsync(existing.getStreamId());
+    }
+
+    @Test
+    void revisionConflictIsThrownWhenAttemptsAreExhausted() {
+        final var existing = setupExistingStream();
+        doThrow(new RevisionConflictException("conflict"))
+                .when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getRetryingService(RetryPolicy.builder()
+                .maxAttempts(2)
+                .initialBackoff(Duration.ZERO)
+                .build());
+
+        assertThatThrownBy(() -> service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value")))
+                .isInstanceOf(RevisionConflictException.class);
+        verify(eventStore, times(2)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void otherAppendFailuresAreNotRetried() {
+        final var existing = setupExistingStream();
+        doThrow(new MubelClientException("boom"))
+                .when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getRetryingService(RetryPolicy.builder().initialBackoff(Duration.ZERO).build());
+
+        assertThatThrownBy(() -> service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value")))
+                .isInstanceOf(MubelClientException.class);
+        verify(eventStore, times(1)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    private TestAggregateInvocationService getRetryingService(RetryPolicy retryPolicy) {
+        return new TestAggregateInvocationService(
+                eventStore,
+                eventDataMapper,
+                builder -> builder.retryPolicy(retryPolicy)
+        );
+    }
+
+    @Test
+    void idempotencyKeyIsSentAsRequestIdAndRepeatedKeyReturnsOriginalResult() {
+        final var existing = setupExistingStream();
+        final var streamId = UUID.fromString(existing.getStreamId());
+        final var cache = AggregateCache.<TestAggregate>lru(10);
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.aggregateCache(cache));
+
+        final var result = service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+        final var repeated = service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+
+        assertThat(repeated).isSameAs(result);
+        final var captor = ArgumentCaptor.forClass(ExecuteRequestOrBuilder.class);
+        verify(eventStore, times(1)).execute(captor.capture());
+        assertThat(captor.getValue().getRequestId()).isEqualTo("key-1");
+        verify(eventStore, times(1)).getAsync(existing.getStreamId());
+        assertThat(cache.size())
+                .as("the event store may have ignored the events of a keyed submission")
+                .isZero();
+    }
+
+    @Test
+    void repeatedKeyAfterUnknownOutcomeResendsTheSameRequest() {
+        final var existing = setupExistingStream();
+        final var streamId = UUID.fromString(existing.getStreamId());
+        final var timeout = new MubelClientException("deadline exceeded");
+        doThrow(timeout).doNothing().when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getService();
+
+        assertThatThrownBy(() -> service.submit(streamId, new TestCommands.CommandA("value"), "key-1")).isSameAs(timeout);
+        final var result = service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+
+        assertThat(result.newVersion()).isEqualTo(1);
+        final var captor = ArgumentCaptor.forClass(ExecuteRequestOrBuilder.class);
+        verify(eventStore, times(2)).execute(captor.capture());
+        assertThat(captor.getAllValues().get(1)).isEqualTo(captor.getAllValues().get(0));
+        verify(eventStore, times(1)).getAsync(existing.getStreamId());
+    }
+
+    @Test
+    void repeatedKeyAfterRejectionExecutesTheCommandAgain() {
+        final var existing = setupExistingStream();
+        final var streamId = UUID.fromString(existing.getStreamId());
+        final var conflict = new RevisionConflictException("revision conflict");
+        doThrow(conflict).doNothing().when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getService();
+
+        assertThatThrownBy(() -> service.submit(streamId, new TestCommands.CommandA("value"), "key-1")).isSameAs(conflict);
+        service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+
+        verify(eventStore, times(2)).getAsync(existing.getStreamId());
+    }
+
+    @Test
+    void keysOutsideTheIdempotencyWindowAreForgotten() {
+        final var streamId = UUID.randomUUID();
+        setupNonExistingStream();
+        final var service = new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.idempotencyWindow(1));
+
+        service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+        service.submit(streamId, new TestCommands.CommandA("value"), "key-2");
+        service.submit(streamId, new TestCommands.CommandA("value"), "key-1");
+
+        verify(eventStore, times(3)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void idempotencyWindowMustBePositive() {
+        assertThatThrownBy(() -> new TestAggregateInvocationService(eventStore, eventDataMapper, builder -> builder.idempotencyWindow(0)))
+                .isInstanceOf(MubelConfigurationException.class);
+    }
+
+    @Test
+    void idempotencyKeyIsScopedByStream() {
+        setupNonExistingStream();
+        final var service = getService();
+
+        service.submit(UUID.randomUUID(), new TestCommands.CommandA("value"), "key-1");
+        service.submit(UUID.randomUUID(), new TestCommands.CommandA("value"), "key-1");
+
+        verify(eventStore, times(2)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void snapshotOnlyReplaysEventsAfterIt() {
+        final var streamId = UUID.randomUUID();
+        when(snapshotStore.find(streamId.toString()))
+                .thenReturn(Optional.of(new Snapshot(streamId.toString(), 4, Snapshotter.DEFAULT_VERSION, aggregateData(5))));
+        when(eventStore.getAsync(streamId.toString(), 5)).thenReturn(Flux.empty());
+        final var service = getSnapshottingService(SnapshotPolicy.never());
+
+        assertState(service.getState(streamId), 5);
+        verify(eventStore, never()).getAsync(streamId.toString());
+    }
+
+    @Test
+    void undecodableSnapshotIsIgnored() {
+        final var existing = setupExistingStream();
+        when(snapshotStore.find(existing.getStreamId()))
+                .thenReturn(Optional.of(new Snapshot(existing.getStreamId(), 4, Snapshotter.DEFAULT_VERSION, "not json".getBytes(StandardCharsets.UTF_8))));
+        final var service = getSnapshottingService(SnapshotPolicy.never());
+
+        assertState(service.getState(UUID.fromString(existing.getStreamId())));
+    }
+
+    @Test
+    void snapshotOfOtherAggregateVersionIsIgnored() {
+        final var existing = setupExistingStream();
+        when(snapshotStore.find(existing.getStreamId()))
+                .thenReturn(Optional.of(new Snapshot(existing.getStreamId(), 4, "0", aggregateData(5))));
+        final var service = getSnapshottingService(SnapshotPolicy.never());
+
+        assertState(service.getState(UUID.fromString(existing.getStreamId())));
+    }
+
+    @Test
+    void snapshotIsTakenWhenPolicySaysSo() {
+        final var existing = setupExistingStream();
+        when(snapshotStore.find(existing.getStreamId())).thenReturn(Optional.empty());
+        final var service = getSnapshottingService(SnapshotPolicy.everyNEvents(2));
+
+        service.submit(UUID.fromString(existing.getStreamId()), new TestCommands.CommandA("value"));
+
+        final var captor = ArgumentCaptor.forClass(Snapshot.class);
+        verify(snapshotStore).put(captor.capture());
+        assertThat(captor.getValue().version()).isEqualTo(1);
+        assertState(new JacksonJsonEventDataCodec().decode(captor.getValue().data(), TestAggregate.class), 2);
+    }
+
+    @Test
+    void submitAllReplaysEachStreamOnceAndExecutesOnce() {
+        final var streamA = UUID.randomUUID();
+        final var streamB = UUID.randomUUID();
+        setupNonExistingStream();
+        final var service = getService();
+
+        final var results = service.submitAll(List.of(
+                StreamCommand.of(streamA, new TestCommands.CommandA("a1")),
+                StreamCommand.of(streamB, new TestCommands.CommandB()),
+                StreamCommand.of(streamA, new TestCommands.CommandA("a2"))
+        ));
+
+        assertThat(results).allMatch(StreamCommandResult::isSuccess);
+        assertThat(results).extracting(StreamCommandResult::streamId).containsExactly(streamA, streamB, streamA);
+        assertThat(results.get(0).result().oldVersion()).isEqualTo(-1);
+        assertThat(results.get(0).result().newVersion()).isEqualTo(0);
+        assertThat(results.get(2).result().oldVersion()).isEqualTo(0);
+        assertThat(results.get(2).result().newVersion()).isEqualTo(1);
+        assertThat(results.get(2).result().newEvents())
+                .containsExactly(new TestEvents.EventA("a2", 2));
+        verify(eventStore).getAsync(streamA.toString());
+        verify(eventStore).getAsync(streamB.toString());
+
+        final var captor = ArgumentCaptor.forClass(ExecuteRequestOrBuilder.class);
+        verify(eventStore).execute(captor.capture());
+        assertThat(captor.getValue().getOperationList())
+                .as("one append operation per stream")
+                .hasSize(2)
+                .satisfiesExactly(
+                        op -> assertThat(op.getAppend().getEventList())
+                                .extracting(EventDataInput::getRevision)
+                                .containsExactly(0, 1),
+                        op -> assertThat(op.getAppend().getEventList())
+                                .extracting(EventDataInput::getStreamId)
+                                .containsExactly(streamB.toString())
+                );
+    }
+
+    @Test
+    void submitAllIsolatesFailingStreams() {
+        final var failingReplay = UUID.randomUUID();
+        final var failingAppend = UUID.randomUUID();
+        final var succeeding = UUID.randomUUID();
+        when(eventStore.getAsync(ArgumentMatchers.anyString())).thenReturn(Flux.empty());
+        when(eventStore.getAsync(failingReplay.toString())).thenReturn(Flux.error(new MubelClientException("some error")));
+        final var conflict = new RevisionConflictException("revision conflict");
+        doAnswer(invocation -> {
+            final ExecuteRequestOrBuilder request = invocation.getArgument(0);
+            if (request.getOperationList().stream()
+                    .anyMatch(op -> op.getAppend().getEvent(0).getStreamId().equals(failingAppend.toString()))) {
+                throw conflict;
+            }
+            return null;
+        }).when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getService();
+
+        final var results = service.submitAll(List.of(
+                StreamCommand.of(failingReplay, new TestCommands.CommandA("value")),
+                StreamCommand.of(failingAppend, new TestCommands.CommandA("value")),
+                StreamCommand.of(succeeding, new TestCommands.CommandA("value")),
+                StreamCommand.of(failingAppend, new TestCommands.CommandB())
+        ));
+
+        assertThat(results.get(0).isSuccess()).isFalse();
+        assertThat(results.get(1).error()).isSameAs(conflict);
+        assertThat(results.get(3).error()).isSameAs(conflict);
+        assertThatThrownBy(() -> results.get(3).getOrThrow()).isSameAs(conflict);
+        assertThat(results.get(2).getOrThrow().newVersion()).isZero();
+        verify(eventStore, times(3)).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    @Test
+    void submitAllFailsAllStreamsOfARequestWithUnknownOutcome() {
+        final var streamA = UUID.randomUUID();
+        final var streamB = UUID.randomUUID();
+        setupNonExistingStream();
+        final var failure = new MubelClientException("connection lost");
+        doThrow(failure).when(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+        final var service = getService();
+
+        final var results = service.submitAll(List.of(
+                StreamCommand.of(streamA, new TestCommands.CommandA("a")),
+                StreamCommand.of(streamB, new TestCommands.CommandB())
+        ));
+
+        assertThat(results).extracting(StreamCommandResult::error).containsOnly(failure);
+        verify(eventStore).execute(ArgumentMatchers.any(ExecuteRequestOrBuilder.class));
+    }
+
+    private TestAggregateInvocationService getSnapshottingService(SnapshotPolicy policy) {
+        return new TestAggregateInvocationService(
+                eventStore,
+                eventDataMapper,
+                builder -> builder.snapshotter(Snapshotter.builder(TestAggregate.class)
+                        .snapshotStore(snapshotStore)
+                        .codec(new JacksonJsonEventDataCodec())
+                        .policy(policy)
+                        .build())
+        );
+    }
+
+    private static byte[] aggregateData(int processedEventCount) {
+        return """
+                {"processedEventCount": %d}
+                """.formatted(processedEventCount).getBytes(StandardCharsets.UTF_8);
+    }
+
     private static AbstractIntegerAssert<?> assertState(TestAggregate aggregate) {
         return assertState(aggregate, 1);
     }
@@ -1,5 +1,7 @@
 package io.mubel.sdk.execution;
 
+import io.mubel.sdk.annotation.DeadlineHandler;
+import io.mubel.sdk.exceptions.MubelConfigurationException;
 import io.mubel.sdk.exceptions.MubelException;
 import io.mubel.sdk.execution.internal.CommandExecutor;
 import io.mubel.sdk.fixtures.*;
@@ -97,6 +99,26 @@ class AutoAggregateInvocationConfigTest {
 
     }
 
+    @Test
+    void duplicateDeadlineHandlersShouldBeDetected() {
+        assertThatThrownBy(() -> AutoAggregateInvocationConfig.of(DuplicateDeadlinesAggregate.class))
+                .isInstanceOf(MubelConfigurationException.class)
+                .hasMessageStartingWith("Duplicate @DeadlineHandler methods for deadline 'expired'");
+    }
+
+    public static class DuplicateDeadlinesAggregate {
+
+        @DeadlineHandler("expired")
+        public List<TestEvents> onExpired() {
+            return List.of();
+        }
+
+        @DeadlineHandler("expired")
+        public List<TestEvents> onExpiredAgain() {
+            return List.of();
+        }
+    }
+
     @Test
     @Disabled("TODO: implement duplicate handler detection")
     void duplicateHandlersShouldBeDetected() {
@@ -0,0 +1,52 @@
+package io.mubel.sdk.execution;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class RetryPolicyTest {
+
+    @Test
+    void backoff_doubles_up_to_max() {
+        final var policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(10))
+                .maxBackoff(Duration.ofMillis(50))
+                .jitter(0)
+                .build();
+
+        assertThat(policy.backoff(1)).isEqualTo(Duration.ofMillis(10));
+        assertThat(policy.backoff(2)).isEqualTo(Duration.ofMillis(20));
+        assertThat(policy.backoff(3)).isEqualTo(Duration.ofMillis(40));
+        assertThat(policy.backoff(4)).isEqualTo(Duration.ofMillis(50));
+        assertThat(policy.backoff(100)).isEqualTo(Duration.ofMillis(50));
+    }
+
+    @Test
+    void jitter_only_shortens_backoff() {
+        final var policy = RetryPolicy.builder()
+                .initialBackoff(Duration.ofMillis(100))
+                .jitter(0.5)
+                .build();
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(policy.backoff(1)).isBetween(Duration.ofMillis(50), Duration.ofMillis(100));
+        }
+    }
+
+    @Test
+    void invalid_values_are_rejected() {
+        assertThatThrownBy(() -> RetryPolicy.builder().maxAttempts(0).build())
+                .isInstanceOf(MubelConfigurationException.class);
+        assertThatThrownBy(() -> RetryPolicy.builder().jitter(1.5).build())
+                .isInstanceOf(MubelConfigurationException.class);
+        assertThatThrownBy(() -> RetryPolicy.builder().initialBackoff(Duration.ofMillis(-1)).build())
+                .isInstanceOf(MubelConfigurationException.class);
+    }
+}
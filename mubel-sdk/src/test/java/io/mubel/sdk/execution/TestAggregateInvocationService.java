@@ -6,16 +6,27 @@ import io.mubel.sdk.fixtures.TestAggregate;
 import io.mubel.sdk.fixtures.TestCommands;
 import io.mubel.sdk.fixtures.TestEvents;
 
+import java.util.function.UnaryOperator;
+
 public class TestAggregateInvocationService extends AggregateInvocationService<TestAggregate, TestEvents, TestCommands> {
 
     public TestAggregateInvocationService(EventStore eventStore, EventDataMapper eventDataMapper) {
-        super(AggregateInvocationConfig.builder(
+        this(eventStore, eventDataMapper, UnaryOperator.identity());
+    }
+
+    public TestAggregateInvocationService(
+            EventStore eventStore,
+            EventDataMapper eventDataMapper,
+            UnaryOperator<Builder<TestAggregate, TestEvents, TestCommands>> customizer
+    ) {
+        super(customizer.apply(AggregateInvocationService.builder(
+                AggregateInvocationConfig.builder(
                         TestAggregate.class,
                         TestEvents.class,
                         TestCommands.class
                 ).build(),
                 eventStore,
                 eventDataMapper
-        );
+        )));
     }
 }
@@ -0,0 +1,78 @@
+package io.mubel.sdk.execution.internal;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import io.mubel.sdk.execution.AggregateCache;
+import io.mubel.sdk.execution.AggregateCache.CachedAggregate;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class StripedLruAggregateCacheTest {
+
+    @Test
+    void least_recently_used_aggregate_is_evicted() {
+        final var cache = new StripedLruAggregateCache<String>(2, 1);
+        cache.put("a", cached("a"));
+        cache.put("b", cached("b"));
+        cache.put("a", cache.take("a"));
+        cache.put("c", cached("c"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.take("b")).isNull();
+        assertThat(cache.take("a")).isEqualTo(cached("a"));
+        assertThat(cache.take("c")).isEqualTo(cached("c"));
+    }
+
+    @Test
+    void take_removes_the_aggregate() {
+        final var cache = new StripedLruAggregateCache<String>(10, 4);
+        cache.put("a", cached("a"));
+
+        assertThat(cache.take("a")).isEqualTo(cached("a"));
+        assertThat(cache.take("a")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void striped_cache_never_exceeds_max_size() {
+        final var cache = new StripedLruAggregateCache<String>(100, 16);
+        IntStream.range(0, 1000).mapToObj(String::valueOf).forEach(id -> cache.put(id, cached(id)));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        cache.clear();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void stripes_are_at_most_max_size() {
+        final var cache = new StripedLruAggregateCache<String>(3, 16);
+        IntStream.range(0, 100).mapToObj(String::valueOf).forEach(id -> cache.put(id, cached(id)));
+
+        assertThat(cache.size()).isBetween(1, 3);
+    }
+
+    @Test
+    void disabled_cache_holds_nothing() {
+        final var cache = AggregateCache.<String>disabled();
+        cache.put("a", cached("a"));
+
+        assertThat(cache.enabled()).isFalse();
+        assertThat(cache.take("a")).isNull();
+    }
+
+    @Test
+    void size_and_stripes_must_be_positive() {
+        assertThatThrownBy(() -> AggregateCache.lru(0)).isInstanceOf(MubelConfigurationException.class);
+        assertThatThrownBy(() -> AggregateCache.lru(10, 0)).isInstanceOf(MubelConfigurationException.class);
+    }
+
+    private static CachedAggregate<String> cached(String aggregate) {
+        return new CachedAggregate<>(aggregate, 1, -1);
+    }
+}
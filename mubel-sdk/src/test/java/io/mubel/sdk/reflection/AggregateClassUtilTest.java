@@ -1,11 +1,13 @@
 package io.mubel.sdk.reflection;
 
+import io.mubel.sdk.HandlerResult;
 import io.mubel.sdk.fixtures.*;
 import io.mubel.sdk.internal.reflection.AggregateClassUtil;
 import io.mubel.sdk.scheduled.ExpiredDeadline;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -146,4 +148,41 @@ class AggregateClassUtilTest {
         ).isEmpty();
     }
 
-}
\ No newline at end of file
+    @Test
+    void dispatchTableInvokesHandlers() {
+        final var table = AggregateClassUtil.dispatchTable(TestAggregate.class);
+        final var aggregate = (TestAggregate) table.newInstance();
+        table.eventHandler(TestEvents.EventA.class)
+                .function()
+                .accept(aggregate, new TestEvents.EventA("value", 3));
+        assertThat(aggregate.getProcessedEventCount()).isEqualTo(3);
+
+        assertThat(table.commandHandler(TestCommands.CommandA.class)
+                .function()
+                .apply(aggregate, new TestCommands.CommandA("value"))
+        ).isEqualTo(List.of(new TestEvents.EventA("value", 4)));
+
+        final var deadline = new ExpiredDeadline(UUID.randomUUID(), "named-deadline", Map.of(), Instant.now());
+        final var deadlineHandler = table.deadlineHandler(deadline.deadlineName());
+        assertThat(deadlineHandler.method().getName()).isEqualTo("onNamedDeadline");
+        assertThat(deadlineHandler.function().apply(aggregate, deadline)).isInstanceOf(HandlerResult.class);
+        assertThat(aggregate.getProcessedEventCount()).isEqualTo(5);
+    }
+
+    @Test
+    void dispatchTableResolvesHandlerForEventSubtype() {
+        final var table = AggregateClassUtil.dispatchTable(PrivateHandlersAggregate.class);
+        assertThat(table.eventHandler(TestEvents.EventB.class))
+                .isNotNull()
+                .satisfies(handler -> assertThat(handler.method().getName()).isEqualTo("apply"));
+    }
+
+    @Test
+    void dispatchTableHasNoHandler() {
+        final var table = AggregateClassUtil.dispatchTable(TestAggregate.class);
+        assertThat(table.eventHandler(String.class)).isNull();
+        assertThat(table.commandHandler(String.class)).isNull();
+        assertThat(AggregateClassUtil.dispatchTable(PrivateHandlersAggregate.class).deadlineHandler("any")).isNull();
+    }
+
+}
@@ -0,0 +1,78 @@
+package io.mubel.sdk.snapshot;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.JdbcDatabaseContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.nio.charset.StandardCharsets;
+
+import static io.mubel.sdk.testutils.DataSourceUtil.createPgDataSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Testcontainers
+class JdbcSnapshotStoreTest {
+
+    @Container
+    static final JdbcDatabaseContainer<?> dbContainer = new PostgreSQLContainer<>(DockerImageName.parse("postgres:latest"))
+            .withDatabaseName("mubel-sdk-test")
+            .withUsername("mubel")
+            .withPassword("mubel")
+            .withInitScript("aggregate_snapshot_pg_init.sql");
+
+    static JdbcSnapshotStore store;
+
+    @BeforeAll
+    static void setup() {
+        store = new JdbcSnapshotStore(createPgDataSource(dbContainer));
+    }
+
+    @Test
+    void snapshotDoesNotExist() {
+        assertThat(store.find("does_not_exist"))
+                .isEmpty();
+    }
+
+    @Test
+    void putAndFind() {
+        final var streamId = "stream-1";
+        store.put(snapshot(streamId, 3));
+        assertThat(store.find(streamId))
+                .hasValueSatisfying(snapshot -> assertSnapshot(snapshot, 3));
+        store.put(snapshot(streamId, 10));
+        assertThat(store.find(streamId))
+                .hasValueSatisfying(snapshot -> assertSnapshot(snapshot, 10));
+    }
+
+    @Test
+    void olderSnapshotDoesNotReplaceNewer() {
+        final var streamId = "stream-2";
+        store.put(snapshot(streamId, 10));
+        store.put(snapshot(streamId, 3));
+        store.put(snapshot(streamId, 10));
+        assertThat(store.find(streamId))
+                .hasValueSatisfying(snapshot -> assertSnapshot(snapshot, 10));
+    }
+
+    @Test
+    void snapshotWithOtherSchemaVersionReplacesStoredOne() {
+        final var streamId = "stream-3";
+        store.put(snapshot(streamId, 10));
+        store.put(new Snapshot(streamId, 10, "2", "state-10".getBytes(StandardCharsets.UTF_8)));
+        assertThat(store.find(streamId))
+                .hasValueSatisfying(snapshot -> assertThat(snapshot.schemaVersion()).isEqualTo("2"));
+    }
+
+    private static Snapshot snapshot(String streamId, int version) {
+        return new Snapshot(streamId, version, "1", ("state-" + version).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void assertSnapshot(Snapshot snapshot, int expectedVersion) {
+        assertThat(snapshot.version()).isEqualTo(expectedVersion);
+        assertThat(snapshot.schemaVersion()).isEqualTo("1");
+        assertThat(new String(snapshot.data(), StandardCharsets.UTF_8)).isEqualTo("state-" + expectedVersion);
+    }
+}
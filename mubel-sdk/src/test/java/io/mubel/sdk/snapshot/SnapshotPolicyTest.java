@@ -0,0 +1,47 @@
+package io.mubel.sdk.snapshot;
+
+import io.mubel.sdk.exceptions.MubelConfigurationException;
+import org.junit.jupiter.api.DisplayNameGeneration;
+import org.junit.jupiter.api.DisplayNameGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayNameGeneration(DisplayNameGenerator.ReplaceUnderscores.class)
+class SnapshotPolicyTest {
+
+    @Test
+    void every_n_events_is_due_after_n_events() {
+        final var policy = SnapshotPolicy.everyNEvents(100);
+        assertThat(policy.shouldTakeSnapshot(99, Duration.ZERO)).isFalse();
+        assertThat(policy.shouldTakeSnapshot(100, Duration.ZERO)).isTrue();
+    }
+
+    @Test
+    void replay_time_is_due_when_threshold_is_exceeded() {
+        final var policy = SnapshotPolicy.replayTimeExceeds(Duration.ofMillis(50));
+        assertThat(policy.shouldTakeSnapshot(1, Duration.ofMillis(50))).isFalse();
+        assertThat(policy.shouldTakeSnapshot(1, Duration.ofMillis(51))).isTrue();
+        assertThat(policy.shouldTakeSnapshot(0, Duration.ofSeconds(1)))
+                .as("nothing to snapshot without new events")
+                .isFalse();
+    }
+
+    @Test
+    void combined_policy_is_due_when_either_is_due() {
+        final var policy = SnapshotPolicy.everyNEvents(100)
+                .or(SnapshotPolicy.replayTimeExceeds(Duration.ofMillis(50)));
+        assertThat(policy.shouldTakeSnapshot(100, Duration.ZERO)).isTrue();
+        assertThat(policy.shouldTakeSnapshot(1, Duration.ofSeconds(1))).isTrue();
+        assertThat(policy.shouldTakeSnapshot(1, Duration.ZERO)).isFalse();
+    }
+
+    @Test
+    void event_count_must_be_positive() {
+        assertThatThrownBy(() -> SnapshotPolicy.everyNEvents(0))
+                .isInstanceOf(MubelConfigurationException.class);
+    }
+}
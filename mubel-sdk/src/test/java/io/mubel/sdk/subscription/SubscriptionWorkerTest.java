@@ -1,5 +1,6 @@
 package io.mubel.sdk.subscription;
 
+import io.grpc.Status;
 import io.mubel.api.grpc.v1.events.EventData;
 import io.mubel.api.grpc.v1.events.SubscribeRequest;
 import io.mubel.api.grpc.v1.groups.GroupStatus;
@@ -9,6 +10,7 @@ import io.mubel.sdk.fixtures.Fixtures;
 import io.mubel.sdk.fixtures.TestEvents;
 import org.awaitility.Awaitility;
 import org.junit.jupiter.api.*;
+import org.mockito.ArgumentCaptor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
@@ -45,6 +47,7 @@ class SubscriptionWorkerTest {
             .client(client)
             .stateRepository(repository)
             .eventDataMapper(TestComponents.eventDataMapper())
+            .reconnectBackoff(Duration.ofMillis(10))
             .build();
 
     ExecutorService executorService = Executors.newSingleThreadExecutor();
@@ -109,6 +112,25 @@ class SubscriptionWorkerTest {
         await().untilAsserted(() -> verify(client).subscribe(any()));
     }
 
+    @Test
+    void Reconnects_from_last_consumed_sequence_number_when_connection_is_lost() {
+        setupWithNoPreexistingState();
+        setupGroupLeader().tryEmitNext(consumerGroupStatus(true));
+        startWorker();
+        var ed = createEventData();
+        send(ed);
+        await().untilAsserted(() -> assertThat(eventConsumer.getEvents()).hasSize(1));
+
+        subscriptionSink.error(Status.UNAVAILABLE.asRuntimeException());
+
+        var requests = ArgumentCaptor.forClass(SubscribeRequest.class);
+        await().untilAsserted(() -> verify(client, times(2)).subscribe(requests.capture()));
+        assertThat(requests.getAllValues().getLast().getSelector().getAll().getFromSequenceNo())
+                .isEqualTo(ed.getSequenceNo());
+        subscriptionSink.next(createEventData());
+        await().untilAsserted(() -> assertThat(eventConsumer.getEvents()).hasSize(2));
+    }
+
     private Sinks.Many<GroupStatus> setupGroupLeader() {
         Sinks.Many<GroupStatus> sink = Sinks.many()
                 .unicast()
@@ -0,0 +1,7 @@
+CREATE TABLE IF NOT EXISTS aggregate_snapshot (
+    stream_id VARCHAR(255) NOT NULL,
+    version INT NOT NULL,
+    schema_version VARCHAR(64) NOT NULL,
+    data BYTEA NOT NULL,
+    PRIMARY KEY (stream_id)
+    );